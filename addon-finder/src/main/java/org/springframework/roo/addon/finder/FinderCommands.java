@@ -35,12 +35,14 @@ public class FinderCommands implements CommandMarker {
     @CliCommand(value = "finder add", help = "Install finders in the given target (must be an entity)")
     public void installFinders(
             @CliOption(key = "class", mandatory = false, unspecifiedDefaultValue = "*", optionContext = UPDATE_PROJECT, help = "The controller or entity for which the finders are generated") final JavaType typeName,
-            @CliOption(key = { "finderName", "" }, mandatory = true, help = "The finder string as generated with the 'finder list' command") final JavaSymbolName finderName) {
+            @CliOption(key = { "finderName", "" }, mandatory = true, help = "The finder string as generated with the 'finder list' command") final JavaSymbolName finderName,
+            @CliOption(key = "namedQuery", mandatory = false, unspecifiedDefaultValue = "false", specifiedDefaultValue = "true", help = "Whether the entity's finder queries should be generated as @NamedQuery declarations") final boolean namedQuery) {
 
-        finderOperations.installFinder(typeName, finderName);
+        finderOperations.installFinder(typeName, finderName, namedQuery);
     }
 
-    @CliAvailabilityIndicator({ "finder list", "finder add" })
+    @CliAvailabilityIndicator({ "finder list", "finder add",
+            "finder namedqueries" })
     public boolean isFinderCommandAvailable() {
         return finderOperations.isFinderInstallationPossible();
     }
@@ -81,4 +83,11 @@ public class FinderCommands implements CommandMarker {
         }
         return result;
     }
+
+    @CliCommand(value = "finder namedqueries", help = "Enables or disables @NamedQuery generation for the finders of all entities in the project")
+    public void namedQueryFinders(
+            @CliOption(key = { "enabled", "" }, mandatory = false, unspecifiedDefaultValue = "true", specifiedDefaultValue = "true", help = "Whether the finders should use named queries") final boolean enabled) {
+
+        finderOperations.setNamedQueryFinders(enabled);
+    }
 }
@@ -2,6 +2,9 @@ package org.springframework.roo.addon.finder;
 
 import static org.springframework.roo.model.JavaType.STRING;
 import static org.springframework.roo.model.JpaJavaType.ENTITY_MANAGER;
+import static org.springframework.roo.model.JpaJavaType.NAMED_QUERIES;
+import static org.springframework.roo.model.JpaJavaType.NAMED_QUERY;
+import static org.springframework.roo.model.JpaJavaType.QUERY_HINT;
 import static org.springframework.roo.model.JpaJavaType.TYPED_QUERY;
 
 import java.lang.reflect.Modifier;
@@ -10,6 +13,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
+import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.springframework.roo.addon.jpa.activerecord.RooJpaActiveRecord;
@@ -19,6 +23,10 @@ import org.springframework.roo.classpath.details.MemberFindingUtils;
 import org.springframework.roo.classpath.details.MethodMetadata;
 import org.springframework.roo.classpath.details.MethodMetadataBuilder;
 import org.springframework.roo.classpath.details.annotations.AnnotatedJavaType;
+import org.springframework.roo.classpath.details.annotations.AnnotationAttributeValue;
+import org.springframework.roo.classpath.details.annotations.AnnotationMetadataBuilder;
+import org.springframework.roo.classpath.details.annotations.ArrayAttributeValue;
+import org.springframework.roo.classpath.details.annotations.NestedAnnotationAttributeValue;
 import org.springframework.roo.classpath.itd.AbstractItdTypeDetailsProvidingMetadataItem;
 import org.springframework.roo.classpath.itd.InvocableMemberBodyBuilder;
 import org.springframework.roo.metadata.MetadataIdentificationUtils;
@@ -67,13 +75,43 @@ public class FinderMetadata extends AbstractItdTypeDetailsProvidingMetadataItem
     }
 
     private final List<MethodMetadata> dynamicFinderMethods = new ArrayList<MethodMetadata>();
+    private final List<NestedAnnotationAttributeValue> namedQueries = new ArrayList<NestedAnnotationAttributeValue>();
 
+    private String entityName;
+    private boolean namedQueryFinders;
+    private List<String> queryHints;
     private Map<JavaSymbolName, QueryHolder> queryHolders;
 
     public FinderMetadata(final String identifier, final JavaType aspectName,
             final PhysicalTypeMetadata governorPhysicalTypeMetadata,
             final MethodMetadata entityManagerMethod,
             final Map<JavaSymbolName, QueryHolder> queryHolders) {
+        this(identifier, aspectName, governorPhysicalTypeMetadata,
+                entityManagerMethod, queryHolders, null, false, Collections
+                        .<String> emptyList());
+    }
+
+    /**
+     * Constructor
+     * 
+     * @param identifier
+     * @param aspectName
+     * @param governorPhysicalTypeMetadata
+     * @param entityManagerMethod
+     * @param queryHolders
+     * @param entityName the JPA entity name, which qualifies the names of the
+     *            named queries (if blank, the entity's simple type name)
+     * @param namedQueryFinders whether to declare each eligible finder query
+     *            as a @NamedQuery on the entity and execute it by name
+     * @param queryHints the "name=value" hints to attach to those named
+     *            queries (required, may be empty)
+     */
+    public FinderMetadata(final String identifier, final JavaType aspectName,
+            final PhysicalTypeMetadata governorPhysicalTypeMetadata,
+            final MethodMetadata entityManagerMethod,
+            final Map<JavaSymbolName, QueryHolder> queryHolders,
+            final String entityName, final boolean namedQueryFinders,
+            final List<String> queryHints) {
         super(identifier, aspectName, governorPhysicalTypeMetadata);
         Validate.isTrue(
                 isValid(identifier),
@@ -82,12 +120,21 @@ public class FinderMetadata extends AbstractItdTypeDetailsProvidingMetadataItem
         Validate.isTrue(entityManagerMethod != null || queryHolders.isEmpty(),
                 "EntityManager method required if any query holders are provided");
         Validate.notNull(queryHolders, "Query holders required");
+        Validate.notNull(queryHints, "Query hints required");
 
         if (!isValid()) {
             return;
         }
 
+        this.entityName = StringUtils.defaultIfBlank(entityName,
+                destination.getSimpleTypeName());
         this.queryHolders = queryHolders;
+        this.queryHints = queryHints;
+        // A type can only carry one @NamedQueries/@NamedQuery, so leave any
+        // the user has declared alone and fall back to dynamic queries
+        this.namedQueryFinders = namedQueryFinders
+                && governorTypeDetails.getAnnotation(NAMED_QUERIES) == null
+                && governorTypeDetails.getAnnotation(NAMED_QUERY) == null;
 
         for (final JavaSymbolName finderName : queryHolders.keySet()) {
            
@@ -106,6 +153,14 @@ public class FinderMetadata extends AbstractItdTypeDetailsProvidingMetadataItem
             }
         }
 
+        if (!namedQueries.isEmpty()) {
+            final List<AnnotationAttributeValue<?>> attributes = new ArrayList<AnnotationAttributeValue<?>>();
+            attributes.add(new ArrayAttributeValue<NestedAnnotationAttributeValue>(
+                    new JavaSymbolName("value"), namedQueries));
+            builder.addAnnotation(new AnnotationMetadataBuilder(NAMED_QUERIES,
+                    attributes));
+        }
+
         // Create a representation of the desired output ITD
         itdTypeDetails = builder.build();
     }
@@ -365,6 +420,12 @@ public class FinderMetadata extends AbstractItdTypeDetailsProvidingMetadataItem
                 bodyBuilder.appendFormalLine(typeNameIncludingTypeParameters
                         + " q = em.createQuery(jpaQuery, "
                         + typeName + ".class);");
+            } else if (namedQueryFinders) {
+                bodyBuilder.appendFormalLine(typeNameIncludingTypeParameters
+                    + " q = em.createNamedQuery(\""
+                    + addNamedQuery(finderName, jpaQuery)
+                    + "\", "
+                    + typeName + ".class);");
             } else {
                 bodyBuilder.appendFormalLine(typeNameIncludingTypeParameters
                     + " q = em.createQuery(\""
@@ -402,6 +463,48 @@ public class FinderMetadata extends AbstractItdTypeDetailsProvidingMetadataItem
                 methodParameterNames, bodyBuilder);
     }
 
+    /**
+     * Registers a @NamedQuery for the given finder and returns its name. As
+     * query names share one namespace per persistence unit, the name is
+     * qualified by the JPA entity name, which is unique within that unit.
+     * 
+     * @param finderName the finder the query belongs to (required)
+     * @param jpaQuery the JPQL of the finder (required)
+     * @return the name under which the query can be looked up
+     */
+    private String addNamedQuery(final JavaSymbolName finderName,
+            final String jpaQuery) {
+        final String queryName = entityName + "." + finderName.getSymbolName();
+        final AnnotationMetadataBuilder namedQuery = new AnnotationMetadataBuilder(
+                NAMED_QUERY);
+        namedQuery.addStringAttribute("name", queryName);
+        namedQuery.addStringAttribute("query", jpaQuery);
+
+        final List<NestedAnnotationAttributeValue> hints = new ArrayList<NestedAnnotationAttributeValue>();
+        for (final String queryHint : queryHints) {
+            if (StringUtils.isBlank(queryHint) || !queryHint.contains("=")) {
+                continue;
+            }
+            final AnnotationMetadataBuilder hint = new AnnotationMetadataBuilder(
+                    QUERY_HINT);
+            hint.addStringAttribute("name",
+                    StringUtils.substringBefore(queryHint, "=").trim());
+            hint.addStringAttribute("value",
+                    StringUtils.substringAfter(queryHint, "=").trim());
+            hints.add(new NestedAnnotationAttributeValue(new JavaSymbolName(
+                    "value"), hint.build()));
+        }
+        if (!hints.isEmpty()) {
+            namedQuery
+                    .addAttribute(new ArrayAttributeValue<NestedAnnotationAttributeValue>(
+                            new JavaSymbolName("hints"), hints));
+        }
+
+        namedQueries.add(new NestedAnnotationAttributeValue(new JavaSymbolName(
+                "value"), namedQuery.build()));
+        return queryName;
+    }
+
     @Override
     public String toString() {
         final ToStringBuilder builder = new ToStringBuilder(this);
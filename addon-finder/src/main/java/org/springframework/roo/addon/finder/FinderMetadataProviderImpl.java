@@ -164,7 +164,9 @@ public class FinderMetadataProviderImpl extends
         // future makes it available through an accessor etc
         return new FinderMetadata(metadataIdentificationString, aspectName,
                 governorPhysicalTypeMetadata, entityManagerMethod,
-                Collections.unmodifiableSortedMap(queryHolders));
+                Collections.unmodifiableSortedMap(queryHolders), entityName,
+                jpaActiveRecordMetadata.isNamedQueryFinders(),
+                jpaActiveRecordMetadata.getFinderQueryHints());
     }
 
     public String getProvidesType() {
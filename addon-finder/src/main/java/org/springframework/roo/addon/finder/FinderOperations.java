@@ -15,7 +15,27 @@ public interface FinderOperations {
 
     void installFinder(JavaType typeName, JavaSymbolName finderName);
 
+    /**
+     * Installs the given finder, optionally switching the entity's dynamic
+     * finders to precompiled named queries.
+     * 
+     * @param typeName the entity to add the finder to (required)
+     * @param finderName the finder to add (required)
+     * @param namedQuery whether to generate the entity's finder queries as
+     *            @NamedQuery declarations
+     */
+    void installFinder(JavaType typeName, JavaSymbolName finderName,
+            boolean namedQuery);
+
     boolean isFinderInstallationPossible();
 
     SortedSet<String> listFindersFor(JavaType typeName, Integer depth);
+
+    /**
+     * Enables or disables named query finders on every active record entity in
+     * the project.
+     * 
+     * @param enabled whether the finders should use named queries
+     */
+    void setNamedQueryFinders(boolean enabled);
 }
\ No newline at end of file
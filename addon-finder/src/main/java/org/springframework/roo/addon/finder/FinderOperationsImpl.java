@@ -27,6 +27,7 @@ import org.springframework.roo.classpath.details.annotations.AnnotationAttribute
 import org.springframework.roo.classpath.details.annotations.AnnotationMetadata;
 import org.springframework.roo.classpath.details.annotations.AnnotationMetadataBuilder;
 import org.springframework.roo.classpath.details.annotations.ArrayAttributeValue;
+import org.springframework.roo.classpath.details.annotations.BooleanAttributeValue;
 import org.springframework.roo.classpath.details.annotations.StringAttributeValue;
 import org.springframework.roo.classpath.persistence.PersistenceMemberLocator;
 import org.springframework.roo.classpath.scanner.MemberDetails;
@@ -51,6 +52,7 @@ public class FinderOperationsImpl implements FinderOperations {
 
     private static final Logger LOGGER = HandlerUtils
             .getLogger(FinderOperationsImpl.class);
+    private static final String NAMED_QUERY_FINDERS = "namedQueryFinders";
 
     @Reference private DynamicFinderServices dynamicFinderServices;
     @Reference private MemberDetailsScanner memberDetailsScanner;
@@ -67,6 +69,11 @@ public class FinderOperationsImpl implements FinderOperations {
 
     public void installFinder(final JavaType typeName,
             final JavaSymbolName finderName) {
+        installFinder(typeName, finderName, false);
+    }
+
+    public void installFinder(final JavaType typeName,
+            final JavaSymbolName finderName, final boolean namedQuery) {
         Validate.notNull(typeName, "Java type required");
         Validate.notNull(finderName, "Finer name required");
 
@@ -162,6 +169,10 @@ public class FinderOperationsImpl implements FinderOperations {
         // Now let's add the "finders" attribute
         attributes.add(new ArrayAttributeValue<StringAttributeValue>(
                 new JavaSymbolName("finders"), desiredFinders));
+        if (namedQuery) {
+            attributes.add(new BooleanAttributeValue(new JavaSymbolName(
+                    NAMED_QUERY_FINDERS), true));
+        }
 
         final ClassOrInterfaceTypeDetailsBuilder cidBuilder = new ClassOrInterfaceTypeDetailsBuilder(
                 cid);
@@ -281,4 +292,34 @@ public class FinderOperationsImpl implements FinderOperations {
         }
         return result;
     }
+
+    public void setNamedQueryFinders(final boolean enabled) {
+        for (final ClassOrInterfaceTypeDetails cid : typeLocationService
+                .findClassesOrInterfaceDetailsWithAnnotation(ROO_JPA_ACTIVE_RECORD)) {
+            final AnnotationMetadata jpaActiveRecordAnnotation = cid
+                    .getAnnotation(ROO_JPA_ACTIVE_RECORD);
+            final AnnotationAttributeValue<?> current = jpaActiveRecordAnnotation
+                    .getAttribute(NAMED_QUERY_FINDERS);
+            if (current == null ? !enabled : Boolean.valueOf(enabled).equals(
+                    current.getValue())) {
+                continue;
+            }
+
+            final List<AnnotationAttributeValue<?>> attributes = new ArrayList<AnnotationAttributeValue<?>>();
+            final Set<JavaSymbolName> attributesToDelete = new HashSet<JavaSymbolName>();
+            if (enabled) {
+                attributes.add(new BooleanAttributeValue(new JavaSymbolName(
+                        NAMED_QUERY_FINDERS), true));
+            }
+            else {
+                attributesToDelete.add(new JavaSymbolName(NAMED_QUERY_FINDERS));
+            }
+            final ClassOrInterfaceTypeDetailsBuilder cidBuilder = new ClassOrInterfaceTypeDetailsBuilder(
+                    cid);
+            cidBuilder.updateTypeAnnotation(new AnnotationMetadataBuilder(
+                    ROO_JPA_ACTIVE_RECORD, attributes).build(),
+                    attributesToDelete);
+            typeManagementService.createOrUpdateTypeOnDisk(cidBuilder.build());
+        }
+    }
 }
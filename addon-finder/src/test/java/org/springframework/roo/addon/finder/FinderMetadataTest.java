@@ -0,0 +1,108 @@
+package org.springframework.roo.addon.finder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.when;
+import static org.springframework.roo.model.JavaType.STRING;
+import static org.springframework.roo.model.JpaJavaType.NAMED_QUERIES;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.roo.classpath.PhysicalTypeMetadata;
+import org.springframework.roo.classpath.details.ClassOrInterfaceTypeDetails;
+import org.springframework.roo.classpath.details.ItdTypeDetails;
+import org.springframework.roo.classpath.details.MemberFindingUtils;
+import org.springframework.roo.classpath.details.MethodMetadata;
+import org.springframework.roo.classpath.details.annotations.AnnotationMetadata;
+import org.springframework.roo.classpath.details.annotations.ArrayAttributeValue;
+import org.springframework.roo.classpath.details.annotations.NestedAnnotationAttributeValue;
+import org.springframework.roo.model.JavaSymbolName;
+import org.springframework.roo.model.JavaType;
+import org.springframework.roo.project.LogicalPath;
+import org.springframework.roo.project.Path;
+
+/**
+ * Unit test of {@link FinderMetadata}
+ * 
+ * @since 1.2.5
+ */
+public class FinderMetadataTest {
+
+    private static final JavaType ASPECT = new JavaType(
+            "com.example.domain.Owner_Roo_Finder");
+    private static final JavaType ENTITY = new JavaType(
+            "com.example.domain.Owner");
+    private static final JavaSymbolName FINDER = new JavaSymbolName(
+            "findOwnersByName");
+    private static final String JPA_QUERY = "SELECT o FROM Owner AS o WHERE o.name = :name";
+    private static final String METADATA_ID = FinderMetadata
+            .createIdentifier(ENTITY,
+                    LogicalPath.getInstance(Path.SRC_MAIN_JAVA, ""));
+
+    // Fixture
+    @Mock private MethodMetadata mockEntityManagerMethod;
+    @Mock private PhysicalTypeMetadata mockGovernor;
+    @Mock private ClassOrInterfaceTypeDetails mockGovernorTypeDetails;
+
+    private ItdTypeDetails getItd(final String entityName) {
+        final List<JavaSymbolName> parameterNames = Arrays
+                .asList(new JavaSymbolName("name"));
+        final Map<JavaSymbolName, QueryHolder> queryHolders = Collections
+                .singletonMap(FINDER, new QueryHolder(JPA_QUERY, Arrays
+                        .asList(STRING), parameterNames, Collections
+                        .<Token> emptyList()));
+        return new FinderMetadata(METADATA_ID, ASPECT, mockGovernor,
+                mockEntityManagerMethod, queryHolders, entityName, true,
+                Collections.<String> emptyList()).getMemberHoldingTypeDetails();
+    }
+
+    private String getNamedQueryName(final ItdTypeDetails itd) {
+        final AnnotationMetadata namedQueries = MemberFindingUtils
+                .getAnnotationOfType(itd.getAnnotations(), NAMED_QUERIES);
+        @SuppressWarnings("unchecked")
+        final List<NestedAnnotationAttributeValue> values = ((ArrayAttributeValue<NestedAnnotationAttributeValue>) namedQueries
+                .getAttribute("value")).getValue();
+        assertEquals(1, values.size());
+        return (String) values.get(0).getValue().getAttribute("name")
+                .getValue();
+    }
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        when(mockGovernor.getMemberHoldingTypeDetails()).thenReturn(
+                mockGovernorTypeDetails);
+        when(mockGovernorTypeDetails.getName()).thenReturn(ENTITY);
+        when(mockEntityManagerMethod.getMethodName()).thenReturn(
+                new JavaSymbolName("entityManager"));
+    }
+
+    @Test
+    public void testNamedQueryIsQualifiedByTheJpaEntityName() {
+        // Invoke
+        final ItdTypeDetails itd = getItd("ClinicOwner");
+
+        // Check
+        assertEquals("ClinicOwner.findOwnersByName", getNamedQueryName(itd));
+        final String body = MemberFindingUtils.getDeclaredMethod(itd, FINDER,
+                Arrays.asList(STRING)).getBody();
+        assertTrue(body, body.contains("em.createNamedQuery("
+                + "\"ClinicOwner.findOwnersByName\", Owner.class);"));
+    }
+
+    @Test
+    public void testNamedQueryOfAnUnnamedEntityUsesItsSimpleTypeName() {
+        // Invoke
+        final ItdTypeDetails itd = getItd("");
+
+        // Check
+        assertEquals("Owner.findOwnersByName", getNamedQueryName(itd));
+    }
+}
@@ -1,6 +1,5 @@
 package org.springframework.roo.addon.gwt;
 
-import java.util.List;
 import java.util.Map;
 
 import org.springframework.roo.classpath.details.ClassOrInterfaceTypeDetails;
@@ -14,18 +13,17 @@ import org.springframework.roo.classpath.details.ClassOrInterfaceTypeDetails;
 public class GwtTemplateDataHolder {
 
     private final Map<GwtType, ClassOrInterfaceTypeDetails> templateTypeDetailsMap;
-    private final List<ClassOrInterfaceTypeDetails> typeList;
+    private final Map<String, String> javaMap;
     private final Map<String, String> xmlMap;
     private final Map<GwtType, String> xmlTemplates;
 
     public GwtTemplateDataHolder(
             final Map<GwtType, ClassOrInterfaceTypeDetails> templateTypeDetailsMap,
             final Map<GwtType, String> xmlTemplates,
-            final List<ClassOrInterfaceTypeDetails> typeList,
-            final Map<String, String> xmlMap) {
+            final Map<String, String> javaMap, final Map<String, String> xmlMap) {
         this.templateTypeDetailsMap = templateTypeDetailsMap;
         this.xmlTemplates = xmlTemplates;
-        this.typeList = typeList;
+        this.javaMap = javaMap;
         this.xmlMap = xmlMap;
     }
 
@@ -33,8 +31,15 @@ public class GwtTemplateDataHolder {
         return templateTypeDetailsMap;
     }
 
-    public List<ClassOrInterfaceTypeDetails> getTypeList() {
-        return typeList;
+    /**
+     * Returns the rendered Java sources of types that are only created once
+     * and are therefore written without being parsed; types that already
+     * exist are not included
+     * 
+     * @return a map of destination file to source contents (never null)
+     */
+    public Map<String, String> getJavaMap() {
+        return javaMap;
     }
 
     public Map<String, String> getXmlMap() {
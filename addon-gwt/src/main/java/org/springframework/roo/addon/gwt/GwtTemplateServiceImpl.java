@@ -41,6 +41,7 @@ import org.apache.commons.lang3.Validate;
 import org.apache.felix.scr.annotations.Component;
 import org.apache.felix.scr.annotations.Reference;
 import org.apache.felix.scr.annotations.Service;
+import org.osgi.service.component.ComponentContext;
 import org.springframework.roo.addon.gwt.scaffold.GwtScaffoldMetadata;
 import org.springframework.roo.addon.plural.PluralMetadata;
 import org.springframework.roo.classpath.PhysicalTypeCategory;
@@ -104,6 +105,13 @@ public class GwtTemplateServiceImpl implements GwtTemplateService {
     @Reference TypeParsingService typeParsingService;
     @Reference FileManager fileManager;
 
+    private TemplateLoader templateLoader;
+
+    protected void activate(final ComponentContext context) {
+        templateLoader = TemplateResourceLoader.createForBundle(context
+                .getBundleContext().getBundle());
+    }
+
     @Override
     public String buildUiXml(final String templateContents,
             final String destFile, final List<MethodMetadata> proxyMethods) {
@@ -319,7 +327,7 @@ public class GwtTemplateServiceImpl implements GwtTemplateService {
         }
 
         final Map<String, String> xmlMap = new LinkedHashMap<String, String>();
-        final List<ClassOrInterfaceTypeDetails> typeDetails = new ArrayList<ClassOrInterfaceTypeDetails>();
+        final Map<String, String> javaMap = new LinkedHashMap<String, String>();
         for (final GwtProxyProperty proxyProperty : clientSideTypeMap.values()) {
             if (!proxyProperty.isCollection()
                     || proxyProperty.isCollectionOfProxy()) {
@@ -347,12 +355,21 @@ public class GwtTemplateServiceImpl implements GwtTemplateService {
             dataDictionary.setVariable("boundCollectionType",
                     boundCollectionType);
 
-            final JavaType collectionEditorType = new JavaType(
-                    GwtPath.MANAGED_UI_EDITOR.packageName(topLevelPackage)
-                            + "." + boundCollectionType + collectionType
-                            + "Editor");
-            typeDetails.add(getTemplateDetails(dataDictionary,
-                    "CollectionEditor", collectionEditorType, moduleName));
+            final String packagePath = projectOperations.getPathResolver()
+                    .getFocusedIdentifier(
+                            Path.SRC_MAIN_JAVA,
+                            GwtPath.MANAGED_UI_EDITOR
+                                    .getPackagePath(topLevelPackage));
+            final String editorFile = packagePath + "/" + boundCollectionType
+                    + collectionType + "Editor";
+
+            // The collection editor is only ever created, never updated, so
+            // its rendered source can go straight to disk without being
+            // parsed into a type and printed back out
+            if (!gwtFileManager.fileExists(editorFile + ".java")) {
+                javaMap.put(editorFile + ".java",
+                        getTemplateContents("CollectionEditor", dataDictionary));
+            }
 
             dataDictionary = TemplateDictionary.create();
             dataDictionary.setVariable("packageName",
@@ -401,17 +418,11 @@ public class GwtTemplateServiceImpl implements GwtTemplateService {
 
             final String contents = getTemplateContents(editorType + "UiXml",
                     dataDictionary);
-            final String packagePath = projectOperations.getPathResolver()
-                    .getFocusedIdentifier(
-                            Path.SRC_MAIN_JAVA,
-                            GwtPath.MANAGED_UI_EDITOR
-                                    .getPackagePath(topLevelPackage));
-            xmlMap.put(packagePath + "/" + boundCollectionType + collectionType
-                    + "Editor.ui.xml", contents);
+            xmlMap.put(editorFile + ".ui.xml", contents);
         }
 
         return new GwtTemplateDataHolder(templateTypeDetailsMap, xmlTemplates,
-                typeDetails, xmlMap);
+                javaMap, xmlMap);
     }
 
     @Override
@@ -431,9 +442,8 @@ public class GwtTemplateServiceImpl implements GwtTemplateService {
             final String templateFile, final JavaType templateType,
             final String moduleName) {
         try {
-            final TemplateLoader templateLoader = TemplateResourceLoader
-                    .create();
-            final Template template = templateLoader.getTemplate(templateFile);
+            final Template template = getTemplateLoader().getTemplate(
+                    templateFile);
             Validate.notNull(template, "Template required for '%s'",
                     templateFile);
             final String templateContents = template
@@ -1372,9 +1382,8 @@ public class GwtTemplateServiceImpl implements GwtTemplateService {
     private String getTemplateContents(final String templateName,
             final TemplateDataDictionary dataDictionary) {
         try {
-            final TemplateLoader templateLoader = TemplateResourceLoader
-                    .create();
-            final Template template = templateLoader.getTemplate(templateName);
+            final Template template = getTemplateLoader().getTemplate(
+                    templateName);
             return template.renderToString(dataDictionary);
         }
         catch (final TemplateException e) {
@@ -1382,6 +1391,13 @@ public class GwtTemplateServiceImpl implements GwtTemplateService {
         }
     }
 
+    private TemplateLoader getTemplateLoader() {
+        if (templateLoader == null) {
+            templateLoader = TemplateResourceLoader.create();
+        }
+        return templateLoader;
+    }
+
     private boolean isReadOnly(final String name,
             final ClassOrInterfaceTypeDetails governorTypeDetails) {
         final List<String> readOnly = new ArrayList<String>();
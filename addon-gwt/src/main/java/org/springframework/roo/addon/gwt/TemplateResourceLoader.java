@@ -7,11 +7,12 @@ import hapax.parser.TemplateParser;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.Validate;
+import org.osgi.framework.Bundle;
 
 /**
  * Loads hapax templates from the classpath.
@@ -21,7 +22,7 @@ import org.apache.commons.lang3.Validate;
  */
 public class TemplateResourceLoader implements TemplateLoader {
 
-    private static final Map<String, Template> cache = new HashMap<String, Template>();
+    private static final ConcurrentMap<String, Template> cache = new ConcurrentHashMap<String, Template>();
     private static final String TEMPLATE_DIR = "org/springframework/roo/addon/gwt/scaffold/templates/";
 
     /**
@@ -32,6 +33,19 @@ public class TemplateResourceLoader implements TemplateLoader {
         return new TemplateResourceLoader(TEMPLATE_DIR);
     }
 
+    /**
+     * Creates a TemplateLoader for CTemplate language using the default
+     * template directory, whose compiled templates are cached against the
+     * given bundle's id and last modification time, so that an updated add-on
+     * never renders a stale template. Any templates cached for an earlier
+     * installation or update of that bundle are evicted.
+     * 
+     * @param bundle the bundle providing the templates (required)
+     */
+    public static TemplateLoader createForBundle(final Bundle bundle) {
+        return new TemplateResourceLoader(TEMPLATE_DIR, null, bundle);
+    }
+
     /**
      * Creates a TemplateLoader for CTemplate language
      */
@@ -51,6 +65,8 @@ public class TemplateResourceLoader implements TemplateLoader {
 
     protected final TemplateParser parser;
 
+    protected final String cacheKeyPrefix;
+
     public TemplateResourceLoader(final String baseDir) {
         this(baseDir, null);
     }
@@ -59,6 +75,22 @@ public class TemplateResourceLoader implements TemplateLoader {
             final TemplateParser parser) {
         this.baseDir = baseDir;
         this.parser = parser;
+        cacheKeyPrefix = "";
+    }
+
+    public TemplateResourceLoader(final String baseDir,
+            final TemplateParser parser, final Bundle bundle) {
+        Validate.notNull(bundle, "Bundle required");
+        this.baseDir = baseDir;
+        this.parser = parser;
+        final String bundlePrefix = bundle.getBundleId() + "@";
+        cacheKeyPrefix = bundlePrefix + bundle.getLastModified() + ":";
+        for (final String cacheKey : cache.keySet()) {
+            if (cacheKey.startsWith(bundlePrefix)
+                    && !cacheKey.startsWith(cacheKeyPrefix)) {
+                cache.remove(cacheKey);
+            }
+        }
     }
 
     public Template getTemplate(final String resource) throws TemplateException {
@@ -72,8 +104,10 @@ public class TemplateResourceLoader implements TemplateLoader {
         }
 
         final String templatePath = baseDir + resource;
-        if (cache.containsKey(templatePath)) {
-            return cache.get(templatePath);
+        final String cacheKey = cacheKeyPrefix + templatePath;
+        final Template cachedTemplate = cache.get(cacheKey);
+        if (cachedTemplate != null) {
+            return cachedTemplate;
         }
 
         final InputStream inputStream = getClass().getClassLoader()
@@ -93,11 +127,8 @@ public class TemplateResourceLoader implements TemplateLoader {
         final Template template = parser == null ? new Template(contents,
                 context) : new Template(parser, contents, context);
 
-        synchronized (cache) {
-            cache.put(templatePath, template);
-        }
-
-        return template;
+        final Template existingTemplate = cache.putIfAbsent(cacheKey, template);
+        return existingTemplate == null ? template : existingTemplate;
     }
 
     public String getTemplateDirectory() {
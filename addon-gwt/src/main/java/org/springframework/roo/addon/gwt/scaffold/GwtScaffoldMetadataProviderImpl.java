@@ -262,9 +262,9 @@ public class GwtScaffoldMetadataProviderImpl implements
             gwtFileManager.write(typesToBeWritten.get(entry.getKey()), entry
                     .getKey().isOverwriteConcrete());
         }
-        for (final ClassOrInterfaceTypeDetails type : templateDataHolder
-                .getTypeList()) {
-            gwtFileManager.write(type, false);
+        for (final Map.Entry<String, String> entry : templateDataHolder
+                .getJavaMap().entrySet()) {
+            gwtFileManager.write(entry.getKey(), entry.getValue());
         }
         for (final Map.Entry<String, String> entry : xmlToBeWritten.entrySet()) {
             gwtFileManager.write(entry.getKey(), entry.getValue());
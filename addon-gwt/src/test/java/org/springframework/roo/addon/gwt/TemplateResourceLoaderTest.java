@@ -0,0 +1,71 @@
+package org.springframework.roo.addon.gwt;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import hapax.Template;
+
+import org.junit.Test;
+import org.osgi.framework.Bundle;
+
+/**
+ * Unit test of {@link TemplateResourceLoader}
+ * 
+ * @since 1.2.5
+ */
+public class TemplateResourceLoaderTest {
+
+    private static final String TEMPLATE = "CollectionEditor";
+
+    private Bundle getBundle(final long bundleId, final long lastModified) {
+        final Bundle mockBundle = mock(Bundle.class);
+        when(mockBundle.getBundleId()).thenReturn(bundleId);
+        when(mockBundle.getLastModified()).thenReturn(lastModified);
+        return mockBundle;
+    }
+
+    @Test
+    public void testTemplateIsCachedForTheSameBundle() throws Exception {
+        // Set up
+        final Template template = TemplateResourceLoader.createForBundle(
+                getBundle(1, 1000)).getTemplate(TEMPLATE);
+
+        // Invoke
+        final Template cachedTemplate = TemplateResourceLoader
+                .createForBundle(getBundle(1, 1000)).getTemplate(TEMPLATE);
+
+        // Check
+        assertSame(template, cachedTemplate);
+    }
+
+    @Test
+    public void testTemplateIsReloadedForAnotherBundle() throws Exception {
+        // Set up
+        final Template template = TemplateResourceLoader.createForBundle(
+                getBundle(2, 1000)).getTemplate(TEMPLATE);
+
+        // Invoke
+        final Template otherTemplate = TemplateResourceLoader
+                .createForBundle(getBundle(3, 1000)).getTemplate(TEMPLATE);
+
+        // Check
+        assertNotSame(template, otherTemplate);
+    }
+
+    @Test
+    public void testTemplateIsReloadedOnceTheBundleIsUpdated()
+            throws Exception {
+        // Set up
+        final Template template = TemplateResourceLoader.createForBundle(
+                getBundle(4, 1000)).getTemplate(TEMPLATE);
+
+        // Invoke
+        final Template updatedTemplate = TemplateResourceLoader
+                .createForBundle(getBundle(4, 2000)).getTemplate(TEMPLATE);
+
+        // Check
+        assertNotSame(template, updatedTemplate);
+    }
+}
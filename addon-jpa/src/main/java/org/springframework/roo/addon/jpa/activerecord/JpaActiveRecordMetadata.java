@@ -2,9 +2,13 @@ package org.springframework.roo.addon.jpa.activerecord;
 
 import static org.springframework.roo.model.JavaType.INT_PRIMITIVE;
 import static org.springframework.roo.model.JavaType.STRING;
+import static org.springframework.roo.model.JdkJavaType.ARRAY_LIST;
+import static org.springframework.roo.model.JdkJavaType.ITERATOR;
 import static org.springframework.roo.model.JdkJavaType.LIST;
+import static org.springframework.roo.model.JpaJavaType.EMBEDDED_ID;
 import static org.springframework.roo.model.JpaJavaType.ENTITY_MANAGER;
 import static org.springframework.roo.model.JpaJavaType.PERSISTENCE_CONTEXT;
+import static org.springframework.roo.model.JpaJavaType.TYPED_QUERY;
 import static org.springframework.roo.model.SpringJavaType.PROPAGATION;
 import static org.springframework.roo.model.SpringJavaType.TRANSACTIONAL;
 
@@ -20,6 +24,7 @@ import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.springframework.roo.classpath.PhysicalTypeIdentifierNamingUtils;
 import org.springframework.roo.classpath.PhysicalTypeMetadata;
 import org.springframework.roo.classpath.customdata.CustomDataKeys;
+import org.springframework.roo.classpath.details.BeanInfoUtils;
 import org.springframework.roo.classpath.details.FieldMetadata;
 import org.springframework.roo.classpath.details.FieldMetadataBuilder;
 import org.springframework.roo.classpath.details.MemberFindingUtils;
@@ -47,8 +52,12 @@ import org.springframework.roo.project.LogicalPath;
 public class JpaActiveRecordMetadata extends
         AbstractItdTypeDetailsProvidingMetadataItem {
 
+    private static final JavaType COLLECTIONS = new JavaType(
+            "java.util.Collections");
     private static final JavaType COUNT_RETURN_TYPE = JavaType.LONG_PRIMITIVE;
     private static final String ENTITY_MANAGER_METHOD_NAME = "entityManager";
+    private static final JavaType NO_SUCH_ELEMENT_EXCEPTION = new JavaType(
+            "java.util.NoSuchElementException");
     private static final String PROVIDES_TYPE_STRING = JpaActiveRecordMetadata.class
             .getName();
     private static final String PROVIDES_TYPE = MetadataIdentificationUtils
@@ -115,6 +124,11 @@ public class JpaActiveRecordMetadata extends
         
         builder.addField(getFieldNames4OrderClauseFilter());
 
+        if (crudAnnotationValues.getCountCacheSeconds() > 0) {
+            builder.addField(getCountCacheField(""));
+            builder.addField(getCountCacheField("Expiry"));
+        }
+
         // Add static methods
         setEntityManagerMethod();
         builder.addMethod(getCountMethod());
@@ -123,6 +137,9 @@ public class JpaActiveRecordMetadata extends
         setFindMethod();
         builder.addMethod(getFindEntriesMethod());
         builder.addMethod(getFindEntriesSortedMethod());
+        if (crudAnnotationValues.getBatchSize() > 0) {
+            builder.addMethod(getStreamAllMethod());
+        }
 
         // Add helper methods
         builder.addMethod(getPersistMethod());
@@ -130,6 +147,12 @@ public class JpaActiveRecordMetadata extends
         builder.addMethod(getFlushMethod());
         builder.addMethod(getClearMethod());
         builder.addMethod(getMergeMethod());
+        if (crudAnnotationValues.getBatchSize() > 0) {
+            builder.addMethod(getBatchMethod(
+                    crudAnnotationValues.getPersistMethod(), "persist"));
+            builder.addMethod(getBatchMethod(
+                    crudAnnotationValues.getMergeMethod(), "merge"));
+        }
 
         builder.putCustomData(CustomDataKeys.DYNAMIC_FINDER_NAMES,
                 getDynamicFinders());
@@ -175,6 +198,25 @@ public class JpaActiveRecordMetadata extends
         return Arrays.asList(crudAnnotationValues.getFinders());
     }
 
+    /**
+     * @return the "name=value" query hints for the named queries of the
+     *         dynamic finders (never returns null, but may return an empty
+     *         list)
+     */
+    public List<String> getFinderQueryHints() {
+        if (crudAnnotationValues.getFinderQueryHints() == null) {
+            return Collections.emptyList();
+        }
+        return Arrays.asList(crudAnnotationValues.getFinderQueryHints());
+    }
+
+    /**
+     * @return whether the dynamic finders should be backed by named queries
+     */
+    public boolean isNamedQueryFinders() {
+        return crudAnnotationValues.isNamedQueryFinders();
+    }
+
     /**
      * Locates the entity manager field that should be used.
      * <p>
@@ -349,6 +391,113 @@ public class JpaActiveRecordMetadata extends
         annotations.add(transactionalBuilder);
     }
 
+    /**
+     * Returns a static method that persists or merges the given entities,
+     * flushing the entity manager after every batch and detaching that batch's
+     * entities, so that the persistence context does not grow with the number
+     * of entities. Other entities managed by the caller's transaction are left
+     * alone; the entities of every full batch (including those returned by
+     * the merge method) are detached on return. Any cached count is
+     * invalidated.
+     * 
+     * @param delegateMethodName the name of the single-entity method, e.g.
+     *            "persist"; the generated method has "All" appended
+     * @param methodDelegateName the entity manager method to call
+     * @return <code>null</code> if the single-entity method is not generated
+     *         or the governor already declares the method
+     */
+    private MethodMetadataBuilder getBatchMethod(
+            final String delegateMethodName, final String methodDelegateName) {
+        if ("".equals(delegateMethodName)) {
+            return null;
+        }
+
+        final JavaSymbolName methodName = new JavaSymbolName(
+                delegateMethodName + "All");
+        final JavaType parameterType = new JavaType(
+                Iterable.class.getName(), 0, DataType.TYPE, null,
+                Arrays.asList(destination));
+        if (getGovernorMethod(methodName, parameterType) != null) {
+            return null;
+        }
+
+        final boolean isMerge = "merge".equals(methodDelegateName);
+        final JavaType returnType = isMerge ? new JavaType(
+                LIST.getFullyQualifiedTypeName(), 0, DataType.TYPE, null,
+                Arrays.asList(destination)) : JavaType.VOID_PRIMITIVE;
+        final String entityManager = ENTITY_MANAGER.getNameIncludingTypeParameters(
+                false, builder.getImportRegistrationResolver());
+        final String simpleTypeName = destination.getSimpleTypeName();
+
+        final List<AnnotationMetadataBuilder> annotations = new ArrayList<AnnotationMetadataBuilder>();
+        addTransactionalAnnotation(annotations, !isMerge);
+
+        final InvocableMemberBodyBuilder bodyBuilder = new InvocableMemberBodyBuilder();
+        bodyBuilder.appendFormalLine(entityManager + " em = "
+                + ENTITY_MANAGER_METHOD_NAME + "();");
+        if (isMerge) {
+            bodyBuilder.appendFormalLine(returnType
+                    .getNameIncludingTypeParameters(false,
+                            builder.getImportRegistrationResolver())
+                    + " merged = new "
+                    + ARRAY_LIST.getNameIncludingTypeParameters(false,
+                            builder.getImportRegistrationResolver()) + "<"
+                    + simpleTypeName + ">();");
+        }
+        bodyBuilder.appendFormalLine(LIST.getNameIncludingTypeParameters(
+                false, builder.getImportRegistrationResolver())
+                + "<"
+                + simpleTypeName
+                + "> batch = new "
+                + ARRAY_LIST.getNameIncludingTypeParameters(false,
+                        builder.getImportRegistrationResolver()) + "<"
+                + simpleTypeName + ">();");
+        bodyBuilder.appendFormalLine("for (" + simpleTypeName
+                + " entity : entities) {");
+        bodyBuilder.indent();
+        if (isMerge) {
+            bodyBuilder.appendFormalLine(simpleTypeName
+                    + " managed = em.merge(entity);");
+            bodyBuilder.appendFormalLine("merged.add(managed);");
+            bodyBuilder.appendFormalLine("batch.add(managed);");
+        }
+        else {
+            bodyBuilder.appendFormalLine("em.persist(entity);");
+            bodyBuilder.appendFormalLine("batch.add(entity);");
+        }
+        bodyBuilder.appendFormalLine("if (batch.size() == "
+                + crudAnnotationValues.getBatchSize() + ") {");
+        bodyBuilder.indent();
+        bodyBuilder.appendFormalLine("em.flush();");
+        bodyBuilder.appendFormalLine("for (" + simpleTypeName
+                + " flushed : batch) {");
+        bodyBuilder.indent();
+        bodyBuilder.appendFormalLine("em.detach(flushed);");
+        bodyBuilder.indentRemove();
+        bodyBuilder.appendFormalLine("}");
+        bodyBuilder.appendFormalLine("batch.clear();");
+        bodyBuilder.indentRemove();
+        bodyBuilder.appendFormalLine("}");
+        bodyBuilder.indentRemove();
+        bodyBuilder.appendFormalLine("}");
+        bodyBuilder.appendFormalLine("em.flush();");
+        if (crudAnnotationValues.getCountCacheSeconds() > 0) {
+            bodyBuilder.appendFormalLine(getCountCacheFieldName("Expiry")
+                    + " = 0L;");
+        }
+        if (isMerge) {
+            bodyBuilder.appendFormalLine("return merged;");
+        }
+
+        final MethodMetadataBuilder methodBuilder = new MethodMetadataBuilder(
+                getId(), Modifier.PUBLIC | Modifier.STATIC, methodName,
+                returnType,
+                AnnotatedJavaType.convertFromJavaTypes(parameterType),
+                Arrays.asList(new JavaSymbolName("entities")), bodyBuilder);
+        methodBuilder.setAnnotations(annotations);
+        return methodBuilder;
+    }
+
     /**
      * @return the clear method (never returns null)
      */
@@ -367,6 +516,16 @@ public class JpaActiveRecordMetadata extends
                 "clear");
     }
 
+    private FieldMetadataBuilder getCountCacheField(final String suffix) {
+        return getField(Modifier.PRIVATE | Modifier.STATIC | Modifier.VOLATILE,
+                new JavaSymbolName(getCountCacheFieldName(suffix)),
+                JavaType.LONG_PRIMITIVE, null);
+    }
+
+    private String getCountCacheFieldName(final String suffix) {
+        return "cached" + plural + "Count" + suffix;
+    }
+
     /**
      * Finds (creating if necessary) the method that counts entities of this
      * type
@@ -400,14 +559,36 @@ public class JpaActiveRecordMetadata extends
         }
 
         final InvocableMemberBodyBuilder bodyBuilder = new InvocableMemberBodyBuilder();
+        final String countExpression;
         if (isGaeEnabled) {
-            bodyBuilder.appendFormalLine("return "
-                    + getFindAllMethod().getMethodName() + "().size();");
+            countExpression = getFindAllMethod().getMethodName() + "().size()";
         }
         else {
-            bodyBuilder.appendFormalLine("return " + ENTITY_MANAGER_METHOD_NAME
+            countExpression = ENTITY_MANAGER_METHOD_NAME
                     + "().createQuery(\"SELECT COUNT(o) FROM " + entityName
-                    + " o\", Long.class).getSingleResult();");
+                    + " o\", Long.class).getSingleResult()";
+        }
+        final int countCacheSeconds = crudAnnotationValues
+                .getCountCacheSeconds();
+        if (countCacheSeconds > 0) {
+            final String countField = getCountCacheFieldName("");
+            final String expiryField = getCountCacheFieldName("Expiry");
+            bodyBuilder
+                    .appendFormalLine("long now = System.currentTimeMillis();");
+            bodyBuilder.appendFormalLine("if (now < " + expiryField + ") {");
+            bodyBuilder.indent();
+            bodyBuilder.appendFormalLine("return " + countField + ";");
+            bodyBuilder.indentRemove();
+            bodyBuilder.appendFormalLine("}");
+            bodyBuilder.appendFormalLine("long count = " + countExpression
+                    + ";");
+            bodyBuilder.appendFormalLine(countField + " = count;");
+            bodyBuilder.appendFormalLine(expiryField + " = now + "
+                    + countCacheSeconds * 1000L + "L;");
+            bodyBuilder.appendFormalLine("return count;");
+        }
+        else {
+            bodyBuilder.appendFormalLine("return " + countExpression + ";");
         }
 
         final MethodMetadataBuilder methodBuilder = new MethodMetadataBuilder(
@@ -797,6 +978,158 @@ public class JpaActiveRecordMetadata extends
                 "remove");
     }
 
+    /**
+     * Returns a method that iterates over all entities of this type, reading
+     * them in batches ordered by identifier. Each batch is fetched with a
+     * keyset predicate on the last identifier seen rather than an offset, so
+     * the cost of a batch does not grow with its position in the table. The
+     * entities of each batch are detached before the next batch is read, so
+     * that the persistence context does not grow as the stream is consumed.
+     * 
+     * @return the stream all method (may return null)
+     */
+    private MethodMetadataBuilder getStreamAllMethod() {
+        if (identifierField.getAnnotation(EMBEDDED_ID) != null) {
+            // Composite keys have no natural ordering to page through
+            return null;
+        }
+
+        final JavaSymbolName methodName = new JavaSymbolName("streamAll"
+                + plural);
+        if (getGovernorMethod(methodName, INT_PRIMITIVE) != null) {
+            return null;
+        }
+
+        final JavaType returnType = new JavaType(Iterable.class.getName(), 0,
+                DataType.TYPE, null, Arrays.asList(destination));
+        final String simpleTypeName = destination.getSimpleTypeName();
+        final String iterator = ITERATOR.getNameIncludingTypeParameters(false,
+                builder.getImportRegistrationResolver());
+        final String list = LIST.getNameIncludingTypeParameters(false,
+                builder.getImportRegistrationResolver());
+        final String collections = COLLECTIONS.getNameIncludingTypeParameters(
+                false, builder.getImportRegistrationResolver());
+        final String noSuchElementException = NO_SUCH_ELEMENT_EXCEPTION
+                .getNameIncludingTypeParameters(false,
+                        builder.getImportRegistrationResolver());
+        final String typedQuery = TYPED_QUERY.getNameIncludingTypeParameters(
+                false, builder.getImportRegistrationResolver());
+        final String identifierType = identifierField.getFieldType()
+                .getNameIncludingTypeParameters(false,
+                        builder.getImportRegistrationResolver());
+        final String identifierName = identifierField.getFieldName()
+                .getSymbolName();
+        final String identifierAccessor = BeanInfoUtils
+                .getAccessorMethodName(identifierField).getSymbolName();
+
+        final List<AnnotationMetadataBuilder> annotations = new ArrayList<AnnotationMetadataBuilder>();
+        if (isGaeEnabled) {
+            addTransactionalAnnotation(annotations);
+        }
+
+        final InvocableMemberBodyBuilder bodyBuilder = new InvocableMemberBodyBuilder();
+        bodyBuilder.appendFormalLine("final int pageSize = batchSize;");
+        bodyBuilder.appendFormalLine("return new Iterable<" + simpleTypeName
+                + ">() {");
+        bodyBuilder.indent();
+        bodyBuilder.appendFormalLine("public " + iterator + "<"
+                + simpleTypeName + "> iterator() {");
+        bodyBuilder.indent();
+        bodyBuilder.appendFormalLine("return new " + iterator + "<"
+                + simpleTypeName + ">() {");
+        bodyBuilder.indent();
+        bodyBuilder.appendFormalLine("private " + list + "<" + simpleTypeName
+                + "> batch = " + collections + ".emptyList();");
+        bodyBuilder.appendFormalLine("private int index;");
+        bodyBuilder.appendFormalLine("private " + identifierType
+                + " lastId;");
+        bodyBuilder.appendFormalLine("private boolean exhausted;");
+        bodyBuilder.appendFormalLine("private boolean started;");
+        bodyBuilder.appendFormalLine("public boolean hasNext() {");
+        bodyBuilder.indent();
+        bodyBuilder.appendFormalLine("if (index < batch.size()) {");
+        bodyBuilder.indent();
+        bodyBuilder.appendFormalLine("return true;");
+        bodyBuilder.indentRemove();
+        bodyBuilder.appendFormalLine("}");
+        bodyBuilder.appendFormalLine("if (exhausted) {");
+        bodyBuilder.indent();
+        bodyBuilder.appendFormalLine("return false;");
+        bodyBuilder.indentRemove();
+        bodyBuilder.appendFormalLine("}");
+        bodyBuilder.appendFormalLine("for (" + simpleTypeName
+                + " entity : batch) {");
+        bodyBuilder.indent();
+        bodyBuilder.appendFormalLine(ENTITY_MANAGER_METHOD_NAME
+                + "().detach(entity);");
+        bodyBuilder.indentRemove();
+        bodyBuilder.appendFormalLine("}");
+        bodyBuilder.appendFormalLine(typedQuery + "<" + simpleTypeName
+                + "> query;");
+        // Not "lastId == null", as the identifier can be a primitive
+        bodyBuilder.appendFormalLine("if (!started) {");
+        bodyBuilder.indent();
+        bodyBuilder.appendFormalLine("query = " + ENTITY_MANAGER_METHOD_NAME
+                + "().createQuery(\"SELECT o FROM " + entityName
+                + " o ORDER BY o." + identifierName + "\", " + simpleTypeName
+                + ".class);");
+        bodyBuilder.indentRemove();
+        bodyBuilder.appendFormalLine("} else {");
+        bodyBuilder.indent();
+        bodyBuilder.appendFormalLine("query = " + ENTITY_MANAGER_METHOD_NAME
+                + "().createQuery(\"SELECT o FROM " + entityName
+                + " o WHERE o." + identifierName + " > :lastId ORDER BY o."
+                + identifierName + "\", " + simpleTypeName
+                + ".class).setParameter(\"lastId\", lastId);");
+        bodyBuilder.indentRemove();
+        bodyBuilder.appendFormalLine("}");
+        bodyBuilder
+                .appendFormalLine("batch = query.setMaxResults(pageSize).getResultList();");
+        bodyBuilder.appendFormalLine("index = 0;");
+        bodyBuilder.appendFormalLine("started = true;");
+        bodyBuilder.appendFormalLine("exhausted = batch.size() < pageSize;");
+        bodyBuilder.appendFormalLine("if (batch.isEmpty()) {");
+        bodyBuilder.indent();
+        bodyBuilder.appendFormalLine("return false;");
+        bodyBuilder.indentRemove();
+        bodyBuilder.appendFormalLine("}");
+        bodyBuilder.appendFormalLine("lastId = batch.get(batch.size() - 1)."
+                + identifierAccessor + "();");
+        bodyBuilder.appendFormalLine("return true;");
+        bodyBuilder.indentRemove();
+        bodyBuilder.appendFormalLine("}");
+        bodyBuilder.appendFormalLine("public " + simpleTypeName + " next() {");
+        bodyBuilder.indent();
+        bodyBuilder.appendFormalLine("if (!hasNext()) {");
+        bodyBuilder.indent();
+        bodyBuilder.appendFormalLine("throw new " + noSuchElementException
+                + "();");
+        bodyBuilder.indentRemove();
+        bodyBuilder.appendFormalLine("}");
+        bodyBuilder.appendFormalLine("return batch.get(index++);");
+        bodyBuilder.indentRemove();
+        bodyBuilder.appendFormalLine("}");
+        bodyBuilder.appendFormalLine("public void remove() {");
+        bodyBuilder.indent();
+        bodyBuilder
+                .appendFormalLine("throw new UnsupportedOperationException();");
+        bodyBuilder.indentRemove();
+        bodyBuilder.appendFormalLine("}");
+        bodyBuilder.indentRemove();
+        bodyBuilder.appendFormalLine("};");
+        bodyBuilder.indentRemove();
+        bodyBuilder.appendFormalLine("}");
+        bodyBuilder.indentRemove();
+        bodyBuilder.appendFormalLine("};");
+
+        final MethodMetadataBuilder methodBuilder = new MethodMetadataBuilder(
+                getId(), Modifier.PUBLIC | Modifier.STATIC, methodName,
+                returnType, AnnotatedJavaType.convertFromJavaTypes(INT_PRIMITIVE),
+                Arrays.asList(new JavaSymbolName("batchSize")), bodyBuilder);
+        methodBuilder.setAnnotations(annotations);
+        return methodBuilder;
+    }
+
     private void setEntityManagerMethod() {
         if (parent != null) {
             // The parent is required to guarantee this is available
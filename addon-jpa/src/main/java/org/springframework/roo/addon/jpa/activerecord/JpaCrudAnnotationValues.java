@@ -27,16 +27,20 @@ import org.springframework.roo.classpath.itd.MemberHoldingTypeDetailsMetadataIte
  */
 public class JpaCrudAnnotationValues extends AbstractAnnotationValues {
 
+    @AutoPopulate private int batchSize;
     @AutoPopulate private String clearMethod = CLEAR_METHOD_DEFAULT;
+    @AutoPopulate private int countCacheSeconds;
     @AutoPopulate private String countMethod = COUNT_METHOD_DEFAULT;
     @AutoPopulate private String findAllMethod = FIND_ALL_METHOD_DEFAULT;
     @AutoPopulate private String findEntriesMethod = FIND_ENTRIES_METHOD_DEFAULT;
     @AutoPopulate private String findAllSortedMethod = FIND_ALL_SORTED_METHOD_DEFAULT;
     @AutoPopulate private String findEntriesSortedMethod = FIND_ENTRIES_SORTED_METHOD_DEFAULT;
+    @AutoPopulate private String[] finderQueryHints;
     @AutoPopulate private String[] finders;
     @AutoPopulate private String findMethod = FIND_METHOD_DEFAULT;
     @AutoPopulate private String flushMethod = FLUSH_METHOD_DEFAULT;
     @AutoPopulate private String mergeMethod = MERGE_METHOD_DEFAULT;
+    @AutoPopulate private boolean namedQueryFinders;
     @AutoPopulate private String persistenceUnit = "";
     @AutoPopulate private String persistMethod = PERSIST_METHOD_DEFAULT;
     @AutoPopulate private String removeMethod = REMOVE_METHOD_DEFAULT;
@@ -53,10 +57,24 @@ public class JpaCrudAnnotationValues extends AbstractAnnotationValues {
         AutoPopulationUtils.populate(this, annotationMetadata);
     }
 
+    /**
+     * Returns the number of entities to process between flushes of the entity
+     * manager in the generated batch methods
+     * 
+     * @return 0 if no batch methods are to be generated
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
     public String getClearMethod() {
         return clearMethod;
     }
 
+    public int getCountCacheSeconds() {
+        return countCacheSeconds;
+    }
+
     public String getCountMethod() {
         return countMethod;
     }
@@ -83,6 +101,16 @@ public class JpaCrudAnnotationValues extends AbstractAnnotationValues {
         return findEntriesSortedMethod;
     }
 
+    /**
+     * Returns the query hints to apply to named finder queries, each in the
+     * form "name=value"
+     * 
+     * @return
+     */
+    public String[] getFinderQueryHints() {
+        return finderQueryHints;
+    }
+
     /**
      * Returns the custom finder names specified by the annotation
      * 
@@ -119,4 +147,8 @@ public class JpaCrudAnnotationValues extends AbstractAnnotationValues {
     public String getTransactionManager() {
         return transactionManager;
     }
+
+    public boolean isNamedQueryFinders() {
+        return namedQueryFinders;
+    }
 }
@@ -35,6 +35,19 @@ public @interface RooJpaActiveRecord {
     String PERSIST_METHOD_DEFAULT = "persist";
     String REMOVE_METHOD_DEFAULT = "remove";
 
+    /**
+     * Specifies the number of entities to process between flushing and
+     * clearing the entity manager in the generated "persistAll" and "mergeAll"
+     * methods. A value greater than zero also generates a "streamAll" method
+     * that reads the table in keyset-paginated batches; the entities of each
+     * batch are detached once the next batch is read, so any changes to them
+     * must be merged before then.
+     * 
+     * @return the batch size (defaults to 0, in which case none of these
+     *         methods are generated)
+     */
+    int batchSize() default 0;
+
     /**
      * Specifies the database catalog name that should be used for the entity.
      * 
@@ -55,6 +68,16 @@ public @interface RooJpaActiveRecord {
      */
     String countMethod() default COUNT_METHOD_DEFAULT;
 
+    /**
+     * Specifies the number of seconds for which the result of the "count"
+     * method may be cached. A cached count can be stale by up to this amount
+     * of time.
+     * 
+     * @return the time to live of the cached count (defaults to 0, meaning the
+     *         count is not cached)
+     */
+    int countCacheSeconds() default 0;
+
     /**
      * Specifies the name used to refer to the entity in queries.
      * <p>
@@ -88,6 +111,16 @@ public @interface RooJpaActiveRecord {
      */
     String[] finders() default "";
 
+    /**
+     * Specifies JPA query hints to apply to the named queries generated for
+     * the dynamic finders when {@link #namedQueryFinders()} is enabled. Each
+     * hint is given in the form "name=value", for example
+     * "org.hibernate.cacheable=true".
+     * 
+     * @return the query hints (defaults to none)
+     */
+    String[] finderQueryHints() default "";
+
     /**
      * @return the prefix of the "find" (by identifier) method to generate
      *         (defaults to {@value #FIND_METHOD_DEFAULT}, with the simple name
@@ -152,6 +185,18 @@ public @interface RooJpaActiveRecord {
      */
     String mergeMethod() default MERGE_METHOD_DEFAULT;
 
+    /**
+     * Indicates whether the JPQL of each dynamic finder should be declared as
+     * a @NamedQuery on the entity, so that the persistence provider parses
+     * and validates it once at startup rather than on every invocation.
+     * Finders taking collection parameters or a sort order still build their
+     * query at runtime.
+     * 
+     * @return whether to generate named queries for the dynamic finders
+     *         (defaults to false)
+     */
+    boolean namedQueryFinders() default false;
+
     /**
      * @return the name of the persistence unit defined in the persistence.xml
      *         file (optional)
@@ -0,0 +1,133 @@
+package org.springframework.roo.addon.jpa.activerecord;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.when;
+import static org.springframework.roo.model.JavaType.LONG_OBJECT;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.roo.classpath.PhysicalTypeMetadata;
+import org.springframework.roo.classpath.details.ClassOrInterfaceTypeDetails;
+import org.springframework.roo.classpath.details.FieldMetadata;
+import org.springframework.roo.classpath.details.MemberFindingUtils;
+import org.springframework.roo.model.JavaSymbolName;
+import org.springframework.roo.model.JavaType;
+import org.springframework.roo.project.LogicalPath;
+import org.springframework.roo.project.Path;
+
+/**
+ * Unit test of {@link JpaActiveRecordMetadata}
+ * 
+ * @since 1.2.5
+ */
+public class JpaActiveRecordMetadataTest {
+
+    private static final JavaType ASPECT = new JavaType(
+            "com.example.domain.Owner_Roo_Jpa_ActiveRecord");
+    private static final JavaType ENTITY = new JavaType(
+            "com.example.domain.Owner");
+    private static final String METADATA_ID = JpaActiveRecordMetadata
+            .createIdentifier(ENTITY,
+                    LogicalPath.getInstance(Path.SRC_MAIN_JAVA, ""));
+
+    // Fixture
+    @Mock private JpaCrudAnnotationValues mockCrudAnnotationValues;
+    @Mock private PhysicalTypeMetadata mockGovernor;
+    @Mock private ClassOrInterfaceTypeDetails mockGovernorTypeDetails;
+    @Mock private FieldMetadata mockIdentifierField;
+
+    private String getMethodBody(final String methodName) {
+        final JpaActiveRecordMetadata metadata = new JpaActiveRecordMetadata(
+                METADATA_ID, ASPECT, mockGovernor, null,
+                mockCrudAnnotationValues, "Owners", mockIdentifierField,
+                "Owner", false);
+        return MemberFindingUtils.getDeclaredMethod(
+                metadata.getMemberHoldingTypeDetails(),
+                new JavaSymbolName(methodName)).getBody();
+    }
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        when(mockGovernor.getMemberHoldingTypeDetails()).thenReturn(
+                mockGovernorTypeDetails);
+        when(mockGovernorTypeDetails.getName()).thenReturn(ENTITY);
+        when(mockIdentifierField.getFieldName()).thenReturn(
+                new JavaSymbolName("id"));
+        when(mockIdentifierField.getFieldType()).thenReturn(LONG_OBJECT);
+
+        when(mockCrudAnnotationValues.getBatchSize()).thenReturn(50);
+        when(mockCrudAnnotationValues.getClearMethod()).thenReturn(
+                RooJpaActiveRecord.CLEAR_METHOD_DEFAULT);
+        when(mockCrudAnnotationValues.getCountMethod()).thenReturn(
+                RooJpaActiveRecord.COUNT_METHOD_DEFAULT);
+        when(mockCrudAnnotationValues.getFindAllMethod()).thenReturn(
+                RooJpaActiveRecord.FIND_ALL_METHOD_DEFAULT);
+        when(mockCrudAnnotationValues.getFindAllSortedMethod()).thenReturn(
+                RooJpaActiveRecord.FIND_ALL_SORTED_METHOD_DEFAULT);
+        when(mockCrudAnnotationValues.getFindEntriesMethod()).thenReturn(
+                RooJpaActiveRecord.FIND_ENTRIES_METHOD_DEFAULT);
+        when(mockCrudAnnotationValues.getFindEntriesSortedMethod())
+                .thenReturn(
+                        RooJpaActiveRecord.FIND_ENTRIES_SORTED_METHOD_DEFAULT);
+        when(mockCrudAnnotationValues.getFindMethod()).thenReturn(
+                RooJpaActiveRecord.FIND_METHOD_DEFAULT);
+        when(mockCrudAnnotationValues.getFlushMethod()).thenReturn(
+                RooJpaActiveRecord.FLUSH_METHOD_DEFAULT);
+        when(mockCrudAnnotationValues.getMergeMethod()).thenReturn(
+                RooJpaActiveRecord.MERGE_METHOD_DEFAULT);
+        when(mockCrudAnnotationValues.getPersistMethod()).thenReturn(
+                RooJpaActiveRecord.PERSIST_METHOD_DEFAULT);
+        when(mockCrudAnnotationValues.getRemoveMethod()).thenReturn(
+                RooJpaActiveRecord.REMOVE_METHOD_DEFAULT);
+    }
+
+    @Test
+    public void testBatchMethodsDetachOnlyTheirOwnEntities() {
+        for (final String methodName : new String[] { "persistAll",
+                "mergeAll" }) {
+            // Invoke
+            final String body = getMethodBody(methodName);
+
+            // Check
+            assertTrue(body, body.contains("if (batch.size() == 50) {"));
+            assertTrue(body, body.contains("em.detach(flushed);"));
+            assertFalse(body, body.contains("em.clear();"));
+        }
+    }
+
+    @Test
+    public void testMergeAllReturnsTheManagedEntities() {
+        // Invoke
+        final String body = getMethodBody("mergeAll");
+
+        // Check
+        assertTrue(body, body.contains("Owner managed = em.merge(entity);"));
+        assertTrue(body, body.contains("merged.add(managed);"));
+        assertTrue(body, body.contains("return merged;"));
+    }
+
+    @Test
+    public void testPersistAllInvalidatesTheCachedCount() {
+        // Set up
+        when(mockCrudAnnotationValues.getCountCacheSeconds()).thenReturn(60);
+
+        // Invoke
+        final String body = getMethodBody("persistAll");
+
+        // Check
+        assertTrue(body, body.contains("cachedOwnersCountExpiry = 0L;"));
+    }
+
+    @Test
+    public void testPersistAllWithoutACountCacheLeavesNoneToInvalidate() {
+        // Invoke
+        final String body = getMethodBody("persistAll");
+
+        // Check
+        assertFalse(body, body.contains("cachedOwnersCountExpiry"));
+    }
+}
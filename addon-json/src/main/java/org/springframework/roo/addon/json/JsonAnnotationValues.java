@@ -18,7 +18,9 @@ public class JsonAnnotationValues extends AbstractAnnotationValues {
     @AutoPopulate boolean iso8601Dates;
     @AutoPopulate String fromJsonArrayMethod = "fromJsonArrayTo<TypeNamePlural>";
     @AutoPopulate String fromJsonMethod = "fromJsonTo<TypeName>";
+    @AutoPopulate boolean reuseSerializers;
     @AutoPopulate String rootName = "";
+    @AutoPopulate boolean streamingArray;
     @AutoPopulate String toJsonArrayMethod = "toJsonArray";
     @AutoPopulate String toJsonMethod = "toJson";
 
@@ -60,4 +62,12 @@ public class JsonAnnotationValues extends AbstractAnnotationValues {
     public boolean isIso8601Dates() {
         return iso8601Dates;
     }
+
+    public boolean isReuseSerializers() {
+        return reuseSerializers;
+    }
+
+    public boolean isStreamingArray() {
+        return streamingArray;
+    }
 }
@@ -16,6 +16,7 @@ import org.apache.commons.lang3.Validate;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.springframework.roo.classpath.PhysicalTypeIdentifierNamingUtils;
 import org.springframework.roo.classpath.PhysicalTypeMetadata;
+import org.springframework.roo.classpath.details.FieldMetadataBuilder;
 import org.springframework.roo.classpath.details.MethodMetadataBuilder;
 import org.springframework.roo.classpath.details.annotations.AnnotatedJavaType;
 import org.springframework.roo.classpath.itd.AbstractItdTypeDetailsProvidingMetadataItem;
@@ -38,6 +39,16 @@ public class JsonMetadata extends AbstractItdTypeDetailsProvidingMetadataItem {
             "flexjson.JSONDeserializer");
     private static final JavaType JSON_SERIALIZER = new JavaType(
             "flexjson.JSONSerializer");
+    private static final JavaType THREAD_LOCAL = new JavaType(
+            "java.lang.ThreadLocal");
+    private static final JavaType WRITER = new JavaType("java.io.Writer");
+
+    private static final JavaSymbolName ARRAY_DESERIALIZERS_FIELD = new JavaSymbolName(
+            "jsonArrayDeserializers");
+    private static final JavaSymbolName DESERIALIZERS_FIELD = new JavaSymbolName(
+            "jsonDeserializers");
+    private static final JavaSymbolName SERIALIZERS_FIELD = new JavaSymbolName(
+            "jsonSerializers");
 
     private static final String PROVIDES_TYPE_STRING = JsonMetadata.class
             .getName();
@@ -92,17 +103,196 @@ public class JsonMetadata extends AbstractItdTypeDetailsProvidingMetadataItem {
         this.annotationValues = annotationValues;
         this.typeNamePlural = typeNamePlural;
 
+        if (annotationValues.isReuseSerializers()) {
+            builder.addField(getSerializerHolderField(JSON_SERIALIZER,
+                    SERIALIZERS_FIELD));
+            builder.addField(getSerializerHolderField(getDeserializerType(
+                    destination), DESERIALIZERS_FIELD));
+            builder.addField(getSerializerHolderField(
+                    getDeserializerType(getListType()),
+                    ARRAY_DESERIALIZERS_FIELD));
+            builder.addMethod(getSerializerAccessor());
+            builder.addMethod(getDeserializerAccessor(false));
+            builder.addMethod(getDeserializerAccessor(true));
+        }
+
         builder.addMethod(getToJsonMethod(false));
         builder.addMethod(getToJsonMethod(true));
         builder.addMethod(getFromJsonMethod());
         builder.addMethod(getToJsonArrayMethod(false));
         builder.addMethod(getToJsonArrayMethod(true));
+        if (annotationValues.isStreamingArray()) {
+            builder.addMethod(getToJsonArrayWriterMethod());
+        }
         builder.addMethod(getFromJsonArrayMethod());
 
         // Create a representation of the desired output ITD
         itdTypeDetails = builder.build();
     }
 
+    /**
+     * Appends the "use" calls that configure a newly created deserializer
+     * 
+     * @param bodyBuilder the body to append to (required)
+     * @param array whether the deserializer reads an array of the destination
+     *            type
+     * @param suffix the text to follow the configuration
+     */
+    private void appendDeserializerConfiguration(
+            final InvocableMemberBodyBuilder bodyBuilder, final boolean array,
+            final String suffix) {
+        if (annotationValues.isIso8601Dates()) {
+            bodyBuilder
+                    .appendFormalLine(".use(java.util.Date.class, "
+                            + "new flexjson.transformer.DateTransformer(\"yyyy-MM-dd\"))");
+        }
+        bodyBuilder.appendFormalLine(".use(" + (array ? "\"values\"" : "null")
+                + ", " + destination.getSimpleTypeName() + ".class)" + suffix);
+    }
+
+    /**
+     * Appends the serialization of the given target, either through the
+     * reusable serializer or through a newly created one. A newly created
+     * serializer is always used when specific fields are to be included, as
+     * including them reconfigures the serializer.
+     * 
+     * @param bodyBuilder the body to append to (required)
+     * @param prefix the text to precede the serializer, e.g. "return "
+     * @param arguments the arguments to the serialize call
+     * @param includeParams whether a "fields" parameter is to be included
+     */
+    private void appendSerialization(
+            final InvocableMemberBodyBuilder bodyBuilder, final String prefix,
+            final String arguments, final boolean includeParams) {
+        final String serialize = (annotationValues.isDeepSerialize() ? ".deepSerialize("
+                : ".serialize(")
+                + arguments + ");";
+        if (annotationValues.isReuseSerializers() && !includeParams) {
+            bodyBuilder.appendFormalLine(prefix + getSerializerAccessorName()
+                    + "()" + serialize);
+            return;
+        }
+        appendNewSerializer(bodyBuilder, prefix);
+        bodyBuilder.appendFormalLine((!includeParams ? "" : ".include(fields)")
+                + ".exclude(\"*.class\")" + serialize);
+    }
+
+    private void appendNewSerializer(
+            final InvocableMemberBodyBuilder bodyBuilder, final String prefix) {
+        final String serializer = JSON_SERIALIZER
+                .getNameIncludingTypeParameters(false,
+                        builder.getImportRegistrationResolver());
+        final String root = annotationValues.getRootName() != null
+                && annotationValues.getRootName().length() > 0 ? ".rootName(\""
+                + annotationValues.getRootName() + "\")" : "";
+        bodyBuilder.appendFormalLine(prefix + "new " + serializer + "()" + root);
+        if (annotationValues.isIso8601Dates()) {
+            bodyBuilder.appendFormalLine(".transform("
+                    + "new flexjson.transformer.DateTransformer"
+                    + "(\"yyyy-MM-dd\"), java.util.Date.class)");
+        }
+    }
+
+    private MethodMetadataBuilder getDeserializerAccessor(final boolean array) {
+        final JavaSymbolName methodName = new JavaSymbolName(
+                getDeserializerAccessorName(array));
+        if (governorHasMethod(methodName)) {
+            return null;
+        }
+
+        final JavaType deserializerType = getDeserializerType(array ? getListType()
+                : destination);
+        final String deserializer = deserializerType
+                .getNameIncludingTypeParameters(false,
+                        builder.getImportRegistrationResolver());
+        final String holder = array ? ARRAY_DESERIALIZERS_FIELD
+                .getSymbolName() : DESERIALIZERS_FIELD.getSymbolName();
+
+        final InvocableMemberBodyBuilder bodyBuilder = new InvocableMemberBodyBuilder();
+        bodyBuilder.appendFormalLine(deserializer + " deserializer = " + holder
+                + ".get();");
+        bodyBuilder.appendFormalLine("if (deserializer == null) {");
+        bodyBuilder.indent();
+        bodyBuilder.appendFormalLine("deserializer = new " + deserializer
+                + "()");
+        appendDeserializerConfiguration(bodyBuilder, array, ";");
+        bodyBuilder.appendFormalLine(holder + ".set(deserializer);");
+        bodyBuilder.indentRemove();
+        bodyBuilder.appendFormalLine("}");
+        bodyBuilder.appendFormalLine("return deserializer;");
+
+        return new MethodMetadataBuilder(getId(), Modifier.PRIVATE
+                | Modifier.STATIC, methodName, deserializerType, bodyBuilder);
+    }
+
+    private String getDeserializerAccessorName(final boolean array) {
+        return array ? "jsonArrayDeserializer" : "jsonDeserializer";
+    }
+
+    private JavaType getDeserializerType(final JavaType targetType) {
+        return new JavaType(JSON_DESERIALIZER.getFullyQualifiedTypeName(), 0,
+                DataType.TYPE, null, Arrays.asList(targetType));
+    }
+
+    private JavaType getListType() {
+        return new JavaType(LIST.getFullyQualifiedTypeName(), 0,
+                DataType.TYPE, null, Arrays.asList(destination));
+    }
+
+    private MethodMetadataBuilder getSerializerAccessor() {
+        final JavaSymbolName methodName = new JavaSymbolName(
+                getSerializerAccessorName());
+        if (governorHasMethod(methodName)) {
+            return null;
+        }
+
+        final String serializer = JSON_SERIALIZER
+                .getNameIncludingTypeParameters(false,
+                        builder.getImportRegistrationResolver());
+        final String holder = SERIALIZERS_FIELD.getSymbolName();
+
+        final InvocableMemberBodyBuilder bodyBuilder = new InvocableMemberBodyBuilder();
+        bodyBuilder.appendFormalLine(serializer + " serializer = " + holder
+                + ".get();");
+        bodyBuilder.appendFormalLine("if (serializer == null) {");
+        bodyBuilder.indent();
+        appendNewSerializer(bodyBuilder, "serializer = ");
+        bodyBuilder.appendFormalLine(".exclude(\"*.class\");");
+        bodyBuilder.appendFormalLine(holder + ".set(serializer);");
+        bodyBuilder.indentRemove();
+        bodyBuilder.appendFormalLine("}");
+        bodyBuilder.appendFormalLine("return serializer;");
+
+        return new MethodMetadataBuilder(getId(), Modifier.PRIVATE
+                | Modifier.STATIC, methodName, JSON_SERIALIZER, bodyBuilder);
+    }
+
+    private String getSerializerAccessorName() {
+        return "jsonSerializer";
+    }
+
+    /**
+     * Returns a field holding one instance of the given (de)serializer type per
+     * thread; flexjson (de)serializers and the transformers registered with
+     * them are not safe for concurrent use, but are safe to reuse on a single
+     * thread.
+     * 
+     * @param serializerType the type of (de)serializer to hold
+     * @param fieldName the name of the field
+     * @return <code>null</code> if the governor already has such a field
+     */
+    private FieldMetadataBuilder getSerializerHolderField(
+            final JavaType serializerType, final JavaSymbolName fieldName) {
+        final JavaType holderType = new JavaType(
+                THREAD_LOCAL.getFullyQualifiedTypeName(), 0, DataType.TYPE,
+                null, Arrays.asList(serializerType));
+        return getField(Modifier.PRIVATE | Modifier.STATIC | Modifier.FINAL,
+                fieldName, holderType, "new "
+                        + holderType.getNameIncludingTypeParameters(false,
+                                builder.getImportRegistrationResolver())
+                        + "()");
+    }
+
     private MethodMetadataBuilder getFromJsonArrayMethod() {
         // Compute the relevant method name
         final JavaSymbolName methodName = getFromJsonArrayMethodName();
@@ -122,18 +312,20 @@ public class JsonMetadata extends AbstractItdTypeDetailsProvidingMetadataItem {
         final String bean = destination.getSimpleTypeName();
 
         final InvocableMemberBodyBuilder bodyBuilder = new InvocableMemberBodyBuilder();
-        final String deserializer = JSON_DESERIALIZER
-                .getNameIncludingTypeParameters(false,
-                        builder.getImportRegistrationResolver());
-        bodyBuilder.appendFormalLine("return new " + deserializer + "<" + list
-                + "<" + bean + ">>()");
-        if (annotationValues.isIso8601Dates()) {
-            bodyBuilder
-                    .appendFormalLine(".use(java.util.Date.class, "
-                            + "new flexjson.transformer.DateTransformer(\"yyyy-MM-dd\"))");
+        if (annotationValues.isReuseSerializers()) {
+            bodyBuilder.appendFormalLine("return "
+                    + getDeserializerAccessorName(true)
+                    + "().deserialize(json);");
+        }
+        else {
+            final String deserializer = JSON_DESERIALIZER
+                    .getNameIncludingTypeParameters(false,
+                            builder.getImportRegistrationResolver());
+            bodyBuilder.appendFormalLine("return new " + deserializer + "<"
+                    + list + "<" + bean + ">>()");
+            appendDeserializerConfiguration(bodyBuilder, true,
+                    ".deserialize(json);");
         }
-        bodyBuilder.appendFormalLine(".use(\"values\", " + bean
-                + ".class).deserialize(json);");
 
         final List<JavaSymbolName> parameterNames = Arrays
                 .asList(new JavaSymbolName("json"));
@@ -174,20 +366,20 @@ public class JsonMetadata extends AbstractItdTypeDetailsProvidingMetadataItem {
         }
 
         final InvocableMemberBodyBuilder bodyBuilder = new InvocableMemberBodyBuilder();
-        final String deserializer = JSON_DESERIALIZER
-                .getNameIncludingTypeParameters(false,
-                        builder.getImportRegistrationResolver());
-        bodyBuilder.appendFormalLine("return new " + deserializer + "<"
-                        + destination.getSimpleTypeName()
-                        + ">()");
-        if (annotationValues.isIso8601Dates()) {
-            bodyBuilder
-                    .appendFormalLine(".use(java.util.Date.class, "
-                            + "new flexjson.transformer.DateTransformer(\"yyyy-MM-dd\"))");
+        if (annotationValues.isReuseSerializers()) {
+            bodyBuilder.appendFormalLine("return "
+                    + getDeserializerAccessorName(false)
+                    + "().deserialize(json);");
+        }
+        else {
+            final String deserializer = JSON_DESERIALIZER
+                    .getNameIncludingTypeParameters(false,
+                            builder.getImportRegistrationResolver());
+            bodyBuilder.appendFormalLine("return new " + deserializer + "<"
+                    + destination.getSimpleTypeName() + ">()");
+            appendDeserializerConfiguration(bodyBuilder, false,
+                    ".deserialize(json);");
         }
-        bodyBuilder.appendFormalLine(".use(null, "
-                + destination.getSimpleTypeName()
-                + ".class).deserialize(json);");
 
         final List<JavaSymbolName> parameterNames = Arrays
                 .asList(new JavaSymbolName("json"));
@@ -239,25 +431,7 @@ public class JsonMetadata extends AbstractItdTypeDetailsProvidingMetadataItem {
         }
 
         final InvocableMemberBodyBuilder bodyBuilder = new InvocableMemberBodyBuilder();
-        final String serializer = JSON_SERIALIZER
-                .getNameIncludingTypeParameters(false,
-                        builder.getImportRegistrationResolver());
-        final String root = annotationValues.getRootName() != null
-                && annotationValues.getRootName().length() > 0 ? ".rootName(\""
-                + annotationValues.getRootName() + "\")" : "";
-        bodyBuilder.appendFormalLine("return new " + serializer + "()" + root);
-        if (annotationValues.isIso8601Dates()) { 
-            bodyBuilder
-                    .appendFormalLine(".transform("
-                    + "new flexjson.transformer.DateTransformer"
-                    + "(\"yyyy-MM-dd\"), java.util.Date.class)");
-        }
-        bodyBuilder
-                    .appendFormalLine(
-                        (!includeParams ? "" : ".include(fields)")
-                        + ".exclude(\"*.class\")"
-                        + (annotationValues.isDeepSerialize() ? ".deepSerialize(collection)"
-                                : ".serialize(collection)") + ";");
+        appendSerialization(bodyBuilder, "return ", "collection", includeParams);
 
         final MethodMetadataBuilder methodBuilder = new MethodMetadataBuilder(
                 getId(), Modifier.PUBLIC | Modifier.STATIC, methodName, STRING,
@@ -275,6 +449,34 @@ public class JsonMetadata extends AbstractItdTypeDetailsProvidingMetadataItem {
         return new JavaSymbolName(methodLabel);
     }
 
+    private MethodMetadataBuilder getToJsonArrayWriterMethod() {
+        final JavaSymbolName methodName = getToJsonArrayMethodName();
+        if (methodName == null) {
+            return null;
+        }
+
+        final JavaType parameterType = new JavaType(Collection.class.getName(),
+                0, DataType.TYPE, null, Arrays.asList(destination));
+        if (governorHasMethod(methodName, parameterType, WRITER)) {
+            return null;
+        }
+
+        final List<JavaSymbolName> parameterNames = Arrays.asList(
+                new JavaSymbolName("collection"), new JavaSymbolName("out"));
+
+        final InvocableMemberBodyBuilder bodyBuilder = new InvocableMemberBodyBuilder();
+        appendSerialization(bodyBuilder, "", "collection, out", false);
+
+        final MethodMetadataBuilder methodBuilder = new MethodMetadataBuilder(
+                getId(), Modifier.PUBLIC | Modifier.STATIC, methodName,
+                JavaType.VOID_PRIMITIVE,
+                AnnotatedJavaType.convertFromJavaTypes(parameterType, WRITER),
+                parameterNames, bodyBuilder);
+        methodBuilder.putCustomData(CustomDataJsonTags.TO_JSON_ARRAY_METHOD,
+                null);
+        return methodBuilder;
+    }
+
     private MethodMetadataBuilder getToJsonMethod(boolean includeParams) {
         // Compute the relevant method name
         final JavaSymbolName methodName = getToJsonMethodName();
@@ -288,27 +490,7 @@ public class JsonMetadata extends AbstractItdTypeDetailsProvidingMetadataItem {
         }
 
         final InvocableMemberBodyBuilder bodyBuilder = new InvocableMemberBodyBuilder();
-        final String serializer = JSON_SERIALIZER
-                .getNameIncludingTypeParameters(false,
-                        builder.getImportRegistrationResolver());
-        final String root = annotationValues.getRootName() != null
-                && annotationValues.getRootName().length() > 0 ? ".rootName(\""
-                + annotationValues.getRootName() + "\")" : "";
-        bodyBuilder.appendFormalLine("return new "
-                + serializer
-                + "()"
-                + root);
-        if (annotationValues.isIso8601Dates()) { 
-            bodyBuilder
-                    .appendFormalLine(".transform("
-                    + "new flexjson.transformer.DateTransformer"
-                    + "(\"yyyy-MM-dd\"), java.util.Date.class)");
-        }
-        bodyBuilder.appendFormalLine(
-                (!includeParams ? "" : ".include(fields)")
-                + ".exclude(\"*.class\")"
-                + (annotationValues.isDeepSerialize() ? ".deepSerialize(this)"
-                        : ".serialize(this)") + ";");
+        appendSerialization(bodyBuilder, "return ", "this", includeParams);
 
         List<AnnotatedJavaType> parameterTypes = new ArrayList<AnnotatedJavaType>();
         List<JavaSymbolName> parameterNames = new ArrayList<JavaSymbolName>();
@@ -50,6 +50,16 @@ public @interface RooJson {
      */
     String fromJsonMethod() default "fromJsonTo<TypeName>";
 
+    /**
+     * Enable reuse of preconfigured serializers and deserializers. Each thread
+     * then builds its (de)serializers once instead of creating and
+     * configuring new ones on every call.
+     * 
+     * @return an indication if (de)serializers should be reused (defaults to
+     *         false; optional)
+     */
+    boolean reuseSerializers() default false;
+
     /**
      * Specify the root name of the JSON document.
      * 
@@ -57,6 +67,16 @@ public @interface RooJson {
      */
     String rootName() default "";
 
+    /**
+     * Enable generation of a "toJsonArray" method that writes the JSON
+     * document directly to a {@link java.io.Writer} instead of building a
+     * String.
+     * 
+     * @return an indication if the streaming method should be generated
+     *         (defaults to false; optional)
+     */
+    boolean streamingArray() default false;
+
     /**
      * Specify name of the "toJsonArray" method to generate. Use a value of ""
      * to avoid the generation of this method.
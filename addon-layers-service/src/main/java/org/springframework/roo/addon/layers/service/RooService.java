@@ -56,6 +56,15 @@ public @interface RooService {
      */
     String UPDATE_METHOD = "update";
 
+    /**
+     * Indicates whether the results of the annotated service's read methods
+     * should be cached, using a cache per method, and those caches cleared by
+     * its save, update and delete methods
+     * 
+     * @return see above
+     */
+    boolean cacheable() default false;
+
     /**
      * Returns the prefix of the "count all" method
      * 
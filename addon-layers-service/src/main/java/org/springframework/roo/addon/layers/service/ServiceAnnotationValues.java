@@ -16,6 +16,7 @@ import org.springframework.roo.model.RooJavaType;
  */
 public class ServiceAnnotationValues extends AbstractAnnotationValues {
 
+    @AutoPopulate private boolean cacheable = false;
     @AutoPopulate private String countAllMethod = RooService.COUNT_ALL_METHOD;
     @AutoPopulate private String deleteMethod = RooService.DELETE_METHOD;
     @AutoPopulate private JavaType[] domainTypes;
@@ -75,6 +76,10 @@ public class ServiceAnnotationValues extends AbstractAnnotationValues {
         return updateMethod;
     }
 
+    public boolean isCacheable() {
+        return cacheable;
+    }
+
     public boolean isTransactional() {
         return transactional;
     }
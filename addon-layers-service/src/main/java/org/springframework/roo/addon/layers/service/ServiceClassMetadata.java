@@ -1,10 +1,13 @@
 package org.springframework.roo.addon.layers.service;
 
+import static org.springframework.roo.model.SpringJavaType.CACHEABLE;
+import static org.springframework.roo.model.SpringJavaType.CACHE_EVICT;
 import static org.springframework.roo.model.SpringJavaType.PRE_AUTHORIZE;
 import static org.springframework.roo.model.SpringJavaType.SERVICE;
 import static org.springframework.roo.model.SpringJavaType.TRANSACTIONAL;
 
 import java.lang.reflect.Modifier;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -19,6 +22,8 @@ import org.springframework.roo.classpath.details.MethodMetadataBuilder;
 import org.springframework.roo.classpath.details.annotations.AnnotatedJavaType;
 import org.springframework.roo.classpath.details.annotations.AnnotationMetadata;
 import org.springframework.roo.classpath.details.annotations.AnnotationMetadataBuilder;
+import org.springframework.roo.classpath.details.annotations.ArrayAttributeValue;
+import org.springframework.roo.classpath.details.annotations.StringAttributeValue;
 import org.springframework.roo.classpath.itd.AbstractItdTypeDetailsProvidingMetadataItem;
 import org.springframework.roo.classpath.itd.InvocableMemberBodyBuilder;
 import org.springframework.roo.classpath.layers.MemberTypeAdditions;
@@ -101,6 +106,9 @@ public class ServiceClassMetadata extends
             final JavaType idType = entry.getValue();
             final Map<ServiceLayerMethod, MemberTypeAdditions> crudAdditions = allCrudAdditions
                     .get(domainType);
+            final List<StringAttributeValue> cacheNames = getCacheNames(
+                    governorDetails, annotationValues, domainType, idType,
+                    domainTypePlurals.get(domainType));
             for (final ServiceLayerMethod method : ServiceLayerMethod.values()) {
                 final JavaSymbolName methodName = method.getSymbolName(
                         annotationValues, domainType,
@@ -239,6 +247,36 @@ public class ServiceClassMetadata extends
                                         .build());
                     }
 
+                    // Caches the results of read methods in a cache of
+                    // their own, and clears the caches of the domain type
+                    // when it is changed
+                    if (annotationValues.isCacheable() && method.isReadOnly()) {
+                        final AnnotationMetadataBuilder cacheableBuilder = new AnnotationMetadataBuilder(
+                                CACHEABLE);
+                        cacheableBuilder.addStringAttribute("value",
+                                methodName.getSymbolName());
+                        if (parameterNames.size() > 1) {
+                            // The default key for several parameters is
+                            // their combined hash code, which can be the same
+                            // for different pages
+                            cacheableBuilder.addStringAttribute("key",
+                                    getCacheKey(parameterNames.size()));
+                        }
+                        methodMetadataBuilder.addAnnotation(cacheableBuilder
+                                .build());
+                    }
+                    else if (!cacheNames.isEmpty() && !method.isReadOnly()) {
+                        final AnnotationMetadataBuilder cacheEvictBuilder = new AnnotationMetadataBuilder(
+                                CACHE_EVICT);
+                        cacheEvictBuilder
+                                .addAttribute(new ArrayAttributeValue<StringAttributeValue>(
+                                        new JavaSymbolName("value"), cacheNames));
+                        cacheEvictBuilder.addBooleanAttribute("allEntries",
+                                true);
+                        methodMetadataBuilder.addAnnotation(cacheEvictBuilder
+                                .build());
+                    }
+
                     builder.addMethod(methodMetadataBuilder);
                 }
             }
@@ -286,6 +324,57 @@ public class ServiceClassMetadata extends
         preAuthorizeValue.append(")");
     }
 
+    /**
+     * Returns the SpEL expression for a cache key that combines the values of
+     * the given number of parameters, e.g. "#p0 + '-' + #p1". The parameters
+     * are referred to by position, as their names are only available to
+     * Spring when the class is compiled with debug information.
+     * 
+     * @param parameterCount the number of the method's parameters
+     * @return a non-blank expression
+     */
+    private String getCacheKey(final int parameterCount) {
+        final StringBuilder key = new StringBuilder();
+        for (int i = 0; i < parameterCount; i++) {
+            if (key.length() > 0) {
+                key.append(" + '-' + ");
+            }
+            key.append("#p").append(i);
+        }
+        return key.toString();
+    }
+
+    /**
+     * Returns the names of the caches of the read methods that this ITD
+     * introduces for the given domain type, i.e. the names of those methods.
+     * 
+     * @return a non-<code>null</code> list, empty if the service is not
+     *         cacheable
+     */
+    private List<StringAttributeValue> getCacheNames(
+            final MemberDetails governorDetails,
+            final ServiceAnnotationValues annotationValues,
+            final JavaType domainType, final JavaType idType,
+            final String plural) {
+        final List<StringAttributeValue> cacheNames = new ArrayList<StringAttributeValue>();
+        if (!annotationValues.isCacheable()) {
+            return cacheNames;
+        }
+        for (final ServiceLayerMethod method : ServiceLayerMethod.values()) {
+            final JavaSymbolName methodName = method.getSymbolName(
+                    annotationValues, domainType, plural);
+            if (method.isReadOnly()
+                    && methodName != null
+                    && !governorDetails.isMethodDeclaredByAnother(methodName,
+                            method.getParameterTypes(domainType, idType),
+                            getId())) {
+                cacheNames.add(new StringAttributeValue(new JavaSymbolName(
+                        "value"), methodName.getSymbolName()));
+            }
+        }
+        return cacheNames;
+    }
+
     @Override
     public String toString() {
         final ToStringBuilder builder = new ToStringBuilder(this);
@@ -234,6 +234,10 @@ public class ServiceClassMetadataProvider extends
             templateService.removeServiceFromXmlConfiguration(serviceInterface);
         }
 
+        if (serviceAnnotationValues.isCacheable()) {
+            templateService.addCacheConfiguration();
+        }
+
         return new ServiceClassMetadata(metadataIdentificationString,
                 aspectName, governorPhysicalTypeMetadata, serviceClassDetails,
                 serviceAnnotationValues, domainTypeToIdTypeMap,
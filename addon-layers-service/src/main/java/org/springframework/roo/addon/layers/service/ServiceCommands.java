@@ -41,6 +41,7 @@ public class ServiceCommands implements CommandMarker {
             @CliOption(key = "interface", mandatory = true, help = "The java interface to apply this annotation to") final JavaType interfaceType,
             @CliOption(key = "class", mandatory = false, help = "Implementation class for the specified interface") JavaType classType,
             @CliOption(key = "entity", unspecifiedDefaultValue = "*", optionContext = PROJECT, mandatory = false, help = "The domain entity this service should expose") final JavaType domainType,
+            @CliOption(key = "cacheable", mandatory = false, unspecifiedDefaultValue = "false", specifiedDefaultValue = "true", help = "Whether or not to cache the results of the service's find and count methods") final boolean cacheable,
             @CliOption(key = "useXmlConfiguration", mandatory = false, help = "When true, Spring Roo will configure services using XML.") Boolean useXmlConfiguration) {
 
         if (classType == null) {
@@ -51,13 +52,14 @@ public class ServiceCommands implements CommandMarker {
             useXmlConfiguration = Boolean.FALSE;
         }
         serviceOperations.setupService(interfaceType, classType, domainType,
-                false, "", false, useXmlConfiguration);
+                false, "", false, useXmlConfiguration, cacheable);
     }
 
     @CliCommand(value = "service all", help = "Adds @RooService annotation to all entities")
     public void service(
             @CliOption(key = "interfacePackage", mandatory = true, help = "The java interface package") final JavaPackage interfacePackage,
             @CliOption(key = "classPackage", mandatory = false, help = "The java package of the implementation classes for the interfaces") JavaPackage classPackage,
+            @CliOption(key = "cacheable", mandatory = false, unspecifiedDefaultValue = "false", specifiedDefaultValue = "true", help = "Whether or not to cache the results of the service's find and count methods") final boolean cacheable,
             @CliOption(key = "useXmlConfiguration", mandatory = false, help = "When true, Spring Roo will configure services using XML.  This is the default behavior for services using GAE") Boolean useXmlConfiguration) {
 
         if (classPackage == null) {
@@ -67,7 +69,7 @@ public class ServiceCommands implements CommandMarker {
             useXmlConfiguration = Boolean.FALSE;
         }
         serviceOperations.setupAllServices(interfacePackage, classPackage,
-                false, "", false, useXmlConfiguration);
+                false, "", false, useXmlConfiguration, cacheable);
     }
 
     @CliCommand(value = "service secure type", help = "Adds @RooService annotation to target type with options for authentication, authorization, and a permission evaluator")
@@ -78,6 +80,7 @@ public class ServiceCommands implements CommandMarker {
             @CliOption(key = "requireAuthentication", unspecifiedDefaultValue = "false", specifiedDefaultValue = "ture", mandatory = false, help = "Whether or not users must be authenticated to use the service") final boolean requireAuthentication,
             @CliOption(key = "authorizedRoles", mandatory = false, help = "The role authorized the use the methods in the service") final String role,
             @CliOption(key = "usePermissionEvaluator", unspecifiedDefaultValue = "false", specifiedDefaultValue = "true", mandatory = false, help = "Whether or not to use a PermissionEvaluator") final boolean usePermissionEvaluator,
+            @CliOption(key = "cacheable", mandatory = false, unspecifiedDefaultValue = "false", specifiedDefaultValue = "true", help = "Whether or not to cache the results of the service's find and count methods") final boolean cacheable,
             @CliOption(key = "useXmlConfiguration", mandatory = false, help = "When true, Spring Roo will configure services using XML.") Boolean useXmlConfiguration) {
 
         if (classType == null) {
@@ -89,7 +92,7 @@ public class ServiceCommands implements CommandMarker {
         }
         serviceOperations.setupService(interfaceType, classType, domainType,
                 requireAuthentication, role, usePermissionEvaluator,
-                useXmlConfiguration);
+                useXmlConfiguration, cacheable);
     }
 
     @CliCommand(value = "service secure all", help = "Adds @RooService annotation to all entities with options for authentication, authorization, and a permission evaluator")
@@ -99,6 +102,7 @@ public class ServiceCommands implements CommandMarker {
             @CliOption(key = "requireAuthentication", unspecifiedDefaultValue = "false", specifiedDefaultValue = "true", mandatory = false, help = "Whether or not users must be authenticated to use the service") final boolean requireAuthentication,
             @CliOption(key = "authorizedRole", mandatory = false, help = "The role authorized the use the methods in the service (additional roles can be added after creation)") final String role,
             @CliOption(key = "usePermissionEvaluator", unspecifiedDefaultValue = "false", specifiedDefaultValue = "true", mandatory = false, help = "Whether or not to use a PermissionEvaluator") final boolean usePermissionEvaluator,
+            @CliOption(key = "cacheable", mandatory = false, unspecifiedDefaultValue = "false", specifiedDefaultValue = "true", help = "Whether or not to cache the results of the service's find and count methods") final boolean cacheable,
             @CliOption(key = "useXmlConfiguration", mandatory = false, help = "When true, Spring Roo will configure services using XML.") Boolean useXmlConfiguration) {
 
         if (classPackage == null) {
@@ -109,6 +113,6 @@ public class ServiceCommands implements CommandMarker {
         }
         serviceOperations.setupAllServices(interfacePackage, classPackage,
                 requireAuthentication, role, usePermissionEvaluator,
-                useXmlConfiguration);
+                useXmlConfiguration, cacheable);
     }
 }
\ No newline at end of file
@@ -438,6 +438,17 @@ enum ServiceLayerMethod {
         return null;
     }
 
+    /**
+     * Indicates whether this method only reads entities, i.e. its result can
+     * be cached until an entity of the same type is saved, updated or deleted
+     * 
+     * @return see above
+     */
+    boolean isReadOnly() {
+        return this == COUNT || this == FIND || this == FIND_ALL
+                || this == FIND_ENTRIES;
+    }
+
     /**
      * Indicates whether this method is void, i.e. returns nothing
      * 
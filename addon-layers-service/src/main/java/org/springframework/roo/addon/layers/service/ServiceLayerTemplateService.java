@@ -3,6 +3,13 @@ package org.springframework.roo.addon.layers.service;
 import org.springframework.roo.classpath.details.ClassOrInterfaceTypeDetails;
 
 public interface ServiceLayerTemplateService {
+
+    /**
+     * Creates the application context file that enables the caching of
+     * service method results, unless it already exists
+     */
+    public void addCacheConfiguration();
+
     public void addServiceToXmlConfiguration(
             ClassOrInterfaceTypeDetails serviceInterface,
             ClassOrInterfaceTypeDetails serviceClass);
@@ -37,6 +37,32 @@ public class ServiceLayerTemplateServiceImpl implements
     @Reference ProjectOperations projectOperations;
     @Reference FileManager fileManager;
 
+    @Override
+    public void addCacheConfiguration() {
+        final String fileIdentifier = projectOperations.getPathResolver()
+                .getFocusedIdentifier(Path.SPRING_CONFIG_ROOT,
+                        "applicationContext-cache.xml");
+        if (fileManager.exists(fileIdentifier)) {
+            return;
+        }
+        InputStream inputStream = null;
+        OutputStream outputStream = null;
+        try {
+            inputStream = FileUtils.getInputStream(getClass(),
+                    "applicationContext-cache-template.xml");
+            outputStream = fileManager.createFile(fileIdentifier)
+                    .getOutputStream();
+            IOUtils.copy(inputStream, outputStream);
+        }
+        catch (final IOException ioe) {
+            throw new IllegalStateException(ioe);
+        }
+        finally {
+            IOUtils.closeQuietly(inputStream);
+            IOUtils.closeQuietly(outputStream);
+        }
+    }
+
     @Override
     public void addServiceToXmlConfiguration(
             ClassOrInterfaceTypeDetails serviceInterface,
@@ -16,11 +16,11 @@ public interface ServiceOperations {
     void setupService(JavaType interfaceType, JavaType classType,
             JavaType domainType, boolean requireAuthentication,
             String authorizedRole, boolean usePermissionEvalutor,
-            boolean useXmlConfiguration);
+            boolean useXmlConfiguration, boolean cacheable);
 
     void setupAllServices(JavaPackage interfacePackage,
             JavaPackage classPackage, boolean requireAuthentication,
             String authorizedRole, boolean usePermissionEvalutor,
-            boolean useXmlConfiguration);
+            boolean useXmlConfiguration, boolean cacheable);
 
 }
@@ -70,7 +70,7 @@ public class ServiceOperationsImpl implements ServiceOperations {
     private void createServiceInterface(final JavaType interfaceType,
             final JavaType domainType, boolean requireAuthentication,
             String role, boolean usePermissionEvaluator,
-            boolean useXmlConfiguration) {
+            boolean useXmlConfiguration, boolean cacheable) {
         final String interfaceIdentifier = pathResolver
                 .getFocusedCanonicalPath(Path.SRC_MAIN_JAVA, interfaceType);
         if (fileManager.exists(interfaceIdentifier)) {
@@ -116,6 +116,9 @@ public class ServiceOperationsImpl implements ServiceOperations {
             interfaceAnnotationMetadata.addBooleanAttribute(
                     "useXmlConfiguration", true);
         }
+        if (cacheable) {
+            interfaceAnnotationMetadata.addBooleanAttribute("cacheable", true);
+        }
         final String interfaceMid = PhysicalTypeIdentifier.createIdentifier(
                 interfaceType, pathResolver.getPath(interfaceIdentifier));
         final ClassOrInterfaceTypeDetailsBuilder interfaceTypeBuilder = new ClassOrInterfaceTypeDetailsBuilder(
@@ -146,7 +149,8 @@ public class ServiceOperationsImpl implements ServiceOperations {
     public void setupService(final JavaType interfaceType,
             final JavaType classType, final JavaType domainType,
             boolean requireAuthentication, String role,
-            boolean usePermissionEvaluator, boolean useXmlConfiguration) {
+            boolean usePermissionEvaluator, boolean useXmlConfiguration,
+            boolean cacheable) {
 
         // Verify that security is installed
         if (requireAuthentication || !role.equals("") || usePermissionEvaluator) {
@@ -164,7 +168,7 @@ public class ServiceOperationsImpl implements ServiceOperations {
         Validate.notNull(interfaceType, "Interface type required");
         createServiceInterface(interfaceType, domainType,
                 requireAuthentication, role, usePermissionEvaluator,
-                useXmlConfiguration);
+                useXmlConfiguration, cacheable);
         createServiceClass(interfaceType, classType);
     }
 
@@ -172,7 +176,7 @@ public class ServiceOperationsImpl implements ServiceOperations {
     public void setupAllServices(JavaPackage interfacePackage,
             JavaPackage classPackage, boolean requireAuthentication,
             String role, boolean usePermissionEvaluator,
-            boolean useXmlConfiguration) {
+            boolean useXmlConfiguration, boolean cacheable) {
         for (final ClassOrInterfaceTypeDetails domainType : typeLocationService
                 .findClassesOrInterfaceDetailsWithAnnotation(ROO_JPA_ENTITY,
                         ROO_JPA_ACTIVE_RECORD)) {
@@ -186,7 +190,7 @@ public class ServiceOperationsImpl implements ServiceOperations {
                             + "ServiceImpl");
             setupService(interfaceType, classType, domainType.getName(),
                     requireAuthentication, role, usePermissionEvaluator,
-                    useXmlConfiguration);
+                    useXmlConfiguration, cacheable);
         }
     }
 
@@ -0,0 +1,176 @@
+package org.springframework.roo.addon.layers.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.when;
+import static org.springframework.roo.model.JavaType.LONG_OBJECT;
+import static org.springframework.roo.model.SpringJavaType.CACHEABLE;
+import static org.springframework.roo.model.SpringJavaType.CACHE_EVICT;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.roo.classpath.PhysicalTypeMetadata;
+import org.springframework.roo.classpath.details.ClassOrInterfaceTypeDetails;
+import org.springframework.roo.classpath.details.ItdTypeDetails;
+import org.springframework.roo.classpath.details.MemberFindingUtils;
+import org.springframework.roo.classpath.details.MethodMetadata;
+import org.springframework.roo.classpath.details.annotations.AnnotationAttributeValue;
+import org.springframework.roo.classpath.details.annotations.AnnotationMetadata;
+import org.springframework.roo.classpath.layers.MemberTypeAdditions;
+import org.springframework.roo.classpath.scanner.MemberDetails;
+import org.springframework.roo.model.JavaSymbolName;
+import org.springframework.roo.model.JavaType;
+import org.springframework.roo.project.LogicalPath;
+import org.springframework.roo.project.Path;
+
+/**
+ * Unit test of {@link ServiceClassMetadata}
+ * 
+ * @since 1.2.5
+ */
+public class ServiceClassMetadataTest {
+
+    private static final JavaType ASPECT = new JavaType(
+            "com.example.service.OwnerServiceImpl_Roo_Service");
+    private static final JavaType DOMAIN_TYPE = new JavaType(
+            "com.example.domain.Owner");
+    private static final JavaSymbolName KEY = new JavaSymbolName("key");
+    private static final JavaType SERVICE_CLASS = new JavaType(
+            "com.example.service.OwnerServiceImpl");
+    private static final String METADATA_ID = ServiceClassMetadata
+            .createIdentifier(SERVICE_CLASS,
+                    LogicalPath.getInstance(Path.SRC_MAIN_JAVA, ""));
+    private static final JavaSymbolName VALUE = new JavaSymbolName("value");
+
+    // Fixture
+    @Mock private ServiceAnnotationValues mockAnnotationValues;
+    @Mock private PhysicalTypeMetadata mockGovernor;
+    @Mock private MemberDetails mockGovernorDetails;
+    @Mock private ClassOrInterfaceTypeDetails mockGovernorTypeDetails;
+
+    private ItdTypeDetails getItd() {
+        final Map<JavaType, Map<ServiceLayerMethod, MemberTypeAdditions>> allCrudAdditions = new HashMap<JavaType, Map<ServiceLayerMethod, MemberTypeAdditions>>();
+        allCrudAdditions.put(DOMAIN_TYPE,
+                new HashMap<ServiceLayerMethod, MemberTypeAdditions>());
+        final ServiceClassMetadata metadata = new ServiceClassMetadata(
+                METADATA_ID, ASPECT, mockGovernor, mockGovernorDetails,
+                mockAnnotationValues, Collections.singletonMap(DOMAIN_TYPE,
+                        LONG_OBJECT), allCrudAdditions,
+                Collections.singletonMap(DOMAIN_TYPE, "Owners"), "owner");
+        return metadata.getMemberHoldingTypeDetails();
+    }
+
+    private AnnotationMetadata getMethodAnnotation(final ItdTypeDetails itd,
+            final String methodName, final JavaType annotationType) {
+        final MethodMetadata method = MemberFindingUtils.getDeclaredMethod(
+                itd, new JavaSymbolName(methodName));
+        return method.getAnnotation(annotationType);
+    }
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        when(mockGovernor.getMemberHoldingTypeDetails()).thenReturn(
+                mockGovernorTypeDetails);
+        when(mockGovernorTypeDetails.getName()).thenReturn(SERVICE_CLASS);
+
+        when(mockAnnotationValues.getAuthorizedCreateOrUpdateRoles())
+                .thenReturn(new String[0]);
+        when(mockAnnotationValues.getAuthorizedDeleteRoles()).thenReturn(
+                new String[0]);
+        when(mockAnnotationValues.getAuthorizedReadRoles()).thenReturn(
+                new String[0]);
+        when(mockAnnotationValues.getCountAllMethod()).thenReturn(
+                RooService.COUNT_ALL_METHOD);
+        when(mockAnnotationValues.getDeleteMethod()).thenReturn(
+                RooService.DELETE_METHOD);
+        when(mockAnnotationValues.getFindAllMethod()).thenReturn(
+                RooService.FIND_ALL_METHOD);
+        when(mockAnnotationValues.getFindEntriesMethod()).thenReturn(
+                RooService.FIND_ENTRIES_METHOD);
+        when(mockAnnotationValues.getFindMethod()).thenReturn(
+                RooService.FIND_METHOD);
+        when(mockAnnotationValues.getSaveMethod()).thenReturn(
+                RooService.SAVE_METHOD);
+        when(mockAnnotationValues.getUpdateMethod()).thenReturn(
+                RooService.UPDATE_METHOD);
+        when(mockAnnotationValues.isCacheable()).thenReturn(true);
+    }
+
+    @Test
+    public void testChangingMethodsEvictTheCachesOfTheReadMethods() {
+        // Invoke
+        final ItdTypeDetails itd = getItd();
+
+        // Check
+        for (final String methodName : Arrays.asList("deleteOwner",
+                "saveOwner", "updateOwner")) {
+            final AnnotationMetadata cacheEvict = getMethodAnnotation(itd,
+                    methodName, CACHE_EVICT);
+            assertEquals(Boolean.TRUE,
+                    cacheEvict.getAttribute(new JavaSymbolName("allEntries"))
+                            .getValue());
+            @SuppressWarnings("unchecked")
+            final List<AnnotationAttributeValue<?>> cacheNames = (List<AnnotationAttributeValue<?>>) cacheEvict
+                    .getAttribute(VALUE).getValue();
+            final List<Object> names = new ArrayList<Object>();
+            for (final AnnotationAttributeValue<?> cacheName : cacheNames) {
+                names.add(cacheName.getValue());
+            }
+            assertEquals(Arrays.asList("countAllOwners", "findOwner",
+                    "findAllOwners", "findOwnerEntries"), names);
+            assertNull(getMethodAnnotation(itd, methodName, CACHEABLE));
+        }
+    }
+
+    @Test
+    public void testFindEntriesIsCachedByPage() {
+        // Invoke
+        final AnnotationMetadata cacheable = getMethodAnnotation(getItd(),
+                "findOwnerEntries", CACHEABLE);
+
+        // Check
+        assertEquals("findOwnerEntries", cacheable.getAttribute(VALUE)
+                .getValue());
+        assertEquals("#p0 + '-' + #p1", cacheable.getAttribute(KEY)
+                .getValue());
+    }
+
+    @Test
+    public void testMethodsAreNotCachedUnlessRequested() {
+        // Set up
+        when(mockAnnotationValues.isCacheable()).thenReturn(false);
+
+        // Invoke
+        final ItdTypeDetails itd = getItd();
+
+        // Check
+        assertNull(getMethodAnnotation(itd, "findAllOwners", CACHEABLE));
+        assertNull(getMethodAnnotation(itd, "saveOwner", CACHE_EVICT));
+    }
+
+    @Test
+    public void testReadMethodsWithFewerThanTwoParametersUseTheDefaultKey() {
+        // Invoke
+        final ItdTypeDetails itd = getItd();
+
+        // Check
+        for (final String methodName : Arrays.asList("countAllOwners",
+                "findOwner", "findAllOwners")) {
+            final AnnotationMetadata cacheable = getMethodAnnotation(itd,
+                    methodName, CACHEABLE);
+            assertEquals(methodName, cacheable.getAttribute(VALUE).getValue());
+            assertNull(cacheable.getAttribute(KEY));
+            assertNull(getMethodAnnotation(itd, methodName, CACHE_EVICT));
+        }
+    }
+}
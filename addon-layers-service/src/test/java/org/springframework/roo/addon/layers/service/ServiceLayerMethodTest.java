@@ -1,10 +1,15 @@
 package org.springframework.roo.addon.layers.service;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
+import static org.springframework.roo.addon.layers.service.ServiceLayerMethod.COUNT;
+import static org.springframework.roo.addon.layers.service.ServiceLayerMethod.DELETE;
+import static org.springframework.roo.addon.layers.service.ServiceLayerMethod.FIND;
 import static org.springframework.roo.addon.layers.service.ServiceLayerMethod.FIND_ALL;
 import static org.springframework.roo.addon.layers.service.ServiceLayerMethod.FIND_ENTRIES;
 import static org.springframework.roo.addon.layers.service.ServiceLayerMethod.SAVE;
@@ -139,6 +144,17 @@ public class ServiceLayerMethodTest {
         }
     }
 
+    @Test
+    public void testOnlyCountAndFindMethodsAreReadOnly() {
+        assertTrue(COUNT.isReadOnly());
+        assertTrue(FIND.isReadOnly());
+        assertTrue(FIND_ALL.isReadOnly());
+        assertTrue(FIND_ENTRIES.isReadOnly());
+        assertFalse(DELETE.isReadOnly());
+        assertFalse(SAVE.isReadOnly());
+        assertFalse(UPDATE.isReadOnly());
+    }
+
     @Test
     public void testValueOfMethodUsingCorrectDetails() {
         for (final ServiceLayerMethod method : ServiceLayerMethod.values()) {
@@ -17,6 +17,7 @@ import org.springframework.roo.classpath.details.MemberFindingUtils;
 import org.springframework.roo.classpath.details.annotations.AnnotationAttributeValue;
 import org.springframework.roo.classpath.details.annotations.AnnotationMetadata;
 import org.springframework.roo.classpath.itd.AbstractItdTypeDetailsProvidingMetadataItem;
+import org.springframework.roo.metadata.Fingerprint;
 import org.springframework.roo.metadata.MetadataIdentificationUtils;
 import org.springframework.roo.model.JavaSymbolName;
 import org.springframework.roo.model.JavaType;
@@ -104,6 +105,12 @@ public class PluralMetadata extends AbstractItdTypeDetailsProvidingMetadataItem
         return StringUtils.equals(plural, other.getPlural());
     }
 
+    @Override
+    public Fingerprint getFingerprint() {
+        // Consistent with hashCode, see that method
+        return Fingerprint.of(plural);
+    }
+
     /**
      * This method returns the plural term as per inflector. ATTENTION: this
      * method does NOT take @RooPlural into account. Use getPlural(..) instead!
@@ -0,0 +1,119 @@
+package org.springframework.roo.addon.roobot.client;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang3.Validate;
+import org.springframework.roo.addon.roobot.client.model.Bundle;
+
+/**
+ * The add-ons known to RooBot, together with an index of the distinct keywords
+ * in their symbolic names and summaries.
+ * <p>
+ * A catalogue records the digest of the RooBot index it was built from,
+ * allowing an unchanged index to be detected without parsing it again.
+ * 
+ * @since 1.2.5
+ */
+public class AddOnCatalogue {
+
+    private static final Pattern KEYWORD = Pattern.compile("[a-z0-9]+");
+    private static final String NON_KEYWORD_CHARACTERS = "[^a-z0-9]+";
+
+    private final Map<String, Bundle> bundles = new HashMap<String, Bundle>();
+    private final String digest;
+    private final Map<String, Set<String>> index = new HashMap<String, Set<String>>();
+    private final Map<String, String> searchText = new HashMap<String, String>();
+
+    /**
+     * Constructor
+     * 
+     * @param digest the digest of the RooBot index the catalogue is built from
+     *            (required)
+     */
+    public AddOnCatalogue(final String digest) {
+        Validate.notBlank(digest, "Digest required");
+        this.digest = digest;
+    }
+
+    /**
+     * Adds the given bundle to this catalogue and indexes its latest version.
+     * 
+     * @param bundle the bundle to add (required, with at least one version)
+     */
+    public void add(final Bundle bundle) {
+        final String bsn = bundle.getSymbolicName();
+        bundles.put(bsn, bundle);
+
+        final String text = (bsn + ";" + bundle.getLatestVersion().getSummary())
+                .toLowerCase();
+        searchText.put(bsn, text);
+
+        for (final String keyword : text.split(NON_KEYWORD_CHARACTERS)) {
+            index(keyword, bsn);
+        }
+    }
+
+    /**
+     * Returns the symbolic names of the bundles matching the given search
+     * term, i.e. those whose symbolic name or summary contains it, ignoring
+     * case. A term made up of letters and digits can only occur within a
+     * single keyword, so only the distinct keywords are searched for it.
+     * 
+     * @param term the search term (required)
+     * @return a non-<code>null</code> set of symbolic names
+     */
+    public Set<String> find(final String term) {
+        final String key = term.trim().toLowerCase();
+        if (key.length() == 0 || "*".equals(key)) {
+            return bundles.keySet();
+        }
+
+        final Set<String> result = new HashSet<String>();
+        if (KEYWORD.matcher(key).matches()) {
+            for (final Map.Entry<String, Set<String>> entry : index
+                    .entrySet()) {
+                if (entry.getKey().contains(key)) {
+                    result.addAll(entry.getValue());
+                }
+            }
+        }
+        else {
+            for (final Map.Entry<String, String> entry : searchText.entrySet()) {
+                if (entry.getValue().contains(key)) {
+                    result.add(entry.getKey());
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the bundles in this catalogue, keyed by symbolic name.
+     * 
+     * @return a non-<code>null</code> unmodifiable map
+     */
+    public Map<String, Bundle> getBundles() {
+        return Collections.unmodifiableMap(bundles);
+    }
+
+    public String getDigest() {
+        return digest;
+    }
+
+    private void index(final String keyword, final String bsn) {
+        if (keyword.length() == 0) {
+            return;
+        }
+        Set<String> bsns = index.get(keyword);
+        if (bsns == null) {
+            bsns = new HashSet<String>();
+            index.put(keyword, bsns);
+        }
+        bsns.add(bsn);
+    }
+}
@@ -42,14 +42,14 @@ public class AddOnCommands implements CommandMarker {
         addOnfeedbackOperations.feedbackBundle(bsn, rating, comment);
     }
 
-    @CliCommand(value = "addon info bundle", help = "Provide information about a specific Spring Roo Add-on")
+    @CliCommand(value = "addon info bundle", help = "Provide information about a specific Spring Roo Add-on", readOnly = true)
     public void infoBundle(
             @CliOption(key = "bundleSymbolicName", mandatory = true, help = "The bundle symbolic name for the add-on of interest") final AddOnBundleSymbolicName bsn) {
 
         addOnRooBotOperations.addOnInfo(bsn);
     }
 
-    @CliCommand(value = "addon info id", help = "Provide information about a specific Spring Roo Add-on")
+    @CliCommand(value = "addon info id", help = "Provide information about a specific Spring Roo Add-on", readOnly = true)
     public void infoId(
             @CliOption(key = { "", "searchResultId" }, mandatory = true, help = "The bundle ID as presented via the addon list or addon search command") final String bundleId) {
 
@@ -69,7 +69,7 @@ public class AddOnCommands implements CommandMarker {
         addOnRooBotOperations.installAddOn(bundleId);
     }
 
-    @CliCommand(value = "addon list", help = "List all known Spring Roo Add-ons (up to the maximum number displayed on a single page)")
+    @CliCommand(value = "addon list", help = "List all known Spring Roo Add-ons (up to the maximum number displayed on a single page)", readOnly = true)
     public void list(
             @CliOption(key = "refresh", mandatory = false, unspecifiedDefaultValue = "false", specifiedDefaultValue = "true", help = "Refresh the add-on index from the Internet") final boolean refresh,
             @CliOption(key = "linesPerResult", mandatory = false, unspecifiedDefaultValue = "2", specifiedDefaultValue = "2", help = "The maximum number of lines displayed per add-on") final int linesPerResult,
@@ -92,7 +92,7 @@ public class AddOnCommands implements CommandMarker {
         addOnRooBotOperations.removeAddOn(bsn);
     }
 
-    @CliCommand(value = "addon search", help = "Search all known Spring Roo Add-ons")
+    @CliCommand(value = "addon search", help = "Search all known Spring Roo Add-ons", readOnly = true)
     public void search(
             @CliOption(key = { "", "requiresDescription" }, mandatory = false, specifiedDefaultValue = "*", unspecifiedDefaultValue = "*", help = "A comma separated list of search terms") final String searchTerms,
             @CliOption(key = "refresh", mandatory = false, unspecifiedDefaultValue = "false", specifiedDefaultValue = "true", help = "Refresh the add-on index from the Internet") final boolean refresh,
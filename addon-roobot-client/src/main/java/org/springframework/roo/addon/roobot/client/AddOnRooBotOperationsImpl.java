@@ -2,8 +2,12 @@ package org.springframework.roo.addon.roobot.client;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.text.DateFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
@@ -13,6 +17,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -21,7 +26,12 @@ import java.util.zip.ZipInputStream;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
@@ -60,7 +70,25 @@ import org.w3c.dom.Element;
 @Service
 public class AddOnRooBotOperationsImpl implements AddOnRooBotOperations {
 
+    /**
+     * The attributes and shell commands of a version element in the RooBot
+     * index.
+     */
+    private static class VersionElement {
+        private final Map<String, String> attributes = new HashMap<String, String>();
+        private final Map<String, String> commands = new HashMap<String, String>();
+
+        VersionElement(final XMLStreamReader reader) {
+            for (int i = 0; i < reader.getAttributeCount(); i++) {
+                attributes.put(reader.getAttributeLocalName(i),
+                        reader.getAttributeValue(i));
+            }
+        }
+    }
+
     public static final String ADDON_UPGRADE_STABILITY_LEVEL = "ADDON_UPGRADE_STABILITY_LEVEL";
+    private static final String INDEX_FILE = "cache" + File.separator
+            + "roobot.xml.zip";
     private static final Logger LOGGER = HandlerUtils
             .getLogger(AddOnRooBotOperationsImpl.class);
     private static final List<String> NO_UPGRADE_BSN_LIST = Arrays.asList(
@@ -91,12 +119,13 @@ public class AddOnRooBotOperationsImpl implements AddOnRooBotOperations {
             "org.springframework.roo.support.osgi",
             "org.springframework.roo.uaa");
 
-    @Reference private PgpService pgpService;
-    @Reference private PreferencesService preferencesService;
-    @Reference private Shell shell;
-    @Reference private UrlInputStreamService urlInputStreamService;
+    @Reference PgpService pgpService;
+    @Reference PreferencesService preferencesService;
+    @Reference Shell shell;
+    @Reference UrlInputStreamService urlInputStreamService;
 
-    private Map<String, Bundle> bundleCache;
+    private volatile Map<String, Bundle> bundleCache;
+    private volatile AddOnCatalogue catalogue;
     private ComponentContext context;
     private final DateFormat dateFormat = new SimpleDateFormat(
             "yyyy-MM-dd hh:mm:ss");
@@ -113,6 +142,9 @@ public class AddOnRooBotOperationsImpl implements AddOnRooBotOperations {
                 .getPreferencesFor(AddOnRooBotOperationsImpl.class);
         bundleCache = new HashMap<String, Bundle>();
         searchResultCache = new HashMap<String, Bundle>();
+        // Answer searches from the previous session's index until it has
+        // been checked for changes
+        loadStoredIndex();
         final BundleContext bundleContext = context.getBundleContext();
         if (bundleContext != null) {
             final String roobot = bundleContext.getProperty("roobot.url");
@@ -228,6 +260,48 @@ public class AddOnRooBotOperationsImpl implements AddOnRooBotOperations {
         return 0;
     }
 
+    private BundleVersion createBundleVersion(
+            final VersionElement versionElement,
+            final Map<String, String> pgpDescriptions) {
+        final Map<String, String> attributes = versionElement.attributes;
+        final String pgpKey = StringUtils.defaultString(attributes
+                .get("pgp-key-id"));
+        final String signedBy = StringUtils.defaultString(pgpDescriptions
+                .get(pgpKey));
+
+        final StringBuilder versionBuilder = new StringBuilder();
+        versionBuilder.append(attributes.get("major")).append(".")
+                .append(attributes.get("minor"));
+        final String versionMicro = attributes.get("micro");
+        if (versionMicro != null && versionMicro.length() > 0) {
+            versionBuilder.append(".").append(versionMicro);
+        }
+        final String versionQualifier = attributes.get("qualifier");
+        if (versionQualifier != null && versionQualifier.length() > 0) {
+            versionBuilder.append(".").append(versionQualifier);
+        }
+
+        String rooVersion = StringUtils.defaultString(attributes
+                .get("roo-version"));
+        if (rooVersion.equals("*") || rooVersion.length() == 0) {
+            rooVersion = getVersionForCompatibility();
+        }
+        else {
+            final String[] split = rooVersion.split("\\.");
+            if (split.length > 2) {
+                // Only interested in major.minor
+                rooVersion = split[0] + "." + split[1];
+            }
+        }
+        return new BundleVersion(StringUtils.defaultString(attributes
+                .get("url")), StringUtils.defaultString(attributes
+                .get("obr-url")), versionBuilder.toString(),
+                StringUtils.defaultString(attributes.get("name")), new Long(
+                        attributes.get("size")).longValue(),
+                StringUtils.defaultString(attributes.get("description")),
+                pgpKey, signedBy, rooVersion, versionElement.commands);
+    }
+
     protected void deactivate(final ComponentContext context) {
         if (rooBotEagerDownload != null && rooBotEagerDownload.isAlive()) {
             rooBotEagerDownload = null;
@@ -307,20 +381,19 @@ public class AddOnRooBotOperationsImpl implements AddOnRooBotOperations {
                 if (searchTerms != null && !"".equals(searchTerms)) {
                     onlyRelevantBundles = true;
                     final String[] terms = searchTerms.split(",");
-                    for (final Bundle bundle : bundleCache.values()) {
-                        // First set relevance of all bundles to zero
-                        bundle.setSearchRelevance(0f);
-                        int hits = 0;
-                        final BundleVersion latest = bundle.getLatestVersion();
-                        for (final String term : terms) {
-                            if ((bundle.getSymbolicName() + ";" + latest
-                                    .getSummary()).toLowerCase().contains(
-                                    term.trim().toLowerCase())
-                                    || term.equals("*")) {
-                                hits++;
-                            }
+                    final Map<String, Integer> hits = new HashMap<String, Integer>();
+                    for (final String term : terms) {
+                        for (final String bsn : catalogue.find(term)) {
+                            final Integer bundleHits = hits.get(bsn);
+                            hits.put(bsn, bundleHits == null ? 1
+                                    : bundleHits + 1);
                         }
-                        bundle.setSearchRelevance(hits / terms.length);
+                    }
+                    for (final Bundle bundle : bundleCache.values()) {
+                        final Integer bundleHits = hits.get(bundle
+                                .getSymbolicName());
+                        bundle.setSearchRelevance(bundleHits == null ? 0
+                                : bundleHits / terms.length);
                     }
                 }
                 final List<Bundle> bundles = Bundle
@@ -354,6 +427,30 @@ public class AddOnRooBotOperationsImpl implements AddOnRooBotOperations {
         }
     }
 
+    private String getAttribute(final XMLStreamReader reader,
+            final String name) {
+        return StringUtils.defaultString(reader.getAttributeValue(null, name));
+    }
+
+    private File getIndexFile() {
+        String rooHome = System.getProperty("roo.home");
+        if (StringUtils.isBlank(rooHome)) {
+            rooHome = System.getProperty("user.home") + File.separator
+                    + ".spring-roo";
+        }
+        return new File(rooHome, INDEX_FILE);
+    }
+
+    private String getDigest(final byte[] bytes)
+            throws NoSuchAlgorithmException {
+        final StringBuilder digest = new StringBuilder();
+        for (final byte b : MessageDigest.getInstance("MD5").digest(bytes)) {
+            digest.append(Character.forDigit(b >> 4 & 0xF, 16));
+            digest.append(Character.forDigit(b & 0xF, 16));
+        }
+        return digest.toString();
+    }
+
     private Map<String, Bundle> getUpgradableBundles(
             final AddOnStabilityLevel asl) {
         final Map<String, Bundle> bundles = new HashMap<String, Bundle>();
@@ -551,6 +648,27 @@ public class AddOnRooBotOperationsImpl implements AddOnRooBotOperations {
         }
     }
 
+    /**
+     * Builds the catalogue from the copy of the RooBot index stored by the
+     * previous session, if there is one.
+     */
+    private void loadStoredIndex() {
+        final File indexFile = getIndexFile();
+        if (!indexFile.isFile()) {
+            return;
+        }
+        try {
+            final byte[] roobotXmlZip = FileUtils
+                    .readFileToByteArray(indexFile);
+            setCatalogue(readCatalogue(roobotXmlZip, getDigest(roobotXmlZip)));
+        }
+        catch (final Exception e) {
+            // Corrupt; the next download will replace it
+            LOGGER.fine("Unable to read the stored add-on index: "
+                    + e.getMessage());
+        }
+    }
+
     private void logInfo(final String label, String content) {
         final StringBuilder sb = new StringBuilder();
         sb.append(label);
@@ -596,12 +714,7 @@ public class AddOnRooBotOperationsImpl implements AddOnRooBotOperations {
     private boolean populateBundleCache(final boolean startupTime) {
         boolean success = false;
         InputStream is = null;
-        ByteArrayInputStream bais = null;
-        ByteArrayOutputStream baos = null;
         try {
-            final DocumentBuilderFactory dbf = DocumentBuilderFactory
-                    .newInstance();
-            final DocumentBuilder db = dbf.newDocumentBuilder();
             if (rooBotXmlUrl.startsWith("http://")) {
                 // Handle it as HTTP
                 final URL httpUrl = new URL(rooBotXmlUrl);
@@ -617,7 +730,7 @@ public class AddOnRooBotOperationsImpl implements AddOnRooBotOperations {
                     return false;
                 }
                 // It appears we can acquire the URL, so let's do it
-                is = urlInputStreamService.openConnection(httpUrl);
+                is = urlInputStreamService.openConnection(httpUrl, true);
             }
             else {
                 // Fall back to normal protocol handler (likely in local
@@ -629,26 +742,20 @@ public class AddOnRooBotOperationsImpl implements AddOnRooBotOperations {
                 return false;
             }
 
-            final ZipInputStream zip = new ZipInputStream(is);
-            zip.getNextEntry();
-
-            baos = new ByteArrayOutputStream();
-            IOUtils.copy(zip, baos);
-
-            bais = new ByteArrayInputStream(baos.toByteArray());
-            final Document roobotXml = db.parse(bais);
-            if (roobotXml != null) {
-                populateBundleCache(roobotXml);
-                success = true;
-            }
-            zip.close();
+            // Only the compressed index is held in memory, so that an
+            // unchanged index can be recognised without parsing it again
+            final byte[] roobotXmlZip = IOUtils.toByteArray(is);
+            final String digest = getDigest(roobotXmlZip);
+            if (catalogue == null || !catalogue.getDigest().equals(digest)) {
+                setCatalogue(readCatalogue(roobotXmlZip, digest));
+                storeIndex(roobotXmlZip);
+            }
+            success = true;
         }
         catch (final Throwable ignored) {
         }
         finally {
             IOUtils.closeQuietly(is);
-            IOUtils.closeQuietly(baos);
-            IOUtils.closeQuietly(bais);
         }
         if (success && startupTime) {
             printAddonStats();
@@ -656,99 +763,6 @@ public class AddOnRooBotOperationsImpl implements AddOnRooBotOperations {
         return success;
     }
 
-    private void populateBundleCache(final Document roobotXml)
-            throws ParseException {
-        bundleCache.clear();
-        for (final Element bundleElement : XmlUtils.findElements(
-                "/roobot/bundles/bundle", roobotXml.getDocumentElement())) {
-            final String bsn = bundleElement.getAttribute("bsn");
-            if (NO_UPGRADE_BSN_LIST.contains(bsn)) {
-                // List only add-ons which are not core (see ROO-2190)
-                continue;
-            }
-            final List<Comment> comments = new ArrayList<Comment>();
-            for (final Element commentElement : XmlUtils.findElements(
-                    "comments/comment", bundleElement)) {
-                comments.add(new Comment(Rating.fromInt(new Integer(
-                        commentElement.getAttribute("rating"))), commentElement
-                        .getAttribute("comment"), dateFormat
-                        .parse(commentElement.getAttribute("date"))));
-            }
-            final Bundle bundle = new Bundle(bundleElement.getAttribute("bsn"),
-                    new Float(bundleElement.getAttribute("uaa-ranking")),
-                    comments);
-            for (final Element versionElement : XmlUtils.findElements(
-                    "versions/version", bundleElement)) {
-                if (bsn != null && bsn.length() > 0 && versionElement != null) {
-                    String signedBy = "";
-                    final String pgpKey = versionElement
-                            .getAttribute("pgp-key-id");
-                    if (pgpKey != null && pgpKey.length() > 0) {
-                        final Element pgpSigned = XmlUtils.findFirstElement(
-                                "/roobot/pgp-keys/pgp-key[@id='" + pgpKey
-                                        + "']/pgp-key-description",
-                                roobotXml.getDocumentElement());
-                        if (pgpSigned != null) {
-                            signedBy = pgpSigned.getAttribute("text");
-                        }
-                    }
-
-                    final Map<String, String> commands = new HashMap<String, String>();
-                    for (final Element shell : XmlUtils.findElements(
-                            "shell-commands/shell-command", versionElement)) {
-                        commands.put(shell.getAttribute("command"),
-                                shell.getAttribute("help"));
-                    }
-
-                    final StringBuilder versionBuilder = new StringBuilder();
-                    versionBuilder.append(versionElement.getAttribute("major"))
-                            .append(".")
-                            .append(versionElement.getAttribute("minor"));
-                    final String versionMicro = versionElement
-                            .getAttribute("micro");
-                    if (versionMicro != null && versionMicro.length() > 0) {
-                        versionBuilder.append(".").append(versionMicro);
-                    }
-                    final String versionQualifier = versionElement
-                            .getAttribute("qualifier");
-                    if (versionQualifier != null
-                            && versionQualifier.length() > 0) {
-                        versionBuilder.append(".").append(versionQualifier);
-                    }
-
-                    String rooVersion = versionElement
-                            .getAttribute("roo-version");
-                    if (rooVersion.equals("*") || rooVersion.length() == 0) {
-                        rooVersion = getVersionForCompatibility();
-                    }
-                    else {
-                        final String[] split = rooVersion.split("\\.");
-                        if (split.length > 2) {
-                            // Only interested in major.minor
-                            rooVersion = split[0] + "." + split[1];
-                        }
-                    }
-                    final BundleVersion version = new BundleVersion(
-                            versionElement.getAttribute("url"),
-                            versionElement.getAttribute("obr-url"),
-                            versionBuilder.toString(),
-                            versionElement.getAttribute("name"),
-                            new Long(versionElement.getAttribute("size"))
-                                    .longValue(),
-                            versionElement.getAttribute("description"), pgpKey,
-                            signedBy, rooVersion, commands);
-                    // For security reasons we ONLY accept httppgp://
-                    // add-on versions
-                    if (!version.getUri().startsWith("httppgp://")) {
-                        continue;
-                    }
-                    bundle.addVersion(version);
-                }
-                bundleCache.put(bsn, bundle);
-            }
-        }
-    }
-
     private void printAddonStats() {
         String msg = null;
         final AddOnStabilityLevel currentLevel = AddOnStabilityLevel
@@ -835,6 +849,134 @@ public class AddOnRooBotOperationsImpl implements AddOnRooBotOperations {
         LOGGER.warning("--------------------------------------------------------------------------------");
     }
 
+    /**
+     * Reads the given compressed RooBot index.
+     * 
+     * @param roobotXmlZip the index as downloaded (required)
+     * @param digest the digest of the compressed index (required)
+     * @return a new catalogue of the non-core add-ons in the index
+     * @throws IOException
+     * @throws XMLStreamException
+     * @throws ParseException
+     */
+    private AddOnCatalogue readCatalogue(final byte[] roobotXmlZip,
+            final String digest) throws IOException, XMLStreamException,
+            ParseException {
+        final ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(
+                roobotXmlZip));
+        try {
+            zip.getNextEntry();
+            return readCatalogue(zip, digest);
+        }
+        finally {
+            IOUtils.closeQuietly(zip);
+        }
+    }
+
+    /**
+     * Reads the RooBot index in a single streaming pass. The PGP key
+     * descriptions follow the bundles in the index, so the versions are only
+     * created once the whole document has been read.
+     * 
+     * @param roobotXml the uncompressed index (required)
+     * @param digest the digest of the compressed index (required)
+     * @return a new catalogue of the non-core add-ons in the index
+     * @throws XMLStreamException
+     * @throws ParseException
+     */
+    private AddOnCatalogue readCatalogue(final InputStream roobotXml,
+            final String digest) throws XMLStreamException, ParseException {
+        final Map<Bundle, List<VersionElement>> bundles = new LinkedHashMap<Bundle, List<VersionElement>>();
+        final Map<String, String> pgpDescriptions = new HashMap<String, String>();
+
+        final XMLStreamReader reader = XMLInputFactory.newInstance()
+                .createXMLStreamReader(roobotXml);
+        try {
+            String bsn = null;
+            String ranking = null;
+            List<Comment> comments = null;
+            List<VersionElement> versions = null;
+            VersionElement version = null;
+            String pgpKeyId = null;
+            while (reader.hasNext()) {
+                final int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    final String name = reader.getLocalName();
+                    if ("bundle".equals(name)) {
+                        bsn = getAttribute(reader, "bsn");
+                        ranking = getAttribute(reader, "uaa-ranking");
+                        comments = new ArrayList<Comment>();
+                        versions = new ArrayList<VersionElement>();
+                    }
+                    else if ("comment".equals(name) && comments != null) {
+                        comments.add(new Comment(Rating.fromInt(new Integer(
+                                getAttribute(reader, "rating"))), getAttribute(
+                                reader, "comment"), dateFormat
+                                .parse(getAttribute(reader, "date"))));
+                    }
+                    else if ("version".equals(name) && versions != null) {
+                        version = new VersionElement(reader);
+                        versions.add(version);
+                    }
+                    else if ("shell-command".equals(name) && version != null) {
+                        version.commands.put(getAttribute(reader, "command"),
+                                getAttribute(reader, "help"));
+                    }
+                    else if ("pgp-key".equals(name)) {
+                        pgpKeyId = getAttribute(reader, "id");
+                    }
+                    else if ("pgp-key-description".equals(name)
+                            && pgpKeyId != null
+                            && !pgpDescriptions.containsKey(pgpKeyId)) {
+                        pgpDescriptions.put(pgpKeyId,
+                                getAttribute(reader, "text"));
+                    }
+                }
+                else if (event == XMLStreamConstants.END_ELEMENT) {
+                    final String name = reader.getLocalName();
+                    if ("bundle".equals(name)) {
+                        // List only add-ons which are not core (see ROO-2190)
+                        if (StringUtils.isNotBlank(bsn)
+                                && !NO_UPGRADE_BSN_LIST.contains(bsn)) {
+                            bundles.put(new Bundle(bsn, new Float(ranking),
+                                    comments), versions);
+                        }
+                        comments = null;
+                        versions = null;
+                    }
+                    else if ("version".equals(name)) {
+                        version = null;
+                    }
+                    else if ("pgp-key".equals(name)) {
+                        pgpKeyId = null;
+                    }
+                }
+            }
+        }
+        finally {
+            reader.close();
+        }
+
+        final AddOnCatalogue result = new AddOnCatalogue(digest);
+        for (final Entry<Bundle, List<VersionElement>> entry : bundles
+                .entrySet()) {
+            final Bundle bundle = entry.getKey();
+            for (final VersionElement versionElement : entry.getValue()) {
+                final BundleVersion version = createBundleVersion(
+                        versionElement, pgpDescriptions);
+                // For security reasons we ONLY accept httppgp://
+                // add-on versions
+                if (version.getUri().startsWith("httppgp://")) {
+                    bundle.addVersion(version);
+                }
+            }
+            if (!bundle.getVersions().isEmpty()) {
+                result.add(bundle);
+            }
+        }
+        return result;
+    }
+
     public InstallOrUpgradeStatus removeAddOn(final BundleSymbolicName bsn) {
         synchronized (mutex) {
             Validate.notNull(bsn, "Bundle symbolic name required");
@@ -867,6 +1009,37 @@ public class AddOnRooBotOperationsImpl implements AddOnRooBotOperations {
         return result != null ? result.size() : null;
     }
 
+    private void setCatalogue(final AddOnCatalogue catalogue) {
+        this.catalogue = catalogue;
+        bundleCache = catalogue.getBundles();
+    }
+
+    /**
+     * Keeps a copy of the given RooBot index for the next session, replacing
+     * any previous one.
+     * 
+     * @param roobotXmlZip the index as downloaded (required)
+     */
+    private void storeIndex(final byte[] roobotXmlZip) {
+        final File indexFile = getIndexFile();
+        final File temp = new File(indexFile.getParentFile(),
+                indexFile.getName() + ".tmp");
+        try {
+            FileUtils.writeByteArrayToFile(temp, roobotXmlZip);
+            FileUtils.deleteQuietly(indexFile);
+            if (!temp.renameTo(indexFile)) {
+                throw new IOException("Unable to move '" + temp + "' to '"
+                        + indexFile + "'");
+            }
+        }
+        catch (final IOException e) {
+            LOGGER.fine("Unable to store the add-on index: " + e.getMessage());
+        }
+        finally {
+            FileUtils.deleteQuietly(temp);
+        }
+    }
+
     public InstallOrUpgradeStatus upgradeAddOn(final AddOnBundleSymbolicName bsn) {
         synchronized (mutex) {
             Validate.notNull(bsn,
@@ -0,0 +1,101 @@
+package org.springframework.roo.addon.roobot.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.roo.addon.roobot.client.model.Bundle;
+import org.springframework.roo.addon.roobot.client.model.BundleVersion;
+import org.springframework.roo.addon.roobot.client.model.Comment;
+
+/**
+ * Unit test of {@link AddOnCatalogue}
+ * 
+ * @since 1.2.5
+ */
+public class AddOnCatalogueTest {
+
+    private static final String FORMS_BSN = "org.example.roo.addon.forms";
+    private static final String PLATFORM_BSN = "com.acme.platform";
+    private static final String VAADIN_BSN = "com.vaadin.spring.roo.addon";
+
+    // Fixture
+    private AddOnCatalogue catalogue;
+
+    private Bundle getBundle(final String bsn, final String name,
+            final String description) {
+        final Bundle bundle = new Bundle(bsn, 0.5f, new ArrayList<Comment>());
+        bundle.addVersion(new BundleVersion("httppgp://example.com/" + bsn
+                + ".jar", "", "1.0.0", name, 1000L, description, "", "",
+                "1.2", Collections.<String, String> emptyMap()));
+        return bundle;
+    }
+
+    @Before
+    public void setUp() {
+        catalogue = new AddOnCatalogue("digest");
+        catalogue.add(getBundle(VAADIN_BSN, "Vaadin Add-On",
+                "Generates Vaadin user interfaces"));
+        catalogue.add(getBundle(FORMS_BSN, "Forms", "Web forms for entities"));
+        catalogue.add(getBundle(PLATFORM_BSN, "Acme Platform",
+                "Deployment to the Acme platform"));
+    }
+
+    @Test
+    public void testBlankTermMatchesEverything() {
+        assertEquals(3, catalogue.find(" ").size());
+        assertEquals(3, catalogue.find("*").size());
+    }
+
+    @Test
+    public void testFindByBsnPrefix() {
+        assertEquals(Collections.singleton(VAADIN_BSN),
+                catalogue.find("com.vaadin"));
+        assertEquals(Collections.singleton(FORMS_BSN),
+                catalogue.find("org.example.roo"));
+    }
+
+    @Test
+    public void testFindByKeywordPrefixIgnoresCase() {
+        assertEquals(Collections.singleton(VAADIN_BSN),
+                catalogue.find("VAA"));
+    }
+
+    @Test
+    public void testFindBySubstringOfAKeyword() {
+        assertEquals(Collections.singleton(VAADIN_BSN),
+                catalogue.find("adin"));
+    }
+
+    @Test
+    public void testFindBySubstringSpanningKeywords() {
+        assertEquals(Collections.singleton(PLATFORM_BSN),
+                catalogue.find("acme pl"));
+    }
+
+    @Test
+    public void testFindOfUnknownTermMatchesNothing() {
+        assertTrue(catalogue.find("hibernate").isEmpty());
+    }
+
+    @Test
+    public void testFindMatchesKeywordsContainingTheTerm() {
+        // "platform" contains "form" as much as "forms" does
+        assertEquals(
+                new HashSet<String>(Arrays.asList(FORMS_BSN, PLATFORM_BSN)),
+                catalogue.find("form"));
+    }
+
+    @Test
+    public void testGetBundles() {
+        assertEquals(
+                new HashSet<String>(Arrays.asList(FORMS_BSN, PLATFORM_BSN,
+                        VAADIN_BSN)), catalogue.getBundles().keySet());
+    }
+}
@@ -0,0 +1,143 @@
+package org.springframework.roo.addon.roobot.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.osgi.framework.BundleContext;
+import org.osgi.service.component.ComponentContext;
+import org.springframework.roo.addon.roobot.client.model.Bundle;
+import org.springframework.roo.classpath.preferences.PreferencesService;
+
+/**
+ * Unit test of the add-on index handling in {@link AddOnRooBotOperationsImpl}
+ * 
+ * @since 1.2.5
+ */
+public class AddOnRooBotOperationsImplTest {
+
+    private static final String BSN = "com.vaadin.spring.roo.addon";
+    private static final String ROOBOT_XML = "<?xml version=\"1.0\"?>"
+            + "<roobot><bundles>"
+            + "<bundle bsn=\""
+            + BSN
+            + "\" uaa-ranking=\"0.5\"><versions>"
+            + "<version major=\"1\" minor=\"0\" micro=\"0\" name=\"Vaadin\""
+            + " description=\"Generates Vaadin user interfaces\" size=\"1000\""
+            + " url=\"httppgp://example.com/vaadin.jar\" obr-url=\"\""
+            + " pgp-key-id=\"\" roo-version=\"1.2\"/>"
+            + "</versions><comments/></bundle>"
+            + "</bundles></roobot>";
+
+    @Mock private BundleContext mockBundleContext;
+    @Mock private ComponentContext mockComponentContext;
+    @Mock private PreferencesService mockPreferencesService;
+    @Rule public TemporaryFolder storage = new TemporaryFolder();
+
+    // Fixture
+    private String previousRooHome;
+    private File rooHome;
+
+    private AddOnRooBotOperationsImpl activate() {
+        final AddOnRooBotOperationsImpl operations = new AddOnRooBotOperationsImpl();
+        operations.preferencesService = mockPreferencesService;
+        operations.activate(mockComponentContext);
+        return operations;
+    }
+
+    private File getStoredIndex() {
+        return new File(rooHome, "cache" + File.separator + "roobot.xml.zip");
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        when(mockComponentContext.getBundleContext()).thenReturn(
+                mockBundleContext);
+        rooHome = storage.newFolder("roo");
+        previousRooHome = System.getProperty("roo.home");
+        System.setProperty("roo.home", rooHome.getAbsolutePath());
+    }
+
+    @After
+    public void tearDown() {
+        if (previousRooHome == null) {
+            System.clearProperty("roo.home");
+        }
+        else {
+            System.setProperty("roo.home", previousRooHome);
+        }
+    }
+
+    @Test
+    public void testActivationIgnoresCorruptStoredIndex() throws Exception {
+        // Set up
+        FileUtils.writeStringToFile(getStoredIndex(), "not a zip");
+
+        // Invoke
+        final AddOnRooBotOperationsImpl operations = activate();
+
+        // Check
+        assertTrue(operations.getAddOnCache(false).isEmpty());
+    }
+
+    @Test
+    public void testActivationLoadsStoredIndex() throws Exception {
+        // Set up
+        writeIndex(getStoredIndex());
+
+        // Invoke
+        final Map<String, Bundle> addOns = activate().getAddOnCache(false);
+
+        // Check
+        assertEquals(1, addOns.size());
+        assertEquals("Vaadin", addOns.get(BSN).getLatestVersion()
+                .getPresentationName());
+    }
+
+    @Test
+    public void testRefreshStoresIndexForNextSession() throws Exception {
+        // Set up
+        final File downloaded = storage.newFile("roobot.xml.zip");
+        writeIndex(downloaded);
+        when(mockBundleContext.getProperty("roobot.url")).thenReturn(
+                downloaded.toURI().toString());
+
+        // Invoke
+        final Map<String, Bundle> addOns = activate().getAddOnCache(true);
+
+        // Check
+        assertEquals(1, addOns.size());
+        assertTrue(FileUtils.contentEquals(downloaded, getStoredIndex()));
+    }
+
+    private void writeIndex(final File file) throws IOException {
+        file.getParentFile().mkdirs();
+        final ZipOutputStream zip = new ZipOutputStream(new FileOutputStream(
+                file));
+        try {
+            zip.putNextEntry(new ZipEntry("roobot.xml"));
+            IOUtils.write(ROOBOT_XML, zip, "UTF-8");
+            zip.closeEntry();
+        }
+        finally {
+            IOUtils.closeQuietly(zip);
+        }
+    }
+}
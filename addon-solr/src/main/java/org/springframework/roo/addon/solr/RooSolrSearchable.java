@@ -15,6 +15,20 @@ import java.lang.annotation.Target;
 @Retention(RetentionPolicy.SOURCE)
 public @interface RooSolrSearchable {
 
+    /**
+     * Specify the number of milliseconds within which Solr should commit
+     * index changes. A value greater than zero passes the value to Solr as
+     * "commitWithin" instead of issuing an explicit commit after every add or
+     * delete, which allows Solr to batch commits and keeps them off the write
+     * path of each transaction. 'solr add' and 'solr all' use one second if
+     * asynchronous indexing has been set up, as an explicit commit would wait
+     * for the update queue to drain.
+     * 
+     * @return the commitWithin time in milliseconds (defaults to 0, meaning an
+     *         explicit commit after each index update)
+     */
+    int commitWithin() default 0;
+
     /**
      * Specify name of the "deleteIndex" methods to generate. Use a value of ""
      * to avoid the generation of the deleteIndex method.
@@ -30,14 +30,16 @@ public class SolrCommands implements CommandMarker {
 
     @CliCommand(value = "solr add", help = "Make target type searchable")
     public void solrAdd(
-            @CliOption(key = "class", mandatory = false, unspecifiedDefaultValue = "*", optionContext = UPDATE_PROJECT, help = "The type to be made searchable") final JavaType javaType) {
+            @CliOption(key = "class", mandatory = false, unspecifiedDefaultValue = "*", optionContext = UPDATE_PROJECT, help = "The type to be made searchable") final JavaType javaType,
+            @CliOption(key = "commitWithin", mandatory = false, unspecifiedDefaultValue = "0", help = "The number of milliseconds within which Solr should commit index updates (0 commits after every update, or within a second if asynchronous indexing is set up)") final int commitWithin) {
 
-        solrOperations.addSearch(javaType);
+        solrOperations.addSearch(javaType, commitWithin);
     }
 
     @CliCommand(value = "solr all", help = "Make all eligible project types searchable")
-    public void solrAll() {
-        solrOperations.addAll();
+    public void solrAll(
+            @CliOption(key = "commitWithin", mandatory = false, unspecifiedDefaultValue = "0", help = "The number of milliseconds within which Solr should commit index updates (0 commits after every update, or within a second if asynchronous indexing is set up)") final int commitWithin) {
+        solrOperations.addAll(commitWithin);
     }
 
     @CliAvailabilityIndicator({ "solr add", "solr all" })
@@ -47,7 +49,8 @@ public class SolrCommands implements CommandMarker {
 
     @CliCommand(value = "solr setup", help = "Install support for Solr search integration")
     public void solrSetup(
-            @CliOption(key = { "searchServerUrl" }, mandatory = false, unspecifiedDefaultValue = "http://localhost:8983/solr", specifiedDefaultValue = "http://localhost:8983/solr", help = "The URL of the Solr search server") final String searchServerUrl) {
-        solrOperations.setupConfig(searchServerUrl);
+            @CliOption(key = { "searchServerUrl" }, mandatory = false, unspecifiedDefaultValue = "http://localhost:8983/solr", specifiedDefaultValue = "http://localhost:8983/solr", help = "The URL of the Solr search server") final String searchServerUrl,
+            @CliOption(key = "asyncIndexing", mandatory = false, unspecifiedDefaultValue = "false", specifiedDefaultValue = "true", help = "Whether index updates should be queued and sent to Solr in batches by background threads") final boolean asyncIndexing) {
+        solrOperations.setupConfig(searchServerUrl, asyncIndexing);
     }
 }
\ No newline at end of file
@@ -169,11 +169,19 @@ public class SolrMetadata extends AbstractItdTypeDetailsProvidingMetadataItem {
                 + " solrServer = solrServer();");
         bodyBuilder.appendFormalLine("try {");
         bodyBuilder.indent();
-        bodyBuilder.appendFormalLine("solrServer.deleteById(\""
+        final String documentId = "\""
                 + destination.getSimpleTypeName().toLowerCase() + "_\" + "
                 + javaBeanFieldName + "."
-                + identifierAccessor.getMethodName().getSymbolName() + "());");
-        bodyBuilder.appendFormalLine("solrServer.commit();");
+                + identifierAccessor.getMethodName().getSymbolName() + "()";
+        if (annotationValues.getCommitWithin() > 0) {
+            bodyBuilder.appendFormalLine("solrServer.deleteById(" + documentId
+                    + ", " + annotationValues.getCommitWithin() + ");");
+        }
+        else {
+            bodyBuilder.appendFormalLine("solrServer.deleteById(" + documentId
+                    + ");");
+            bodyBuilder.appendFormalLine("solrServer.commit();");
+        }
         bodyBuilder.indentRemove();
         bodyBuilder.appendFormalLine("} catch (Exception e) {");
         bodyBuilder.indent();
@@ -296,8 +304,14 @@ public class SolrMetadata extends AbstractItdTypeDetailsProvidingMetadataItem {
         bodyBuilder.indent();
         bodyBuilder.appendFormalLine(getSimpleName(SOLR_SERVER)
                 + " solrServer = solrServer();");
-        bodyBuilder.appendFormalLine("solrServer.add(" + listVar + ");");
-        bodyBuilder.appendFormalLine("solrServer.commit();");
+        if (annotationValues.getCommitWithin() > 0) {
+            bodyBuilder.appendFormalLine("solrServer.add(" + listVar + ", "
+                    + annotationValues.getCommitWithin() + ");");
+        }
+        else {
+            bodyBuilder.appendFormalLine("solrServer.add(" + listVar + ");");
+            bodyBuilder.appendFormalLine("solrServer.commit();");
+        }
         bodyBuilder.indentRemove();
         bodyBuilder.appendFormalLine("} catch (Exception e) {");
         bodyBuilder.indent();
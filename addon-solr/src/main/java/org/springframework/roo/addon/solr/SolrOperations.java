@@ -10,13 +10,21 @@ import org.springframework.roo.model.JavaType;
  */
 public interface SolrOperations {
 
-    void addAll();
+    void addAll(int commitWithin);
 
-    void addSearch(JavaType javaType);
+    void addSearch(JavaType javaType, int commitWithin);
 
     boolean isSearchAvailable();
 
     boolean isSolrInstallationPossible();
 
-    void setupConfig(String solrServerUrl);
+    /**
+     * Installs the Solr server configuration
+     * 
+     * @param solrServerUrl the URL of the Solr server (required)
+     * @param asyncIndexing whether index updates should be queued and sent to
+     *            Solr in batches by background threads rather than one
+     *            request per update
+     */
+    void setupConfig(String solrServerUrl, boolean asyncIndexing);
 }
\ No newline at end of file
@@ -7,10 +7,13 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Properties;
 import java.util.Set;
+import java.util.logging.Logger;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.Validate;
@@ -22,6 +25,7 @@ import org.springframework.roo.classpath.TypeManagementService;
 import org.springframework.roo.classpath.customdata.CustomDataKeys;
 import org.springframework.roo.classpath.details.ClassOrInterfaceTypeDetails;
 import org.springframework.roo.classpath.details.ClassOrInterfaceTypeDetailsBuilder;
+import org.springframework.roo.classpath.details.annotations.AnnotationMetadata;
 import org.springframework.roo.classpath.details.annotations.AnnotationMetadataBuilder;
 import org.springframework.roo.model.JavaType;
 import org.springframework.roo.process.manager.FileManager;
@@ -30,6 +34,7 @@ import org.springframework.roo.project.Dependency;
 import org.springframework.roo.project.FeatureNames;
 import org.springframework.roo.project.Path;
 import org.springframework.roo.project.ProjectOperations;
+import org.springframework.roo.support.logging.HandlerUtils;
 import org.springframework.roo.support.util.DomUtils;
 import org.springframework.roo.support.util.XmlElementBuilder;
 import org.springframework.roo.support.util.XmlUtils;
@@ -46,22 +51,70 @@ import org.w3c.dom.Element;
 @Service
 public class SolrOperationsImpl implements SolrOperations {
 
-    @Reference private FileManager fileManager;
-    @Reference private ProjectOperations projectOperations;
-    @Reference private TypeLocationService typeLocationService;
-    @Reference private TypeManagementService typeManagementService;
+    /**
+     * The commitWithin used when asynchronous indexing is set up and none is
+     * given, as an explicit commit would block until the update queue drains
+     */
+    private static final int ASYNC_COMMIT_WITHIN = 1000;
 
-    public void addAll() {
+    private static final String COMMIT_WITHIN = "commitWithin";
+    private static final String COMMONS_HTTP_SOLR_SERVER = "org.apache.solr.client.solrj.impl.CommonsHttpSolrServer";
+    private static final String CONCURRENT_UPDATE_SOLR_SERVER = "org.apache.solr.client.solrj.impl.ConcurrentUpdateSolrServer";
+
+    /**
+     * The classes of the solrServer beans that Roo generates; any other bean
+     * has been customized and is left alone
+     */
+    private static final Set<String> GENERATED_SOLR_SERVERS = new HashSet<String>(
+            Arrays.asList(COMMONS_HTTP_SOLR_SERVER,
+                    CONCURRENT_UPDATE_SOLR_SERVER));
+    private static final Logger LOGGER = HandlerUtils
+            .getLogger(SolrOperationsImpl.class);
+    private static final String QUEUE_SIZE = "solr.queueSize";
+    private static final String THREAD_COUNT = "solr.threadCount";
+
+    @Reference FileManager fileManager;
+    @Reference ProjectOperations projectOperations;
+    @Reference TypeLocationService typeLocationService;
+    @Reference TypeManagementService typeManagementService;
+
+    public void addAll(final int commitWithin) {
+        final int effectiveCommitWithin = getEffectiveCommitWithin(
+                commitWithin);
         final Set<ClassOrInterfaceTypeDetails> cids = typeLocationService
                 .findClassesOrInterfaceDetailsWithTag(CustomDataKeys.PERSISTENT_TYPE);
         for (final ClassOrInterfaceTypeDetails cid : cids) {
             if (!Modifier.isAbstract(cid.getModifier())) {
-                addSolrSearchableAnnotation(cid);
+                addSolrSearchableAnnotation(cid, effectiveCommitWithin);
             }
         }
     }
 
-    public void addSearch(final JavaType javaType) {
+    /**
+     * Gives the types that are already searchable a commitWithin, so that
+     * they don't commit (and thereby wait for the update queue) on every
+     * update
+     */
+    private void addCommitWithinToSearchableTypes() {
+        for (final ClassOrInterfaceTypeDetails cid : typeLocationService
+                .findClassesOrInterfaceDetailsWithAnnotation(ROO_SOLR_SEARCHABLE)) {
+            final AnnotationMetadata annotation = cid
+                    .getTypeAnnotation(ROO_SOLR_SEARCHABLE);
+            if (annotation.getAttribute(COMMIT_WITHIN) != null) {
+                continue;
+            }
+            final AnnotationMetadataBuilder annotationBuilder = new AnnotationMetadataBuilder(
+                    annotation);
+            annotationBuilder.addIntegerAttribute(COMMIT_WITHIN,
+                    ASYNC_COMMIT_WITHIN);
+            final ClassOrInterfaceTypeDetailsBuilder cidBuilder = new ClassOrInterfaceTypeDetailsBuilder(
+                    cid);
+            cidBuilder.updateTypeAnnotation(annotationBuilder.build());
+            typeManagementService.createOrUpdateTypeOnDisk(cidBuilder.build());
+        }
+    }
+
+    public void addSearch(final JavaType javaType, final int commitWithin) {
         Validate.notNull(javaType, "Java type required");
 
         final ClassOrInterfaceTypeDetails cid = typeLocationService
@@ -75,20 +128,65 @@ public class SolrOperationsImpl implements SolrOperations {
             throw new IllegalStateException(
                     "The class specified is an abstract type. Can only add solr search for concrete types.");
         }
-        addSolrSearchableAnnotation(cid);
+        addSolrSearchableAnnotation(cid,
+                getEffectiveCommitWithin(commitWithin));
     }
 
     private void addSolrSearchableAnnotation(
-            final ClassOrInterfaceTypeDetails cid) {
+            final ClassOrInterfaceTypeDetails cid, final int commitWithin) {
         if (cid.getTypeAnnotation(ROO_SOLR_SEARCHABLE) == null) {
             final ClassOrInterfaceTypeDetailsBuilder cidBuilder = new ClassOrInterfaceTypeDetailsBuilder(
                     cid);
-            cidBuilder.addAnnotation(new AnnotationMetadataBuilder(
-                    ROO_SOLR_SEARCHABLE));
+            final AnnotationMetadataBuilder annotationBuilder = new AnnotationMetadataBuilder(
+                    ROO_SOLR_SEARCHABLE);
+            if (commitWithin > 0) {
+                annotationBuilder.addIntegerAttribute(COMMIT_WITHIN,
+                        commitWithin);
+            }
+            cidBuilder.addAnnotation(annotationBuilder);
             typeManagementService.createOrUpdateTypeOnDisk(cidBuilder.build());
         }
     }
 
+    private int getEffectiveCommitWithin(final int commitWithin) {
+        if (commitWithin <= 0 && loadSolrProperties().containsKey(QUEUE_SIZE)) {
+            return ASYNC_COMMIT_WITHIN;
+        }
+        return commitWithin;
+    }
+
+    private Element getSolrServer(final Document appCtx,
+            final boolean asyncIndexing) {
+        if (asyncIndexing) {
+            // Updates are queued and streamed to Solr by background threads;
+            // the queue is drained when the application context shuts down
+            return new XmlElementBuilder("bean", appCtx)
+                    .addAttribute("id", "solrServer")
+                    .addAttribute("class", CONCURRENT_UPDATE_SOLR_SERVER)
+                    .addAttribute("destroy-method", "blockUntilFinished")
+                    .addChild(
+                            new XmlElementBuilder("constructor-arg", appCtx)
+                                    .addAttribute("value", "${solr.serverUrl}")
+                                    .build())
+                    .addChild(
+                            new XmlElementBuilder("constructor-arg", appCtx)
+                                    .addAttribute("value", "${solr.queueSize}")
+                                    .build())
+                    .addChild(
+                            new XmlElementBuilder("constructor-arg", appCtx)
+                                    .addAttribute("value",
+                                            "${solr.threadCount}").build())
+                    .build();
+        }
+        return new XmlElementBuilder("bean", appCtx)
+                .addAttribute("id", "solrServer")
+                .addAttribute("class", COMMONS_HTTP_SOLR_SERVER)
+                .addChild(
+                        new XmlElementBuilder("constructor-arg", appCtx)
+                                .addAttribute("value", "${solr.serverUrl}")
+                                .build()).build();
+    }
+
     public boolean isSearchAvailable() {
         return solrPropsInstalled();
     }
@@ -99,9 +197,31 @@ public class SolrOperationsImpl implements SolrOperations {
                 && projectOperations.isFeatureInstalled(FeatureNames.JPA);
     }
 
-    public void setupConfig(final String solrServerUrl) {
+    private Properties loadSolrProperties() {
+        final String solrPath = projectOperations.getPathResolver()
+                .getFocusedIdentifier(Path.SPRING_CONFIG_ROOT,
+                        "solr.properties");
+        final Properties props = new Properties();
+        InputStream inputStream = null;
+        try {
+            if (fileManager.exists(solrPath)) {
+                inputStream = fileManager.getInputStream(solrPath);
+                props.load(inputStream);
+            }
+        }
+        catch (final IOException ioe) {
+            throw new IllegalStateException(ioe);
+        }
+        finally {
+            IOUtils.closeQuietly(inputStream);
+        }
+        return props;
+    }
+
+    public void setupConfig(final String solrServerUrl,
+            final boolean asyncIndexing) {
         updateConfiguration(projectOperations.getFocusedModuleName());
-        updateSolrProperties(solrServerUrl);
+        updateSolrProperties(solrServerUrl, asyncIndexing);
 
         final String contextPath = projectOperations.getPathResolver()
                 .getFocusedIdentifier(Path.SPRING_CONFIG_ROOT,
@@ -129,22 +249,28 @@ public class SolrOperationsImpl implements SolrOperations {
 
         final Element solrServer = XmlUtils.findFirstElement(
                 "/beans/bean[@id='solrServer']", root);
-        if (solrServer != null) {
-            return;
+        if (solrServer == null) {
+            root.appendChild(getSolrServer(appCtx, asyncIndexing));
+        }
+        else if (GENERATED_SOLR_SERVERS.contains(solrServer
+                .getAttribute("class"))) {
+            // Replace it, in case the indexing mode has changed
+            root.replaceChild(getSolrServer(appCtx, asyncIndexing),
+                    solrServer);
+        }
+        else {
+            LOGGER.warning("Leaving the customized 'solrServer' bean in "
+                    + "applicationContext.xml unchanged; configure its "
+                    + "indexing mode by hand");
         }
-
-        root.appendChild(new XmlElementBuilder("bean", appCtx)
-                .addAttribute("id", "solrServer")
-                .addAttribute("class",
-                        "org.apache.solr.client.solrj.impl.CommonsHttpSolrServer")
-                .addChild(
-                        new XmlElementBuilder("constructor-arg", appCtx)
-                                .addAttribute("value", "${solr.serverUrl}")
-                                .build()).build());
         DomUtils.removeTextNodes(root);
 
         fileManager.createOrUpdateTextFileIfRequired(contextPath,
                 XmlUtils.nodeToString(appCtx), false);
+
+        if (asyncIndexing) {
+            addCommitWithinToSearchableTypes();
+        }
     }
 
     private boolean solrPropsInstalled() {
@@ -153,29 +279,24 @@ public class SolrOperationsImpl implements SolrOperations {
                         "solr.properties"));
     }
 
-    private void updateSolrProperties(final String solrServerUrl) {
+    private void updateSolrProperties(final String solrServerUrl,
+            final boolean asyncIndexing) {
         final String solrPath = projectOperations.getPathResolver()
                 .getFocusedIdentifier(Path.SPRING_CONFIG_ROOT,
                         "solr.properties");
         final boolean solrExists = fileManager.exists(solrPath);
 
-        final Properties props = new Properties();
-        InputStream inputStream = null;
-        try {
-            if (fileManager.exists(solrPath)) {
-                inputStream = fileManager.getInputStream(solrPath);
-                props.load(inputStream);
-            }
-        }
-        catch (final IOException ioe) {
-            throw new IllegalStateException(ioe);
-        }
-        finally {
-            IOUtils.closeQuietly(inputStream);
-        }
-
+        final Properties props = loadSolrProperties();
         props.put("solr.serverUrl", solrServerUrl);
         props.put("executor.poolSize", "10");
+        if (asyncIndexing) {
+            props.put(QUEUE_SIZE, "100");
+            props.put(THREAD_COUNT, "2");
+        }
+        else {
+            props.remove(QUEUE_SIZE);
+            props.remove(THREAD_COUNT);
+        }
 
         OutputStream outputStream = null;
         try {
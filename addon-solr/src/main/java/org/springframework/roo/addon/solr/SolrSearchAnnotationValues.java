@@ -14,6 +14,7 @@ import org.springframework.roo.model.RooJavaType;
  */
 public class SolrSearchAnnotationValues extends AbstractAnnotationValues {
 
+    @AutoPopulate int commitWithin = 0;
     @AutoPopulate String deleteIndexMethod = "deleteIndex";
     @AutoPopulate String indexMethod = "index";
     @AutoPopulate String postPersistOrUpdateMethod = "postPersistOrUpdate";
@@ -32,6 +33,10 @@ public class SolrSearchAnnotationValues extends AbstractAnnotationValues {
         AutoPopulationUtils.populate(this, annotationMetadata);
     }
 
+    public int getCommitWithin() {
+        return commitWithin;
+    }
+
     public String getDeleteIndexMethod() {
         return deleteIndexMethod;
     }
@@ -0,0 +1,144 @@
+package org.springframework.roo.addon.solr;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.springframework.roo.classpath.TypeLocationService;
+import org.springframework.roo.process.manager.FileManager;
+import org.springframework.roo.process.manager.MutableFile;
+import org.springframework.roo.project.Path;
+import org.springframework.roo.project.PathResolver;
+import org.springframework.roo.project.ProjectOperations;
+import org.springframework.roo.support.util.XmlUtils;
+import org.w3c.dom.Element;
+
+/**
+ * Unit test of {@link SolrOperationsImpl}
+ * 
+ * @since 1.2.5
+ */
+public class SolrOperationsImplTest {
+
+    private static final String APPLICATION_CONTEXT = "applicationContext.xml";
+    private static final String CUSTOM_SOLR_SERVER = "<bean class=\"com.example.SecureSolrServer\" id=\"solrServer\">"
+            + "<constructor-arg value=\"${solr.serverUrl}\"/>"
+            + "<constructor-arg value=\"${solr.password}\"/></bean>";
+    private static final String SOLR_PROPERTIES = "solr.properties";
+
+    // Fixture
+    @Mock private FileManager mockFileManager;
+    @Mock private MutableFile mockPropertiesFile;
+    @Mock private PathResolver mockPathResolver;
+    @Mock private ProjectOperations mockProjectOperations;
+    @Mock private TypeLocationService mockTypeLocationService;
+    private SolrOperationsImpl solrOperations;
+
+    private Element setupConfig(final String beans, final boolean asyncIndexing) {
+        when(mockFileManager.getInputStream(APPLICATION_CONTEXT)).thenReturn(
+                new ByteArrayInputStream(("<beans>" + beans + "</beans>")
+                        .getBytes()));
+
+        solrOperations.setupConfig("http://localhost:8983/solr",
+                asyncIndexing);
+
+        final ArgumentCaptor<String> contents = ArgumentCaptor
+                .forClass(String.class);
+        verify(mockFileManager).createOrUpdateTextFileIfRequired(
+                eq(APPLICATION_CONTEXT), contents.capture(), eq(false));
+        return XmlUtils.findFirstElement(
+                "/beans/bean[@id='solrServer']",
+                XmlUtils.readXml(
+                        new ByteArrayInputStream(contents.getValue()
+                                .getBytes())).getDocumentElement());
+    }
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        when(mockProjectOperations.getFocusedModuleName()).thenReturn("");
+        when(mockProjectOperations.getPathResolver()).thenReturn(
+                mockPathResolver);
+        when(
+                mockPathResolver.getFocusedIdentifier(
+                        eq(Path.SPRING_CONFIG_ROOT), anyString())).thenAnswer(
+                new Answer<String>() {
+                    public String answer(final InvocationOnMock invocation) {
+                        return (String) invocation.getArguments()[1];
+                    }
+                });
+        when(mockFileManager.createFile(SOLR_PROPERTIES)).thenReturn(
+                mockPropertiesFile);
+        when(mockPropertiesFile.getOutputStream()).thenReturn(
+                new ByteArrayOutputStream());
+
+        solrOperations = new SolrOperationsImpl();
+        solrOperations.fileManager = mockFileManager;
+        solrOperations.projectOperations = mockProjectOperations;
+        solrOperations.typeLocationService = mockTypeLocationService;
+    }
+
+    @Test
+    public void testAsynchronousIndexingUsesAConcurrentUpdateServer() {
+        // Invoke
+        final Element solrServer = setupConfig("", true);
+
+        // Check
+        assertEquals(
+                "org.apache.solr.client.solrj.impl.ConcurrentUpdateSolrServer",
+                solrServer.getAttribute("class"));
+        assertEquals("blockUntilFinished",
+                solrServer.getAttribute("destroy-method"));
+        assertEquals(3, XmlUtils.findElements("constructor-arg", solrServer)
+                .size());
+    }
+
+    @Test
+    public void testCustomizedSolrServerIsLeftAlone() {
+        // Invoke
+        final Element solrServer = setupConfig(CUSTOM_SOLR_SERVER, true);
+
+        // Check
+        assertEquals("com.example.SecureSolrServer",
+                solrServer.getAttribute("class"));
+        assertEquals(2, XmlUtils.findElements("constructor-arg", solrServer)
+                .size());
+    }
+
+    @Test
+    public void testGeneratedSolrServerFollowsTheIndexingMode() {
+        // Invoke
+        final Element solrServer = setupConfig(
+                "<bean class=\"org.apache.solr.client.solrj.impl.ConcurrentUpdateSolrServer\" id=\"solrServer\"/>",
+                false);
+
+        // Check
+        assertEquals("org.apache.solr.client.solrj.impl.CommonsHttpSolrServer",
+                solrServer.getAttribute("class"));
+        assertEquals("", solrServer.getAttribute("destroy-method"));
+    }
+
+    @Test
+    public void testSynchronousIndexingUsesAnHttpServer() {
+        // Invoke
+        final Element solrServer = setupConfig("", false);
+
+        // Check
+        assertEquals("org.apache.solr.client.solrj.impl.CommonsHttpSolrServer",
+                solrServer.getAttribute("class"));
+        assertEquals(1, XmlUtils.findElements("constructor-arg", solrServer)
+                .size());
+    }
+}
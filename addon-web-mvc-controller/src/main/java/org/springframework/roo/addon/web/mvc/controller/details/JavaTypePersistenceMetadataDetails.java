@@ -254,4 +254,16 @@ public class JavaTypePersistenceMetadataDetails {
     public boolean isRooIdentifier() {
         return isRooIdentifier;
     }
+
+    /**
+     * Indicates whether instances of this type can be retrieved one page at a
+     * time, i.e. there is a "find entries" method and the identifier is not a
+     * composite (embedded) one
+     * 
+     * @return see above
+     * @since 1.2.5
+     */
+    public boolean isPageable() {
+        return findEntriesMethod != null && rooIdentifierFields.isEmpty();
+    }
 }
@@ -87,6 +87,39 @@ public @interface RooWebScaffold {
      */
     Class<?> formBackingObject();
 
+    /**
+     * Indicates if the forms should not be populated with every instance of
+     * each entity type they refer to. Instead the forms receive the first
+     * {@link #maxPageSize()} instances plus those currently selected, and the
+     * controller provides a lookupXXX() method for each such type, which
+     * returns further pages as JSON for the views to load on demand. Projects
+     * created with an earlier version of Roo need to run
+     * <code>web mvc update tags</code> for their select fields to do so.
+     * 
+     * @return indicates if the reference data should be loaded in pages
+     *         (defaults to "false"; optional)
+     */
+    boolean lazyReferenceData() default false;
+
+    /**
+     * The largest number of instances that a page of the list() or lookupXXX()
+     * methods may contain, whatever page size the request asks for. Only
+     * applies if {@link #pagedList()} or {@link #lazyReferenceData()} is set.
+     * 
+     * @return the maximum page size (defaults to 100; optional)
+     */
+    int maxPageSize() default 100;
+
+    /**
+     * Indicates if the list() method should always return a single page of
+     * entities, even when the request does not specify a page or page size,
+     * instead of falling back to returning every entity.
+     * 
+     * @return indicates if the list() method should always page its results
+     *         (defaults to "false"; optional)
+     */
+    boolean pagedList() default false;
+
     /**
      * All view-related artifacts for a specific controller are stored in a
      * sub-directory under WEB-INF/views/<em>path</em>. The path parameter
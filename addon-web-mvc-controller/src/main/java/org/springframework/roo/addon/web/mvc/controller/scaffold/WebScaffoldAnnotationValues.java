@@ -21,6 +21,9 @@ public class WebScaffoldAnnotationValues extends AbstractAnnotationValues {
     @AutoPopulate boolean delete = true;
     @AutoPopulate boolean exposeFinders = true;
     @AutoPopulate JavaType formBackingObject;
+    @AutoPopulate boolean lazyReferenceData;
+    @AutoPopulate int maxPageSize = 100;
+    @AutoPopulate boolean pagedList;
     @AutoPopulate String path;
     @AutoPopulate boolean populateMethods = true;
     @AutoPopulate boolean registerConverters = true;
@@ -47,6 +50,10 @@ public class WebScaffoldAnnotationValues extends AbstractAnnotationValues {
         return formBackingObject;
     }
 
+    public int getMaxPageSize() {
+        return maxPageSize;
+    }
+
     public String getPath() {
         return path;
     }
@@ -63,6 +70,14 @@ public class WebScaffoldAnnotationValues extends AbstractAnnotationValues {
         return exposeFinders;
     }
 
+    public boolean isLazyReferenceData() {
+        return lazyReferenceData;
+    }
+
+    public boolean isPagedList() {
+        return pagedList;
+    }
+
     public boolean isPopulateMethods() {
         return populateMethods;
     }
@@ -80,6 +95,8 @@ public class WebScaffoldAnnotationValues extends AbstractAnnotationValues {
         // For debugging
         return "WebScaffoldAnnotationValues [" + "create=" + create
                 + ", delete=" + delete + ", exposeFinders=" + exposeFinders
+                + ", lazyReferenceData=" + lazyReferenceData
+                + ", maxPageSize=" + maxPageSize + ", pagedList=" + pagedList
                 + ", populateMethods=" + populateMethods
                 + ", registerConverters=" + registerConverters + ", update="
                 + update + ", formBackingObject=" + formBackingObject
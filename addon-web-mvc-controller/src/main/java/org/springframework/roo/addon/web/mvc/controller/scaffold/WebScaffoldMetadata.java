@@ -20,12 +20,16 @@ import static org.springframework.roo.model.Jsr303JavaType.VALID;
 import static org.springframework.roo.model.SpringJavaType.AUTOWIRED;
 import static org.springframework.roo.model.SpringJavaType.BINDING_RESULT;
 import static org.springframework.roo.model.SpringJavaType.CONVERSION_SERVICE;
+import static org.springframework.roo.model.SpringJavaType.HTTP_HEADERS;
+import static org.springframework.roo.model.SpringJavaType.HTTP_STATUS;
 import static org.springframework.roo.model.SpringJavaType.LOCALE_CONTEXT_HOLDER;
 import static org.springframework.roo.model.SpringJavaType.MODEL;
 import static org.springframework.roo.model.SpringJavaType.PATH_VARIABLE;
 import static org.springframework.roo.model.SpringJavaType.REQUEST_MAPPING;
 import static org.springframework.roo.model.SpringJavaType.REQUEST_METHOD;
 import static org.springframework.roo.model.SpringJavaType.REQUEST_PARAM;
+import static org.springframework.roo.model.SpringJavaType.RESPONSE_BODY;
+import static org.springframework.roo.model.SpringJavaType.RESPONSE_ENTITY;
 import static org.springframework.roo.model.SpringJavaType.URI_UTILS;
 import static org.springframework.roo.model.SpringJavaType.WEB_UTILS;
 
@@ -38,6 +42,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.SortedMap;
 
+import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.springframework.roo.addon.web.mvc.controller.details.DateTimeFormatDetails;
@@ -81,12 +86,16 @@ public class WebScaffoldMetadata extends
             "conversionService");
     private static final JavaType HTTP_SERVLET_REQUEST = new JavaType(
             "javax.servlet.http.HttpServletRequest");
+    private static final String JSON_CONTENT_TYPE = "application/json";
     private static final StringAttributeValue PRODUCES_HTML = new StringAttributeValue(
             new JavaSymbolName("produces"), "text/html");
     private static final String PROVIDES_TYPE_STRING = WebScaffoldMetadata.class
             .getName();
     private static final String PROVIDES_TYPE = MetadataIdentificationUtils
             .create(PROVIDES_TYPE_STRING);
+    private static final JavaType RESPONSE_ENTITY_STRING = new JavaType(
+            RESPONSE_ENTITY.getFullyQualifiedTypeName(), 0, DataType.TYPE,
+            null, Arrays.asList(STRING));
 
     private WebScaffoldAnnotationValues annotationValues;
     private boolean compositePk;
@@ -109,6 +118,8 @@ public class WebScaffoldMetadata extends
      * @param dateTypes
      * @param crudAdditions
      * @param editableFieldTypes
+     * @param formBackingAccessors the accessor methods of the form backing
+     *            type (required)
      */
     public WebScaffoldMetadata(
             final String identifier,
@@ -120,7 +131,8 @@ public class WebScaffoldMetadata extends
             final List<JavaTypeMetadataDetails> dependentTypes,
             final Map<JavaSymbolName, DateTimeFormatDetails> dateTypes,
             final Map<MethodMetadataCustomDataKey, MemberTypeAdditions> crudAdditions,
-            final Collection<JavaType> editableFieldTypes) {
+            final Collection<JavaType> editableFieldTypes,
+            final Collection<MethodMetadata> formBackingAccessors) {
         super(identifier, aspectName, governorPhysicalType);
         Validate.isTrue(isValid(identifier),
                 "Metadata identification string '%s' is invalid", identifier);
@@ -128,6 +140,8 @@ public class WebScaffoldMetadata extends
         Validate.notNull(specialDomainTypes,
                 "Special domain types map required");
         Validate.notNull(dependentTypes, "Dependent types list required");
+        Validate.notNull(formBackingAccessors,
+                "Form backing accessors required");
 
         if (!isValid()) {
             return;
@@ -186,7 +200,10 @@ public class WebScaffoldMetadata extends
             builder.addMethod(getListMethod(findAllSortedMethod, countAllMethod,
             		findEntriesSortedMethod));
             countAllMethod.copyAdditionsTo(builder, governorTypeDetails);
-            findAllSortedMethod.copyAdditionsTo(builder, governorTypeDetails);
+            if (!annotationValues.isPagedList()) {
+                findAllSortedMethod.copyAdditionsTo(builder,
+                        governorTypeDetails);
+            }
             findEntriesSortedMethod.copyAdditionsTo(builder, governorTypeDetails);
         } 
         // or "list" method 
@@ -195,7 +212,9 @@ public class WebScaffoldMetadata extends
             builder.addMethod(getListMethod(findAllMethod, countAllMethod,
                     findEntriesMethod));
             countAllMethod.copyAdditionsTo(builder, governorTypeDetails);
-            findAllMethod.copyAdditionsTo(builder, governorTypeDetails);
+            if (!annotationValues.isPagedList()) {
+                findAllMethod.copyAdditionsTo(builder, governorTypeDetails);
+            }
             findEntriesMethod.copyAdditionsTo(builder, governorTypeDetails);
         }      
 
@@ -224,8 +243,20 @@ public class WebScaffoldMetadata extends
 
         if (annotationValues.isCreate() || annotationValues.isUpdate()) {
             builder.addMethod(getPopulateEditFormMethod(formBackingType,
-                    specialDomainTypes.values(), editableFieldTypes));
+                    specialDomainTypes.values(), editableFieldTypes,
+                    formBackingAccessors));
             builder.addMethod(getEncodeUrlPathSegmentMethod());
+            if (annotationValues.isPopulateMethods()
+                    && annotationValues.isLazyReferenceData()) {
+                final List<JavaTypeMetadataDetails> lazyReferenceTypes = getLazyReferenceTypes(
+                        specialDomainTypes.values(), editableFieldTypes);
+                for (final JavaTypeMetadataDetails domainType : lazyReferenceTypes) {
+                    builder.addMethod(getLookupMethod(domainType));
+                }
+                if (!lazyReferenceTypes.isEmpty()) {
+                    builder.addMethod(getEncodeJsonStringMethod());
+                }
+            }
         }
 
         itdTypeDetails = builder.build();
@@ -272,6 +303,89 @@ public class WebScaffoldMetadata extends
         return builder.toString();
     }
 
+    /**
+     * Appends the statements that put the first page of instances of the given
+     * entity type into the model, along with any instances that the form
+     * backing object currently refers to, so that the forms can always show
+     * the current selection. Entities are compared using their
+     * <code>equals</code> method, which for entities read by the same
+     * persistence context is their identity.
+     * 
+     * @param bodyBuilder the builder to append to (required)
+     * @param domainType the referenced entity type (required)
+     * @param formBackingAccessors the accessor methods of the form backing
+     *            type (required)
+     */
+    private void appendLazyReferenceData(
+            final InvocableMemberBodyBuilder bodyBuilder,
+            final JavaTypeMetadataDetails domainType,
+            final Collection<MethodMetadata> formBackingAccessors) {
+        final JavaType referenceType = domainType.getJavaType();
+        final String referenceTypeName = getShortName(referenceType);
+        final String references = domainType.getPlural().toLowerCase();
+        bodyBuilder.appendFormalLine(getShortName(LIST) + "<"
+                + referenceTypeName + "> " + references + " = new "
+                + getShortName(ARRAY_LIST) + "<" + referenceTypeName + ">("
+                + domainType.getPersistenceDetails().getFindEntriesMethod()
+                        .getMethodCall() + ");");
+        for (final MethodMetadata accessor : formBackingAccessors) {
+            final JavaType returnType = accessor.getReturnType();
+            if (returnType.getParameters().size() > 1
+                    || !referenceType.equals(returnType.getBaseType())) {
+                // Not a reference to this type (maps are not scaffolded)
+                continue;
+            }
+            final String selection = entityName + "."
+                    + accessor.getMethodName().getSymbolName() + "()";
+            if (returnType.isCommonCollectionType()) {
+                bodyBuilder.appendFormalLine("if (" + selection
+                        + " != null) {");
+                bodyBuilder.indent();
+                bodyBuilder.appendFormalLine("for (" + referenceTypeName
+                        + " selected : " + selection + ") {");
+                bodyBuilder.indent();
+                bodyBuilder.appendFormalLine("if (!" + references
+                        + ".contains(selected)) {");
+                bodyBuilder.indent();
+                bodyBuilder.appendFormalLine(references + ".add(selected);");
+                bodyBuilder.indentRemove();
+                bodyBuilder.appendFormalLine("}");
+                bodyBuilder.indentRemove();
+                bodyBuilder.appendFormalLine("}");
+                bodyBuilder.indentRemove();
+                bodyBuilder.appendFormalLine("}");
+            }
+            else {
+                bodyBuilder.appendFormalLine("if (" + selection
+                        + " != null && !" + references + ".contains("
+                        + selection + ")) {");
+                bodyBuilder.indent();
+                bodyBuilder.appendFormalLine(references + ".add(" + selection
+                        + ");");
+                bodyBuilder.indentRemove();
+                bodyBuilder.appendFormalLine("}");
+            }
+        }
+        bodyBuilder.appendFormalLine("uiModel.addAttribute(\"" + references
+                + "\", " + references + ");");
+    }
+
+    /**
+     * Appends the declarations of the "sizeNo" and "firstResult" variables for
+     * the page requested by the "page" and "size" parameters, limiting the page
+     * size to {@link #getMaxPageSize()}.
+     * 
+     * @param bodyBuilder the builder to append to (required)
+     */
+    private void appendPageVariables(
+            final InvocableMemberBodyBuilder bodyBuilder) {
+        bodyBuilder
+                .appendFormalLine("int sizeNo = Math.min(size == null ? 10 : Math.max(size.intValue(), 1), "
+                        + getMaxPageSize() + ");");
+        bodyBuilder
+                .appendFormalLine("final int firstResult = page == null ? 0 : (Math.max(page.intValue(), 1) - 1) * sizeNo;");
+    }
+
     private ConstructorMetadataBuilder getConstructor() {
         final ConstructorMetadata constructor = governorTypeDetails
                 .getDeclaredConstructor(Arrays.asList(CONVERSION_SERVICE));
@@ -571,6 +685,53 @@ public class WebScaffoldMetadata extends
         return methodBuilder;
     }
 
+    /**
+     * Returns the metadata for the method that the lookupXXX() methods use to
+     * encode a string as a JSON string literal, escaping quotes, backslashes,
+     * control characters and any characters outside printable ASCII.
+     * 
+     * @return <code>null</code> if no such method is to be introduced
+     */
+    private MethodMetadataBuilder getEncodeJsonStringMethod() {
+        final JavaSymbolName methodName = new JavaSymbolName(
+                "encodeJsonString");
+        if (governorHasMethodWithSameName(methodName)) {
+            return null;
+        }
+
+        final List<JavaType> parameterTypes = Arrays.asList(STRING);
+        final List<JavaSymbolName> parameterNames = Arrays
+                .asList(new JavaSymbolName("value"));
+
+        final InvocableMemberBodyBuilder bodyBuilder = new InvocableMemberBodyBuilder();
+        bodyBuilder
+                .appendFormalLine("StringBuilder json = new StringBuilder(\"\\\"\");");
+        bodyBuilder.appendFormalLine("for (char c : value.toCharArray()) {");
+        bodyBuilder.indent();
+        bodyBuilder.appendFormalLine("if (c == '\"' || c == '\\\\') {");
+        bodyBuilder.indent();
+        bodyBuilder.appendFormalLine("json.append('\\\\').append(c);");
+        bodyBuilder.indentRemove();
+        bodyBuilder
+                .appendFormalLine("} else if (c < ' ' || c > '~' || c == '<' || c == '>' || c == '&') {");
+        bodyBuilder.indent();
+        bodyBuilder
+                .appendFormalLine("json.append(String.format(\"\\\\u%04x\", (int) c));");
+        bodyBuilder.indentRemove();
+        bodyBuilder.appendFormalLine("} else {");
+        bodyBuilder.indent();
+        bodyBuilder.appendFormalLine("json.append(c);");
+        bodyBuilder.indentRemove();
+        bodyBuilder.appendFormalLine("}");
+        bodyBuilder.indentRemove();
+        bodyBuilder.appendFormalLine("}");
+        bodyBuilder.appendFormalLine("return json.append('\"').toString();");
+
+        return new MethodMetadataBuilder(getId(), 0, methodName, STRING,
+                AnnotatedJavaType.convertFromJavaTypes(parameterTypes),
+                parameterNames, bodyBuilder);
+    }
+
     private MethodMetadataBuilder getEncodeUrlPathSegmentMethod() {
         final JavaSymbolName methodName = new JavaSymbolName(
                 "encodeUrlPathSegment");
@@ -610,6 +771,30 @@ public class WebScaffoldMetadata extends
                 parameterNames, bodyBuilder);
     }
 
+    /**
+     * Returns the entity types referred to by the form backing object whose
+     * instances can be loaded into the forms a page at a time.
+     * 
+     * @param specialDomainTypes
+     * @param editableFieldTypes
+     * @return a non-<code>null</code> list
+     */
+    private List<JavaTypeMetadataDetails> getLazyReferenceTypes(
+            final Collection<JavaTypeMetadataDetails> specialDomainTypes,
+            final Collection<JavaType> editableFieldTypes) {
+        final List<JavaTypeMetadataDetails> lazyReferenceTypes = new ArrayList<JavaTypeMetadataDetails>();
+        for (final JavaTypeMetadataDetails domainType : specialDomainTypes) {
+            final JavaTypePersistenceMetadataDetails persistenceDetails = domainType
+                    .getPersistenceDetails();
+            if (editableFieldTypes.contains(domainType.getJavaType())
+                    && persistenceDetails != null
+                    && persistenceDetails.isPageable()) {
+                lazyReferenceTypes.add(domainType);
+            }
+        }
+        return lazyReferenceTypes;
+    }
+
     /**
      * Returns the metadata for the "list" method that this ITD introduces into
      * the controller.
@@ -684,12 +869,17 @@ public class WebScaffoldMetadata extends
         final String plural = javaTypeMetadataHolder.getPlural().toLowerCase();
 
         final InvocableMemberBodyBuilder bodyBuilder = new InvocableMemberBodyBuilder();
-        bodyBuilder.appendFormalLine("if (page != null || size != null) {");
-        bodyBuilder.indent();
-        bodyBuilder
-                .appendFormalLine("int sizeNo = size == null ? 10 : size.intValue();");
-        bodyBuilder
-                .appendFormalLine("final int firstResult = page == null ? 0 : (page.intValue() - 1) * sizeNo;");
+        if (annotationValues.isPagedList()) {
+            appendPageVariables(bodyBuilder);
+        }
+        else {
+            bodyBuilder.appendFormalLine("if (page != null || size != null) {");
+            bodyBuilder.indent();
+            bodyBuilder
+                    .appendFormalLine("int sizeNo = size == null ? 10 : size.intValue();");
+            bodyBuilder
+                    .appendFormalLine("final int firstResult = page == null ? 0 : (page.intValue() - 1) * sizeNo;");
+        }
         bodyBuilder.appendFormalLine("uiModel.addAttribute(\"" + plural
                 + "\", " 
                 + findEntriesAdditions.getMethodCall()
@@ -698,15 +888,17 @@ public class WebScaffoldMetadata extends
                 + countAllAdditions.getMethodCall() + " / sizeNo;");
         bodyBuilder
                 .appendFormalLine("uiModel.addAttribute(\"maxPages\", (int) ((nrOfPages > (int) nrOfPages || nrOfPages == 0.0) ? nrOfPages + 1 : nrOfPages));");
-        bodyBuilder.indentRemove();
-        bodyBuilder.appendFormalLine("} else {");
-        bodyBuilder.indent();
-        bodyBuilder.appendFormalLine("uiModel.addAttribute(\"" + plural
-                + "\", " 
-                + findAllAdditions.getMethodCall()
-                + ");");
-        bodyBuilder.indentRemove();
-        bodyBuilder.appendFormalLine("}");
+        if (!annotationValues.isPagedList()) {
+            bodyBuilder.indentRemove();
+            bodyBuilder.appendFormalLine("} else {");
+            bodyBuilder.indent();
+            bodyBuilder.appendFormalLine("uiModel.addAttribute(\"" + plural
+                    + "\", " 
+                    + findAllAdditions.getMethodCall()
+                    + ");");
+            bodyBuilder.indentRemove();
+            bodyBuilder.appendFormalLine("}");
+        }
         if (!dateTypes.isEmpty()) {
             bodyBuilder.appendFormalLine("addDateTimeFormatPatterns(uiModel);");
         }
@@ -719,9 +911,122 @@ public class WebScaffoldMetadata extends
         return methodBuilder;
     }
 
+    /**
+     * Returns the metadata for the method that returns a page of instances of
+     * the given entity type as JSON, for the views to load into the forms on
+     * demand. Each instance is represented by its identifier and its
+     * <code>toString()</code> label, both encoded as JSON strings.
+     * 
+     * @param domainType the entity type to look up (required)
+     * @return <code>null</code> if no such method is to be introduced
+     */
+    private MethodMetadataBuilder getLookupMethod(
+            final JavaTypeMetadataDetails domainType) {
+        final String plural = domainType.getPlural();
+        final JavaSymbolName methodName = new JavaSymbolName("lookup"
+                + StringUtils.capitalize(plural));
+        if (governorHasMethodWithSameName(methodName)) {
+            return null;
+        }
+        final JavaTypePersistenceMetadataDetails persistenceDetails = domainType
+                .getPersistenceDetails();
+
+        final List<AnnotatedJavaType> parameterTypes = Arrays.asList(
+                new AnnotatedJavaType(INT_OBJECT, getOptionalRequestParam(
+                        "page").build()), new AnnotatedJavaType(INT_OBJECT,
+                        getOptionalRequestParam("size").build()));
+        final List<JavaSymbolName> parameterNames = Arrays.asList(
+                new JavaSymbolName("page"), new JavaSymbolName("size"));
+
+        final List<AnnotationAttributeValue<?>> requestMappingAttributes = new ArrayList<AnnotationAttributeValue<?>>();
+        requestMappingAttributes.add(new StringAttributeValue(
+                new JavaSymbolName("params"), "lookup=" + plural.toLowerCase()));
+        requestMappingAttributes.add(new StringAttributeValue(
+                new JavaSymbolName("headers"), "Accept=" + JSON_CONTENT_TYPE));
+        requestMappingAttributes.add(new EnumAttributeValue(new JavaSymbolName(
+                "method"), new EnumDetails(REQUEST_METHOD, new JavaSymbolName(
+                "GET"))));
+        final List<AnnotationMetadataBuilder> annotations = new ArrayList<AnnotationMetadataBuilder>();
+        annotations.add(new AnnotationMetadataBuilder(REQUEST_MAPPING,
+                requestMappingAttributes));
+        annotations.add(new AnnotationMetadataBuilder(RESPONSE_BODY));
+
+        final String item = JavaSymbolName.getReservedWordSafeName(
+                domainType.getJavaType()).getSymbolName();
+        final String httpHeadersShortName = getShortName(HTTP_HEADERS);
+
+        final InvocableMemberBodyBuilder bodyBuilder = new InvocableMemberBodyBuilder();
+        appendPageVariables(bodyBuilder);
+        bodyBuilder
+                .appendFormalLine("StringBuilder json = new StringBuilder(\"[\");");
+        bodyBuilder.appendFormalLine("for ("
+                + getShortName(domainType.getJavaType()) + " " + item + " : "
+                + persistenceDetails.getFindEntriesMethod().getMethodCall()
+                + ") {");
+        bodyBuilder.indent();
+        bodyBuilder.appendFormalLine("if (json.length() > 1) {");
+        bodyBuilder.indent();
+        bodyBuilder.appendFormalLine("json.append(\",\");");
+        bodyBuilder.indentRemove();
+        bodyBuilder.appendFormalLine("}");
+        bodyBuilder.appendFormalLine("json.append(\"{\\\"id\\\":\").append("
+                + "encodeJsonString(String.valueOf(" + item + "."
+                + persistenceDetails.getIdentifierAccessorMethod()
+                        .getMethodName() + "())));");
+        bodyBuilder.appendFormalLine("json.append(\",\\\"label\\\":\").append("
+                + "encodeJsonString(String.valueOf(" + item
+                + "))).append(\"}\");");
+        bodyBuilder.indentRemove();
+        bodyBuilder.appendFormalLine("}");
+        bodyBuilder.appendFormalLine("json.append(\"]\");");
+        bodyBuilder.appendFormalLine(httpHeadersShortName + " headers = new "
+                + httpHeadersShortName + "();");
+        bodyBuilder.appendFormalLine("headers.add(\"Content-Type\", \""
+                + JSON_CONTENT_TYPE + "; charset=utf-8\");");
+        bodyBuilder.appendFormalLine("return new "
+                + getShortName(RESPONSE_ENTITY)
+                + "<String>(json.toString(), headers, "
+                + getShortName(HTTP_STATUS) + ".OK);");
+
+        persistenceDetails.getFindEntriesMethod().copyAdditionsTo(builder,
+                governorTypeDetails);
+
+        final MethodMetadataBuilder methodBuilder = new MethodMetadataBuilder(
+                getId(), Modifier.PUBLIC, methodName, RESPONSE_ENTITY_STRING,
+                parameterTypes, parameterNames, bodyBuilder);
+        methodBuilder.setAnnotations(annotations);
+        return methodBuilder;
+    }
+
+    /**
+     * Returns the largest page size that the generated methods return.
+     * 
+     * @return a positive number
+     */
+    private int getMaxPageSize() {
+        return Math.max(annotationValues.getMaxPageSize(), 1);
+    }
+
+    /**
+     * Returns an optional {@link org.springframework.web.bind.annotation.RequestParam}
+     * annotation for the request parameter with the given name.
+     * 
+     * @param name the name of the request parameter (required)
+     * @return a non-<code>null</code> builder
+     */
+    private AnnotationMetadataBuilder getOptionalRequestParam(final String name) {
+        final List<AnnotationAttributeValue<?>> attributes = new ArrayList<AnnotationAttributeValue<?>>();
+        attributes.add(new StringAttributeValue(new JavaSymbolName("value"),
+                name));
+        attributes.add(new BooleanAttributeValue(new JavaSymbolName(
+                "required"), false));
+        return new AnnotationMetadataBuilder(REQUEST_PARAM, attributes);
+    }
+
     private MethodMetadata getPopulateEditFormMethod(final JavaType entity,
             final Collection<JavaTypeMetadataDetails> specialDomainTypes,
-            final Collection<JavaType> editableFieldTypes) {
+            final Collection<JavaType> editableFieldTypes,
+            final Collection<MethodMetadata> formBackingAccessors) {
         final JavaSymbolName methodName = new JavaSymbolName("populateEditForm");
         final JavaType[] parameterTypes = { MODEL, entity };
         final List<JavaSymbolName> parameterNames = Arrays.asList(
@@ -736,13 +1041,31 @@ public class WebScaffoldMetadata extends
             bodyBuilder.appendFormalLine("addDateTimeFormatPatterns(uiModel);");
         }
         if (annotationValues.isPopulateMethods()) {
+            final Collection<JavaTypeMetadataDetails> lazyReferenceTypes = annotationValues
+                    .isLazyReferenceData() ? getLazyReferenceTypes(
+                    specialDomainTypes, editableFieldTypes)
+                    : new ArrayList<JavaTypeMetadataDetails>();
+            if (!lazyReferenceTypes.isEmpty()) {
+                // The variables passed to each findXXXEntries method
+                bodyBuilder.appendFormalLine("int firstResult = 0;");
+                bodyBuilder.appendFormalLine("int sizeNo = "
+                        + getMaxPageSize() + ";");
+            }
             for (final JavaTypeMetadataDetails domainType : specialDomainTypes) {
                 if (editableFieldTypes.contains(domainType.getJavaType())) {
                     final JavaTypePersistenceMetadataDetails persistenceDetails = domainType
                             .getPersistenceDetails();
                     final String modelAttribute = domainType.getPlural()
                             .toLowerCase();
-                    if (persistenceDetails != null
+                    if (lazyReferenceTypes.contains(domainType)) {
+                        // The first page; the views can load the others
+                        // through the lookup method
+                        appendLazyReferenceData(bodyBuilder, domainType,
+                                formBackingAccessors);
+                        persistenceDetails.getFindEntriesMethod()
+                                .copyAdditionsTo(builder, governorTypeDetails);
+                    }
+                    else if (persistenceDetails != null
                             && persistenceDetails.getFindAllMethod() != null) {
                         bodyBuilder.appendFormalLine("uiModel.addAttribute(\""
                                 + modelAttribute
@@ -3,6 +3,8 @@ package org.springframework.roo.addon.web.mvc.controller.scaffold;
 import static org.springframework.roo.classpath.customdata.CustomDataKeys.PERSISTENT_TYPE;
 import static org.springframework.roo.model.RooJavaType.ROO_WEB_SCAFFOLD;
 
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -19,11 +21,13 @@ import org.springframework.roo.addon.web.mvc.controller.details.WebMetadataServi
 import org.springframework.roo.classpath.PhysicalTypeIdentifier;
 import org.springframework.roo.classpath.PhysicalTypeMetadata;
 import org.springframework.roo.classpath.customdata.tagkeys.MethodMetadataCustomDataKey;
+import org.springframework.roo.classpath.details.BeanInfoUtils;
 import org.springframework.roo.classpath.details.ClassOrInterfaceTypeDetails;
 import org.springframework.roo.classpath.details.FieldMetadata;
 import org.springframework.roo.classpath.details.ItdTypeDetails;
 import org.springframework.roo.classpath.details.MemberFindingUtils;
 import org.springframework.roo.classpath.details.MemberHoldingTypeDetails;
+import org.springframework.roo.classpath.details.MethodMetadata;
 import org.springframework.roo.classpath.itd.AbstractMemberDiscoveringItdMetadataProvider;
 import org.springframework.roo.classpath.itd.ItdTypeDetailsProvidingMetadataItem;
 import org.springframework.roo.classpath.layers.MemberTypeAdditions;
@@ -169,12 +173,20 @@ public class WebScaffoldMetadataProviderImpl extends
         final Collection<JavaType> editableFieldTypes = formBackingObjectMemberDetails
                 .getPersistentFieldTypes(formBackingType,
                         persistenceMemberLocator);
+        final List<MethodMetadata> formBackingAccessors = new ArrayList<MethodMetadata>();
+        for (final MethodMetadata method : formBackingObjectMemberDetails
+                .getMethods()) {
+            if (BeanInfoUtils.isAccessorMethod(method)
+                    && !Modifier.isStatic(method.getModifier())) {
+                formBackingAccessors.add(method);
+            }
+        }
 
         return new WebScaffoldMetadata(metadataIdentificationString,
                 aspectName, governorPhysicalType, annotationValues, idField,
                 relatedApplicationTypeMetadata,
                 dependentApplicationTypeMetadata, datePatterns, crudAdditions,
-                editableFieldTypes);
+                editableFieldTypes, formBackingAccessors);
     }
 
     public String getProvidesType() {
@@ -0,0 +1,238 @@
+package org.springframework.roo.addon.web.mvc.controller.scaffold;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.roo.model.JavaType.LONG_OBJECT;
+import static org.springframework.roo.model.JavaType.STRING;
+import static org.springframework.roo.model.JdkJavaType.SET;
+import static org.springframework.roo.model.SpringJavaType.REQUEST_MAPPING;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.roo.addon.web.mvc.controller.details.DateTimeFormatDetails;
+import org.springframework.roo.addon.web.mvc.controller.details.JavaTypeMetadataDetails;
+import org.springframework.roo.addon.web.mvc.controller.details.JavaTypePersistenceMetadataDetails;
+import org.springframework.roo.classpath.PhysicalTypeMetadata;
+import org.springframework.roo.classpath.customdata.tagkeys.MethodMetadataCustomDataKey;
+import org.springframework.roo.classpath.details.ClassOrInterfaceTypeDetails;
+import org.springframework.roo.classpath.details.FieldMetadata;
+import org.springframework.roo.classpath.details.ItdTypeDetails;
+import org.springframework.roo.classpath.details.MemberFindingUtils;
+import org.springframework.roo.classpath.details.MethodMetadata;
+import org.springframework.roo.classpath.details.annotations.AnnotationMetadata;
+import org.springframework.roo.classpath.layers.MemberTypeAdditions;
+import org.springframework.roo.model.DataType;
+import org.springframework.roo.model.EnumDetails;
+import org.springframework.roo.model.JavaSymbolName;
+import org.springframework.roo.model.JavaType;
+import org.springframework.roo.project.LogicalPath;
+import org.springframework.roo.project.Path;
+
+/**
+ * Unit test of {@link WebScaffoldMetadata}
+ * 
+ * @since 1.2.5
+ */
+public class WebScaffoldMetadataTest {
+
+    private static final JavaType ASPECT = new JavaType(
+            "com.example.web.PetController_Roo_Controller");
+    private static final JavaType CONTROLLER = new JavaType(
+            "com.example.web.PetController");
+    private static final String METADATA_ID = WebScaffoldMetadata
+            .createIdentifier(CONTROLLER,
+                    LogicalPath.getInstance(Path.SRC_MAIN_JAVA, ""));
+    private static final JavaType OWNER = new JavaType(
+            "com.example.domain.Owner");
+    private static final JavaType PET = new JavaType("com.example.domain.Pet");
+
+    // Fixture
+    @Mock private WebScaffoldAnnotationValues mockAnnotationValues;
+    @Mock private MethodMetadata mockFormerOwnersAccessor;
+    @Mock private PhysicalTypeMetadata mockGovernor;
+    @Mock private ClassOrInterfaceTypeDetails mockGovernorDetails;
+    @Mock private MethodMetadata mockIdAccessor;
+    @Mock private FieldMetadata mockIdField;
+    @Mock private MethodMetadata mockNameAccessor;
+    @Mock private MethodMetadata mockOwnerAccessor;
+    private List<FieldMetadata> ownerIdentifierFields;
+
+    private JavaTypeMetadataDetails getDomainType(final JavaType javaType,
+            final String plural, final List<FieldMetadata> identifierFields) {
+        final String simpleName = javaType.getSimpleTypeName();
+        final MemberTypeAdditions findAllMethod = new MemberTypeAdditions(
+                null, "findAll" + plural, simpleName + ".findAll" + plural
+                        + "()", true, null);
+        final MemberTypeAdditions findEntriesMethod = new MemberTypeAdditions(
+                null, "find" + simpleName + "Entries", simpleName + ".find"
+                        + simpleName + "Entries(firstResult, sizeNo)", true,
+                null);
+        final JavaTypePersistenceMetadataDetails persistenceDetails = new JavaTypePersistenceMetadataDetails(
+                LONG_OBJECT, mockIdField, mockIdAccessor, null, null, null,
+                null, findAllMethod, null, null, null, findEntriesMethod,
+                null, new ArrayList<String>(), false, identifierFields);
+        return new JavaTypeMetadataDetails(javaType, plural, false, true,
+                persistenceDetails, plural.toLowerCase());
+    }
+
+    private ItdTypeDetails getItd() {
+        final SortedMap<JavaType, JavaTypeMetadataDetails> specialDomainTypes = new TreeMap<JavaType, JavaTypeMetadataDetails>();
+        specialDomainTypes.put(PET, getDomainType(PET, "Pets",
+                new ArrayList<FieldMetadata>()));
+        specialDomainTypes.put(OWNER, getDomainType(OWNER, "Owners",
+                ownerIdentifierFields));
+        final WebScaffoldMetadata metadata = new WebScaffoldMetadata(
+                METADATA_ID, ASPECT, mockGovernor, mockAnnotationValues,
+                mockIdField, specialDomainTypes,
+                new ArrayList<JavaTypeMetadataDetails>(),
+                new HashMap<JavaSymbolName, DateTimeFormatDetails>(),
+                new HashMap<MethodMetadataCustomDataKey, MemberTypeAdditions>(),
+                Arrays.asList(OWNER), Arrays.asList(mockNameAccessor,
+                        mockOwnerAccessor, mockFormerOwnersAccessor));
+        return metadata.getMemberHoldingTypeDetails();
+    }
+
+    private MethodMetadata getMethod(final ItdTypeDetails itd,
+            final String methodName) {
+        return MemberFindingUtils.getDeclaredMethod(itd, new JavaSymbolName(
+                methodName));
+    }
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        when(mockGovernor.getMemberHoldingTypeDetails()).thenReturn(
+                mockGovernorDetails);
+        when(mockGovernorDetails.getName()).thenReturn(CONTROLLER);
+        ownerIdentifierFields = new ArrayList<FieldMetadata>();
+
+        when(mockAnnotationValues.getFormBackingObject()).thenReturn(PET);
+        when(mockAnnotationValues.getMaxPageSize()).thenReturn(50);
+        when(mockAnnotationValues.getPath()).thenReturn("pets");
+        when(mockAnnotationValues.isCreate()).thenReturn(true);
+        when(mockAnnotationValues.isLazyReferenceData()).thenReturn(true);
+        when(mockAnnotationValues.isPopulateMethods()).thenReturn(true);
+        when(mockAnnotationValues.isUpdate()).thenReturn(true);
+
+        when(mockIdAccessor.getMethodName()).thenReturn(
+                new JavaSymbolName("getId"));
+        when(mockNameAccessor.getMethodName()).thenReturn(
+                new JavaSymbolName("getName"));
+        when(mockNameAccessor.getReturnType()).thenReturn(STRING);
+        when(mockOwnerAccessor.getMethodName()).thenReturn(
+                new JavaSymbolName("getOwner"));
+        when(mockOwnerAccessor.getReturnType()).thenReturn(OWNER);
+        when(mockFormerOwnersAccessor.getMethodName()).thenReturn(
+                new JavaSymbolName("getFormerOwners"));
+        when(mockFormerOwnersAccessor.getReturnType()).thenReturn(
+                new JavaType(SET.getFullyQualifiedTypeName(), 0,
+                        DataType.TYPE, null, Arrays.asList(OWNER)));
+    }
+
+    @Test
+    public void testCompositeKeyReferenceDataIsLoadedInFull() {
+        // Set up
+        final FieldMetadata mockOwnerKeyPart = mock(FieldMetadata.class);
+        ownerIdentifierFields.add(mockOwnerKeyPart);
+
+        // Invoke
+        final ItdTypeDetails itd = getItd();
+
+        // Check
+        assertNull(getMethod(itd, "lookupOwners"));
+        final String body = getMethod(itd, "populateEditForm").getBody();
+        assertTrue(body, body.contains("uiModel.addAttribute(\"owners\", "
+                + "Owner.findAllOwners());"));
+    }
+
+    @Test
+    public void testLookupMethodEncodesIdsAndLabelsAsJsonStrings() {
+        // Invoke
+        final ItdTypeDetails itd = getItd();
+
+        // Check
+        final String body = getMethod(itd, "lookupOwners").getBody();
+        assertTrue(body,
+                body.contains("Owner.findOwnerEntries(firstResult, sizeNo)"));
+        assertTrue(body, body.contains("Math.min("));
+        assertTrue(body, body.contains(", 50);"));
+        assertTrue(body,
+                body.contains("encodeJsonString(String.valueOf(owner.getId()))"));
+        assertTrue(body,
+                body.contains("encodeJsonString(String.valueOf(owner))"));
+        assertNotNull(getMethod(itd, "encodeJsonString"));
+    }
+
+    @Test
+    public void testLookupMethodOnlyHandlesGetRequestsForJson() {
+        // Invoke
+        final MethodMetadata lookupMethod = getMethod(getItd(),
+                "lookupOwners");
+
+        // Check
+        final AnnotationMetadata requestMapping = lookupMethod
+                .getAnnotation(REQUEST_MAPPING);
+        assertEquals("lookup=owners",
+                requestMapping.getAttribute(new JavaSymbolName("params"))
+                        .getValue());
+        assertEquals("Accept=application/json", requestMapping
+                .getAttribute(new JavaSymbolName("headers")).getValue());
+        final EnumDetails requestMethod = (EnumDetails) requestMapping
+                .getAttribute(new JavaSymbolName("method")).getValue();
+        assertEquals("GET", requestMethod.getField().getSymbolName());
+    }
+
+    @Test
+    public void testPopulateEditFormAddsTheSelectedOwnersToTheFirstPage() {
+        // Invoke
+        final String body = getMethod(getItd(), "populateEditForm")
+                .getBody();
+
+        // Check
+        assertTrue(body, body.contains("int sizeNo = 50;"));
+        assertTrue(body, body.contains("List<Owner> owners = new "
+                + "ArrayList<Owner>(Owner.findOwnerEntries(firstResult, "
+                + "sizeNo));"));
+        assertTrue(body, body.contains("if (pet.getOwner() != null "
+                + "&& !owners.contains(pet.getOwner())) {"));
+        assertTrue(body, body.contains("owners.add(pet.getOwner());"));
+        assertTrue(body,
+                body.contains("for (Owner selected : pet.getFormerOwners()) {"));
+        assertTrue(body, body.contains("owners.add(selected);"));
+        assertFalse(body, body.contains("getName()"));
+        assertTrue(body,
+                body.contains("uiModel.addAttribute(\"owners\", owners);"));
+        assertFalse(body, body.contains("findAllOwners"));
+    }
+
+    @Test
+    public void testReferenceDataIsLoadedInFullByDefault() {
+        // Set up
+        when(mockAnnotationValues.isLazyReferenceData()).thenReturn(false);
+
+        // Invoke
+        final ItdTypeDetails itd = getItd();
+
+        // Check
+        assertNull(getMethod(itd, "lookupOwners"));
+        assertNull(getMethod(itd, "encodeJsonString"));
+        final String body = getMethod(itd, "populateEditForm").getBody();
+        assertTrue(body, body.contains("uiModel.addAttribute(\"owners\", "
+                + "Owner.findAllOwners());"));
+        assertFalse(body, body.contains("getOwner()"));
+    }
+}
@@ -343,6 +343,15 @@ public class JspViewManager {
                             .contains(CustomDataKeys.MANY_TO_MANY_FIELD)) {
                         fieldElement.setAttribute("multiple", "true");
                     }
+                    if (webScaffoldAnnotationValues.isPopulateMethods()
+                            && webScaffoldAnnotationValues
+                                    .isLazyReferenceData()
+                            && typePersistenceMetadataHolder.isPageable()) {
+                        // The controller only provides the first page of
+                        // items; the others are loaded on demand
+                        fieldElement.setAttribute("lookupUrl",
+                                getLookupUrl(referenceTypeMetadata));
+                    }
                 }
             }
             else if (fieldType.equals(DATE) || fieldType.equals(CALENDAR)) {
@@ -822,6 +831,21 @@ public class JspViewManager {
         return document;
     }
 
+    /**
+     * Returns the URL of the controller method that returns further pages of
+     * instances of the given type as JSON, for the "field:select" tag to
+     * append the page number to.
+     * 
+     * @param referenceTypeMetadata the type being looked up (required)
+     * @return a URL relative to the application's context path
+     */
+    private String getLookupUrl(
+            final JavaTypeMetadataDetails referenceTypeMetadata) {
+        return controllerPath + "?lookup="
+                + referenceTypeMetadata.getPlural().toLowerCase() + "&size="
+                + Math.max(webScaffoldAnnotationValues.getMaxPageSize(), 1);
+    }
+
     private String getPathForType(final JavaType type) {
         final JavaTypeMetadataDetails javaTypeMetadataHolder = relatedDomainTypes
                 .get(type);
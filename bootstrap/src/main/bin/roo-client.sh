@@ -0,0 +1,30 @@
+#!/bin/sh
+
+# Executes a command in the Roo daemon started by "roo.sh --daemon" in the
+# current directory, e.g. roo-client.sh script --file ci.roo
+
+PRG="$0"
+
+while [ -h "$PRG" ]; do
+    ls=`ls -ld "$PRG"`
+    link=`expr "$ls" : '.*-> \(.*\)$'`
+    if expr "$link" : '/.*' > /dev/null; then
+        PRG="$link"
+    else
+        PRG=`dirname "$PRG"`/"$link"
+    fi
+done
+ROO_HOME=`dirname "$PRG"`
+
+# Absolute path
+ROO_HOME=`cd "$ROO_HOME/.." ; pwd`
+
+ROO_CP=`echo "$ROO_HOME"/bin/*.jar | sed 's/ \//:\//g'`
+
+case "`uname`" in
+    CYGWIN*)
+        ROO_CP=`cygpath -wp "$ROO_CP"`
+        ;;
+esac
+
+java $ROO_CLIENT_OPTS -cp "$ROO_CP" org.springframework.roo.bootstrap.DaemonClient "$@"
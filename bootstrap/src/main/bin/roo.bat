@@ -7,8 +7,24 @@ rem echo Resolved ROO_HOME: "%ROO_HOME%"
 rem Build a classpath containing our two magical startup JARs
 for %%a in ("%ROO_HOME%\bin\*.jar") do set ROO_CP=!ROO_CP!%%a;
 
+rem Class data sharing for the launcher and framework classes (needs a JVM with
+rem AppCDS, e.g. Java 10 or later). Run once with ROO_CDS=train to record the
+rem classes loaded during a session and build the archive; later launches use it
+rem automatically unless ROO_CDS=off.
+set ROO_CDS_ARCHIVE=%ROO_HOME%\cache\roo.jsa
+set ROO_CDS_CLASSLIST=%ROO_HOME%\cache\roo.classlist
+set CDS=
+if "%ROO_CDS%"=="train" (
+    if not exist "%ROO_HOME%\cache" mkdir "%ROO_HOME%\cache"
+    set CDS=-Xshare:off -XX:DumpLoadedClassList="%ROO_CDS_CLASSLIST%"
+) else if not "%ROO_CDS%"=="off" (
+    if exist "%ROO_CDS_ARCHIVE%" set CDS=-Xshare:auto -XX:SharedArchiveFile="%ROO_CDS_ARCHIVE%"
+)
+
 rem Hop, hop, hop...
-java -Dflash.message.disabled=false -Djline.nobell=true %ROO_OPTS% -Droo.args="%*" -DdevelopmentMode=false -Dorg.osgi.framework.storage="%ROO_HOME%\cache" -Dfelix.auto.deploy.dir="%ROO_HOME%\bundle" -Dfelix.config.properties="file:%ROO_HOME%\conf\config.properties" -Droo.console.ansi=true -cp "%ROO_CP%" org.springframework.roo.bootstrap.Main
+java %CDS% -Dflash.message.disabled=false -Djline.nobell=true %ROO_OPTS% -Droo.args="%*" -DdevelopmentMode=false -Dorg.osgi.framework.storage="%ROO_HOME%\cache" -Dfelix.auto.deploy.dir="%ROO_HOME%\bundle" -Dfelix.config.properties="file:%ROO_HOME%\conf\config.properties" -Droo.console.ansi=true -cp "%ROO_CP%" org.springframework.roo.bootstrap.Main
 rem echo Roo exited with code %errorlevel%
 
+if "%ROO_CDS%"=="train" if exist "%ROO_CDS_CLASSLIST%" java -Xshare:dump -XX:SharedClassListFile="%ROO_CDS_CLASSLIST%" -XX:SharedArchiveFile="%ROO_CDS_ARCHIVE%" -cp "%ROO_CP%" > nul
+
 :end
@@ -67,8 +67,34 @@ if [ "$TERM_PROGRAM" = "Apple_Terminal" ]; then
 	APPLE_TERMINAL=true
 fi
 
+# Class data sharing for the launcher and framework classes (needs a JVM with
+# AppCDS, e.g. Java 10 or later). Run once with ROO_CDS=train to record the
+# classes loaded during a session and build the archive; later launches use it
+# automatically unless ROO_CDS=off.
+ROO_CDS_ARCHIVE="$ROO_OSGI_FRAMEWORK_STORAGE/roo.jsa"
+ROO_CDS_CLASSLIST="$ROO_OSGI_FRAMEWORK_STORAGE/roo.classlist"
+CDS=
+if [ "$ROO_CDS" = "train" ]; then
+    mkdir -p "$ROO_OSGI_FRAMEWORK_STORAGE"
+    CDS="-Xshare:off -XX:DumpLoadedClassList=$ROO_CDS_CLASSLIST"
+elif [ "$ROO_CDS" != "off" ] && [ -f "$ROO_CDS_ARCHIVE" ]; then
+    CDS="-Xshare:auto -XX:SharedArchiveFile=$ROO_CDS_ARCHIVE"
+fi
+
+# Daemon mode keeps a headless shell running that executes the commands sent
+# by roo-client.sh from the same directory, e.g. "roo.sh --daemon &"
+DAEMON=
+if [ "$1" = "--daemon" ]; then
+    shift
+    DAEMON="-Droo.daemon=true -Djline.terminal=jline.UnsupportedTerminal"
+fi
+
 ANSI="-Droo.console.ansi=true"
 # Hop, hop, hop...
-java -Dis.apple.terminal=$APPLE_TERMINAL $ROO_OPTS $ANSI -Droo.args="$*" -DdevelopmentMode=false -Dorg.osgi.framework.storage="$ROO_OSGI_FRAMEWORK_STORAGE" -Dfelix.auto.deploy.dir="$ROO_AUTO_DEPLOY_DIRECTORY" -Dfelix.config.properties="file:$ROO_CONFIG_FILE_PROPERTIES" -cp "$ROO_CP" org.springframework.roo.bootstrap.Main
+java $CDS $DAEMON -Dis.apple.terminal=$APPLE_TERMINAL $ROO_OPTS $ANSI -Droo.args="$*" -DdevelopmentMode=false -Dorg.osgi.framework.storage="$ROO_OSGI_FRAMEWORK_STORAGE" -Dfelix.auto.deploy.dir="$ROO_AUTO_DEPLOY_DIRECTORY" -Dfelix.config.properties="file:$ROO_CONFIG_FILE_PROPERTIES" -cp "$ROO_CP" org.springframework.roo.bootstrap.Main
 EXITED=$?
 # echo Roo exited with code $EXITED
+
+if [ "$ROO_CDS" = "train" ] && [ -f "$ROO_CDS_CLASSLIST" ]; then
+    java -Xshare:dump -XX:SharedClassListFile="$ROO_CDS_CLASSLIST" -XX:SharedArchiveFile="$ROO_CDS_ARCHIVE" -cp "$ROO_CP" > /dev/null
+fi
@@ -58,6 +58,10 @@ public class AutoProcessor
      * The property name prefix for the launcher's auto-start property.
     **/
     public static final String AUTO_START_PROP = "felix.auto.start";
+    /**
+     * The file name prefix of the Roo start level bundle.
+    **/
+    public static final String STARTLEVEL_BUNDLE_PREFIX = "org.springframework.roo.startlevel"; // **** CHANGE FROM ORIGINAL FELIX VERSION ****
 
     /**
      * Used to instigate auto-deploy directory process and auto-install/auto-start
@@ -142,6 +146,16 @@ public class AutoProcessor
                 {
                     if (files[i].getName().endsWith(".jar"))
                     {
+                        // **** CHANGE FROM ORIGINAL FELIX VERSION ****
+                        // Install the start level bundle first so that it
+                        // starts first and its startup timeline sees every
+                        // other bundle start
+                        if (files[i].getName().startsWith(STARTLEVEL_BUNDLE_PREFIX))
+                        {
+                            jarList.add(0, files[i]);
+                            continue;
+                        }
+                        // **** END OF CHANGE FROM ORIGINAL FELIX VERSION ****
                         jarList.add(files[i]);
                     }
                 }
@@ -0,0 +1,130 @@
+package org.springframework.roo.bootstrap;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.Properties;
+
+/**
+ * Executes a single command in the Roo daemon running in the current
+ * directory, i.e. a shell launched with <code>roo.sh --daemon</code>, printing
+ * the command's messages and exiting with its exit code.
+ * <p>
+ * This client is deliberately independent of the OSGi framework and the rest
+ * of Roo, so that it starts in milliseconds; the protocol it speaks is that of
+ * <code>org.springframework.roo.shell.CommandServer</code>, whose constants
+ * are repeated here.
+ * 
+ * @since 1.2.5
+ */
+public class DaemonClient {
+
+    private static final String DESCRIPTOR_FILE = ".roo-daemon";
+    private static final String ENCODING = "UTF-8";
+    private static final String EXIT = "EXIT";
+
+    /**
+     * The exit code if the daemon could not be reached or did not complete its
+     * response
+     */
+    private static final int NO_DAEMON_EXIT = 2;
+
+    /**
+     * Sends the command given by the arguments to the daemon
+     * 
+     * @param args the words of the command line, e.g.
+     *            <code>script --file ci.roo</code>
+     */
+    public static void main(final String[] args) {
+        final StringBuilder command = new StringBuilder();
+        for (final String arg : args) {
+            if (command.length() > 0) {
+                command.append(' ');
+            }
+            command.append(quote(arg));
+        }
+        if (command.length() == 0) {
+            System.err.println("Usage: roo-client.sh <command>");
+            System.exit(NO_DAEMON_EXIT);
+        }
+        try {
+            System.exit(execute(command.toString()));
+        }
+        catch (final IOException e) {
+            System.err.println("Unable to reach the Roo daemon in this "
+                    + "directory (" + e.getMessage()
+                    + "); start one with 'roo.sh --daemon'");
+            System.exit(NO_DAEMON_EXIT);
+        }
+    }
+
+    private static int execute(final String command) throws IOException {
+        final Properties descriptor = new Properties();
+        final InputStream descriptorStream = new FileInputStream(new File(
+                DESCRIPTOR_FILE));
+        try {
+            descriptor.load(descriptorStream);
+        }
+        finally {
+            descriptorStream.close();
+        }
+
+        final Socket socket = new Socket(InetAddress.getByName(null),
+                Integer.parseInt(descriptor.getProperty("port", "0")));
+        try {
+            final Writer out = new OutputStreamWriter(socket.getOutputStream(),
+                    ENCODING);
+            out.write(descriptor.getProperty("token", "") + "\n");
+            out.write(command + "\n");
+            out.flush();
+
+            final BufferedReader in = new BufferedReader(new InputStreamReader(
+                    socket.getInputStream(), ENCODING));
+            String line;
+            while ((line = in.readLine()) != null) {
+                final int tab = line.indexOf('\t');
+                final String field = tab < 0 ? "" : line.substring(0, tab);
+                final String text = line.substring(tab + 1);
+                if (EXIT.equals(field)) {
+                    return Integer.parseInt(text);
+                }
+                if ("SEVERE".equals(field) || "WARNING".equals(field)) {
+                    System.err.println(text);
+                }
+                else {
+                    System.out.println(text);
+                }
+            }
+            throw new IOException("the connection was closed");
+        }
+        finally {
+            socket.close();
+        }
+    }
+
+    /**
+     * Quotes the given argument if the shell would otherwise split it into
+     * several words or drop it, e.g. <code>--value "Hello world"</code>
+     * 
+     * @param arg the argument as received by {@link #main(String[])}
+     * @return the argument as it would be typed into the shell
+     */
+    private static String quote(final String arg) {
+        if (arg.length() == 0) {
+            return "\"\"";
+        }
+        // The shell has no escapes, so a value containing a quote is sent as is
+        if (arg.indexOf('"') < 0
+                && (arg.indexOf(' ') >= 0 || arg.indexOf('\t') >= 0)) {
+            return '"' + arg + '"';
+        }
+        return arg;
+    }
+}
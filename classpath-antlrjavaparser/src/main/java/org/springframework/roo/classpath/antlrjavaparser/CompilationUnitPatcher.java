@@ -0,0 +1,297 @@
+package org.springframework.roo.classpath.antlrjavaparser;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.github.antlrjavaparser.api.CompilationUnit;
+import com.github.antlrjavaparser.api.ImportDeclaration;
+import com.github.antlrjavaparser.api.body.BodyDeclaration;
+import com.github.antlrjavaparser.api.body.ClassOrInterfaceDeclaration;
+import com.github.antlrjavaparser.api.body.EnumDeclaration;
+import com.github.antlrjavaparser.api.body.TypeDeclaration;
+import com.github.antlrjavaparser.api.expr.AnnotationExpr;
+
+/**
+ * Applies the changes made to a parsed compilation unit by
+ * {@link UpdateCompilationUnitUtils} directly to the text it was parsed from,
+ * instead of printing the whole compilation unit again.
+ * <p>
+ * A patcher takes a snapshot of the compilation unit before it is updated.
+ * Afterwards, if the only changes are new imports, new annotations and new
+ * members of its single top-level type, {@link #patch(String)} splices the
+ * printed form of just those into the original text, using the source
+ * positions recorded by the parser. This leaves the formatting of everything
+ * else untouched. For any other kind of change it returns <code>null</code>,
+ * and the caller should print the compilation unit as before.
+ * 
+ * @since 1.2.5
+ */
+public class CompilationUnitPatcher {
+
+    private static String getHeader(final TypeDeclaration type) {
+        final StringBuilder header = new StringBuilder();
+        header.append(type.getClass().getName()).append(type.getName())
+                .append(type.getModifiers()).append(type.getBeginComments());
+        if (type instanceof ClassOrInterfaceDeclaration) {
+            final ClassOrInterfaceDeclaration cid = (ClassOrInterfaceDeclaration) type;
+            header.append(cid.isInterface()).append(cid.getTypeParameters())
+                    .append(cid.getExtends()).append(cid.getImplements());
+        }
+        else if (type instanceof EnumDeclaration) {
+            final EnumDeclaration enumDeclaration = (EnumDeclaration) type;
+            header.append(enumDeclaration.getImplements()).append(
+                    enumDeclaration.getEntries());
+        }
+        return header.toString();
+    }
+
+    private static String getIndent(final String line) {
+        return line.substring(0, line.length()
+                - StringUtils.stripStart(line, null).length());
+    }
+
+    private static <T> List<T> nullToEmpty(final List<T> list) {
+        if (list == null) {
+            return Collections.emptyList();
+        }
+        return list;
+    }
+
+    private final CompilationUnit compilationUnit;
+    private final List<AnnotationExpr> originalAnnotations;
+    private final List<String> originalAnnotationContents = new ArrayList<String>();
+    private final List<ImportDeclaration> originalImports;
+    private final List<BodyDeclaration> originalMembers;
+    private final List<String> originalMemberContents = new ArrayList<String>();
+    private final String originalPackage;
+    private final TypeDeclaration originalType;
+    private final String originalTypeHeader;
+
+    /**
+     * Constructor; takes a snapshot of the given compilation unit, which must
+     * not yet have been updated.
+     * 
+     * @param compilationUnit the compilation unit as parsed from its source
+     *            file (required)
+     */
+    public CompilationUnitPatcher(final CompilationUnit compilationUnit) {
+        this.compilationUnit = compilationUnit;
+        originalPackage = String.valueOf(compilationUnit.getPackage());
+        originalImports = new ArrayList<ImportDeclaration>(
+                nullToEmpty(compilationUnit.getImports()));
+        final List<TypeDeclaration> types = nullToEmpty(compilationUnit
+                .getTypes());
+        if (types.size() == 1) {
+            originalType = types.get(0);
+            originalTypeHeader = getHeader(originalType);
+            // The type's own list is replaced in place when it changes
+            originalAnnotations = new ArrayList<AnnotationExpr>(
+                    nullToEmpty(originalType.getAnnotations()));
+            for (final AnnotationExpr annotation : originalAnnotations) {
+                originalAnnotationContents.add(annotation.toString());
+            }
+            originalMembers = new ArrayList<BodyDeclaration>(
+                    nullToEmpty(originalType.getMembers()));
+            for (final BodyDeclaration member : originalMembers) {
+                originalMemberContents.add(member.toString());
+            }
+        }
+        else {
+            originalType = null;
+            originalTypeHeader = null;
+            originalAnnotations = Collections.emptyList();
+            originalMembers = Collections.emptyList();
+        }
+    }
+
+    /**
+     * Returns the line after which new annotations of the type can be
+     * inserted, i.e. that of its last original annotation, or if it has none,
+     * the line before which they can be inserted, i.e. the one declaring it.
+     * 
+     * @param lines the original text (required)
+     * @return a 1-based line number, or 0 if there is no suitable line
+     */
+    private int getAnnotationLine(final List<String> lines) {
+        final Pattern declaration = Pattern
+                .compile("\\b(class|interface|enum)\\s+"
+                        + Pattern.quote(originalType.getName()) + "\\b");
+        if (!originalAnnotations.isEmpty()) {
+            // The last annotation must not share its line with the declaration
+            final int line = originalAnnotations.get(
+                    originalAnnotations.size() - 1).getEndLine();
+            if (line < 1 || line > lines.size()
+                    || declaration.matcher(lines.get(line - 1)).find()) {
+                return 0;
+            }
+            return line;
+        }
+        for (int line = Math.max(originalType.getBeginLine(), 1); line <= lines
+                .size(); line++) {
+            final String text = lines.get(line - 1);
+            if (declaration.matcher(text).find()) {
+                // Anything before the declaration on its line must be a
+                // modifier, or else the annotation would be put in a comment
+                final String start = text.substring(0, text.indexOf(originalType
+                        .getName()));
+                return start.matches("[\\s\\w]*") ? line : 0;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the original text with the changes made to the compilation unit
+     * since this patcher was created spliced into it.
+     * 
+     * @param originalContents the text the compilation unit was parsed from
+     *            (required)
+     * @return the patched text (the original text if there are no changes), or
+     *         <code>null</code> if the changes can't be applied as a patch
+     */
+    public String patch(final String originalContents) {
+        if (originalType == null
+                || !originalPackage.equals(String.valueOf(compilationUnit
+                        .getPackage()))) {
+            return null;
+        }
+        final List<TypeDeclaration> types = nullToEmpty(compilationUnit
+                .getTypes());
+        if (types.size() != 1 || types.get(0) != originalType
+                || !originalTypeHeader.equals(getHeader(originalType))) {
+            return null;
+        }
+
+        // The original imports, annotations and members must be intact and in
+        // place; annotations are compared by content, as they are replaced
+        // with new instances whenever any of them changes
+        final List<ImportDeclaration> imports = nullToEmpty(compilationUnit
+                .getImports());
+        final List<AnnotationExpr> annotations = nullToEmpty(originalType
+                .getAnnotations());
+        final List<BodyDeclaration> members = nullToEmpty(originalType
+                .getMembers());
+        if (imports.size() < originalImports.size()
+                || annotations.size() < originalAnnotations.size()
+                || members.size() < originalMembers.size()) {
+            return null;
+        }
+        for (int i = 0; i < originalImports.size(); i++) {
+            if (imports.get(i) != originalImports.get(i)) {
+                return null;
+            }
+        }
+        for (int i = 0; i < originalAnnotations.size(); i++) {
+            if (!originalAnnotationContents.get(i).equals(
+                    annotations.get(i).toString())) {
+                return null;
+            }
+        }
+        for (int i = 0; i < originalMembers.size(); i++) {
+            if (members.get(i) != originalMembers.get(i)
+                    || !originalMemberContents.get(i).equals(
+                            members.get(i).toString())) {
+                return null;
+            }
+        }
+        final List<ImportDeclaration> newImports = imports.subList(
+                originalImports.size(), imports.size());
+        final List<AnnotationExpr> newAnnotations = annotations.subList(
+                originalAnnotations.size(), annotations.size());
+        final List<BodyDeclaration> newMembers = members.subList(
+                originalMembers.size(), members.size());
+        if (newImports.isEmpty() && newAnnotations.isEmpty()
+                && newMembers.isEmpty()) {
+            return originalContents;
+        }
+
+        final String lineEnd = originalContents.contains("\r\n") ? "\r" : "";
+        final List<String> lines = new ArrayList<String>();
+        for (final String line : originalContents.split("\n", -1)) {
+            lines.add(StringUtils.removeEnd(line, "\r"));
+        }
+
+        // Members go before the line of the type's closing brace, which must
+        // not be shared with the last original member
+        final int closingLine = originalType.getEndLine();
+        if (originalMembers.isEmpty() || closingLine > lines.size()) {
+            return null;
+        }
+        final BodyDeclaration lastMember = originalMembers.get(originalMembers
+                .size() - 1);
+        if (lastMember.getBeginLine() < 1
+                || lastMember.getEndLine() >= closingLine) {
+            return null;
+        }
+        final String indent = getIndent(lines
+                .get(lastMember.getBeginLine() - 1));
+
+        // Annotations go on their own lines before the type declaration
+        int annotationLine = 0;
+        String annotationIndent = "";
+        if (!newAnnotations.isEmpty()) {
+            annotationLine = getAnnotationLine(lines);
+            if (annotationLine < 1
+                    || annotationLine >= lastMember.getBeginLine()) {
+                return null;
+            }
+            annotationIndent = getIndent(lines.get(annotationLine - 1));
+        }
+
+        // Imports go after the last original import, or else the package
+        int importLine = 0;
+        if (!newImports.isEmpty()) {
+            if (!originalImports.isEmpty()) {
+                importLine = originalImports.get(originalImports.size() - 1)
+                        .getEndLine();
+            }
+            else if (compilationUnit.getPackage() != null) {
+                importLine = compilationUnit.getPackage().getEndLine();
+            }
+            if (importLine < 1 || importLine >= originalType.getBeginLine()
+                    || annotationLine > 0 && importLine >= annotationLine) {
+                return null;
+            }
+        }
+
+        // Splice from the bottom up so earlier line numbers remain valid
+        if (!newMembers.isEmpty()) {
+            final List<String> memberLines = new ArrayList<String>();
+            for (final BodyDeclaration member : newMembers) {
+                memberLines.add("");
+                for (final String line : member.toString().trim()
+                        .split("\r?\n")) {
+                    memberLines.add(StringUtils.isBlank(line) ? "" : indent
+                            + line);
+                }
+            }
+            lines.addAll(closingLine - 1, memberLines);
+        }
+        if (!newAnnotations.isEmpty()) {
+            final List<String> annotationLines = new ArrayList<String>();
+            for (final AnnotationExpr annotation : newAnnotations) {
+                annotationLines.add(annotationIndent
+                        + annotation.toString().trim());
+            }
+            // After the last original annotation, or else before the line
+            // declaring the type
+            lines.addAll(originalAnnotations.isEmpty() ? annotationLine - 1
+                    : annotationLine, annotationLines);
+        }
+        if (!newImports.isEmpty()) {
+            final List<String> importLines = new ArrayList<String>();
+            if (originalImports.isEmpty()) {
+                importLines.add("");
+            }
+            for (final ImportDeclaration newImport : newImports) {
+                importLines.add(newImport.toString().trim());
+            }
+            lines.addAll(importLine, importLines);
+        }
+        return StringUtils.join(lines, lineEnd + "\n");
+    }
+}
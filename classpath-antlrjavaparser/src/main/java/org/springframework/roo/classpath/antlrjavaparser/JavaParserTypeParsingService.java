@@ -433,11 +433,11 @@ public class JavaParserTypeParsingService implements TypeParsingService {
             JavaPackage importPackage = null;
             JavaType importType = null;
             if (importDeclaration.isAsterisk()) {
-                importPackage = new JavaPackage(importDeclaration.getName()
-                        .toString());
+                importPackage = JavaPackage.getInstance(importDeclaration
+                        .getName().toString());
             }
             else {
-                importType = new JavaType(importDeclaration.getName()
+                importType = JavaType.getInstance(importDeclaration.getName()
                         .toString());
                 importPackage = importType.getPackage();
             }
@@ -521,6 +521,11 @@ public class JavaParserTypeParsingService implements TypeParsingService {
             throw new IllegalStateException(e);
         }
 
+        // Remember the original state so the changes can be applied to the
+        // original text rather than printing the whole compilation unit
+        final CompilationUnitPatcher patcher = new CompilationUnitPatcher(
+                compilationUnit);
+
         // Update package
         if (!compilationUnit.getPackage().getName().getName()
                 .equals(cidCompilationUnit.getPackage().getName().getName())) {
@@ -536,6 +541,10 @@ public class JavaParserTypeParsingService implements TypeParsingService {
                 cidCompilationUnit);
 
         // Return new contents
+        final String patchedContents = patcher.patch(fileContents);
+        if (patchedContents != null) {
+            return patchedContents;
+        }
         return compilationUnit.toString();
     }
 }
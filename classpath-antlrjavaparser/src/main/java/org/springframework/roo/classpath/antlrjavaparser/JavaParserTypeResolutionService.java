@@ -48,8 +48,8 @@ public class JavaParserTypeResolutionService implements TypeResolutionService {
             for (final TypeDeclaration typeDeclaration : compilationUnit
                     .getTypes()) {
                 if (typeName.equals(typeDeclaration.getName())) {
-                    return new JavaType(compilationUnit.getPackage().getName()
-                            .getName()
+                    return JavaType.getInstance(compilationUnit.getPackage()
+                            .getName().getName()
                             + "." + typeDeclaration.getName());
                 }
             }
@@ -87,8 +87,8 @@ public class JavaParserTypeResolutionService implements TypeResolutionService {
             if (compilationUnit == null || compilationUnit.getPackage() == null) {
                 return null;
             }
-            return new JavaPackage(compilationUnit.getPackage().getName()
-                    .toString());
+            return JavaPackage.getInstance(compilationUnit.getPackage()
+                    .getName().toString());
         }
         catch (final IOException e) {
             throw new IllegalStateException(e);
@@ -255,15 +255,15 @@ public final class JavaParserUtils {
                             .equals("")) {
                         // It was not imported, so let's assume it's in the same
                         // package
-                        return new JavaType(compilationUnitServices
+                        return JavaType.getInstance(compilationUnitServices
                                 .getCompilationUnitPackage()
                                 .getFullyQualifiedPackageName()
                                 + "." + qne.toString());
                     }
                 }
                 else {
-                    return new JavaType(importDeclaration.getName() + "."
-                            + qne.getName());
+                    return JavaType.getInstance(importDeclaration.getName()
+                            + "." + qne.getName());
                 }
 
                 // This name expression (which contains a dot) had its qualifier
@@ -272,7 +272,7 @@ public final class JavaParserUtils {
             else {
                 // First letter is lowercase, so the reference already includes
                 // a package
-                return new JavaType(qne.toString());
+                return JavaType.getInstance(qne.toString());
             }
         }
 
@@ -284,7 +284,7 @@ public final class JavaParserUtils {
         // Unqualified name detected, so check if it's in the type parameter
         // list
         if (typeParameters != null
-                && typeParameters.contains(new JavaSymbolName(nameToFind
+                && typeParameters.contains(JavaSymbolName.getInstance(nameToFind
                         .getName()))) {
             return new JavaType(nameToFind.getName(), 0, DataType.VARIABLE,
                     null, null);
@@ -308,7 +308,7 @@ public final class JavaParserUtils {
                 final String name = compilationUnitServices
                         .getEnclosingTypeName().getFullyQualifiedTypeName()
                         + "." + nameToFind.getName();
-                return new JavaType(name);
+                return JavaType.getInstance(name);
             }
         }
 
@@ -316,7 +316,8 @@ public final class JavaParserUtils {
                 compilationUnitServices, nameToFind);
         if (importDeclaration == null) {
             if (JdkJavaType.isPartOfJavaLang(nameToFind.getName())) {
-                return new JavaType("java.lang." + nameToFind.getName());
+                return JavaType.getInstance("java.lang."
+                        + nameToFind.getName());
             }
             final String name = compilationUnitPackage
                     .getFullyQualifiedPackageName().equals("") ? nameToFind
@@ -324,10 +325,10 @@ public final class JavaParserUtils {
                     .getFullyQualifiedPackageName()
                     + "."
                     + nameToFind.getName();
-            return new JavaType(name);
+            return JavaType.getInstance(name);
         }
 
-        return new JavaType(importDeclaration.getName().toString());
+        return JavaType.getInstance(importDeclaration.getName().toString());
     }
 
     /**
@@ -487,8 +488,8 @@ public final class JavaParserUtils {
             if (typeParameters != null) {
                 final Set<JavaSymbolName> locatedTypeParameters = new HashSet<JavaSymbolName>();
                 for (final TypeParameter candidate : typeParameters) {
-                    final JavaSymbolName currentTypeParam = new JavaSymbolName(
-                            candidate.getName());
+                    final JavaSymbolName currentTypeParam = JavaSymbolName
+                            .getInstance(candidate.getName());
                     locatedTypeParameters.add(currentTypeParam);
                     JavaType javaType = null;
                     if (candidate.getTypeBound() == null) {
@@ -804,7 +805,8 @@ public final class JavaParserUtils {
                 final String simpleName = ((QualifiedNameExpr) scope).getName();
                 final String fullyQualifiedName = packageName + "."
                         + simpleName;
-                final JavaType javaType = new JavaType(fullyQualifiedName);
+                final JavaType javaType = JavaType
+                        .getInstance(fullyQualifiedName);
                 final NameExpr nameToUse = importTypeIfRequired(targetType,
                         imports, javaType);
                 if (!(nameToUse instanceof QualifiedNameExpr)) {
@@ -815,7 +817,7 @@ public final class JavaParserUtils {
         else if (value instanceof ClassExpr) {
             final Type type = ((ClassExpr) value).getType();
             if (type instanceof ClassOrInterfaceType) {
-                final JavaType javaType = new JavaType(
+                final JavaType javaType = JavaType.getInstance(
                         ((ClassOrInterfaceType) type).getName());
                 final NameExpr nameToUse = importTypeIfRequired(targetType,
                         imports, javaType);
@@ -828,7 +830,7 @@ public final class JavaParserUtils {
                     && ((ReferenceType) type).getType() instanceof ClassOrInterfaceType) {
                 final ClassOrInterfaceType cit = (ClassOrInterfaceType) ((ReferenceType) type)
                         .getType();
-                final JavaType javaType = new JavaType(cit.getName());
+                final JavaType javaType = JavaType.getInstance(cit.getName());
                 final NameExpr nameToUse = importTypeIfRequired(targetType,
                         imports, javaType);
                 if (!(nameToUse instanceof QualifiedNameExpr)) {
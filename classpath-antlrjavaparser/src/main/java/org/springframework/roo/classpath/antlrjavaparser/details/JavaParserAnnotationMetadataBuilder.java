@@ -438,7 +438,7 @@ public class JavaParserAnnotationMetadataBuilder implements
         // attributes map
         final List<AnnotationAttributeValue<?>> attributeValues = new ArrayList<AnnotationAttributeValue<?>>();
         for (final MemberValuePair p : annotationPairs) {
-            final JavaSymbolName annotationName = new JavaSymbolName(
+            final JavaSymbolName annotationName = JavaSymbolName.getInstance(
                     p.getName());
             final AnnotationAttributeValue<?> value = convert(annotationName,
                     p.getValue(), compilationUnitServices);
@@ -466,7 +466,7 @@ public class JavaParserAnnotationMetadataBuilder implements
             final Expression expression,
             final CompilationUnitServices compilationUnitServices) {
         if (annotationName == null) {
-            annotationName = new JavaSymbolName("__ARRAY_ELEMENT__");
+            annotationName = JavaSymbolName.getInstance("__ARRAY_ELEMENT__");
         }
 
         if (expression instanceof AnnotationExpr) {
@@ -581,7 +581,7 @@ public class JavaParserAnnotationMetadataBuilder implements
                     compilationUnitServices, nameToFind, null);
 
             final EnumDetails enumDetails = new EnumDetails(fieldType,
-                    new JavaSymbolName(fieldName));
+                    JavaSymbolName.getInstance(fieldName));
             return new EnumAttributeValue(annotationName, enumDetails);
         }
 
@@ -589,9 +589,9 @@ public class JavaParserAnnotationMetadataBuilder implements
             final NameExpr field = (NameExpr) expression;
             final String name = field.getName();
             // As we have no way of finding out the real type
-            final JavaType fieldType = new JavaType("unknown.Object");
+            final JavaType fieldType = JavaType.getInstance("unknown.Object");
             final EnumDetails enumDetails = new EnumDetails(fieldType,
-                    new JavaSymbolName(name));
+                    JavaSymbolName.getInstance(name));
             return new EnumAttributeValue(annotationName, enumDetails);
         }
 
@@ -134,7 +134,7 @@ public class JavaParserClassOrInterfaceTypeDetailsBuilder implements
         if (name.getEnclosingType() != null) {
             sb.append(".").append(name.getEnclosingType().getSimpleTypeName());
         }
-        compilationUnitPackage = new JavaPackage(sb.toString());
+        compilationUnitPackage = JavaPackage.getInstance(sb.toString());
 
         // Determine the type name, adding type parameters if possible
         final JavaType newName = JavaParserUtils.getJavaType(
@@ -189,9 +189,9 @@ public class JavaParserClassOrInterfaceTypeDetailsBuilder implements
                 final String fullName = qualifier + "." + simpleName;
                 // We want to calculate these...
 
-                final JavaType type = new JavaType(fullName);
-                final JavaPackage typePackage = importDeclaration.isAsterisk() ? new JavaPackage(
-                        fullName) : type.getPackage();
+                final JavaType type = JavaType.getInstance(fullName);
+                final JavaPackage typePackage = importDeclaration.isAsterisk() ? JavaPackage
+                        .getInstance(fullName) : type.getPackage();
 
                 // Process any comments for the import
                 final CommentStructure commentStructure = new CommentStructure();
@@ -278,8 +278,8 @@ public class JavaParserClassOrInterfaceTypeDetailsBuilder implements
                     .getEntries();
             if (constants != null) {
                 for (final EnumConstantDeclaration enumConstants : constants) {
-                    cidBuilder.addEnumConstant(new JavaSymbolName(enumConstants
-                            .getName()));
+                    cidBuilder.addEnumConstant(JavaSymbolName
+                            .getInstance(enumConstants.getName()));
                 }
             }
 
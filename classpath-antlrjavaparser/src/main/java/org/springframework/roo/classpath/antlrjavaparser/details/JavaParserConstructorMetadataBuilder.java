@@ -270,8 +270,8 @@ public class JavaParserConstructorMetadataBuilder implements
                 .getTypeParameters();
         if (params != null) {
             for (final TypeParameter candidate : params) {
-                final JavaSymbolName currentTypeParam = new JavaSymbolName(
-                        candidate.getName());
+                final JavaSymbolName currentTypeParam = JavaSymbolName
+                        .getInstance(candidate.getName());
                 fullTypeParameters.add(currentTypeParam);
             }
         }
@@ -300,7 +300,8 @@ public class JavaParserConstructorMetadataBuilder implements
 
                 parameterTypes.add(new AnnotatedJavaType(parameterType,
                         annotations));
-                parameterNames.add(new JavaSymbolName(p.getId().getName()));
+                parameterNames.add(JavaSymbolName.getInstance(p.getId()
+                        .getName()));
             }
         }
 
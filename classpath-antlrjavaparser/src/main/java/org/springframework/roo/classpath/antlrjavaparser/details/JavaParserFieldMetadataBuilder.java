@@ -293,7 +293,7 @@ public class JavaParserFieldMetadataBuilder implements Builder<FieldMetadata> {
                     fieldType.getParameters());
         }
 
-        fieldName = new JavaSymbolName(var.getId().getName());
+        fieldName = JavaSymbolName.getInstance(var.getId().getName());
 
         // Lookup initializer, if one was requested and easily determinable
         final Expression e = var.getInit();
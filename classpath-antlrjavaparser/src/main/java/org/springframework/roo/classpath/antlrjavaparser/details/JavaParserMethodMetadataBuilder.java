@@ -348,8 +348,8 @@ public class JavaParserMethodMetadataBuilder implements Builder<MethodMetadata>
                 .getTypeParameters();
         if (params != null) {
             for (final TypeParameter candidate : params) {
-                final JavaSymbolName currentTypeParam = new JavaSymbolName(
-                        candidate.getName());
+                final JavaSymbolName currentTypeParam = JavaSymbolName
+                        .getInstance(candidate.getName());
                 fullTypeParameters.add(currentTypeParam);
             }
         }
@@ -360,7 +360,7 @@ public class JavaParserMethodMetadataBuilder implements Builder<MethodMetadata>
                 fullTypeParameters);
 
         // Compute the method name
-        methodName = new JavaSymbolName(methodDeclaration.getName());
+        methodName = JavaSymbolName.getInstance(methodDeclaration.getName());
 
         // Get the body
         body = methodDeclaration.getBody() == null ? null : methodDeclaration
@@ -390,7 +390,8 @@ public class JavaParserMethodMetadataBuilder implements Builder<MethodMetadata>
                         parameterType, annotations);
                 param.setVarArgs(p.isVarArgs());
                 parameterTypes.add(param);
-                parameterNames.add(new JavaSymbolName(p.getId().getName()));
+                parameterNames.add(JavaSymbolName.getInstance(p.getId()
+                        .getName()));
             }
         }
 
@@ -0,0 +1,133 @@
+package org.springframework.roo.classpath.antlrjavaparser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.antlrjavaparser.JavaParser;
+import com.github.antlrjavaparser.api.CompilationUnit;
+import com.github.antlrjavaparser.api.body.TypeDeclaration;
+import com.github.antlrjavaparser.api.expr.AnnotationExpr;
+
+/**
+ * Unit test of {@link CompilationUnitPatcher}
+ * 
+ * @since 1.2.5
+ */
+public class CompilationUnitPatcherTest {
+
+    // Deliberately not formatted the way the printer would format it
+    private static final String ORIGINAL = "package com.example;\n" + "\n"
+            + "import java.util.List;\n" + "\n" + "public class Foo {\n"
+            + "\n" + "    private List<String>  names ;\n" + "\n"
+            + "    public void run(){ names.clear(); }\n" + "}\n";
+
+    // Supplies the nodes added to the original
+    private static final String ADDITIONS = "package com.example;\n"
+            + "import java.util.Map;\n" + "@Deprecated\n"
+            + "public class Foo {\n" + "private Map<String, String> map;\n"
+            + "}\n";
+
+    private static CompilationUnit parse(final String contents)
+            throws Exception {
+        return JavaParser.parse(new ByteArrayInputStream(contents
+                .getBytes("UTF-8")));
+    }
+
+    // Fixture
+    private CompilationUnit additions;
+    private CompilationUnit compilationUnit;
+    private CompilationUnitPatcher patcher;
+    private TypeDeclaration type;
+
+    @Before
+    public void setUp() throws Exception {
+        compilationUnit = parse(ORIGINAL);
+        additions = parse(ADDITIONS);
+        type = compilationUnit.getTypes().get(0);
+        patcher = new CompilationUnitPatcher(compilationUnit);
+    }
+
+    @Test
+    public void testAddedAnnotationIsSplicedBeforeDeclaration() {
+        // Set up
+        type.setAnnotations(new ArrayList<AnnotationExpr>(additions
+                .getTypes().get(0).getAnnotations()));
+
+        // Invoke
+        final String patched = patcher.patch(ORIGINAL);
+
+        // Check
+        assertEquals(ORIGINAL.replace("public class Foo",
+                "@Deprecated\npublic class Foo"), patched);
+    }
+
+    @Test
+    public void testAddedImportAndMemberAreSplicedIntoOriginalText() {
+        // Set up
+        compilationUnit.getImports().add(additions.getImports().get(0));
+        type.getMembers().add(additions.getTypes().get(0).getMembers().get(0));
+
+        // Invoke
+        final String patched = patcher.patch(ORIGINAL);
+
+        // Check
+        assertEquals("package com.example;\n" + "\n"
+                + "import java.util.List;\n" + "import java.util.Map;\n"
+                + "\n" + "public class Foo {\n" + "\n"
+                + "    private List<String>  names ;\n" + "\n"
+                + "    public void run(){ names.clear(); }\n" + "\n"
+                + "    private Map<String, String> map;\n" + "}\n", patched);
+    }
+
+    @Test
+    public void testChangedModifiersFallBackToPrinting() {
+        // Set up
+        type.setModifiers(Modifier.PUBLIC | Modifier.FINAL);
+
+        // Invoke and check
+        assertNull(patcher.patch(ORIGINAL));
+    }
+
+    @Test
+    public void testNoChangesReturnOriginalText() {
+        assertEquals(ORIGINAL, patcher.patch(ORIGINAL));
+    }
+
+    @Test
+    public void testRemovedMemberFallsBackToPrinting() {
+        // Set up
+        type.getMembers().remove(0);
+
+        // Invoke and check
+        assertNull(patcher.patch(ORIGINAL));
+    }
+
+    @Test
+    public void testReplacedMemberFallsBackToPrinting() {
+        // Set up
+        type.getMembers().set(1,
+                additions.getTypes().get(0).getMembers().get(0));
+
+        // Invoke and check
+        assertNull(patcher.patch(ORIGINAL));
+    }
+
+    @Test
+    public void testSeveralTypesFallBackToPrinting() throws Exception {
+        // Set up
+        final CompilationUnit twoTypes = parse(ORIGINAL + "class Bar {}\n");
+        final CompilationUnitPatcher twoTypesPatcher = new CompilationUnitPatcher(
+                twoTypes);
+        twoTypes.getImports().add(additions.getImports().get(0));
+
+        // Invoke and check
+        assertNull(twoTypesPatcher.patch(ORIGINAL + "class Bar {}\n"));
+    }
+}
@@ -401,7 +401,7 @@ public class NewUpdateCompilationUnitTest {
         assertTrue(result
                 .contains("private List<String>[] listArray = new List<String>[3];"));
         assertTrue(result
-                .contains("Set<String>[] setArray = new Set<String>[] { null, null, null };"));
+                .contains("Set<String>[] setArray = new Set<String>[] {null, null, null};"));
         assertTrue(result.contains("* Enum javaDoc"));
         assertTrue(result.contains("public enum theNumbers"));
         assertTrue(result.contains("uno, dos, tres"));
@@ -431,17 +431,17 @@ public class NewUpdateCompilationUnitTest {
         // Check method hello declaration
         assertTrue(result.contains("* Javadoc of hello method"));
         assertTrue(result
-                .contains("@Deprecated(message = \"Do not use\", more = \"Nothing\")"));
+                .contains("@Deprecated(message=\"Do not use\",more=\"Nothing\")"));
         assertTrue(result.contains("@Override"));
         assertTrue(result.contains("public Sting hello(String value)"));
 
         // Check method methodVoid
         assertTrue(result.contains("* methodVoid JavaDoc"));
         assertTrue(result
-                .contains("void methodVoid(Double param1, String[] params, Map<String, Object>[] mapArrayParam)"));
+                .contains("void methodVoid(Double param1, String[] params, Map<String,Object>[] mapArrayParam)"));
         assertTrue(result.contains("// Comment before for"));
         assertTrue(result
-                .contains("for (Map<String, Object> map : mapArrayParam)"));
+                .contains("for (Map<String,Object> map : mapArrayParam)"));
         assertTrue(result.contains("// comment inside for"));
         assertTrue(result.contains("map.isEmpty()"));
 
@@ -452,7 +452,7 @@ public class NewUpdateCompilationUnitTest {
         assertTrue(result.contains("return \"Hello\";"));
 
         // Check private method declaration
-        assertTrue(result.contains("<T, X> Map<T, X>"));
+        assertTrue(result.contains("<T,X> Map<T,X>"));
         assertTrue(result.contains("privateMethod"));
         assertTrue(result.contains("@ParameterAnnotation(\"xXX\")"));
         assertTrue(result.contains("Second method comment"));
@@ -485,9 +485,9 @@ public class NewUpdateCompilationUnitTest {
 
         // Check newList method
         assertTrue(result
-                .contains("List<List<Map<String, Iterator<Long>>>> newList(List<Map<String, Iterator<Long>>> theList)"));
+                .contains("List<List<Map<String,Iterator<Long>>>> newList(List<Map<String,Iterator<Long>>> theList)"));
         assertTrue(result
-                .contains("List<List<Map<String, Iterator<Long>>>> newListResult = new ArrayList<List<Map<String, Iterator<Long>>>>();"));
+                .contains("List<List<Map<String,Iterator<Long>>>> newListResult = new ArrayList<List<Map<String,Iterator<Long>>>>();"));
         assertTrue(result.contains("newListResult.add(theList);"));
         assertTrue(result.contains("return newListResult;"));
 
@@ -508,7 +508,7 @@ public class NewUpdateCompilationUnitTest {
         assertTrue(result
         		.contains("List<List<Map<String, Iterator<Long>>>> newList(List<Map<String, Iterator<Long>>> theList)"));
         assertTrue(result
-        		.contains("List<List<Map<String, Iterator<Long>>>> newListResult = new ArrayList<List<Map<String, Iterator<Long>>>>();"));
+        		.contains("List<List<Map<String,Iterator<Long>>>> newListResult = new ArrayList<List<Map<String,Iterator<Long>>>>();"));
         assertTrue(result.contains("newListResult.add(theList);"));
         assertTrue(result.contains("return newListResult;"));
         
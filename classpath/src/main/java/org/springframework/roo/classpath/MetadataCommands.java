@@ -151,7 +151,7 @@ public class MetadataCommands implements CommandMarker {
         return sb.toString();
     }
 
-    @CliCommand(value = "metadata status", help = "Shows metadata statistics")
+    @CliCommand(value = "metadata status", help = "Shows metadata statistics", readOnly = true)
     public String metadataTimings() {
         final StringBuilder sb = new StringBuilder();
         for (final MetadataTimingStatistic stat : metadataLogger.getTimings()) {
@@ -1,5 +1,7 @@
 package org.springframework.roo.classpath;
 
+import java.util.Collection;
+
 import org.springframework.roo.classpath.details.ClassOrInterfaceTypeDetails;
 import org.springframework.roo.classpath.details.FieldMetadata;
 import org.springframework.roo.model.JavaSymbolName;
@@ -21,6 +23,18 @@ public interface TypeManagementService {
     void addEnumConstant(String physicalTypeIdentifier,
             JavaSymbolName constantName);
 
+    /**
+     * Adds several new enum constants to an existing class, parsing and
+     * writing its source file only once.
+     * 
+     * @param physicalTypeIdentifier to add (required)
+     * @param constantNames the names of the constants, in the order they are
+     *            to be added (required)
+     * @since 1.2.5
+     */
+    void addEnumConstants(String physicalTypeIdentifier,
+            Collection<JavaSymbolName> constantNames);
+
     /**
      * Adds a new field to an existing class.
      * <p>
@@ -31,6 +45,20 @@ public interface TypeManagementService {
      */
     void addField(FieldMetadata field);
 
+    /**
+     * Adds several new fields to existing classes, parsing and writing the
+     * source file of each class only once however many of the fields it
+     * declares.
+     * <p>
+     * An exception is thrown if any class does not exist, cannot be modified
+     * or already declares a field with one of the requested names, in which
+     * case none of that class's fields are added.
+     * 
+     * @param fields the fields to add, in order (required)
+     * @since 1.2.5
+     */
+    void addFields(Collection<FieldMetadata> fields);
+
     /**
      * Creates a physical type with the contents based on the
      * {@link ClassOrInterfaceTypeDetails} passed in at the location denoted by
@@ -1,6 +1,13 @@
 package org.springframework.roo.classpath;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 
 import org.apache.commons.lang3.Validate;
 import org.apache.felix.scr.annotations.Component;
@@ -26,29 +33,29 @@ import org.springframework.roo.project.ProjectOperations;
 @Service
 public class TypeManagementServiceImpl implements TypeManagementService {
 
-    @Reference private FileManager fileManager;
-    @Reference private MetadataService metadataService;
-    @Reference private ProjectOperations projectOperations;
-    @Reference private TypeLocationService typeLocationService;
-    @Reference private TypeParsingService typeParsingService;
+    @Reference FileManager fileManager;
+    @Reference MetadataService metadataService;
+    @Reference ProjectOperations projectOperations;
+    @Reference TypeLocationService typeLocationService;
+    @Reference TypeParsingService typeParsingService;
 
     public void addEnumConstant(final String physicalTypeIdentifier,
             final JavaSymbolName constantName) {
+        Validate.notNull(constantName, "Constant name required");
+        addEnumConstants(physicalTypeIdentifier,
+                Collections.singletonList(constantName));
+    }
+
+    public void addEnumConstants(final String physicalTypeIdentifier,
+            final Collection<JavaSymbolName> constantNames) {
         Validate.notBlank(physicalTypeIdentifier,
                 "Type identifier not provided");
-        Validate.notNull(constantName, "Constant name required");
+        Validate.notNull(constantNames, "Constant names required");
+        if (constantNames.isEmpty()) {
+            return;
+        }
 
-        // Obtain the physical type and itd mutable details
-        final PhysicalTypeMetadata ptm = (PhysicalTypeMetadata) metadataService
-                .get(physicalTypeIdentifier);
-        Validate.notNull(ptm, "Java source code unavailable for type %s",
-                PhysicalTypeIdentifier.getFriendlyName(physicalTypeIdentifier));
-        final PhysicalTypeDetails ptd = ptm.getMemberHoldingTypeDetails();
-        Validate.notNull(ptd,
-                "Java source code details unavailable for type %s",
-                PhysicalTypeIdentifier.getFriendlyName(physicalTypeIdentifier));
-        final ClassOrInterfaceTypeDetailsBuilder cidBuilder = new ClassOrInterfaceTypeDetailsBuilder(
-                (ClassOrInterfaceTypeDetails) ptd);
+        final ClassOrInterfaceTypeDetailsBuilder cidBuilder = getTypeDetailsBuilder(physicalTypeIdentifier);
 
         // Ensure it's an enum
         Validate.isTrue(
@@ -56,49 +63,57 @@ public class TypeManagementServiceImpl implements TypeManagementService {
                 "%s is not an enum",
                 PhysicalTypeIdentifier.getFriendlyName(physicalTypeIdentifier));
 
-        cidBuilder.addEnumConstant(constantName);
+        for (final JavaSymbolName constantName : constantNames) {
+            Validate.notNull(constantName, "Constant name required");
+            cidBuilder.addEnumConstant(constantName);
+        }
         createOrUpdateTypeOnDisk(cidBuilder.build());
     }
 
     public void addField(final FieldMetadata field) {
         Validate.notNull(field, "Field metadata not provided");
+        addFields(Collections.singletonList(field));
+    }
 
-        // Obtain the physical type and ITD mutable details
-        final PhysicalTypeMetadata ptm = (PhysicalTypeMetadata) metadataService
-                .get(field.getDeclaredByMetadataId());
-        Validate.notNull(ptm, "Java source code unavailable for type %s",
-                PhysicalTypeIdentifier.getFriendlyName(field
-                        .getDeclaredByMetadataId()));
-        final PhysicalTypeDetails ptd = ptm.getMemberHoldingTypeDetails();
-        Validate.notNull(ptd,
-                "Java source code details unavailable for type %s",
-                PhysicalTypeIdentifier.getFriendlyName(field
-                        .getDeclaredByMetadataId()));
-        final ClassOrInterfaceTypeDetailsBuilder cidBuilder = new ClassOrInterfaceTypeDetailsBuilder(
-                (ClassOrInterfaceTypeDetails) ptd);
+    public void addFields(final Collection<FieldMetadata> fields) {
+        Validate.notNull(fields, "Field metadata not provided");
 
-        // Automatically add JSR 303 (Bean Validation API) support if there is
-        // no current JSR 303 support but a JSR 303 annotation is present
-        boolean jsr303Required = false;
-        for (final AnnotationMetadata annotation : field.getAnnotations()) {
-            if (annotation.getAnnotationType().getFullyQualifiedTypeName()
-                    .startsWith("javax.validation")) {
-                jsr303Required = true;
-                break;
+        // Group the fields by the type that declares them, keeping their order
+        final Map<String, List<FieldMetadata>> fieldsByType = new LinkedHashMap<String, List<FieldMetadata>>();
+        for (final FieldMetadata field : fields) {
+            Validate.notNull(field, "Field metadata not provided");
+            List<FieldMetadata> typeFields = fieldsByType.get(field
+                    .getDeclaredByMetadataId());
+            if (typeFields == null) {
+                typeFields = new ArrayList<FieldMetadata>();
+                fieldsByType.put(field.getDeclaredByMetadataId(), typeFields);
             }
+            typeFields.add(field);
         }
 
-        final LogicalPath path = PhysicalTypeIdentifier.getPath(cidBuilder
-                .getDeclaredByMetadataId());
+        for (final Entry<String, List<FieldMetadata>> entry : fieldsByType
+                .entrySet()) {
+            final ClassOrInterfaceTypeDetailsBuilder cidBuilder = getTypeDetailsBuilder(entry
+                    .getKey());
+
+            // Automatically add JSR 303 (Bean Validation API) support if there
+            // is no current JSR 303 support but a JSR 303 annotation is present
+            boolean jsr303Required = false;
+            for (final FieldMetadata field : entry.getValue()) {
+                jsr303Required |= hasJsr303Annotation(field);
+                cidBuilder.addField(field);
+            }
 
-        if (jsr303Required) {
-            // It's more likely the version below represents a later version
-            // than any specified in the user's own dependency list
-            projectOperations.addDependency(path.getModule(),
-                    "javax.validation", "validation-api", "1.0.0.GA");
+            if (jsr303Required) {
+                final LogicalPath path = PhysicalTypeIdentifier
+                        .getPath(cidBuilder.getDeclaredByMetadataId());
+                // It's more likely the version below represents a later
+                // version than any specified in the user's own dependency list
+                projectOperations.addDependency(path.getModule(),
+                        "javax.validation", "validation-api", "1.0.0.GA");
+            }
+            createOrUpdateTypeOnDisk(cidBuilder.build());
         }
-        cidBuilder.addField(field);
-        createOrUpdateTypeOnDisk(cidBuilder.build());
     }
 
     public void createOrUpdateTypeOnDisk(final ClassOrInterfaceTypeDetails cid) {
@@ -126,4 +141,35 @@ public class TypeManagementServiceImpl implements TypeManagementService {
     public void generateClassFile(final ClassOrInterfaceTypeDetails cid) {
         createOrUpdateTypeOnDisk(cid);
     }
+
+    /**
+     * Returns a builder for the current details of the given type.
+     * 
+     * @param physicalTypeIdentifier the type's metadata ID (required)
+     * @return a non-<code>null</code> builder
+     */
+    private ClassOrInterfaceTypeDetailsBuilder getTypeDetailsBuilder(
+            final String physicalTypeIdentifier) {
+        // Obtain the physical type and ITD mutable details
+        final PhysicalTypeMetadata ptm = (PhysicalTypeMetadata) metadataService
+                .get(physicalTypeIdentifier);
+        Validate.notNull(ptm, "Java source code unavailable for type %s",
+                PhysicalTypeIdentifier.getFriendlyName(physicalTypeIdentifier));
+        final PhysicalTypeDetails ptd = ptm.getMemberHoldingTypeDetails();
+        Validate.notNull(ptd,
+                "Java source code details unavailable for type %s",
+                PhysicalTypeIdentifier.getFriendlyName(physicalTypeIdentifier));
+        return new ClassOrInterfaceTypeDetailsBuilder(
+                (ClassOrInterfaceTypeDetails) ptd);
+    }
+
+    private boolean hasJsr303Annotation(final FieldMetadata field) {
+        for (final AnnotationMetadata annotation : field.getAnnotations()) {
+            if (annotation.getAnnotationType().getFullyQualifiedTypeName()
+                    .startsWith("javax.validation")) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
@@ -1,5 +1,6 @@
 package org.springframework.roo.classpath.customdata.taggers;
 
+import org.springframework.roo.classpath.scanner.MemberDetails;
 import org.springframework.roo.classpath.scanner.MemberDetailsDecorator;
 import org.springframework.roo.model.CustomDataAccessor;
 
@@ -19,6 +20,17 @@ import org.springframework.roo.model.CustomDataAccessor;
  */
 public interface CustomDataKeyDecorator extends MemberDetailsDecorator {
 
+    /**
+     * Returns an object that is replaced whenever a matcher is registered or
+     * unregistered, so that callers caching decorated {@link MemberDetails}
+     * can tell when these are out of date.
+     * 
+     * @return a non-<code>null</code> object, equal to the previous one if and
+     *         only if the matchers have not changed since
+     * @since 1.2.5
+     */
+    Object getMatchersVersion();
+
     /**
      * Registers the given matcher on behalf of the class with the given fully-
      * qualified name.
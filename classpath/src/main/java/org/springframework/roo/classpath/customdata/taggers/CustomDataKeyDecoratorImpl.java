@@ -3,6 +3,7 @@ package org.springframework.roo.classpath.customdata.taggers;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -17,12 +18,22 @@ import org.springframework.roo.classpath.details.ConstructorMetadata;
 import org.springframework.roo.classpath.details.FieldMetadata;
 import org.springframework.roo.classpath.details.MemberHoldingTypeDetails;
 import org.springframework.roo.classpath.details.MethodMetadata;
+import org.springframework.roo.classpath.details.annotations.AnnotatedJavaType;
+import org.springframework.roo.classpath.details.annotations.AnnotationMetadata;
 import org.springframework.roo.classpath.scanner.MemberDetails;
 import org.springframework.roo.classpath.scanner.MemberDetailsBuilder;
 import org.springframework.roo.model.CustomDataAccessor;
+import org.springframework.roo.model.JavaSymbolName;
+import org.springframework.roo.model.JavaType;
 
 /**
  * An implementation of {@link CustomDataKeyDecorator}.
+ * <p>
+ * Rather than running every matcher against every member, the registered
+ * matchers are indexed by what they match upon (the annotation type for field
+ * matchers, the parameter types for constructor matchers, and the method name
+ * for method matchers), so that each member is only tested against the
+ * matchers that could match it.
  * 
  * @author James Tyrrell
  * @since 1.1.3
@@ -31,6 +42,60 @@ import org.springframework.roo.model.CustomDataAccessor;
 @Service
 public class CustomDataKeyDecoratorImpl implements CustomDataKeyDecorator {
 
+    /**
+     * The registered matchers, indexed by what they match upon
+     */
+    private static class MatcherIndex {
+        final Map<List<JavaType>, List<ConstructorMatcher>> constructorTaggers = new HashMap<List<JavaType>, List<ConstructorMatcher>>();
+        final Map<String, List<FieldMatcher>> fieldTaggers = new HashMap<String, List<FieldMatcher>>();
+        final List<MethodMatcher> methodTaggers;
+        final List<TypeMatcher> typeTaggers;
+
+        MatcherIndex(final List<ConstructorMatcher> constructorTaggers,
+                final List<FieldMatcher> fieldTaggers,
+                final List<MethodMatcher> methodTaggers,
+                final List<TypeMatcher> typeTaggers) {
+            for (final ConstructorMatcher constructorTagger : constructorTaggers) {
+                addToIndex(this.constructorTaggers,
+                        constructorTagger.getParameterTypes(),
+                        constructorTagger);
+            }
+            for (final FieldMatcher fieldTagger : fieldTaggers) {
+                for (final String annotationTypeName : fieldTagger
+                        .getAnnotationTypeNames()) {
+                    addToIndex(this.fieldTaggers, annotationTypeName,
+                            fieldTagger);
+                }
+            }
+            this.methodTaggers = methodTaggers;
+            this.typeTaggers = typeTaggers;
+        }
+
+        Set<FieldMatcher> getFieldTaggers(final FieldMetadata field) {
+            final Set<FieldMatcher> matchers = new LinkedHashSet<FieldMatcher>();
+            for (final AnnotationMetadata annotation : field.getAnnotations()) {
+                final List<FieldMatcher> annotationMatchers = fieldTaggers
+                        .get(annotation.getAnnotationType()
+                                .getFullyQualifiedTypeName());
+                if (annotationMatchers != null) {
+                    matchers.addAll(annotationMatchers);
+                }
+            }
+            return matchers;
+        }
+    }
+
+    private static <K, V> void addToIndex(final Map<K, List<V>> index,
+            final K key, final V value) {
+        List<V> values = index.get(key);
+        if (values == null) {
+            values = new ArrayList<V>();
+            index.put(key, values);
+        }
+        values.add(value);
+    }
+
+    private volatile MatcherIndex matcherIndex;
     private final Map<String, String> pluralMap = new HashMap<String, String>();
     private final Map<String, Matcher<? extends CustomDataAccessor>> taggerMap = new HashMap<String, Matcher<? extends CustomDataAccessor>>();
 
@@ -55,33 +120,57 @@ public class CustomDataKeyDecoratorImpl implements CustomDataKeyDecorator {
 
         // Locate any requests that we add custom data to identifiable java
         // structures
-        for (final FieldMatcher fieldTagger : getFieldTaggers()) {
-            for (final FieldMetadata field : fieldTagger.matches(memberDetails
-                    .getDetails())) {
-                memberDetailsBuilder.tag(field, fieldTagger.getCustomDataKey(),
-                        fieldTagger.getTagValue(field));
+        final MatcherIndex index = getMatcherIndex();
+        final Map<JavaSymbolName, List<MethodMatcher>> methodTaggers = new HashMap<JavaSymbolName, List<MethodMatcher>>();
+        for (final MethodMatcher methodTagger : index.methodTaggers) {
+            for (final JavaSymbolName methodName : methodTagger.getMethodNames(
+                    memberDetails.getDetails(), pluralMap)) {
+                addToIndex(methodTaggers, methodName, methodTagger);
             }
         }
 
-        for (final MethodMatcher methodTagger : getMethodTaggers()) {
-            for (final MethodMetadata method : methodTagger.matches(
-                    memberDetails.getDetails(), pluralMap)) {
-                memberDetailsBuilder.tag(method,
-                        methodTagger.getCustomDataKey(),
-                        methodTagger.getTagValue(method));
+        for (final MemberHoldingTypeDetails memberHoldingTypeDetails : memberDetails
+                .getDetails()) {
+            for (final FieldMetadata field : memberHoldingTypeDetails
+                    .getDeclaredFields()) {
+                for (final FieldMatcher fieldTagger : index
+                        .getFieldTaggers(field)) {
+                    memberDetailsBuilder.tag(field,
+                            fieldTagger.getCustomDataKey(),
+                            fieldTagger.getTagValue(field));
+                }
             }
-        }
 
-        for (final ConstructorMatcher constructorTagger : getConstructorTaggers()) {
-            for (final ConstructorMetadata constructor : constructorTagger
-                    .matches(memberDetails.getDetails())) {
-                memberDetailsBuilder.tag(constructor,
-                        constructorTagger.getCustomDataKey(),
-                        constructorTagger.getTagValue(constructor));
+            for (final MethodMetadata method : memberHoldingTypeDetails
+                    .getDeclaredMethods()) {
+                final List<MethodMatcher> matchers = methodTaggers.get(method
+                        .getMethodName());
+                if (matchers != null) {
+                    for (final MethodMatcher methodTagger : matchers) {
+                        memberDetailsBuilder.tag(method,
+                                methodTagger.getCustomDataKey(),
+                                methodTagger.getTagValue(method));
+                    }
+                }
+            }
+
+            for (final ConstructorMetadata constructor : memberHoldingTypeDetails
+                    .getDeclaredConstructors()) {
+                final List<ConstructorMatcher> matchers = index.constructorTaggers
+                        .get(AnnotatedJavaType
+                                .convertFromAnnotatedJavaTypes(constructor
+                                        .getParameterTypes()));
+                if (matchers != null) {
+                    for (final ConstructorMatcher constructorTagger : matchers) {
+                        memberDetailsBuilder.tag(constructor,
+                                constructorTagger.getCustomDataKey(),
+                                constructorTagger.getTagValue(constructor));
+                    }
+                }
             }
         }
 
-        for (final TypeMatcher typeTagger : getTypeTaggers()) {
+        for (final TypeMatcher typeTagger : index.typeTaggers) {
             for (final MemberHoldingTypeDetails typeDetails : typeTagger
                     .matches(memberDetails.getDetails())) {
                 memberDetailsBuilder.tag(typeDetails,
@@ -148,6 +237,11 @@ public class CustomDataKeyDecoratorImpl implements CustomDataKeyDecorator {
         }
     }
 
+    public Object getMatchersVersion() {
+        // Rebuilt after each change to the matchers
+        return getMatcherIndex();
+    }
+
     public List<MethodMatcher> getMethodTaggers() {
         final List<MethodMatcher> methodTaggers = new ArrayList<MethodMatcher>();
         for (final Matcher<? extends CustomDataAccessor> matcher : taggerMap
@@ -175,6 +269,7 @@ public class CustomDataKeyDecoratorImpl implements CustomDataKeyDecorator {
         Validate.notNull(addingClass, "The calling class must be specified");
         Validate.notNull(matcher, "The matcher must be specified");
         taggerMap.put(addingClass + matcher.getCustomDataKey(), matcher);
+        matcherIndex = null;
     }
 
     public void registerMatchers(final Class<?> addingClass,
@@ -202,5 +297,16 @@ public class CustomDataKeyDecoratorImpl implements CustomDataKeyDecorator {
         for (final String taggerKey : toRemove) {
             taggerMap.remove(taggerKey);
         }
+        matcherIndex = null;
+    }
+
+    private MatcherIndex getMatcherIndex() {
+        MatcherIndex index = matcherIndex;
+        if (index == null) {
+            index = new MatcherIndex(getConstructorTaggers(),
+                    getFieldTaggers(), getMethodTaggers(), getTypeTaggers());
+            matcherIndex = index;
+        }
+        return index;
     }
 }
@@ -29,8 +29,10 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.commons.lang3.Validate;
 import org.springframework.roo.classpath.details.FieldMetadata;
@@ -107,6 +109,22 @@ public class FieldMatcher implements Matcher<FieldMetadata> {
         }
     }
 
+    /**
+     * Returns the fully-qualified names of the annotations this matcher
+     * matches upon
+     * 
+     * @return a non-<code>null</code> set
+     * @since 1.2.5
+     */
+    Set<String> getAnnotationTypeNames() {
+        final Set<String> annotationTypeNames = new LinkedHashSet<String>();
+        for (final AnnotationMetadata annotation : annotations) {
+            annotationTypeNames.add(annotation.getAnnotationType()
+                    .getFullyQualifiedTypeName());
+        }
+        return annotationTypeNames;
+    }
+
     private Map<String, Object> getAttributeMap(final FieldMetadata field) {
         final Map<String, Object> map = new HashMap<String, Object>();
         final AnnotationMetadata annotationMetadata = getMatchingAnnotation(field);
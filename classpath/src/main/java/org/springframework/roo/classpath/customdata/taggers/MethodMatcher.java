@@ -135,6 +135,35 @@ public class MethodMatcher implements Matcher<MethodMetadata> {
         return fields;
     }
 
+    /**
+     * Returns the names of the methods this matcher matches among the given
+     * member holders
+     * 
+     * @param memberHoldingTypeDetailsList the member holders to be searched
+     * @param pluralMap the plural of each type, keyed by its MID
+     * @return a non-<code>null</code> set
+     * @since 1.2.5
+     */
+    Set<JavaSymbolName> getMethodNames(
+            final List<MemberHoldingTypeDetails> memberHoldingTypeDetailsList,
+            final Map<String, String> pluralMap) {
+        final Set<JavaSymbolName> methodNames = new HashSet<JavaSymbolName>();
+        final JavaSymbolName userDefinedMethodName = getUserDefinedMethod(
+                memberHoldingTypeDetailsList, pluralMap);
+        if (userDefinedMethodName == null) {
+            for (final FieldMetadata field : getFieldsInterestedIn(memberHoldingTypeDetailsList)) {
+                methodNames.add(new JavaSymbolName(getPrefix()
+                        + StringUtils.capitalize(field.getFieldName()
+                                .getSymbolName())));
+            }
+        }
+        else {
+            methodNames.add(new JavaSymbolName(userDefinedMethodName
+                    .getSymbolName() + additionalSuffix));
+        }
+        return methodNames;
+    }
+
     private ClassOrInterfaceTypeDetails getMostConcreteClassOrInterfaceTypeDetails(
             final List<MemberHoldingTypeDetails> memberHoldingTypeDetailsList) {
         ClassOrInterfaceTypeDetails cid = null;
@@ -219,22 +248,9 @@ public class MethodMatcher implements Matcher<MethodMetadata> {
     public List<MethodMetadata> matches(
             final List<MemberHoldingTypeDetails> memberHoldingTypeDetailsList,
             final Map<String, String> pluralMap) {
-        final List<FieldMetadata> fields = getFieldsInterestedIn(memberHoldingTypeDetailsList);
         final List<MethodMetadata> methods = new ArrayList<MethodMetadata>();
-        final Set<JavaSymbolName> methodNames = new HashSet<JavaSymbolName>();
-        final JavaSymbolName userDefinedMethodName = getUserDefinedMethod(
+        final Set<JavaSymbolName> methodNames = getMethodNames(
                 memberHoldingTypeDetailsList, pluralMap);
-        if (userDefinedMethodName == null) {
-            for (final FieldMetadata field : fields) {
-                methodNames.add(new JavaSymbolName(getPrefix()
-                        + StringUtils.capitalize(field.getFieldName()
-                                .getSymbolName())));
-            }
-        }
-        else {
-            methodNames.add(new JavaSymbolName(userDefinedMethodName
-                    .getSymbolName() + additionalSuffix));
-        }
         for (final MemberHoldingTypeDetails memberHoldingTypeDetails : memberHoldingTypeDetailsList) {
             for (final MethodMetadata method : memberHoldingTypeDetails
                     .getDeclaredMethods()) {
@@ -5,18 +5,25 @@ import static org.springframework.roo.classpath.customdata.CustomDataKeys.LAYER_
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.commons.lang3.Validate;
 import org.springframework.roo.classpath.details.annotations.AnnotatedJavaType;
 import org.springframework.roo.classpath.details.annotations.AnnotationMetadata;
 import org.springframework.roo.model.CustomData;
+import org.springframework.roo.model.CustomDataAccessor;
 import org.springframework.roo.model.JavaSymbolName;
 import org.springframework.roo.model.JavaType;
 import org.springframework.roo.support.util.CollectionUtils;
 
 /**
  * Convenient superclass for {@link MemberHoldingTypeDetails} implementations.
+ * <p>
+ * As implementations are immutable, lookups of annotations and declared
+ * members by name or {@link CustomData} key are answered from indexes built the
+ * first time each is needed.
  * 
  * @author Andrew Swan
  * @since 1.2.0
@@ -25,6 +32,33 @@ public abstract class AbstractMemberHoldingTypeDetails extends
         AbstractIdentifiableAnnotatedJavaStructureProvider implements
         MemberHoldingTypeDetails {
 
+    private static <T> void addToIndex(final Map<Object, List<T>> index,
+            final Object key, final T member) {
+        List<T> members = index.get(key);
+        if (members == null) {
+            members = new ArrayList<T>();
+            index.put(key, members);
+        }
+        members.add(member);
+    }
+
+    private static <T extends CustomDataAccessor> Map<Object, List<T>> indexByTag(
+            final Collection<? extends T> members) {
+        final Map<Object, List<T>> index = new HashMap<Object, List<T>>();
+        for (final T member : members) {
+            for (final Object tagKey : member.getCustomData().keySet()) {
+                addToIndex(index, tagKey, member);
+            }
+        }
+        return index;
+    }
+
+    private volatile Map<JavaType, AnnotationMetadata> annotationsByType;
+    private volatile Map<JavaSymbolName, FieldMetadata> fieldsByName;
+    private volatile Map<Object, List<FieldMetadata>> fieldsByTag;
+    private volatile Map<Object, List<MethodMetadata>> methodsByName;
+    private volatile Map<Object, List<MethodMetadata>> methodsByTag;
+
     /**
      * Constructor
      * 
@@ -39,6 +73,22 @@ public abstract class AbstractMemberHoldingTypeDetails extends
         super(customData, declaredByMetadataId, modifier, annotations);
     }
 
+    @Override
+    public AnnotationMetadata getAnnotation(final JavaType type) {
+        Validate.notNull(type, "Annotation type to locate required");
+        Map<JavaType, AnnotationMetadata> index = annotationsByType;
+        if (index == null) {
+            index = new HashMap<JavaType, AnnotationMetadata>();
+            for (final AnnotationMetadata annotation : getAnnotations()) {
+                if (!index.containsKey(annotation.getAnnotationType())) {
+                    index.put(annotation.getAnnotationType(), annotation);
+                }
+            }
+            annotationsByType = index;
+        }
+        return index.get(type);
+    }
+
     public ConstructorMetadata getDeclaredConstructor(
             final List<JavaType> parameters) {
         final Collection<JavaType> parameterList = CollectionUtils.populate(
@@ -54,14 +104,98 @@ public abstract class AbstractMemberHoldingTypeDetails extends
     }
 
     public FieldMetadata getDeclaredField(final JavaSymbolName fieldName) {
-        for (final FieldMetadata field : getDeclaredFields()) {
-            if (field.getFieldName().equals(fieldName)) {
-                return field;
+        Map<JavaSymbolName, FieldMetadata> index = fieldsByName;
+        if (index == null) {
+            index = new HashMap<JavaSymbolName, FieldMetadata>();
+            for (final FieldMetadata field : getDeclaredFields()) {
+                if (!index.containsKey(field.getFieldName())) {
+                    index.put(field.getFieldName(), field);
+                }
+            }
+            fieldsByName = index;
+        }
+        return index.get(fieldName);
+    }
+
+    /**
+     * Returns the fields declared by this type that have the given
+     * {@link CustomData} key, in the order they are declared.
+     * 
+     * @param tagKey the key to look for (required)
+     * @return a non-<code>null</code> unmodifiable list
+     * @since 1.2.5
+     */
+    public List<FieldMetadata> getDeclaredFieldsWithTag(final Object tagKey) {
+        Validate.notNull(tagKey, "Custom data key required");
+        Map<Object, List<FieldMetadata>> index = fieldsByTag;
+        if (index == null) {
+            index = AbstractMemberHoldingTypeDetails
+                    .<FieldMetadata> indexByTag(getDeclaredFields());
+            fieldsByTag = index;
+        }
+        return unmodifiableListOrEmpty(index.get(tagKey));
+    }
+
+    /**
+     * Returns the first method declared by this type with the given name,
+     * regardless of its parameters.
+     * 
+     * @param methodName the name to look for (can be <code>null</code>)
+     * @return <code>null</code> if there is no such method
+     * @since 1.2.5
+     */
+    public MethodMetadata getDeclaredMethod(final JavaSymbolName methodName) {
+        return CollectionUtils.firstElementOf(getDeclaredMethodsByName().get(
+                methodName));
+    }
+
+    /**
+     * Returns the method declared by this type with the given name and
+     * parameter types.
+     * 
+     * @param methodName the name to look for (can be <code>null</code>)
+     * @param parameters the parameter types to look for (<code>null</code>
+     *            means none)
+     * @return <code>null</code> if there is no such method
+     * @since 1.2.5
+     */
+    public MethodMetadata getDeclaredMethod(final JavaSymbolName methodName,
+            final List<JavaType> parameters) {
+        final List<MethodMetadata> candidates = getDeclaredMethodsByName()
+                .get(methodName);
+        if (candidates == null) {
+            return null;
+        }
+        final Collection<JavaType> parameterList = CollectionUtils.populate(
+                new ArrayList<JavaType>(), parameters);
+        for (final MethodMetadata method : candidates) {
+            if (parameterList.equals(AnnotatedJavaType
+                    .convertFromAnnotatedJavaTypes(method.getParameterTypes()))) {
+                return method;
             }
         }
         return null;
     }
 
+    /**
+     * Returns the methods declared by this type that have the given
+     * {@link CustomData} key, in the order they are declared.
+     * 
+     * @param tagKey the key to look for (required)
+     * @return a non-<code>null</code> unmodifiable list
+     * @since 1.2.5
+     */
+    public List<MethodMetadata> getDeclaredMethodsWithTag(final Object tagKey) {
+        Validate.notNull(tagKey, "Custom data key required");
+        Map<Object, List<MethodMetadata>> index = methodsByTag;
+        if (index == null) {
+            index = AbstractMemberHoldingTypeDetails
+                    .<MethodMetadata> indexByTag(getDeclaredMethods());
+            methodsByTag = index;
+        }
+        return unmodifiableListOrEmpty(index.get(tagKey));
+    }
+
     public ClassOrInterfaceTypeDetails getDeclaredInnerType(
             final JavaType typeName) {
         Validate.notNull(typeName, "Name of inner type required");
@@ -203,4 +337,23 @@ public abstract class AbstractMemberHoldingTypeDetails extends
     public boolean implementsType(final JavaType interfaceType) {
         return getImplementsTypes().contains(interfaceType);
     }
-}
\ No newline at end of file
+
+    private Map<Object, List<MethodMetadata>> getDeclaredMethodsByName() {
+        Map<Object, List<MethodMetadata>> index = methodsByName;
+        if (index == null) {
+            index = new HashMap<Object, List<MethodMetadata>>();
+            for (final MethodMetadata method : getDeclaredMethods()) {
+                addToIndex(index, method.getMethodName(), method);
+            }
+            methodsByName = index;
+        }
+        return index;
+    }
+
+    private <T> List<T> unmodifiableListOrEmpty(final List<T> list) {
+        if (list == null) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(list);
+    }
+}
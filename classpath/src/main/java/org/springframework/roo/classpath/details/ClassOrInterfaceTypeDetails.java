@@ -3,6 +3,7 @@ package org.springframework.roo.classpath.details;
 import java.util.List;
 import java.util.Set;
 
+import org.springframework.roo.metadata.Fingerprinted;
 import org.springframework.roo.model.JavaSymbolName;
 
 /**
@@ -15,7 +16,8 @@ import org.springframework.roo.model.JavaSymbolName;
  * @author Ben Alex
  * @since 1.0
  */
-public interface ClassOrInterfaceTypeDetails extends MemberHoldingTypeDetails {
+public interface ClassOrInterfaceTypeDetails extends MemberHoldingTypeDetails,
+        Fingerprinted {
 
     /**
      * Indicates whether this class or interface declares a field with the given
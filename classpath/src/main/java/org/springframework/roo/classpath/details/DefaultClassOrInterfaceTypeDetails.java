@@ -11,12 +11,15 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
 
 import org.apache.commons.lang3.Validate;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.springframework.roo.classpath.PhysicalTypeCategory;
 import org.springframework.roo.classpath.customdata.CustomDataKeys;
 import org.springframework.roo.classpath.details.annotations.AnnotationMetadata;
+import org.springframework.roo.metadata.Fingerprint;
 import org.springframework.roo.model.CustomData;
 import org.springframework.roo.model.JavaSymbolName;
 import org.springframework.roo.model.JavaType;
@@ -30,6 +33,22 @@ import org.springframework.roo.model.JavaType;
 public class DefaultClassOrInterfaceTypeDetails extends
         AbstractMemberHoldingTypeDetails implements ClassOrInterfaceTypeDetails {
 
+    // The identity hash code that ToStringBuilder includes for each object
+    private static final Pattern IDENTITY_HASH_CODE = Pattern
+            .compile("@[0-9a-f]+\\[");
+
+    /**
+     * Returns the {@link Object#toString()} of the given object without the
+     * identity hash codes it contains, which are not part of its structure
+     * 
+     * @param object the object to describe (can be <code>null</code>)
+     * @return a non-<code>null</code> description
+     */
+    private static String describe(final Object object) {
+        return IDENTITY_HASH_CODE.matcher(String.valueOf(object))
+                .replaceAll("[");
+    }
+
     private List<ConstructorMetadata> declaredConstructors = new ArrayList<ConstructorMetadata>();
     private List<FieldMetadata> declaredFields = new ArrayList<FieldMetadata>();
     private List<InitializerMetadata> declaredInitializers = new ArrayList<InitializerMetadata>();
@@ -37,6 +56,7 @@ public class DefaultClassOrInterfaceTypeDetails extends
     private List<MethodMetadata> declaredMethods = new ArrayList<MethodMetadata>();
     private List<JavaSymbolName> enumConstants = new ArrayList<JavaSymbolName>();
     private List<JavaType> extendsTypes = new ArrayList<JavaType>();
+    private volatile Fingerprint fingerprint;
     private List<JavaType> implementsTypes = new ArrayList<JavaType>();
     private final JavaType name;
     private final PhysicalTypeCategory physicalTypeCategory;
@@ -173,6 +193,25 @@ public class DefaultClassOrInterfaceTypeDetails extends
         return Collections.unmodifiableList(extendsTypes);
     }
 
+    public Fingerprint getFingerprint() {
+        if (fingerprint == null) {
+            // Immutable, so at worst two threads compute the same value;
+            // toString() covers all but the following
+            final List<Fingerprint> innerTypes = new ArrayList<Fingerprint>();
+            for (final ClassOrInterfaceTypeDetails innerType : declaredInnerTypes) {
+                innerTypes.add(innerType.getFingerprint());
+            }
+            final Set<String> imports = new TreeSet<String>();
+            for (final ImportMetadata registeredImport : registeredImports) {
+                imports.add(describe(registeredImport));
+            }
+            fingerprint = Fingerprint.of(describe(this), innerTypes,
+                    describe(declaredInitializers), imports, getCustomData()
+                            .hashCode());
+        }
+        return fingerprint;
+    }
+
     public List<JavaType> getImplementsTypes() {
         return Collections.unmodifiableList(implementsTypes);
     }
@@ -14,6 +14,7 @@ import org.springframework.roo.classpath.PhysicalTypeCategory;
 import org.springframework.roo.classpath.details.annotations.AnnotationMetadata;
 import org.springframework.roo.classpath.itd.AbstractItdMetadataProvider;
 import org.springframework.roo.classpath.itd.ItdSourceFileComposer;
+import org.springframework.roo.metadata.Fingerprint;
 import org.springframework.roo.model.CustomData;
 import org.springframework.roo.model.CustomDataAccessor;
 import org.springframework.roo.model.JavaType;
@@ -22,9 +23,10 @@ import org.springframework.roo.support.util.CollectionUtils;
 /**
  * Default representation of an {@link ItdTypeDetails}.
  * <p>
- * Provides a basic {@link #hashCode()} that is used for detecting significant
- * changes in {@link AbstractItdMetadataProvider} and avoiding downstream
- * notifications accordingly.
+ * Provides a {@link #getFingerprint() fingerprint}, computed on first use, that
+ * is used for detecting significant changes in
+ * {@link AbstractItdMetadataProvider} and avoiding downstream notifications
+ * accordingly; {@link #hashCode()} is derived from it.
  * 
  * @author Ben Alex
  * @author Stefan Schmidt
@@ -48,7 +50,7 @@ public class DefaultItdTypeDetails extends AbstractMemberHoldingTypeDetails
     private final boolean privilegedAspect;
     private final Set<JavaType> registeredImports = new HashSet<JavaType>();
     private final Set<JavaType> declarePrecedence = new LinkedHashSet<JavaType>();
-    
+    private volatile Fingerprint fingerprint;
 
     /**
      * Constructor (package protected to enforce the use of the corresponding
@@ -153,6 +155,20 @@ public class DefaultItdTypeDetails extends AbstractMemberHoldingTypeDetails
         return Collections.unmodifiableList(fieldAnnotations);
     }
 
+    public Fingerprint getFingerprint() {
+        if (fingerprint == null) {
+            // Immutable, so at worst two threads compute the same value
+            fingerprint = Fingerprint.of(aspect, governor.getName(),
+                    governor.getModifier(), governor.getCustomData()
+                            .hashCode(), privilegedAspect,
+                    includeCustomDataHash(declaredConstructors),
+                    includeCustomDataHash(declaredFields),
+                    includeCustomDataHash(declaredMethods),
+                    new ItdSourceFileComposer(this).getOutput());
+        }
+        return fingerprint;
+    }
+
     public ClassOrInterfaceTypeDetails getGovernor() {
         return governor;
     }
@@ -187,15 +203,7 @@ public class DefaultItdTypeDetails extends AbstractMemberHoldingTypeDetails
 
     @Override
     public int hashCode() {
-        int hash = aspect.hashCode() * governor.getName().hashCode()
-                * governor.getModifier() * governor.getCustomData().hashCode()
-                * PHYSICAL_TYPE_CATEGORY.hashCode()
-                * (privilegedAspect ? 2 : 3);
-        hash *= includeCustomDataHash(declaredConstructors);
-        hash *= includeCustomDataHash(declaredFields);
-        hash *= includeCustomDataHash(declaredMethods);
-        hash *= new ItdSourceFileComposer(this).getOutput().hashCode();
-        return hash;
+        return getFingerprint().hashCode();
     }
 
     public boolean implementsAny(final JavaType... types) {
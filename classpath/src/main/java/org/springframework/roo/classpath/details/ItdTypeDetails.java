@@ -3,6 +3,7 @@ package org.springframework.roo.classpath.details;
 import java.util.List;
 import java.util.Set;
 
+import org.springframework.roo.metadata.Fingerprinted;
 import org.springframework.roo.model.JavaType;
 
 /**
@@ -11,12 +12,16 @@ import org.springframework.roo.model.JavaType;
  * For simplicity of implementation this is not a complete representation of all
  * members and other information available via Java bytecode. For example,
  * static initialisers and inner classes are unsupported.
+ * <p>
+ * Its {@link #getFingerprint() fingerprint} covers the source code of the ITD
+ * and the custom data of its members.
  * 
  * @author Ben Alex
  * @author Stefan Schmidt
  * @since 1.0
  */
-public interface ItdTypeDetails extends MemberHoldingTypeDetails {
+public interface ItdTypeDetails extends MemberHoldingTypeDetails,
+        Fingerprinted {
 
     /**
      * Returns the name of type which holds the aspect itself.
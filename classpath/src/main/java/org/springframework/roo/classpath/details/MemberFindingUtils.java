@@ -63,8 +63,11 @@ public final class MemberFindingUtils {
         if (metadata == null || metadata.getMemberHoldingTypeDetails() == null) {
             return null;
         }
-        return getAnnotationOfType(metadata.getMemberHoldingTypeDetails()
-                .getAnnotations(), annotationType);
+        if (annotationType == null) {
+            return null;
+        }
+        return metadata.getMemberHoldingTypeDetails().getAnnotation(
+                annotationType);
     }
 
     /**
@@ -149,6 +152,10 @@ public final class MemberFindingUtils {
         if (memberHoldingTypeDetails == null) {
             return null;
         }
+        if (memberHoldingTypeDetails instanceof AbstractMemberHoldingTypeDetails) {
+            return ((AbstractMemberHoldingTypeDetails) memberHoldingTypeDetails)
+                    .getDeclaredMethod(methodName);
+        }
         for (final MethodMetadata method : memberHoldingTypeDetails
                 .getDeclaredMethods()) {
             if (method.getMethodName().equals(methodName)) {
@@ -174,6 +181,10 @@ public final class MemberFindingUtils {
         if (memberHoldingTypeDetails == null) {
             return null;
         }
+        if (memberHoldingTypeDetails instanceof AbstractMemberHoldingTypeDetails) {
+            return ((AbstractMemberHoldingTypeDetails) memberHoldingTypeDetails)
+                    .getDeclaredMethod(methodName, parameters);
+        }
         if (parameters == null) {
             parameters = new ArrayList<JavaType>();
         }
@@ -304,6 +315,11 @@ public final class MemberFindingUtils {
         if (memberDetails != null) {
             for (final MemberHoldingTypeDetails memberHoldingTypeDetails : memberDetails
                     .getDetails()) {
+                if (memberHoldingTypeDetails instanceof AbstractMemberHoldingTypeDetails) {
+                    fields.addAll(((AbstractMemberHoldingTypeDetails) memberHoldingTypeDetails)
+                            .getDeclaredFieldsWithTag(tagKey));
+                    continue;
+                }
                 for (final FieldMetadata field : memberHoldingTypeDetails
                         .getDeclaredFields()) {
                     if (field.getCustomData().keySet().contains(tagKey)) {
@@ -330,9 +346,8 @@ public final class MemberFindingUtils {
             final JavaType... annotationTypes) {
         if (cid != null && annotationTypes != null) {
             for (final JavaType annotationType : annotationTypes) {
-                final AnnotationMetadata annotation = MemberFindingUtils
-                        .getAnnotationOfType(cid.getAnnotations(),
-                                annotationType);
+                final AnnotationMetadata annotation = annotationType == null ? null
+                        : cid.getAnnotation(annotationType);
                 if (annotation != null) {
                     return annotation;
                 }
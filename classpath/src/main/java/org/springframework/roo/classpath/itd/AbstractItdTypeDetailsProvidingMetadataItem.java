@@ -23,6 +23,8 @@ import org.springframework.roo.classpath.details.annotations.AnnotatedJavaType;
 import org.springframework.roo.classpath.details.annotations.AnnotationMetadata;
 import org.springframework.roo.classpath.details.annotations.AnnotationMetadataBuilder;
 import org.springframework.roo.metadata.AbstractMetadataItem;
+import org.springframework.roo.metadata.Fingerprint;
+import org.springframework.roo.metadata.Fingerprinted;
 import org.springframework.roo.model.JavaSymbolName;
 import org.springframework.roo.model.JavaType;
 import org.springframework.roo.model.JdkJavaType;
@@ -37,7 +39,8 @@ import org.springframework.roo.model.JdkJavaType;
  * @since 1.0
  */
 public abstract class AbstractItdTypeDetailsProvidingMetadataItem extends
-        AbstractMetadataItem implements ItdTypeDetailsProvidingMetadataItem {
+        AbstractMetadataItem implements ItdTypeDetailsProvidingMetadataItem,
+        Fingerprinted {
 
     protected JavaType aspectName;
     protected ItdTypeDetailsBuilder builder;
@@ -197,6 +200,17 @@ public abstract class AbstractItdTypeDetailsProvidingMetadataItem extends
         return getField(PRIVATE, fieldName, fieldType, null);
     }
 
+    /**
+     * Returns the fingerprint of the ITD this item provides, which is cached
+     * once {@link #itdTypeDetails} has been built.
+     */
+    public Fingerprint getFingerprint() {
+        if (itdTypeDetails != null) {
+            return itdTypeDetails.getFingerprint();
+        }
+        return builder.build().getFingerprint();
+    }
+
     /**
      * Returns the given method of the governor.
      * 
@@ -336,7 +350,7 @@ public abstract class AbstractItdTypeDetailsProvidingMetadataItem extends
 
     @Override
     public int hashCode() {
-        return builder.build().hashCode();
+        return getFingerprint().hashCode();
     }
 
     /**
@@ -0,0 +1,242 @@
+package org.springframework.roo.classpath.itd;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+
+import org.apache.felix.scr.annotations.Component;
+import org.apache.felix.scr.annotations.Reference;
+import org.apache.felix.scr.annotations.ReferenceCardinality;
+import org.apache.felix.scr.annotations.ReferencePolicy;
+import org.apache.felix.scr.annotations.ReferenceStrategy;
+import org.osgi.service.component.ComponentContext;
+import org.springframework.roo.classpath.TypeLocationService;
+import org.springframework.roo.classpath.details.ClassOrInterfaceTypeDetails;
+import org.springframework.roo.metadata.MetadataProvider;
+import org.springframework.roo.metadata.MetadataService;
+import org.springframework.roo.model.JavaType;
+import org.springframework.roo.process.manager.CommandCallback;
+import org.springframework.roo.process.manager.ProcessManager;
+import org.springframework.roo.process.manager.event.ProcessManagerStatus;
+import org.springframework.roo.process.manager.event.ProcessManagerStatusListener;
+import org.springframework.roo.project.ProjectOperations;
+import org.springframework.roo.project.maven.Pom;
+import org.springframework.roo.shell.osgi.AbstractFlashingObject;
+
+/**
+ * Materialises the ITD metadata of every type in the project while the shell
+ * is idle, so that the first command to need it (e.g. <code>web mvc all</code>
+ * or <code>perform tests</code>) does not have to build it all first.
+ * <p>
+ * Once the {@link ProcessManager} has completed startup, a background thread
+ * gets the metadata of each {@link ItdMetadataProvider} for one governor after
+ * another, superclasses before their subclasses. It works in small
+ * transactions via {@link ProcessManager#executeIfIdle(CommandCallback)} and
+ * stops between governors as soon as a command is pending, resuming once the
+ * shell is idle again; metadata built in the meantime is simply retrieved from
+ * the cache. Progress is shown in the shell's status line.
+ * <p>
+ * The warm-up can be disabled by launching the shell with
+ * <code>-Droo.metadata.warmup=false</code>, e.g. to compare timings.
+ * 
+ * @since 1.2.5
+ */
+@Component(immediate = true)
+@Reference(name = "metadataProvider", strategy = ReferenceStrategy.EVENT, policy = ReferencePolicy.DYNAMIC, referenceInterface = MetadataProvider.class, cardinality = ReferenceCardinality.OPTIONAL_MULTIPLE)
+public class ItdMetadataWarmUp extends AbstractFlashingObject implements
+        ProcessManagerStatusListener {
+
+    /**
+     * Warms up the metadata of the project's governors, one chunk per
+     * transaction
+     */
+    private class WarmUp implements CommandCallback<Void>, Runnable {
+
+        private List<String> governors; // Physical type IDs, once listed
+        private int warmed; // How many governors have been warmed up
+
+        public Void callback() {
+            if (governors == null) {
+                // Give up if the governors can't be listed
+                governors = Collections.emptyList();
+                governors = getGovernorsInDependencyOrder();
+            }
+            for (int i = 0; i < CHUNK_SIZE && !isFinished()
+                    && !processManager.isCommandPending(); i++) {
+                // Move on first, so that a governor whose metadata can't be
+                // built is not retried forever
+                warmUp(governors.get(warmed++));
+            }
+            if (!isFinished()) {
+                flash(Level.FINE, "Warming up metadata: " + warmed + " of "
+                        + governors.size() + " types", MY_SLOT);
+            }
+            return null;
+        }
+
+        private boolean isFinished() {
+            return governors != null && warmed >= governors.size();
+        }
+
+        public void run() {
+            try {
+                while (!stopped && !isFinished()) {
+                    if (!processManager.executeIfIdle(this)) {
+                        // Busy; try again later
+                        Thread.sleep(RETRY_DELAY);
+                    }
+                }
+            }
+            catch (final InterruptedException ignored) {
+            }
+            finally {
+                flash(Level.FINE, "", MY_SLOT);
+            }
+        }
+    }
+
+    /**
+     * The maximum number of governors to warm up in one transaction
+     */
+    private static final int CHUNK_SIZE = 10;
+
+    /**
+     * The system property that disables the warm-up if set to
+     * <code>false</code>
+     */
+    static final String ENABLED_PROPERTY = "roo.metadata.warmup";
+
+    /**
+     * How many milliseconds to wait before trying again when the process
+     * manager is busy
+     */
+    private static final long RETRY_DELAY = 1000;
+
+    @Reference MetadataService metadataService;
+    @Reference ProcessManager processManager;
+    @Reference ProjectOperations projectOperations;
+    private final List<ItdMetadataProvider> providers = new ArrayList<ItdMetadataProvider>();
+    private volatile boolean stopped;
+    Thread thread;
+    @Reference TypeLocationService typeLocationService;
+
+    protected void activate(final ComponentContext context) {
+        processManager.addProcessManagerStatusListener(this);
+        final ProcessManagerStatus status = processManager
+                .getProcessManagerStatus();
+        if (status != ProcessManagerStatus.STARTING
+                && status != ProcessManagerStatus.COMPLETING_STARTUP) {
+            // Startup completed before this component was activated
+            start();
+        }
+    }
+
+    protected void bindMetadataProvider(final MetadataProvider provider) {
+        if (provider instanceof ItdMetadataProvider) {
+            synchronized (providers) {
+                providers.add((ItdMetadataProvider) provider);
+            }
+        }
+    }
+
+    protected void deactivate(final ComponentContext context) {
+        processManager.removeProcessManagerStatusListener(this);
+        stop();
+    }
+
+    private List<String> getGovernorsInDependencyOrder() {
+        final List<ClassOrInterfaceTypeDetails> governors = new ArrayList<ClassOrInterfaceTypeDetails>();
+        final Map<String, Integer> depths = new HashMap<String, Integer>();
+        for (final Pom module : projectOperations.getPoms()) {
+            for (final JavaType javaType : typeLocationService
+                    .getTypesForModule(module)) {
+                final ClassOrInterfaceTypeDetails governor = typeLocationService
+                        .getTypeDetails(javaType);
+                if (governor != null) {
+                    governors.add(governor);
+                    depths.put(governor.getDeclaredByMetadataId(),
+                            getHierarchyDepth(governor));
+                }
+            }
+        }
+
+        // The metadata of a type typically depends on that of its superclass
+        Collections.sort(governors,
+                new Comparator<ClassOrInterfaceTypeDetails>() {
+                    public int compare(final ClassOrInterfaceTypeDetails o1,
+                            final ClassOrInterfaceTypeDetails o2) {
+                        return depths.get(o1.getDeclaredByMetadataId())
+                                .compareTo(
+                                        depths.get(o2
+                                                .getDeclaredByMetadataId()));
+                    }
+                });
+
+        final List<String> governorIds = new ArrayList<String>();
+        for (final ClassOrInterfaceTypeDetails governor : governors) {
+            governorIds.add(governor.getDeclaredByMetadataId());
+        }
+        return governorIds;
+    }
+
+    private int getHierarchyDepth(final ClassOrInterfaceTypeDetails governor) {
+        int depth = 0;
+        ClassOrInterfaceTypeDetails superclass = governor.getSuperclass();
+        while (superclass != null) {
+            depth++;
+            superclass = superclass.getSuperclass();
+        }
+        return depth;
+    }
+
+    public void onProcessManagerStatusChange(
+            final ProcessManagerStatus oldStatus,
+            final ProcessManagerStatus newStatus) {
+        if (newStatus == ProcessManagerStatus.AVAILABLE) {
+            start();
+        }
+        else if (newStatus == ProcessManagerStatus.TERMINATED) {
+            stop();
+        }
+    }
+
+    private synchronized void start() {
+        if (thread == null && !stopped
+                && !"false".equals(System.getProperty(ENABLED_PROPERTY))) {
+            thread = new Thread(new WarmUp(),
+                    "Spring Roo Metadata Warm-Up Thread");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    private synchronized void stop() {
+        stopped = true;
+        if (thread != null) {
+            // Don't leave it waiting to retry after this bundle has gone
+            thread.interrupt();
+        }
+    }
+
+    protected void unbindMetadataProvider(final MetadataProvider provider) {
+        synchronized (providers) {
+            providers.remove(provider);
+        }
+    }
+
+    private void warmUp(final String physicalTypeId) {
+        final List<ItdMetadataProvider> itdProviders;
+        synchronized (providers) {
+            itdProviders = new ArrayList<ItdMetadataProvider>(providers);
+        }
+        metadataService.get(physicalTypeId);
+        for (final ItdMetadataProvider provider : itdProviders) {
+            metadataService.get(provider
+                    .getIdForPhysicalJavaType(physicalTypeId));
+        }
+    }
+}
@@ -4,6 +4,8 @@ import static org.springframework.roo.shell.OptionContexts.INTERFACE;
 import static org.springframework.roo.shell.OptionContexts.SUPERCLASS;
 import static org.springframework.roo.shell.OptionContexts.UPDATE_PROJECT;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 
 import org.apache.felix.scr.annotations.Component;
@@ -73,10 +75,15 @@ public class ClasspathCommands implements CommandMarker {
     @CliCommand(value = "enum constant", help = "Inserts a new enum constant into an enum")
     public void enumConstant(
             @CliOption(key = "class", mandatory = false, unspecifiedDefaultValue = "*", optionContext = UPDATE_PROJECT, help = "The name of the enum class to receive this field") final JavaType name,
-            @CliOption(key = "name", mandatory = true, help = "The name of the constant") final JavaSymbolName fieldName,
+            @CliOption(key = "name", mandatory = true, help = "The name of the constant. Multiple names must be a double-quoted list separated by spaces") final String constantNames,
             @CliOption(key = "permitReservedWords", mandatory = false, unspecifiedDefaultValue = "false", specifiedDefaultValue = "true", help = "Indicates whether reserved words are ignored by Roo") final boolean permitReservedWords) {
 
-        classpathOperations.enumConstant(name, fieldName, permitReservedWords);
+        // Several constants are added with a single write of the enum
+        final List<JavaSymbolName> constants = new ArrayList<JavaSymbolName>();
+        for (final String constantName : constantNames.trim().split("\\s+")) {
+            constants.add(new JavaSymbolName(constantName));
+        }
+        classpathOperations.enumConstants(name, constants, permitReservedWords);
     }
 
     @CliCommand(value = "focus", help = "Changes focus to a different type")
@@ -1,5 +1,6 @@
 package org.springframework.roo.classpath.operations;
 
+import java.util.Collection;
 import java.util.Set;
 
 import org.springframework.roo.model.JavaSymbolName;
@@ -75,6 +76,19 @@ public interface ClasspathOperations {
     void enumConstant(final JavaType name, final JavaSymbolName fieldName,
             final boolean permitReservedWords);
 
+    /**
+     * Inserts several new enum constants into an enum, writing its source file
+     * only once.
+     * 
+     * @param name the enum class to receive these constants
+     * @param constantNames the names of the constants, in order
+     * @param permitReservedWords whether reserved words are ignored by Roo
+     * @since 1.2.5
+     */
+    void enumConstants(final JavaType name,
+            final Collection<JavaSymbolName> constantNames,
+            final boolean permitReservedWords);
+
     /**
      * Changes the focus to the given type.
      * 
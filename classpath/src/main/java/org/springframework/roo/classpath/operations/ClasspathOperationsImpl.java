@@ -8,6 +8,8 @@ import static org.springframework.roo.model.RooJavaType.ROO_TO_STRING;
 
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
@@ -221,16 +223,27 @@ public class ClasspathOperationsImpl implements ClasspathOperations {
     @Override
     public void enumConstant(final JavaType name,
             final JavaSymbolName fieldName, final boolean permitReservedWords) {
+        enumConstants(name, Collections.singletonList(fieldName),
+                permitReservedWords);
+    }
+
+    @Override
+    public void enumConstants(final JavaType name,
+            final Collection<JavaSymbolName> constantNames,
+            final boolean permitReservedWords) {
         if (!permitReservedWords) {
             // No need to check the "name" as if the class exists it is assumed
             // it is a legal name
-            ReservedWords.verifyReservedWordsNotPresent(fieldName);
+            for (final JavaSymbolName constantName : constantNames) {
+                ReservedWords.verifyReservedWordsNotPresent(constantName);
+            }
         }
 
         final String declaredByMetadataId = PhysicalTypeIdentifier
                 .createIdentifier(name,
                         pathResolver.getFocusedPath(Path.SRC_MAIN_JAVA));
-        typeManagementService.addEnumConstant(declaredByMetadataId, fieldName);
+        typeManagementService.addEnumConstants(declaredByMetadataId,
+                constantNames);
     }
 
     @Override
@@ -19,7 +19,7 @@ public class HintCommands implements CommandMarker {
 
     @Reference private HintOperations hintOperations;
 
-    @CliCommand(value = "hint", help = "Provides step-by-step hints and context-sensitive guidance")
+    @CliCommand(value = "hint", help = "Provides step-by-step hints and context-sensitive guidance", readOnly = true)
     public String hint(
             @CliOption(key = { "topic", "" }, mandatory = false, unspecifiedDefaultValue = "", optionContext = "disable-string-converter,topics", help = "The topic for which advice should be provided") final String topic) {
 
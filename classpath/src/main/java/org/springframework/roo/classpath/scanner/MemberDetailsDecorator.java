@@ -30,6 +30,9 @@ public interface MemberDetailsDecorator {
      * information) can be executed in any order whatsoever, as they need only
      * look for the expected data and return the same {@link MemberDetails} if
      * it is not found.
+     * <p>
+     * A decorator is not re-invoked with the instance it last returned, so
+     * presented with its own result it should have nothing further to change.
      * 
      * @param requestingClass the fully-qualified class name requesting the
      *            member details (required)
@@ -5,8 +5,10 @@ import static org.springframework.roo.classpath.customdata.CustomDataKeys.EMBEDD
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.apache.commons.lang3.Validate;
@@ -32,6 +34,9 @@ import org.springframework.roo.support.util.CollectionUtils;
 public class MemberDetailsImpl implements MemberDetails {
 
     private final List<MemberHoldingTypeDetails> details = new ArrayList<MemberHoldingTypeDetails>();
+    // Lazily built from the immutable details
+    private volatile List<MethodMetadata> methods;
+    private volatile Map<Object, List<MethodMetadata>> methodsByTag;
 
     /**
      * Constructs a new instance.
@@ -122,22 +127,31 @@ public class MemberDetailsImpl implements MemberDetails {
     }
 
     public List<MethodMetadata> getMethods() {
-        final List<MethodMetadata> result = new ArrayList<MethodMetadata>();
-        for (final MemberHoldingTypeDetails memberHoldingTypeDetails : details) {
-            result.addAll(memberHoldingTypeDetails.getDeclaredMethods());
-        }
-        return result;
+        return new ArrayList<MethodMetadata>(getAllMethods());
     }
 
     public List<MethodMetadata> getMethodsWithTag(final Object tagKey) {
         Validate.notNull(tagKey, "Custom data key required");
-        final List<MethodMetadata> result = new ArrayList<MethodMetadata>();
-        for (final MethodMetadata method : getMethods()) {
-            if (method.getCustomData().keySet().contains(tagKey)) {
-                result.add(method);
+        Map<Object, List<MethodMetadata>> index = methodsByTag;
+        if (index == null) {
+            index = new HashMap<Object, List<MethodMetadata>>();
+            for (final MethodMetadata method : getAllMethods()) {
+                for (final Object key : method.getCustomData().keySet()) {
+                    List<MethodMetadata> taggedMethods = index.get(key);
+                    if (taggedMethods == null) {
+                        taggedMethods = new ArrayList<MethodMetadata>();
+                        index.put(key, taggedMethods);
+                    }
+                    taggedMethods.add(method);
+                }
             }
+            methodsByTag = index;
         }
-        return result;
+        final List<MethodMetadata> taggedMethods = index.get(tagKey);
+        if (taggedMethods == null) {
+            return new ArrayList<MethodMetadata>();
+        }
+        return new ArrayList<MethodMetadata>(taggedMethods);
     }
 
     public MethodMetadata getMostConcreteMethodWithTag(final Object tagKey) {
@@ -198,9 +212,8 @@ public class MemberDetailsImpl implements MemberDetails {
             final AnnotationMetadata annotationMetadata,
             final String requestingMid) {
         for (final MemberHoldingTypeDetails memberHoldingTypeDetails : details) {
-            if (MemberFindingUtils.getAnnotationOfType(
-                    memberHoldingTypeDetails.getAnnotations(),
-                    annotationMetadata.getAnnotationType()) != null) {
+            if (memberHoldingTypeDetails.getAnnotation(annotationMetadata
+                    .getAnnotationType()) != null) {
                 if (memberHoldingTypeDetails.getDeclaredByMetadataId().equals(
                         requestingMid)) {
                     return true;
@@ -209,4 +222,16 @@ public class MemberDetailsImpl implements MemberDetails {
         }
         return false;
     }
+
+    private List<MethodMetadata> getAllMethods() {
+        List<MethodMetadata> allMethods = methods;
+        if (allMethods == null) {
+            allMethods = new ArrayList<MethodMetadata>();
+            for (final MemberHoldingTypeDetails memberHoldingTypeDetails : details) {
+                allMethods.addAll(memberHoldingTypeDetails.getDeclaredMethods());
+            }
+            methods = allMethods;
+        }
+        return allMethods;
+    }
 }
@@ -2,10 +2,17 @@ package org.springframework.roo.classpath.scanner;
 
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
 
+import org.apache.commons.lang3.ObjectUtils;
 import org.apache.commons.lang3.Validate;
 import org.apache.felix.scr.annotations.Component;
 import org.apache.felix.scr.annotations.Reference;
@@ -15,12 +22,17 @@ import org.apache.felix.scr.annotations.ReferenceStrategy;
 import org.apache.felix.scr.annotations.References;
 import org.apache.felix.scr.annotations.Service;
 import org.osgi.service.component.ComponentContext;
+import org.springframework.roo.classpath.customdata.taggers.CustomDataKeyDecorator;
 import org.springframework.roo.classpath.details.ClassOrInterfaceTypeDetails;
+import org.springframework.roo.classpath.details.ItdTypeDetails;
 import org.springframework.roo.classpath.details.MemberHoldingTypeDetails;
 import org.springframework.roo.classpath.itd.ItdMetadataProvider;
 import org.springframework.roo.classpath.itd.ItdTypeDetailsProvidingMetadataItem;
+import org.springframework.roo.metadata.Fingerprint;
+import org.springframework.roo.metadata.MetadataDependencyRegistry;
 import org.springframework.roo.metadata.MetadataIdentificationUtils;
 import org.springframework.roo.metadata.MetadataItem;
+import org.springframework.roo.metadata.MetadataNotificationListener;
 import org.springframework.roo.metadata.MetadataProvider;
 import org.springframework.roo.metadata.MetadataService;
 
@@ -37,6 +49,14 @@ import org.springframework.roo.metadata.MetadataService;
  * the metadata infrastructure does not require special type naming approaches
  * to be employed. The ordering behaviour exists solely to simplify debugging
  * for add-on developers and log comparison between invocations.
+ * <p>
+ * The result for each requesting class and governor is cached until the
+ * {@link MetadataDependencyRegistry} reports a change to any of the physical
+ * types or ITDs it was built from, or the decorators, their matchers or the
+ * metadata providers change. Because such notifications reach this listener
+ * only after the downstream metadata has been rebuilt, a cached result is also
+ * only returned if the fingerprints of those types and ITDs are still the
+ * same; this check does not visit the metadata providers again.
  * 
  * @author Ben Alex
  * @since 1.1
@@ -46,7 +66,34 @@ import org.springframework.roo.metadata.MetadataService;
 @References(value = {
         @Reference(name = "memberHoldingDecorator", strategy = ReferenceStrategy.EVENT, policy = ReferencePolicy.DYNAMIC, referenceInterface = MemberDetailsDecorator.class, cardinality = ReferenceCardinality.OPTIONAL_MULTIPLE),
         @Reference(name = "metadataProvider", strategy = ReferenceStrategy.EVENT, policy = ReferencePolicy.DYNAMIC, referenceInterface = MetadataProvider.class, cardinality = ReferenceCardinality.OPTIONAL_MULTIPLE) })
-public class MemberDetailsScannerImpl implements MemberDetailsScanner {
+public class MemberDetailsScannerImpl implements MemberDetailsScanner,
+        MetadataNotificationListener {
+
+    /**
+     * A cached {@link MemberDetails}, with the fingerprints of what it was
+     * built from
+     */
+    private static class CacheEntry {
+        final Map<String, Fingerprint> itds;
+        final List<Object> matchersVersions;
+        final MemberDetails memberDetails;
+        final Map<String, Fingerprint> types;
+
+        CacheEntry(final Map<String, Fingerprint> types,
+                final Map<String, Fingerprint> itds,
+                final List<Object> matchersVersions,
+                final MemberDetails memberDetails) {
+            this.itds = itds;
+            this.matchersVersions = matchersVersions;
+            this.memberDetails = memberDetails;
+            this.types = types;
+        }
+    }
+
+    /** key: requesting class and governor; value: cached result */
+    private final Map<String, CacheEntry> cache = new HashMap<String, CacheEntry>();
+    /** key: contributing metadata ID; value: keys of the cache entries */
+    private final Map<String, Set<String>> cacheKeysByContributor = new HashMap<String, Set<String>>();
 
     private final SortedSet<MemberDetailsDecorator> decorators = new TreeSet<MemberDetailsDecorator>(
             new Comparator<MemberDetailsDecorator>() {
@@ -60,6 +107,7 @@ public class MemberDetailsScannerImpl implements MemberDetailsScanner {
     // Mutex
     private final Object lock = new Object();
 
+    @Reference protected MetadataDependencyRegistry metadataDependencyRegistry;
     @Reference protected MetadataService metadataService;
 
     private final SortedSet<MetadataProvider> providers = new TreeSet<MetadataProvider>(
@@ -71,10 +119,15 @@ public class MemberDetailsScannerImpl implements MemberDetailsScanner {
                 }
             });
 
+    protected void activate(final ComponentContext componentContext) {
+        metadataDependencyRegistry.addNotificationListener(this);
+    }
+
     protected void bindMemberHoldingDecorator(
             final MemberDetailsDecorator decorator) {
         synchronized (lock) {
             decorators.add(decorator);
+            clearCache();
         }
     }
 
@@ -87,90 +140,51 @@ public class MemberDetailsScannerImpl implements MemberDetailsScanner {
                     "Metadata provider '%s' violated interface contract by returning '%s'",
                     mp, mid);
             providers.add(mp);
+            clearCache();
         }
     }
 
     protected void deactivate(final ComponentContext componentContext) {
-        // Empty
+        metadataDependencyRegistry.removeNotificationListener(this);
+        synchronized (lock) {
+            clearCache();
+        }
     }
 
     public final MemberDetails getMemberDetails(final String requestingClass,
-            ClassOrInterfaceTypeDetails cid) {
+            final ClassOrInterfaceTypeDetails cid) {
         if (cid == null) {
             return null;
         }
         synchronized (lock) {
-            // Create a list of discovered members
-            final List<MemberHoldingTypeDetails> memberHoldingTypeDetails = new ArrayList<MemberHoldingTypeDetails>();
-
-            // Build a List representing the class hierarchy, where the first
-            // element is the absolute superclass
-            final List<ClassOrInterfaceTypeDetails> cidHierarchy = new ArrayList<ClassOrInterfaceTypeDetails>();
-            while (cid != null) {
-                cidHierarchy.add(0, cid); // Note to the top of the list
-                cid = cid.getSuperclass();
+            final String cacheKey = requestingClass + "|"
+                    + cid.getDeclaredByMetadataId();
+            final CacheEntry cached = cache.get(cacheKey);
+            if (cached != null && isCurrent(cached, cid)) {
+                return cached.memberDetails;
             }
 
-            // Now we add this governor, plus all of its superclasses
-            for (final ClassOrInterfaceTypeDetails currentClass : cidHierarchy) {
-                memberHoldingTypeDetails.add(currentClass);
-
-                // Locate all MetadataProvider instances that provide ITDs and
-                // thus MemberHoldingTypeDetails information
-                for (final MetadataProvider mp : providers) {
-                    // Skip non-ITD providers
-                    if (!(mp instanceof ItdMetadataProvider)) {
-                        continue;
-                    }
-
-                    // Skip myself
-                    if (mp.getClass().getName().equals(requestingClass)) {
-                        continue;
-                    }
-
-                    // Determine the key the ITD provider uses for this
-                    // particular type
-                    final String key = ((ItdMetadataProvider) mp)
-                            .getIdForPhysicalJavaType(currentClass
-                                    .getDeclaredByMetadataId());
-                    Validate.isTrue(
-                            MetadataIdentificationUtils
-                                    .isIdentifyingInstance(key),
-                            "ITD metadata provider '%s' returned an illegal key ('%s')",
-                            mp, key);
-
-                    // Get the metadata and ensure we have ITD type details
-                    // available
-                    final MetadataItem metadataItem = metadataService.get(key);
-                    if (metadataItem == null || !metadataItem.isValid()) {
-                        continue;
-                    }
-                    Validate.isInstanceOf(
-                            ItdTypeDetailsProvidingMetadataItem.class,
-                            metadataItem,
-                            "ITD metadata provider '%s' failed to return the correct metadata type",
-                            mp);
-                    final ItdTypeDetailsProvidingMetadataItem itdTypeDetailsMd = (ItdTypeDetailsProvidingMetadataItem) metadataItem;
-                    if (itdTypeDetailsMd.getMemberHoldingTypeDetails() == null) {
-                        continue;
-                    }
-
-                    // Capture the member details
-                    memberHoldingTypeDetails.add(itdTypeDetailsMd
-                            .getMemberHoldingTypeDetails());
-                }
-            }
+            // Discover the members, and what they were obtained from
+            final Map<String, Fingerprint> types = new LinkedHashMap<String, Fingerprint>();
+            final Map<String, Fingerprint> itds = new LinkedHashMap<String, Fingerprint>();
+            final List<MemberHoldingTypeDetails> memberHoldingTypeDetails = getMemberHoldingTypeDetails(
+                    requestingClass, cid, types, itds);
 
             // Turn out list of discovered members into a result
             MemberDetails result = new MemberDetailsImpl(
                     memberHoldingTypeDetails);
 
             // Loop until such time as we complete a full loop where no changes
-            // are made to the result
+            // are made to the result; a decorator isn't presented with the
+            // very result it last returned, as it would return it unchanged
+            final Map<MemberDetailsDecorator, MemberDetails> lastResults = new HashMap<MemberDetailsDecorator, MemberDetails>();
             boolean additionalLoopRequired = true;
             while (additionalLoopRequired) {
                 additionalLoopRequired = false;
                 for (final MemberDetailsDecorator decorator : decorators) {
+                    if (lastResults.get(decorator) == result) {
+                        continue;
+                    }
                     final MemberDetails newResult = decorator.decorate(
                             requestingClass, result);
                     Validate.isTrue(newResult != null,
@@ -180,17 +194,51 @@ public class MemberDetailsScannerImpl implements MemberDetailsScanner {
                         additionalLoopRequired = true;
                     }
                     result = newResult;
+                    lastResults.put(decorator, result);
                 }
             }
 
+            cache.put(cacheKey, new CacheEntry(types, itds,
+                    getMatchersVersions(), result));
+            final Set<String> contributors = new HashSet<String>(
+                    types.keySet());
+            contributors.addAll(itds.keySet());
+            for (final String contributor : contributors) {
+                Set<String> cacheKeys = cacheKeysByContributor.get(contributor);
+                if (cacheKeys == null) {
+                    cacheKeys = new HashSet<String>();
+                    cacheKeysByContributor.put(contributor, cacheKeys);
+                }
+                cacheKeys.add(cacheKey);
+            }
             return result;
         }
     }
 
+    public void notify(final String upstreamDependency,
+            final String downstreamDependency) {
+        synchronized (lock) {
+            if (MetadataIdentificationUtils
+                    .isIdentifyingClass(upstreamDependency)) {
+                // Could affect any instance of that class
+                clearCache();
+                return;
+            }
+            final Set<String> cacheKeys = cacheKeysByContributor
+                    .remove(upstreamDependency);
+            if (cacheKeys != null) {
+                for (final String cacheKey : cacheKeys) {
+                    cache.remove(cacheKey);
+                }
+            }
+        }
+    }
+
     protected void unbindMemberHoldingDecorator(
             final MemberDetailsDecorator decorator) {
         synchronized (lock) {
             decorators.remove(decorator);
+            clearCache();
         }
     }
 
@@ -198,6 +246,170 @@ public class MemberDetailsScannerImpl implements MemberDetailsScanner {
         synchronized (lock) {
             Validate.notNull(mp, "Metadata provider required");
             providers.remove(mp);
+            clearCache();
+        }
+    }
+
+    private void clearCache() {
+        cache.clear();
+        cacheKeysByContributor.clear();
+    }
+
+    /**
+     * Returns the ITD type details provided by the given metadata item
+     * 
+     * @param metadataItem the item to query (can be <code>null</code>)
+     * @param provider the provider of that item, for use in error messages
+     * @return <code>null</code> if the item is <code>null</code>, invalid, or
+     *         provides no ITD
+     */
+    private ItdTypeDetails getItdTypeDetails(final MetadataItem metadataItem,
+            final Object provider) {
+        if (metadataItem == null || !metadataItem.isValid()) {
+            return null;
+        }
+        Validate.isInstanceOf(
+                ItdTypeDetailsProvidingMetadataItem.class,
+                metadataItem,
+                "ITD metadata provider '%s' failed to return the correct metadata type",
+                provider);
+        return ((ItdTypeDetailsProvidingMetadataItem) metadataItem)
+                .getMemberHoldingTypeDetails();
+    }
+
+    /**
+     * Returns the current state of each decorator's matchers, in the order in
+     * which the decorators are invoked
+     * 
+     * @return a non-<code>null</code> list, containing <code>null</code> for
+     *         each decorator that has no matchers
+     */
+    private List<Object> getMatchersVersions() {
+        final List<Object> matchersVersions = new ArrayList<Object>();
+        for (final MemberDetailsDecorator decorator : decorators) {
+            if (decorator instanceof CustomDataKeyDecorator) {
+                matchersVersions.add(((CustomDataKeyDecorator) decorator)
+                        .getMatchersVersion());
+            }
+            else {
+                matchersVersions.add(null);
+            }
+        }
+        return matchersVersions;
+    }
+
+    /**
+     * Returns the given governor, its superclasses, and the ITDs introduced
+     * into each of them, with the absolute superclass first.
+     * 
+     * @param requestingClass the class whose own ITDs are to be excluded
+     * @param cid the governor (required)
+     * @param types the map to which to add the metadata ID and fingerprint of
+     *            each type consulted
+     * @param itds the map to which to add the metadata ID and fingerprint of
+     *            each ITD consulted (<code>null</code> for an ITD that is not
+     *            available)
+     * @return a non-<code>null</code> list
+     */
+    private List<MemberHoldingTypeDetails> getMemberHoldingTypeDetails(
+            final String requestingClass,
+            final ClassOrInterfaceTypeDetails cid,
+            final Map<String, Fingerprint> types,
+            final Map<String, Fingerprint> itds) {
+        // Create a list of discovered members
+        final List<MemberHoldingTypeDetails> memberHoldingTypeDetails = new ArrayList<MemberHoldingTypeDetails>();
+
+        // Build a List representing the class hierarchy, where the first
+        // element is the absolute superclass
+        final List<ClassOrInterfaceTypeDetails> cidHierarchy = new ArrayList<ClassOrInterfaceTypeDetails>();
+        ClassOrInterfaceTypeDetails superclass = cid;
+        while (superclass != null) {
+            cidHierarchy.add(0, superclass); // Note to the top of the list
+            superclass = superclass.getSuperclass();
+        }
+
+        // Now we add this governor, plus all of its superclasses
+        for (final ClassOrInterfaceTypeDetails currentClass : cidHierarchy) {
+            memberHoldingTypeDetails.add(currentClass);
+            types.put(currentClass.getDeclaredByMetadataId(),
+                    currentClass.getFingerprint());
+
+            // Locate all MetadataProvider instances that provide ITDs and
+            // thus MemberHoldingTypeDetails information
+            for (final MetadataProvider mp : providers) {
+                // Skip non-ITD providers
+                if (!(mp instanceof ItdMetadataProvider)) {
+                    continue;
+                }
+
+                // Skip myself
+                if (mp.getClass().getName().equals(requestingClass)) {
+                    continue;
+                }
+
+                // Determine the key the ITD provider uses for this
+                // particular type
+                final String key = ((ItdMetadataProvider) mp)
+                        .getIdForPhysicalJavaType(currentClass
+                                .getDeclaredByMetadataId());
+                Validate.isTrue(
+                        MetadataIdentificationUtils.isIdentifyingInstance(key),
+                        "ITD metadata provider '%s' returned an illegal key ('%s')",
+                        mp, key);
+                itds.put(key, null);
+
+                // Get the metadata and ensure we have ITD type details
+                // available
+                final ItdTypeDetails itdTypeDetails = getItdTypeDetails(
+                        metadataService.get(key), mp);
+                if (itdTypeDetails == null) {
+                    continue;
+                }
+
+                // Capture the member details
+                memberHoldingTypeDetails.add(itdTypeDetails);
+                itds.put(key, itdTypeDetails.getFingerprint());
+            }
+        }
+        return memberHoldingTypeDetails;
+    }
+
+    /**
+     * Indicates whether the given cache entry is still current for the given
+     * governor, i.e. whether the same types and ITDs, with the same
+     * fingerprints, and the same matchers would contribute to it now. As the
+     * cache is cleared whenever the providers change, only the ITDs that were
+     * consulted for the entry need to be checked again.
+     * 
+     * @param cached the entry to check (required)
+     * @param cid the governor (required)
+     * @return see above
+     */
+    private boolean isCurrent(final CacheEntry cached,
+            final ClassOrInterfaceTypeDetails cid) {
+        if (!cached.matchersVersions.equals(getMatchersVersions())) {
+            return false;
+        }
+        final Map<String, Fingerprint> types = new HashMap<String, Fingerprint>();
+        ClassOrInterfaceTypeDetails currentClass = cid;
+        while (currentClass != null) {
+            types.put(currentClass.getDeclaredByMetadataId(),
+                    currentClass.getFingerprint());
+            currentClass = currentClass.getSuperclass();
+        }
+        if (!types.equals(cached.types)) {
+            return false;
+        }
+        for (final Entry<String, Fingerprint> itd : cached.itds.entrySet()) {
+            final ItdTypeDetails itdTypeDetails = getItdTypeDetails(
+                    metadataService.get(itd.getKey()),
+                    MetadataIdentificationUtils.getMetadataClass(itd.getKey()));
+            final Fingerprint fingerprint = itdTypeDetails == null ? null
+                    : itdTypeDetails.getFingerprint();
+            if (!ObjectUtils.equals(fingerprint, itd.getValue())) {
+                return false;
+            }
         }
+        return true;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,132 @@
+package org.springframework.roo.classpath;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.roo.classpath.details.ClassOrInterfaceTypeDetails;
+import org.springframework.roo.classpath.details.ClassOrInterfaceTypeDetailsBuilder;
+import org.springframework.roo.classpath.details.FieldMetadata;
+import org.springframework.roo.classpath.details.FieldMetadataBuilder;
+import org.springframework.roo.metadata.MetadataService;
+import org.springframework.roo.model.JavaSymbolName;
+import org.springframework.roo.model.JavaType;
+import org.springframework.roo.process.manager.FileManager;
+import org.springframework.roo.project.LogicalPath;
+import org.springframework.roo.project.Path;
+import org.springframework.roo.project.ProjectOperations;
+
+/**
+ * Unit test of {@link TypeManagementServiceImpl}
+ * 
+ * @since 1.2.5
+ */
+public class TypeManagementServiceImplTest {
+
+    private static final String CANONICAL_PATH = "/no/such/dir/Foo.java";
+    private static final String TYPE_ID = PhysicalTypeIdentifier
+            .createIdentifier(new JavaType("com.example.Foo"),
+                    LogicalPath.getInstance(Path.SRC_MAIN_JAVA, ""));
+
+    @Mock private FileManager mockFileManager;
+    @Mock private MetadataService mockMetadataService;
+    @Mock private PhysicalTypeMetadata mockPhysicalTypeMetadata;
+    @Mock private ProjectOperations mockProjectOperations;
+    @Mock private TypeLocationService mockTypeLocationService;
+    @Mock private TypeParsingService mockTypeParsingService;
+    // Fixture
+    private TypeManagementServiceImpl service;
+
+    private FieldMetadata getField(final String name) {
+        return new FieldMetadataBuilder(TYPE_ID, Modifier.PRIVATE,
+                new JavaSymbolName(name), JavaType.STRING, null).build();
+    }
+
+    /**
+     * Returns the single version of the type that was written to disk
+     * 
+     * @return a non-<code>null</code> type
+     */
+    private ClassOrInterfaceTypeDetails getWrittenType() {
+        final ArgumentCaptor<ClassOrInterfaceTypeDetails> written = ArgumentCaptor
+                .forClass(ClassOrInterfaceTypeDetails.class);
+        verify(mockTypeParsingService, times(1)).getCompilationUnitContents(
+                written.capture());
+        verify(mockFileManager, times(1)).createOrUpdateTextFileIfRequired(
+                anyString(), anyString(), anyBoolean());
+        return written.getValue();
+    }
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        service = new TypeManagementServiceImpl();
+        service.fileManager = mockFileManager;
+        service.metadataService = mockMetadataService;
+        service.projectOperations = mockProjectOperations;
+        service.typeLocationService = mockTypeLocationService;
+        service.typeParsingService = mockTypeParsingService;
+        when(mockMetadataService.get(TYPE_ID)).thenReturn(
+                mockPhysicalTypeMetadata);
+        when(mockTypeLocationService.getPhysicalTypeCanonicalPath(TYPE_ID))
+                .thenReturn(CANONICAL_PATH);
+        when(
+                mockTypeParsingService
+                        .getCompilationUnitContents(any(ClassOrInterfaceTypeDetails.class)))
+                .thenReturn("contents");
+    }
+
+    private void setUpType(final PhysicalTypeCategory category) {
+        final ClassOrInterfaceTypeDetails existing = new ClassOrInterfaceTypeDetailsBuilder(
+                TYPE_ID, Modifier.PUBLIC, new JavaType("com.example.Foo"),
+                category).build();
+        when(mockPhysicalTypeMetadata.getMemberHoldingTypeDetails())
+                .thenReturn(existing);
+    }
+
+    @Test
+    public void testAddEnumConstantsWritesTypeOnce() {
+        // Set up
+        setUpType(PhysicalTypeCategory.ENUMERATION);
+        final List<JavaSymbolName> constants = Arrays.asList(
+                new JavaSymbolName("RED"), new JavaSymbolName("GREEN"),
+                new JavaSymbolName("BLUE"));
+
+        // Invoke
+        service.addEnumConstants(TYPE_ID, constants);
+
+        // Check
+        assertEquals(constants, getWrittenType().getEnumConstants());
+    }
+
+    @Test
+    public void testAddFieldsWritesEachTypeOnce() {
+        // Set up
+        setUpType(PhysicalTypeCategory.CLASS);
+
+        // Invoke
+        service.addFields(Arrays.asList(getField("firstName"),
+                getField("lastName"), getField("email")));
+
+        // Check
+        final List<? extends FieldMetadata> fields = getWrittenType()
+                .getDeclaredFields();
+        assertEquals(3, fields.size());
+        assertEquals("firstName", fields.get(0).getFieldName()
+                .getSymbolName());
+        assertEquals("email", fields.get(2).getFieldName().getSymbolName());
+    }
+}
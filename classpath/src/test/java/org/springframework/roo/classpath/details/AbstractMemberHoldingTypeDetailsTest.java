@@ -0,0 +1,89 @@
+package org.springframework.roo.classpath.details;
+
+import static java.lang.reflect.Modifier.PUBLIC;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.roo.classpath.PhysicalTypeCategory;
+import org.springframework.roo.classpath.details.annotations.AnnotatedJavaType;
+import org.springframework.roo.classpath.itd.InvocableMemberBodyBuilder;
+import org.springframework.roo.model.JavaSymbolName;
+import org.springframework.roo.model.JavaType;
+
+/**
+ * Unit test of the indexed lookups of {@link AbstractMemberHoldingTypeDetails}
+ * 
+ * @since 1.2.5
+ */
+public class AbstractMemberHoldingTypeDetailsTest {
+
+    private static final String DECLARED_BY_MID = "MID:foo#bar";
+    private static final JavaSymbolName NAME = new JavaSymbolName("name");
+    private static final JavaSymbolName SET_NAME = new JavaSymbolName(
+            "setName");
+    private static final String TAG = "tag";
+
+    private AbstractMemberHoldingTypeDetails cid;
+
+    private MethodMetadataBuilder getMethod(final JavaType... parameterTypes) {
+        return new MethodMetadataBuilder(DECLARED_BY_MID, PUBLIC, SET_NAME,
+                JavaType.VOID_PRIMITIVE,
+                AnnotatedJavaType.convertFromJavaTypes(parameterTypes),
+                Collections.<JavaSymbolName> nCopies(parameterTypes.length,
+                        NAME), new InvocableMemberBodyBuilder());
+    }
+
+    @Before
+    public void setUp() {
+        final ClassOrInterfaceTypeDetailsBuilder builder = new ClassOrInterfaceTypeDetailsBuilder(
+                DECLARED_BY_MID, PUBLIC, new JavaType("com.foo.Person"),
+                PhysicalTypeCategory.CLASS);
+        final FieldMetadataBuilder field = new FieldMetadataBuilder(
+                DECLARED_BY_MID, PUBLIC, NAME, JavaType.STRING, null);
+        field.putCustomData(TAG, null);
+        builder.addField(field);
+        builder.addMethod(getMethod());
+        final MethodMetadataBuilder taggedMethod = getMethod(JavaType.STRING);
+        taggedMethod.putCustomData(TAG, null);
+        builder.addMethod(taggedMethod);
+        cid = (AbstractMemberHoldingTypeDetails) builder.build();
+    }
+
+    @Test
+    public void testGetDeclaredField() {
+        assertEquals(NAME, cid.getDeclaredField(NAME).getFieldName());
+        assertNull(cid.getDeclaredField(SET_NAME));
+    }
+
+    @Test
+    public void testGetDeclaredMembersWithTag() {
+        assertEquals(1, cid.getDeclaredFieldsWithTag(TAG).size());
+        assertEquals(1, cid.getDeclaredMethodsWithTag(TAG).size());
+        assertEquals(0, cid.getDeclaredMethodsWithTag("other").size());
+    }
+
+    @Test
+    public void testGetDeclaredMethodByName() {
+        assertTrue(cid.getDeclaredMethod(SET_NAME).getParameterTypes()
+                .isEmpty());
+        assertNull(cid.getDeclaredMethod(NAME));
+    }
+
+    @Test
+    public void testGetDeclaredMethodBySignature() {
+        assertEquals(
+                1,
+                cid.getDeclaredMethod(SET_NAME, Arrays.asList(JavaType.STRING))
+                        .getParameterTypes().size());
+        assertEquals(0, cid.getDeclaredMethod(SET_NAME, null)
+                .getParameterTypes().size());
+        assertNull(cid.getDeclaredMethod(SET_NAME,
+                Arrays.asList(JavaType.LONG_OBJECT)));
+    }
+}
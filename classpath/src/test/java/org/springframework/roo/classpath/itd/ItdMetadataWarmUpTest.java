@@ -0,0 +1,128 @@
+package org.springframework.roo.classpath.itd;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.springframework.roo.classpath.TypeLocationService;
+import org.springframework.roo.classpath.details.ClassOrInterfaceTypeDetails;
+import org.springframework.roo.metadata.MetadataService;
+import org.springframework.roo.model.JavaType;
+import org.springframework.roo.process.manager.CommandCallback;
+import org.springframework.roo.process.manager.ProcessManager;
+import org.springframework.roo.process.manager.event.ProcessManagerStatus;
+import org.springframework.roo.project.ProjectOperations;
+import org.springframework.roo.project.maven.Pom;
+
+/**
+ * Unit test of {@link ItdMetadataWarmUp}
+ * 
+ * @since 1.2.5
+ */
+public class ItdMetadataWarmUpTest {
+
+    private static final String GOVERNOR_ID = "MID:org.springframework.roo.classpath.PhysicalTypeIdentifier#SRC_MAIN_JAVA?com.example.Pet";
+    private static final String ITD_ID = "MID:com.example.ItdMetadata#SRC_MAIN_JAVA?com.example.Pet";
+    private static final JavaType PET = new JavaType("com.example.Pet");
+    private static final long TIMEOUT = 5000;
+
+    // Fixture
+    @Mock private ClassOrInterfaceTypeDetails mockGovernor;
+    @Mock private MetadataService mockMetadataService;
+    @Mock private Pom mockModule;
+    @Mock private ProcessManager mockProcessManager;
+    @Mock private ProjectOperations mockProjectOperations;
+    @Mock private ItdMetadataProvider mockProvider;
+    @Mock private TypeLocationService mockTypeLocationService;
+    private ItdMetadataWarmUp warmUp;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        when(mockProcessManager.getProcessManagerStatus()).thenReturn(
+                ProcessManagerStatus.AVAILABLE);
+        when(mockProjectOperations.getPoms()).thenReturn(
+                Arrays.asList(mockModule));
+        when(mockTypeLocationService.getTypesForModule(mockModule))
+                .thenReturn(Arrays.asList(PET));
+        when(mockTypeLocationService.getTypeDetails(PET)).thenReturn(
+                mockGovernor);
+        when(mockGovernor.getDeclaredByMetadataId()).thenReturn(GOVERNOR_ID);
+        when(mockProvider.getIdForPhysicalJavaType(GOVERNOR_ID)).thenReturn(
+                ITD_ID);
+
+        warmUp = new ItdMetadataWarmUp();
+        warmUp.metadataService = mockMetadataService;
+        warmUp.processManager = mockProcessManager;
+        warmUp.projectOperations = mockProjectOperations;
+        warmUp.typeLocationService = mockTypeLocationService;
+        warmUp.bindMetadataProvider(mockProvider);
+    }
+
+    @After
+    public void tearDown() {
+        System.clearProperty(ItdMetadataWarmUp.ENABLED_PROPERTY);
+    }
+
+    @Test
+    public void testDeactivationInterruptsAWaitingWarmUp() throws Exception {
+        // Set up
+        when(mockProcessManager.executeIfIdle(any(CommandCallback.class)))
+                .thenReturn(false);
+        warmUp.activate(null);
+        verify(mockProcessManager, timeout(TIMEOUT)).executeIfIdle(
+                any(CommandCallback.class));
+
+        // Invoke
+        warmUp.deactivate(null);
+
+        // Check; it would otherwise sleep for a second before it stops
+        warmUp.thread.join(500);
+        assertFalse(warmUp.thread.isAlive());
+    }
+
+    @Test
+    public void testWarmUpCanBeDisabled() {
+        // Set up
+        System.setProperty(ItdMetadataWarmUp.ENABLED_PROPERTY, "false");
+
+        // Invoke
+        warmUp.activate(null);
+
+        // Check
+        assertNull(warmUp.thread);
+    }
+
+    @Test
+    public void testWarmUpGetsTheItdMetadataOfEachGovernor() {
+        // Set up
+        when(mockProcessManager.executeIfIdle(any(CommandCallback.class)))
+                .thenAnswer(new Answer<Boolean>() {
+                    public Boolean answer(final InvocationOnMock invocation)
+                            throws Exception {
+                        ((CommandCallback<?>) invocation.getArguments()[0])
+                                .callback();
+                        return true;
+                    }
+                });
+
+        // Invoke
+        warmUp.activate(null);
+
+        // Check
+        verify(mockMetadataService, timeout(TIMEOUT)).get(GOVERNOR_ID);
+        verify(mockMetadataService, timeout(TIMEOUT)).get(ITD_ID);
+    }
+}
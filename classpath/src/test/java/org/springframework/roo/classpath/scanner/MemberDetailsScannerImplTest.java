@@ -0,0 +1,159 @@
+package org.springframework.roo.classpath.scanner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.springframework.roo.classpath.customdata.taggers.CustomDataKeyDecorator;
+import org.springframework.roo.classpath.details.ClassOrInterfaceTypeDetails;
+import org.springframework.roo.classpath.details.ItdTypeDetails;
+import org.springframework.roo.classpath.itd.ItdMetadataProvider;
+import org.springframework.roo.classpath.itd.ItdTypeDetailsProvidingMetadataItem;
+import org.springframework.roo.metadata.Fingerprint;
+import org.springframework.roo.metadata.MetadataDependencyRegistry;
+import org.springframework.roo.metadata.MetadataService;
+
+/**
+ * Unit test of {@link MemberDetailsScannerImpl}
+ * 
+ * @since 1.2.5
+ */
+public class MemberDetailsScannerImplTest {
+
+    private static final String GOVERNOR_ID = "MID:org.springframework.roo.classpath.PhysicalTypeIdentifier#SRC_MAIN_JAVA?com.example.Pet";
+    private static final String ITD_ID = "MID:com.example.ItdMetadata#SRC_MAIN_JAVA?com.example.Pet";
+    private static final String PROVIDER_CLASS_ID = "MID:com.example.ItdMetadata";
+    private static final String REQUESTING_CLASS = "com.example.Requester";
+
+    // Fixture
+    @Mock private CustomDataKeyDecorator mockDecorator;
+    @Mock private ClassOrInterfaceTypeDetails mockGovernor;
+    @Mock private ItdTypeDetails mockItd;
+    @Mock private ItdTypeDetailsProvidingMetadataItem mockItdMetadata;
+    @Mock private MetadataDependencyRegistry mockMetadataDependencyRegistry;
+    @Mock private MetadataService mockMetadataService;
+    @Mock private ItdMetadataProvider mockProvider;
+    private MemberDetailsScannerImpl scanner;
+
+    private MemberDetails getMemberDetails() {
+        return scanner.getMemberDetails(REQUESTING_CLASS, mockGovernor);
+    }
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        when(mockGovernor.getDeclaredByMetadataId()).thenReturn(GOVERNOR_ID);
+        when(mockGovernor.getFingerprint()).thenReturn(
+                Fingerprint.of("governor"));
+        when(mockProvider.getProvidesType()).thenReturn(PROVIDER_CLASS_ID);
+        when(mockProvider.getIdForPhysicalJavaType(GOVERNOR_ID)).thenReturn(
+                ITD_ID);
+        when(mockMetadataService.get(ITD_ID)).thenReturn(mockItdMetadata);
+        when(mockItdMetadata.isValid()).thenReturn(true);
+        when(mockItdMetadata.getMemberHoldingTypeDetails()).thenReturn(
+                mockItd);
+        when(mockItd.getFingerprint()).thenReturn(Fingerprint.of("itd"));
+        when(mockDecorator.getMatchersVersion()).thenReturn("matchers");
+        when(mockDecorator.decorate(anyString(), any(MemberDetails.class)))
+                .thenAnswer(new Answer<MemberDetails>() {
+                    public MemberDetails answer(
+                            final InvocationOnMock invocation) {
+                        return (MemberDetails) invocation.getArguments()[1];
+                    }
+                });
+
+        scanner = new MemberDetailsScannerImpl();
+        scanner.metadataDependencyRegistry = mockMetadataDependencyRegistry;
+        scanner.metadataService = mockMetadataService;
+        scanner.bindMetadataProvider(mockProvider);
+        scanner.bindMemberHoldingDecorator(mockDecorator);
+    }
+
+    @Test
+    public void testCacheHitDoesNotRevisitTheProviders() {
+        // Set up
+        final MemberDetails first = getMemberDetails();
+
+        // Invoke
+        final MemberDetails second = getMemberDetails();
+
+        // Check
+        assertSame(first, second);
+        assertEquals(Arrays.asList(mockGovernor, mockItd),
+                second.getDetails());
+        verify(mockProvider, times(1)).getIdForPhysicalJavaType(GOVERNOR_ID);
+        verify(mockDecorator, times(1)).decorate(anyString(),
+                any(MemberDetails.class));
+    }
+
+    @Test
+    public void testChangedFingerprintIsNotServedFromTheCache() {
+        // Set up
+        getMemberDetails();
+        when(mockItd.getFingerprint()).thenReturn(Fingerprint.of("new itd"));
+
+        // Invoke
+        getMemberDetails();
+
+        // Check
+        verify(mockDecorator, times(2)).decorate(anyString(),
+                any(MemberDetails.class));
+    }
+
+    @Test
+    public void testChangedMatchersInvalidateTheCache() {
+        // Set up
+        getMemberDetails();
+        when(mockDecorator.getMatchersVersion()).thenReturn("new matchers");
+
+        // Invoke
+        getMemberDetails();
+
+        // Check
+        verify(mockDecorator, times(2)).decorate(anyString(),
+                any(MemberDetails.class));
+    }
+
+    @Test
+    public void testDecoratorChangeClearsTheCache() {
+        // Set up
+        getMemberDetails();
+        scanner.unbindMemberHoldingDecorator(mockDecorator);
+        scanner.bindMemberHoldingDecorator(mockDecorator);
+
+        // Invoke
+        getMemberDetails();
+
+        // Check
+        verify(mockProvider, times(2)).getIdForPhysicalJavaType(GOVERNOR_ID);
+        verify(mockDecorator, times(2)).decorate(anyString(),
+                any(MemberDetails.class));
+    }
+
+    @Test
+    public void testNotificationInvalidatesTheEntriesOfTheContributor() {
+        // Set up
+        getMemberDetails();
+
+        // Invoke
+        scanner.notify(ITD_ID, null);
+        getMemberDetails();
+
+        // Check
+        verify(mockProvider, times(2)).getIdForPhysicalJavaType(GOVERNOR_ID);
+        verify(mockDecorator, times(2)).decorate(anyString(),
+                any(MemberDetails.class));
+    }
+}
@@ -1,5 +1,6 @@
 package org.springframework.roo.felix.pgp;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
@@ -8,12 +9,17 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.security.Security;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Properties;
 import java.util.SortedMap;
 import java.util.SortedSet;
 import java.util.TreeMap;
@@ -50,6 +56,12 @@ import org.springframework.roo.url.stream.UrlInputStreamService;
  * <code>~/.spring_roo_pgp.bpg<code> file. Every key in this
  * file is considered trusted by the user. Expiration times of keys are ignored. Default keys that
  * ship with Roo are added to this file automatically when the file is not present on disk.
+ * The file is decoded once and kept in memory until it is modified.
+ * 
+ * <p>
+ * The outcome of verifying a resource against its signature is recorded in
+ * <code>~/.spring_roo_pgp_verifications.properties</code>, keyed by the SHA-256
+ * digests of both, so unchanged resources are not verified again.
  * 
  * <p>
  * This implementation will only verify "detached armored signatures". Produce such a file via
@@ -62,13 +74,15 @@ import org.springframework.roo.url.stream.UrlInputStreamService;
 @Service
 public class PgpServiceImpl implements PgpService {
 
-    private static final int BUFFER_SIZE = 1024;
     private static String defaultKeyServerUrl = "http://keyserver.ubuntu.com/pks/lookup?op=get&search=";
     // private static String defaultKeyServerUrl =
     // "http://pgp.mit.edu/pks/lookup?op=get&search=";
 
     private static final File ROO_PGP_FILE = FileUtils.getFile(
             FileUtils.getUserDirectory(), ".spring_roo_pgp.bpg");
+    private static final File ROO_PGP_VERIFICATIONS_FILE = FileUtils.getFile(
+            FileUtils.getUserDirectory(),
+            ".spring_roo_pgp_verifications.properties");
 
     static {
         Security.addProvider(new BouncyCastleProvider());
@@ -77,6 +91,10 @@ public class PgpServiceImpl implements PgpService {
     private boolean automaticTrust;
     private BundleContext context;
     private final SortedSet<PgpKeyId> discoveredKeyIds = new TreeSet<PgpKeyId>();
+    private final Map<PgpKeyId, PGPPublicKeyRing> trustedKeys = new LinkedHashMap<PgpKeyId, PGPPublicKeyRing>();
+    private long trustedKeysLastModified = -1;
+    private long trustedKeysLength = -1;
+    private Properties verifications;
     @Reference private UrlInputStreamService urlInputStreamService;
 
     public SortedSet<PgpKeyId> getDiscoveredKeyIds() {
@@ -131,7 +149,7 @@ public class PgpServiceImpl implements PgpService {
         InputStream in = null;
         try {
             final URL lookup = getKeyServerUrlToRetrieveKeyId(keyId);
-            in = urlInputStreamService.openConnection(lookup);
+            in = urlInputStreamService.openConnection(lookup, true);
             return getPublicKey(in);
         }
         catch (final Exception e) {
@@ -143,33 +161,9 @@ public class PgpServiceImpl implements PgpService {
         }
     }
 
-    @SuppressWarnings("unchecked")
-    public List<PGPPublicKeyRing> getTrustedKeys() {
-        if (!ROO_PGP_FILE.exists()) {
-            return new ArrayList<PGPPublicKeyRing>();
-        }
-        FileInputStream fis = null;
-        try {
-            fis = new FileInputStream(ROO_PGP_FILE);
-            final PGPPublicKeyRingCollection pubRings = new PGPPublicKeyRingCollection(
-                    PGPUtil.getDecoderStream(fis));
-            final Iterator<PGPPublicKeyRing> rIt = pubRings.getKeyRings();
-            final List<PGPPublicKeyRing> result = new ArrayList<PGPPublicKeyRing>();
-            while (rIt.hasNext()) {
-                final PGPPublicKeyRing pgpPub = rIt.next();
-                rememberKey(pgpPub);
-                result.add(pgpPub);
-            }
-            return result;
-        }
-        catch (final Exception e) {
-            throw new IllegalArgumentException(
-                    "Unable to get trusted keys",
-                    ObjectUtils.defaultIfNull(ExceptionUtils.getRootCause(e), e));
-        }
-        finally {
-            IOUtils.closeQuietly(fis);
-        }
+    public synchronized List<PGPPublicKeyRing> getTrustedKeys() {
+        loadTrustedKeysIfRequired();
+        return new ArrayList<PGPPublicKeyRing>(trustedKeys.values());
     }
 
     public boolean isAutomaticTrust() {
@@ -177,18 +171,37 @@ public class PgpServiceImpl implements PgpService {
     }
 
     public boolean isResourceSignedBySignature(final InputStream resource,
-            InputStream signature) {
+            final InputStream signature) {
         PGPPublicKey publicKey = null;
         PGPSignature pgpSignature = null;
 
         try {
-            if (!(signature instanceof ArmoredInputStream)) {
-                signature = new ArmoredInputStream(signature);
+            // Both streams are only read once, so keep their content to
+            // verify it after consulting the verification cache
+            final boolean armored = signature instanceof ArmoredInputStream;
+            final byte[] signatureBytes = IOUtils.toByteArray(signature);
+            final byte[] resourceBytes = IOUtils.toByteArray(resource);
+            final String verificationKey = sha256(resourceBytes) + ":"
+                    + sha256(signatureBytes);
+            final String verified = getVerifications().getProperty(
+                    verificationKey);
+            if (verified != null) {
+                return Boolean.valueOf(verified);
+            }
+
+            InputStream signatureStream = new ByteArrayInputStream(
+                    signatureBytes);
+            if (!armored) {
+                signatureStream = new ArmoredInputStream(signatureStream);
             }
 
-            pgpSignature = isSignatureAcceptable(signature).getPgpSignature();
-            final PGPPublicKeyRing keyRing = getPublicKey(new PgpKeyId(
-                    pgpSignature));
+            pgpSignature = isSignatureAcceptable(signatureStream)
+                    .getPgpSignature();
+            final PgpKeyId keyId = new PgpKeyId(pgpSignature);
+            PGPPublicKeyRing keyRing = getTrustedKey(keyId);
+            if (keyRing == null) {
+                keyRing = getPublicKey(keyId);
+            }
             rememberKey(keyRing);
             publicKey = keyRing.getPublicKey();
 
@@ -199,16 +212,10 @@ public class PgpServiceImpl implements PgpService {
             pgpSignature.initVerify(publicKey, "BC");
 
             // Now verify the signed content
-            final byte[] buff = new byte[BUFFER_SIZE];
-            int chunk;
-            do {
-                chunk = resource.read(buff);
-                if (chunk > 0) {
-                    pgpSignature.update(buff, 0, chunk);
-                }
-            } while (chunk >= 0);
-
-            return pgpSignature.verify();
+            pgpSignature.update(resourceBytes);
+            final boolean result = pgpSignature.verify();
+            rememberVerification(verificationKey, result);
+            return result;
         }
         catch (final Exception e) {
             throw new IllegalStateException(e);
@@ -248,16 +255,8 @@ public class PgpServiceImpl implements PgpService {
         // valid
         discoveredKeyIds.add(keyIdInHex);
 
-        boolean signatureAcceptable = false;
-
-        // Loop to see if the user trusts this key
-        for (final PGPPublicKeyRing keyRing : getTrustedKeys()) {
-            final PgpKeyId candidate = new PgpKeyId(keyRing.getPublicKey());
-            if (candidate.equals(keyIdInHex)) {
-                signatureAcceptable = true;
-                break;
-            }
-        }
+        // See if the user trusts this key
+        boolean signatureAcceptable = getTrustedKey(keyIdInHex) != null;
 
         if (!signatureAcceptable && automaticTrust) {
             // We don't approve of this signature, but the user has told us it's
@@ -307,19 +306,7 @@ public class PgpServiceImpl implements PgpService {
         }
 
         // Write back to disk
-        OutputStream fos = null;
-        try {
-            final PGPPublicKeyRingCollection newCollection = new PGPPublicKeyRingCollection(
-                    stillTrusted);
-            fos = new FileOutputStream(ROO_PGP_FILE);
-            newCollection.encode(fos);
-        }
-        catch (final Exception e) {
-            throw new IllegalStateException(e);
-        }
-        finally {
-            IOUtils.closeQuietly(fos);
-        }
+        storeTrustedKeys(stillTrusted);
 
         return result;
     }
@@ -368,19 +355,7 @@ public class PgpServiceImpl implements PgpService {
                 "The public key ID '%s' is not currently trusted", keyId);
 
         // Write back to disk
-        OutputStream fos = null;
-        try {
-            final PGPPublicKeyRingCollection newCollection = new PGPPublicKeyRingCollection(
-                    stillTrusted);
-            fos = new FileOutputStream(ROO_PGP_FILE);
-            newCollection.encode(fos);
-        }
-        catch (final Exception e) {
-            throw new IllegalStateException(e);
-        }
-        finally {
-            IOUtils.closeQuietly(fos);
-        }
+        storeTrustedKeys(stillTrusted);
         return removed;
     }
 
@@ -419,6 +394,91 @@ public class PgpServiceImpl implements PgpService {
         }
     }
 
+    /**
+     * Returns the trusted key ring whose master key has the given ID.
+     * 
+     * @param keyId the key ID to look up (required)
+     * @return null if the key is not trusted
+     */
+    private synchronized PGPPublicKeyRing getTrustedKey(final PgpKeyId keyId) {
+        loadTrustedKeysIfRequired();
+        return trustedKeys.get(keyId);
+    }
+
+    /**
+     * Returns the outcomes of previous signature verifications, keyed by the
+     * SHA-256 digests of the resource and its signature. The signature of an
+     * unchanged resource does not need to be verified again.
+     * 
+     * @return the verification outcomes, "true" or "false" (never null)
+     */
+    private synchronized Properties getVerifications() {
+        if (verifications == null) {
+            verifications = new Properties();
+            if (ROO_PGP_VERIFICATIONS_FILE.exists()) {
+                InputStream in = null;
+                try {
+                    in = new FileInputStream(ROO_PGP_VERIFICATIONS_FILE);
+                    verifications.load(in);
+                }
+                catch (final IOException ignored) {
+                    // Start afresh; the cache is only an optimisation
+                    verifications.clear();
+                }
+                finally {
+                    IOUtils.closeQuietly(in);
+                }
+            }
+        }
+        return verifications;
+    }
+
+    /**
+     * Decodes the trusted keys file into memory, unless it is unchanged since
+     * it was last read.
+     */
+    @SuppressWarnings("unchecked")
+    private synchronized void loadTrustedKeysIfRequired() {
+        if (!ROO_PGP_FILE.exists()) {
+            trustedKeys.clear();
+            trustedKeysLastModified = -1;
+            trustedKeysLength = -1;
+            return;
+        }
+        if (ROO_PGP_FILE.lastModified() == trustedKeysLastModified
+                && ROO_PGP_FILE.length() == trustedKeysLength) {
+            return;
+        }
+
+        FileInputStream fis = null;
+        try {
+            final long lastModified = ROO_PGP_FILE.lastModified();
+            final long length = ROO_PGP_FILE.length();
+            fis = new FileInputStream(ROO_PGP_FILE);
+            final PGPPublicKeyRingCollection pubRings = new PGPPublicKeyRingCollection(
+                    PGPUtil.getDecoderStream(fis));
+            final Iterator<PGPPublicKeyRing> rIt = pubRings.getKeyRings();
+            trustedKeys.clear();
+            while (rIt.hasNext()) {
+                final PGPPublicKeyRing pgpPub = rIt.next();
+                rememberKey(pgpPub);
+                trustedKeys.put(new PgpKeyId(pgpPub.getPublicKey()), pgpPub);
+            }
+            trustedKeysLastModified = lastModified;
+            trustedKeysLength = length;
+        }
+        catch (final Exception e) {
+            trustedKeys.clear();
+            trustedKeysLastModified = -1;
+            throw new IllegalArgumentException(
+                    "Unable to get trusted keys",
+                    ObjectUtils.defaultIfNull(ExceptionUtils.getRootCause(e), e));
+        }
+        finally {
+            IOUtils.closeQuietly(fis);
+        }
+    }
+
     /**
      * Simply stores the key ID in {@link #discoveredKeyIds} for future
      * reference of all Key IDs we've come across. This method uses a
@@ -450,24 +510,44 @@ public class PgpServiceImpl implements PgpService {
         }
     }
 
-    private PGPPublicKeyRing trust(final PGPPublicKeyRing keyRing) {
-        rememberKey(keyRing);
-
-        // Get the keys we currently trust
-        final List<PGPPublicKeyRing> trusted = getTrustedKeys();
+    private synchronized void rememberVerification(
+            final String verificationKey, final boolean verified) {
+        getVerifications().setProperty(verificationKey,
+                String.valueOf(verified));
+        OutputStream fos = null;
+        try {
+            fos = new FileOutputStream(ROO_PGP_VERIFICATIONS_FILE);
+            verifications.store(fos, "Spring Roo PGP signature verifications");
+        }
+        catch (final IOException ignored) {
+            // The outcome will simply be recomputed next time
+        }
+        finally {
+            IOUtils.closeQuietly(fos);
+        }
+    }
 
-        // Do not store if the first key is revoked
-        Validate.validState(
-                !keyRing.getPublicKey().isRevoked(),
-                "The public key ID '%s' has been revoked and cannot be trusted",
-                new PgpKeyId(keyRing.getPublicKey()));
+    private String sha256(final byte[] bytes) throws NoSuchAlgorithmException {
+        final StringBuilder digest = new StringBuilder();
+        for (final byte b : MessageDigest.getInstance("SHA-256").digest(bytes)) {
+            digest.append(Character.forDigit(b >> 4 & 0xF, 16));
+            digest.append(Character.forDigit(b & 0xF, 16));
+        }
+        return digest.toString();
+    }
 
-        // trust it and write back to disk
-        trusted.add(keyRing);
+    /**
+     * Writes the given key rings to the trusted keys file, replacing its
+     * content, and refreshes the in-memory keyring.
+     * 
+     * @param keyRings the key rings to trust (required)
+     */
+    private synchronized void storeTrustedKeys(
+            final List<PGPPublicKeyRing> keyRings) {
         OutputStream fos = null;
         try {
             final PGPPublicKeyRingCollection newCollection = new PGPPublicKeyRingCollection(
-                    trusted);
+                    keyRings);
             fos = new FileOutputStream(ROO_PGP_FILE);
             newCollection.encode(fos);
         }
@@ -476,7 +556,27 @@ public class PgpServiceImpl implements PgpService {
         }
         finally {
             IOUtils.closeQuietly(fos);
+            // The modification time may not have changed within its
+            // granularity, so don't rely on it to detect our own writes
+            trustedKeysLastModified = -1;
         }
+    }
+
+    private PGPPublicKeyRing trust(final PGPPublicKeyRing keyRing) {
+        rememberKey(keyRing);
+
+        // Get the keys we currently trust
+        final List<PGPPublicKeyRing> trusted = getTrustedKeys();
+
+        // Do not store if the first key is revoked
+        Validate.validState(
+                !keyRing.getPublicKey().isRevoked(),
+                "The public key ID '%s' has been revoked and cannot be trusted",
+                new PgpKeyId(keyRing.getPublicKey()));
+
+        // trust it and write back to disk
+        trusted.add(keyRing);
+        storeTrustedKeys(trusted);
         return keyRing;
     }
 
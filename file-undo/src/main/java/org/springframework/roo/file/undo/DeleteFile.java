@@ -21,7 +21,7 @@ public class DeleteFile implements UndoableOperation {
             .getLogger(DeleteFile.class);
 
     private final File actual;
-    private final File backup;
+    private final byte[] backup; // Kept in memory to avoid more disk I/O
     private final FilenameResolver filenameResolver;
 
     /**
@@ -60,8 +60,7 @@ public class DeleteFile implements UndoableOperation {
                 "Path '%s' must be a file (not a directory)", actual);
 
         try {
-            backup = File.createTempFile("DeleteFile", "tmp");
-            FileUtils.copyFile(actual, backup);
+            backup = FileUtils.readFileToByteArray(actual);
         }
         catch (final IOException ioe) {
             throw new IllegalStateException("Unable to make a backup of file '"
@@ -80,28 +79,12 @@ public class DeleteFile implements UndoableOperation {
     }
 
     public void reset() {
-        // Fix for ROO-1555
-        try {
-            if (backup.delete()) {
-                LOGGER.finest("Reset manage "
-                        + filenameResolver.getMeaningfulName(backup));
-            }
-            else {
-                backup.deleteOnExit();
-                LOGGER.fine("Reset failed "
-                        + filenameResolver.getMeaningfulName(backup));
-            }
-        }
-        catch (final Throwable e) {
-            backup.deleteOnExit();
-            LOGGER.fine("Reset failed "
-                    + filenameResolver.getMeaningfulName(backup));
-        }
+        // Nothing to clean up, as the backup is only held in memory
     }
 
     public boolean undo() {
         try {
-            FileUtils.copyFile(backup, actual);
+            FileUtils.writeByteArrayToFile(actual, backup);
             LOGGER.fine("Undo delete "
                     + filenameResolver.getMeaningfulName(actual));
             return true;
@@ -20,7 +20,7 @@ public class UpdateFile implements UndoableOperation {
             .getLogger(UpdateFile.class);
 
     private final File actual;
-    private final File backup;
+    private final byte[] backup; // Kept in memory to avoid more disk I/O
     private final FilenameResolver filenameResolver;
 
     /**
@@ -41,8 +41,7 @@ public class UpdateFile implements UndoableOperation {
         Validate.notNull(filenameResolver, "Filename resolver required");
         this.filenameResolver = filenameResolver;
         try {
-            backup = File.createTempFile("UpdateFile", "tmp");
-            FileUtils.copyFile(actual, backup);
+            backup = FileUtils.readFileToByteArray(actual);
         }
         catch (final IOException ioe) {
             throw new IllegalStateException("Unable to make a backup of file '"
@@ -53,28 +52,12 @@ public class UpdateFile implements UndoableOperation {
     }
 
     public void reset() {
-        // Fix for ROO-1555
-        try {
-            if (backup.delete()) {
-                LOGGER.finest("Reset manage "
-                        + filenameResolver.getMeaningfulName(backup));
-            }
-            else {
-                backup.deleteOnExit();
-                LOGGER.fine("Reset failed "
-                        + filenameResolver.getMeaningfulName(backup));
-            }
-        }
-        catch (final Throwable e) {
-            backup.deleteOnExit();
-            LOGGER.fine("Reset failed "
-                    + filenameResolver.getMeaningfulName(backup));
-        }
+        // Nothing to clean up, as the backup is only held in memory
     }
 
     public boolean undo() {
         try {
-            FileUtils.copyFile(backup, actual);
+            FileUtils.writeByteArrayToFile(actual, backup);
             LOGGER.fine("Undo manage "
                     + filenameResolver.getMeaningfulName(actual));
             return true;
@@ -0,0 +1,65 @@
+package org.springframework.roo.file.undo;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.File;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+/**
+ * Unit test of {@link DeleteFile}
+ * 
+ * @since 1.2.5
+ */
+public class DeleteFileTest {
+
+    private static final String CONTENTS = "contents";
+    private static final String ENCODING = "UTF-8";
+
+    @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+    // Fixture
+    private File file;
+    @Mock private FilenameResolver mockFilenameResolver;
+    private UndoManager undoManager;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        file = folder.newFile("Test.java");
+        FileUtils.writeStringToFile(file, CONTENTS, ENCODING);
+        undoManager = new DefaultUndoManager();
+
+        new DeleteFile(undoManager, mockFilenameResolver, file, "obsolete");
+    }
+
+    @Test
+    public void testResetLeavesTheFileDeleted() {
+        // Invoke
+        undoManager.reset();
+
+        // Check
+        assertFalse(file.exists());
+        undoManager.undo();
+        assertFalse(file.exists());
+    }
+
+    @Test
+    public void testUndoRestoresTheDeletedFile() throws Exception {
+        // Check
+        assertFalse(file.exists());
+
+        // Invoke
+        undoManager.undo();
+
+        // Check
+        assertEquals(CONTENTS, FileUtils.readFileToString(file, ENCODING));
+    }
+}
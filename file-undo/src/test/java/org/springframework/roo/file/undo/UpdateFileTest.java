@@ -0,0 +1,63 @@
+package org.springframework.roo.file.undo;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+/**
+ * Unit test of {@link UpdateFile}
+ * 
+ * @since 1.2.5
+ */
+public class UpdateFileTest {
+
+    private static final String CHANGED = "changed";
+    private static final String ENCODING = "UTF-8";
+    private static final String ORIGINAL = "original";
+
+    @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+    // Fixture
+    private File file;
+    @Mock private FilenameResolver mockFilenameResolver;
+    private UndoManager undoManager;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        file = folder.newFile("Test.java");
+        FileUtils.writeStringToFile(file, ORIGINAL, ENCODING);
+        undoManager = new DefaultUndoManager();
+
+        new UpdateFile(undoManager, mockFilenameResolver, file);
+        FileUtils.writeStringToFile(file, CHANGED, ENCODING);
+    }
+
+    @Test
+    public void testResetKeepsTheChangedContents() throws Exception {
+        // Invoke
+        undoManager.reset();
+
+        // Check
+        assertEquals(CHANGED, FileUtils.readFileToString(file, ENCODING));
+        undoManager.undo();
+        assertEquals(CHANGED, FileUtils.readFileToString(file, ENCODING));
+    }
+
+    @Test
+    public void testUndoRestoresTheOriginalContents() throws Exception {
+        // Invoke
+        undoManager.undo();
+
+        // Check
+        assertEquals(ORIGINAL, FileUtils.readFileToString(file, ENCODING));
+    }
+}
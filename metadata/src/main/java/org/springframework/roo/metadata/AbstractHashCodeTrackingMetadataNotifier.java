@@ -15,7 +15,12 @@ import org.apache.felix.scr.annotations.Reference;
  * IMPORTANT: Before subclassing this class, ensure the {@link MetadataItem}s
  * that you will be presenting are all of the same type AND they provide a
  * reliable {@link Object#hashCode()} method. Failure to observe this
- * requirement will result in erroneous notifications.
+ * requirement will result in erroneous notifications. Items that implement
+ * {@link Fingerprinted} are compared by their fingerprints instead, which
+ * unlike hash codes cannot realistically collide, unless their class overrides
+ * {@link Object#hashCode()} more specifically than
+ * {@link Fingerprinted#getFingerprint()}; such an override is assumed to
+ * capture what the fingerprint does not, and is honoured.
  * 
  * @author Ben Alex
  * @since 1.1
@@ -23,16 +28,48 @@ import org.apache.felix.scr.annotations.Reference;
 @Component(componentAbstract = true)
 public abstract class AbstractHashCodeTrackingMetadataNotifier {
 
-    private final Map<String, Integer> hashes = new HashMap<String, Integer>();
+    private final Map<Class<?>, Boolean> comparedByFingerprint = new HashMap<Class<?>, Boolean>();
+    private final Map<String, Object> hashes = new HashMap<String, Object>();
     @Reference protected MetadataDependencyRegistry metadataDependencyRegistry;
 
     @Reference protected MetadataService metadataService;
 
+    /**
+     * Indicates whether the given item is to be compared by its fingerprint
+     * rather than by its hash code, i.e. whether it is {@link Fingerprinted}
+     * and its class declares {@link Fingerprinted#getFingerprint()} no less
+     * specifically than {@link Object#hashCode()}
+     * 
+     * @param metadataItem the item to check (required)
+     * @return see above
+     */
+    private boolean isComparedByFingerprint(final MetadataItem metadataItem) {
+        if (!(metadataItem instanceof Fingerprinted)) {
+            return false;
+        }
+        final Class<?> itemClass = metadataItem.getClass();
+        Boolean result = comparedByFingerprint.get(itemClass);
+        if (result == null) {
+            try {
+                final Class<?> hashCodeClass = itemClass.getMethod("hashCode")
+                        .getDeclaringClass();
+                final Class<?> fingerprintClass = itemClass.getMethod(
+                        "getFingerprint").getDeclaringClass();
+                result = hashCodeClass.isAssignableFrom(fingerprintClass);
+            }
+            catch (final NoSuchMethodException e) {
+                throw new IllegalStateException(e);
+            }
+            comparedByFingerprint.put(itemClass, result);
+        }
+        return result;
+    }
+
     /**
      * Notifies downstream dependencies of a change if and only if the passed
-     * metadata item has a different hash code than the existing metadata item.
-     * This is aimed at reducing needless notifications if nothing has actually
-     * changed since the last notification.
+     * metadata item has a different hash code (or fingerprint) than the
+     * existing metadata item. This is aimed at reducing needless notifications
+     * if nothing has actually changed since the last notification.
      * 
      * @param metadataItem the potentially-updated metadata item (required; must
      *            be a metadata item of the same class as all other items
@@ -41,9 +78,10 @@ public abstract class AbstractHashCodeTrackingMetadataNotifier {
     protected void notifyIfRequired(final MetadataItem metadataItem) {
         final String instanceId = MetadataIdentificationUtils
                 .getMetadataInstance(metadataItem.getId());
-        final Integer existing = hashes.get(instanceId);
-        final int newHash = metadataItem.hashCode();
-        if (existing != null && newHash == existing) {
+        final Object existing = hashes.get(instanceId);
+        final Object newHash = isComparedByFingerprint(metadataItem) ? ((Fingerprinted) metadataItem)
+                .getFingerprint() : Integer.valueOf(metadataItem.hashCode());
+        if (newHash.equals(existing)) {
             // No need to notify
             return;
         }
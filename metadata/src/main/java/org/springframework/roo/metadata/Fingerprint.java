@@ -0,0 +1,98 @@
+package org.springframework.roo.metadata;
+
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * A 128-bit digest of the structure of an immutable object, such as a
+ * {@link MetadataItem}. Two objects with equal fingerprints are taken to be
+ * structurally identical.
+ * <p>
+ * Unlike {@link Object#hashCode()}, a fingerprint is wide enough that a
+ * collision between two different structures can be discounted.
+ * 
+ * @since 1.2.5
+ */
+public final class Fingerprint {
+
+    private static final String ALGORITHM = "MD5";
+    private static final String ENCODING = "UTF-8";
+
+    /**
+     * Returns the fingerprint of the given parts, in order. Each part
+     * contributes its {@link String#valueOf(Object)}; the parts are delimited
+     * so that, for example, ("ab", "c") and ("a", "bc") differ.
+     * 
+     * @param parts the parts to digest (can be empty)
+     * @return a non-<code>null</code> fingerprint
+     */
+    public static Fingerprint of(final Object... parts) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance(ALGORITHM);
+            for (final Object part : parts) {
+                final byte[] bytes = String.valueOf(part).getBytes(ENCODING);
+                digest.update(toBytes(bytes.length));
+                digest.update(bytes);
+            }
+        }
+        catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        catch (final UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+        final byte[] hash = digest.digest();
+        return new Fingerprint(toLong(hash, 0), toLong(hash, 8));
+    }
+
+    private static byte[] toBytes(final int value) {
+        return new byte[] { (byte) (value >>> 24), (byte) (value >>> 16),
+                (byte) (value >>> 8), (byte) value };
+    }
+
+    private static long toLong(final byte[] bytes, final int offset) {
+        long value = 0;
+        for (int i = offset; i < offset + 8; i++) {
+            value = value << 8 | bytes[i] & 0xFF;
+        }
+        return value;
+    }
+
+    private final long high;
+    private final long low;
+
+    /**
+     * Constructor
+     * 
+     * @param high the most significant 64 bits
+     * @param low the least significant 64 bits
+     */
+    private Fingerprint(final long high, final long low) {
+        this.high = high;
+        this.low = low;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof Fingerprint)) {
+            return false;
+        }
+        final Fingerprint other = (Fingerprint) obj;
+        return high == other.high && low == other.low;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (high ^ high >>> 32 ^ low ^ low >>> 32);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%016x%016x", high, low);
+    }
+}
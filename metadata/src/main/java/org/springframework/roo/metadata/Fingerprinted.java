@@ -0,0 +1,22 @@
+package org.springframework.roo.metadata;
+
+/**
+ * An immutable object that can describe its structure by a
+ * {@link Fingerprint}, which it computes at most once.
+ * <p>
+ * {@link AbstractHashCodeTrackingMetadataNotifier} compares the fingerprints
+ * of {@link MetadataItem}s that implement this interface, instead of their
+ * hash codes, unless a subclass overrides {@link Object#hashCode()} without
+ * also overriding {@link #getFingerprint()}.
+ * 
+ * @since 1.2.5
+ */
+public interface Fingerprinted {
+
+    /**
+     * Returns the fingerprint of this object's structure
+     * 
+     * @return a non-<code>null</code> fingerprint
+     */
+    Fingerprint getFingerprint();
+}
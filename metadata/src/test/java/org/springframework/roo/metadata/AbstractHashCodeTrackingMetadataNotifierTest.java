@@ -0,0 +1,146 @@
+package org.springframework.roo.metadata;
+
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+/**
+ * Unit test of {@link AbstractHashCodeTrackingMetadataNotifier}
+ * 
+ * @since 1.2.5
+ */
+public class AbstractHashCodeTrackingMetadataNotifierTest {
+
+    /**
+     * An item whose fingerprint and hash code are given to it
+     */
+    private static class FingerprintedItem extends Item implements
+            Fingerprinted {
+
+        private final Fingerprint fingerprint;
+
+        FingerprintedItem(final String fingerprint, final int hashCode) {
+            super(hashCode);
+            this.fingerprint = Fingerprint.of(fingerprint);
+        }
+
+        public Fingerprint getFingerprint() {
+            return fingerprint;
+        }
+    }
+
+    /**
+     * An item that is only {@link Object#hashCode() hashed}
+     */
+    private static class Item implements MetadataItem {
+
+        private final int hashCode;
+
+        Item(final int hashCode) {
+            this.hashCode = hashCode;
+        }
+
+        public String getId() {
+            return METADATA_ID;
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        public boolean isValid() {
+            return true;
+        }
+    }
+
+    /**
+     * A fingerprinted item that overrides {@link #hashCode()} to capture state
+     * its fingerprint does not, as some ITD metadata items do
+     */
+    private static class ItemWithOwnHashCode extends FingerprintedItem {
+
+        private final int ownHashCode;
+
+        ItemWithOwnHashCode(final String fingerprint, final int ownHashCode) {
+            super(fingerprint, 0);
+            this.ownHashCode = ownHashCode;
+        }
+
+        @Override
+        public int hashCode() {
+            return ownHashCode;
+        }
+    }
+
+    private static final String METADATA_ID = "MID:com.example.Provider#com.example.Type";
+
+    // Fixture
+    private AbstractHashCodeTrackingMetadataNotifier notifier;
+    @Mock private MetadataDependencyRegistry mockMetadataDependencyRegistry;
+    @Mock private MetadataService mockMetadataService;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        notifier = new AbstractHashCodeTrackingMetadataNotifier() {
+        };
+        notifier.metadataDependencyRegistry = mockMetadataDependencyRegistry;
+        notifier.metadataService = mockMetadataService;
+    }
+
+    @Test
+    public void testFingerprintedItemsAreComparedByFingerprint() {
+        // Invoke
+        notifier.notifyIfRequired(new FingerprintedItem("a", 1));
+        notifier.notifyIfRequired(new FingerprintedItem("a", 2));
+        notifier.notifyIfRequired(new FingerprintedItem("b", 2));
+
+        // Check
+        verify(mockMetadataDependencyRegistry, times(2)).notifyDownstream(
+                METADATA_ID);
+    }
+
+    @Test
+    public void testItemsAreComparedByHashCodeWithoutAFingerprint() {
+        // Invoke
+        notifier.notifyIfRequired(new Item(1));
+        notifier.notifyIfRequired(new Item(1));
+        notifier.notifyIfRequired(new Item(2));
+
+        // Check
+        verify(mockMetadataDependencyRegistry, times(2)).notifyDownstream(
+                METADATA_ID);
+    }
+
+    @Test
+    public void testOverriddenHashCodeIsHonoured() {
+        // Invoke
+        notifier.notifyIfRequired(new ItemWithOwnHashCode("a", 1));
+        notifier.notifyIfRequired(new ItemWithOwnHashCode("a", 2));
+        notifier.notifyIfRequired(new ItemWithOwnHashCode("b", 2));
+
+        // Check
+        verify(mockMetadataDependencyRegistry, times(2)).notifyDownstream(
+                METADATA_ID);
+    }
+
+    @Test
+    public void testUnchangedItemIsNotNotified() {
+        // Set up
+        final Item item = new FingerprintedItem("a", 1);
+        notifier.notifyIfRequired(item);
+
+        // Invoke
+        notifier.notifyIfRequired(item);
+
+        // Check
+        verify(mockMetadataService).put(item);
+        verify(mockMetadataDependencyRegistry, times(1)).notifyDownstream(
+                METADATA_ID);
+    }
+}
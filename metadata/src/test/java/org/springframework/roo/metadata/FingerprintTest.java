@@ -0,0 +1,40 @@
+package org.springframework.roo.metadata;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import org.junit.Test;
+
+/**
+ * Unit test of {@link Fingerprint}
+ * 
+ * @since 1.2.5
+ */
+public class FingerprintTest {
+
+    @Test
+    public void testDifferentPartsHaveDifferentFingerprints() {
+        assertFalse(Fingerprint.of("foo", 1).equals(Fingerprint.of("foo", 2)));
+    }
+
+    @Test
+    public void testPartBoundariesAffectTheFingerprint() {
+        assertFalse(Fingerprint.of("ab", "c").equals(Fingerprint.of("a", "bc")));
+    }
+
+    @Test
+    public void testSamePartsHaveEqualFingerprints() {
+        final Fingerprint fingerprint = Fingerprint.of("foo", 1, null);
+        final Fingerprint other = Fingerprint.of("foo", 1, null);
+        assertEquals(fingerprint, other);
+        assertEquals(fingerprint.hashCode(), other.hashCode());
+        assertEquals(fingerprint.toString(), other.toString());
+    }
+
+    @Test
+    public void testToStringIsHexadecimal() {
+        // MD5 of the empty input
+        assertEquals("d41d8cd98f00b204e9800998ecf8427e", Fingerprint.of()
+                .toString());
+    }
+}
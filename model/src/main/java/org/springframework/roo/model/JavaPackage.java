@@ -5,6 +5,7 @@ import java.util.List;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
+import org.springframework.roo.support.util.WeakInterner;
 
 /**
  * Immutable representation of a Java package.
@@ -16,6 +17,28 @@ import org.apache.commons.lang3.Validate;
  */
 public class JavaPackage implements Comparable<JavaPackage> {
 
+    private static final WeakInterner<JavaPackage> INSTANCES = new WeakInterner<JavaPackage>() {
+        @Override
+        protected JavaPackage create(final String fullyQualifiedPackageName) {
+            return new JavaPackage(fullyQualifiedPackageName);
+        }
+    };
+
+    /**
+     * Returns the canonical instance of the package with the given name, as
+     * would be created by {@link #JavaPackage(String)}
+     * 
+     * @param fullyQualifiedPackageName the name (as per the rules of
+     *            {@link #JavaPackage(String)})
+     * @return a non-<code>null</code> package
+     * @since 1.2.5
+     */
+    public static JavaPackage getInstance(final String fullyQualifiedPackageName) {
+        Validate.notNull(fullyQualifiedPackageName,
+                "Fully qualified package name required");
+        return INSTANCES.get(fullyQualifiedPackageName);
+    }
+
     private final String fullyQualifiedPackageName;
 
     /**
@@ -41,12 +64,18 @@ public class JavaPackage implements Comparable<JavaPackage> {
         if (o == null) {
             return -1;
         }
+        if (o == this) {
+            return 0;
+        }
         return fullyQualifiedPackageName.compareTo(o
                 .getFullyQualifiedPackageName());
     }
 
     @Override
     public boolean equals(final Object obj) {
+        if (obj == this) {
+            return true;
+        }
         return obj instanceof JavaPackage && compareTo((JavaPackage) obj) == 0;
     }
 
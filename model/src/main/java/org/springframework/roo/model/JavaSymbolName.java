@@ -6,6 +6,7 @@ import java.util.regex.Pattern;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
+import org.springframework.roo.support.util.WeakInterner;
 
 /**
  * Immutable representation of a Java field name, method name, or other common
@@ -25,6 +26,13 @@ public class JavaSymbolName implements Comparable<JavaSymbolName> {
     /** Constant for keyword "true" */
     public static final JavaSymbolName TRUE = new JavaSymbolName("true");
 
+    private static final WeakInterner<JavaSymbolName> INSTANCES = new WeakInterner<JavaSymbolName>() {
+        @Override
+        protected JavaSymbolName create(final String symbolName) {
+            return new JavaSymbolName(symbolName);
+        }
+    };
+
     /**
      * Verifies the presented name is a valid Java name. Specifically, the
      * following is enforced:
@@ -71,6 +79,19 @@ public class JavaSymbolName implements Comparable<JavaSymbolName> {
         }
     }
 
+    /**
+     * Returns the canonical instance of the symbol name with the given name,
+     * as would be created by {@link #JavaSymbolName(String)}
+     * 
+     * @param symbolName the name (mandatory)
+     * @return a non-<code>null</code> symbol name
+     * @since 1.2.5
+     */
+    public static JavaSymbolName getInstance(final String symbolName) {
+        Validate.notBlank(symbolName, "Symbol name required");
+        return INSTANCES.get(symbolName);
+    }
+
     /**
      * @return a camel case string in human readable form
      */
@@ -156,6 +177,9 @@ public class JavaSymbolName implements Comparable<JavaSymbolName> {
         if (o == null) {
             return -1;
         }
+        if (o == this) {
+            return 0;
+        }
         return symbolName.compareTo(o.symbolName);
     }
 
@@ -163,6 +187,9 @@ public class JavaSymbolName implements Comparable<JavaSymbolName> {
     public boolean equals(final Object obj) {
         // NB: Not using the normal convention of delegating to compareTo (for
         // efficiency reasons)
+        if (obj == this) {
+            return true;
+        }
         return obj instanceof JavaSymbolName
                 && symbolName.equals(((JavaSymbolName) obj).symbolName);
     }
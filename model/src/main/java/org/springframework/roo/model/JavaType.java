@@ -15,6 +15,7 @@ import java.util.Vector;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
+import org.springframework.roo.support.util.WeakInterner;
 
 /**
  * The declaration of a Java type (i.e. contains no details of its members).
@@ -33,6 +34,15 @@ import org.apache.commons.lang3.Validate;
  */
 public class JavaType implements Comparable<JavaType> {
 
+    // Declared first because creating the constants below can create
+    // enclosing types through it
+    private static final WeakInterner<JavaType> INSTANCES = new WeakInterner<JavaType>() {
+        @Override
+        protected JavaType create(final String fullyQualifiedTypeName) {
+            return new JavaType(fullyQualifiedTypeName);
+        }
+    };
+
     public static final JavaType BOOLEAN_OBJECT = new JavaType(
             "java.lang.Boolean");
     public static final JavaType BOOLEAN_PRIMITIVE = new JavaType(
@@ -103,6 +113,24 @@ public class JavaType implements Comparable<JavaType> {
         COMMON_COLLECTION_TYPES.add(Vector.class.getName());
     }
 
+    /**
+     * Returns the canonical instance of the plain (i.e. not array,
+     * parameterised or argument) type with the given name, as would be created
+     * by {@link #JavaType(String)}. Equal types obtained through this method
+     * are the same instance for as long as any of them is in use, which saves
+     * memory and lets comparisons between them succeed by identity.
+     * 
+     * @param fullyQualifiedTypeName the name (as per the rules of
+     *            {@link #JavaType(String)})
+     * @return a non-<code>null</code> type
+     * @since 1.2.5
+     */
+    public static JavaType getInstance(final String fullyQualifiedTypeName) {
+        Validate.notBlank(fullyQualifiedTypeName,
+                "Fully qualified type name required");
+        return INSTANCES.get(fullyQualifiedTypeName);
+    }
+
     /**
      * Factory method for a {@link JavaType} with full details. Recall that
      * {@link JavaType} is immutable and therefore this is the only way of
@@ -173,6 +201,7 @@ public class JavaType implements Comparable<JavaType> {
     private final boolean defaultPackage;
     private final JavaType enclosingType;
     private final String fullyQualifiedTypeName;
+    private volatile String nameIncludingTypeParameters;
     private final List<JavaType> parameters;
     private final String simpleTypeName;
 
@@ -291,9 +320,12 @@ public class JavaType implements Comparable<JavaType> {
             simpleTypeName = fullyQualifiedTypeName.substring(offset + 1);
         }
 
-        this.parameters = new ArrayList<JavaType>();
-        if (parameters != null) {
-            this.parameters.addAll(parameters);
+        if (parameters == null || parameters.isEmpty()) {
+            this.parameters = Collections.emptyList();
+        }
+        else {
+            this.parameters = Collections
+                    .unmodifiableList(new ArrayList<JavaType>(parameters));
         }
     }
 
@@ -304,7 +336,7 @@ public class JavaType implements Comparable<JavaType> {
         if (o == null) {
             return -1;
         }
-        if (equals(o)) {
+        if (o == this || equals(o)) {
             return 0;
         }
         return toString().compareTo(o.toString());
@@ -336,7 +368,7 @@ public class JavaType implements Comparable<JavaType> {
             // First letter is upper-case, so treat it as a type name for now
             final String preTypeNamePortion = enclosedWithinPackage == null ? ""
                     : enclosedWithinPackage + ".";
-            return new JavaType(preTypeNamePortion + enclosedWithinTypeName);
+            return getInstance(preTypeNamePortion + enclosedWithinTypeName);
         }
 
         return null;
@@ -346,6 +378,9 @@ public class JavaType implements Comparable<JavaType> {
     public boolean equals(final Object obj) {
         // NB: Not using the normal convention of delegating to compareTo (for
         // efficiency reasons)
+        if (obj == this) {
+            return true;
+        }
         return obj != null
                 && obj instanceof JavaType
                 && fullyQualifiedTypeName.equals(((JavaType) obj)
@@ -420,8 +455,14 @@ public class JavaType implements Comparable<JavaType> {
      *         null or empty)
      */
     public String getNameIncludingTypeParameters() {
-        return getNameIncludingTypeParameters(false, null,
-                new HashMap<String, String>());
+        // Immutable and side-effect free, so can be cached
+        String name = nameIncludingTypeParameters;
+        if (name == null) {
+            name = getNameIncludingTypeParameters(false, null,
+                    new HashMap<String, String>());
+            nameIncludingTypeParameters = name;
+        }
+        return name;
     }
 
     /**
@@ -560,7 +601,7 @@ public class JavaType implements Comparable<JavaType> {
     public JavaPackage getPackage() {
         if (isDefaultPackage()
                 && !Character.isUpperCase(fullyQualifiedTypeName.charAt(0))) {
-            return new JavaPackage("");
+            return JavaPackage.getInstance("");
         }
 
         if (enclosingType != null) {
@@ -574,18 +615,19 @@ public class JavaType implements Comparable<JavaType> {
                     && Character
                             .isUpperCase(enclosingTypeFullyQualifiedTypeName
                                     .charAt(offset + 1))) {
-                return new JavaPackage(enclosingTypeFullyQualifiedTypeName);
+                return JavaPackage
+                        .getInstance(enclosingTypeFullyQualifiedTypeName);
             }
             return enclosingType.getPackage();
         }
 
         final int offset = fullyQualifiedTypeName.lastIndexOf(".");
-        return offset == -1 ? new JavaPackage("") : new JavaPackage(
-                fullyQualifiedTypeName.substring(0, offset));
+        return JavaPackage.getInstance(offset == -1 ? ""
+                : fullyQualifiedTypeName.substring(0, offset));
     }
 
     public List<JavaType> getParameters() {
-        return Collections.unmodifiableList(parameters);
+        return parameters;
     }
 
     /**
@@ -56,6 +56,10 @@ public final class JpaJavaType {
             "javax.persistence.ManyToOne");
     public static final JavaType MAPPED_SUPERCLASS = new JavaType(
             "javax.persistence.MappedSuperclass");
+    public static final JavaType NAMED_QUERIES = new JavaType(
+            "javax.persistence.NamedQueries");
+    public static final JavaType NAMED_QUERY = new JavaType(
+            "javax.persistence.NamedQuery");
     public static final JavaType ONE_TO_MANY = new JavaType(
             "javax.persistence.OneToMany");
     public static final JavaType ONE_TO_ONE = new JavaType(
@@ -69,6 +73,8 @@ public final class JpaJavaType {
     public static final JavaType PRE_REMOVE = new JavaType(
             "javax.persistence.PreRemove");
     public static final JavaType QUERY = new JavaType("javax.persistence.Query");
+    public static final JavaType QUERY_HINT = new JavaType(
+            "javax.persistence.QueryHint");
     public static final JavaType SEQUENCE_GENERATOR = new JavaType(
             "javax.persistence.SequenceGenerator");
     public static final JavaType TABLE = new JavaType("javax.persistence.Table");
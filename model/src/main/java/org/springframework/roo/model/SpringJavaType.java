@@ -22,6 +22,10 @@ public final class SpringJavaType {
             "org.springframework.beans.factory.annotation.Autowired");
     public static final JavaType BINDING_RESULT = new JavaType(
             "org.springframework.validation.BindingResult");
+    public static final JavaType CACHE_EVICT = new JavaType(
+            "org.springframework.cache.annotation.CacheEvict");
+    public static final JavaType CACHEABLE = new JavaType(
+            "org.springframework.cache.annotation.Cacheable");
     public static final JavaType CHARACTER_ENCODING_FILTER = new JavaType(
             "org.springframework.web.filter.CharacterEncodingFilter");
     public static final JavaType COMPONENT = new JavaType(
@@ -3,6 +3,7 @@ package org.springframework.roo.model;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.springframework.roo.model.JavaType.BOOLEAN_OBJECT;
 import static org.springframework.roo.model.JavaType.BOOLEAN_PRIMITIVE;
@@ -94,6 +95,15 @@ public class JavaTypeTest {
         assertNull(JdkJavaType.LIST.getBaseType());
     }
 
+    @Test
+    public void testGetInstanceReturnsCanonicalInstance() {
+        final JavaType type = JavaType.getInstance("com.foo.Bar.Baz");
+        assertSame(type, JavaType.getInstance("com.foo.Bar.Baz"));
+        assertSame(JavaType.getInstance("com.foo.Bar"),
+                type.getEnclosingType());
+        assertEquals(new JavaType("com.foo.Bar.Baz"), type);
+    }
+
     @Test
     public void testObjectIsNotBoolean() {
         assertFalse(OBJECT.isBoolean());
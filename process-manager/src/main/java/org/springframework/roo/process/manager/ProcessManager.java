@@ -1,5 +1,7 @@
 package org.springframework.roo.process.manager;
 
+import java.util.Map;
+
 import org.springframework.roo.file.monitor.FileMonitorService;
 import org.springframework.roo.file.undo.UndoManager;
 import org.springframework.roo.metadata.MetadataService;
@@ -74,10 +76,93 @@ public interface ProcessManager extends ProcessManagerStatusProvider {
      */
     <T> T execute(CommandCallback<T> callback);
 
+    /**
+     * Execute a user command that does not modify the file system. Unlike
+     * {@link #execute(CommandCallback)}, this does not wait for a background
+     * poll to finish, nor does it flush or reset the {@link UndoManager} or
+     * scan the file system afterwards; it only waits for any command being
+     * executed via {@link #execute(CommandCallback)} to complete. Any number of
+     * read-only commands can run at the same time.
+     * <p>
+     * As a read-only command can run while a background poll is in progress,
+     * it may observe the changes of that poll before they are complete. A
+     * poll does not yield to a read-only command, i.e. it does not count
+     * towards {@link #isCommandPending()}.
+     * 
+     * @param <T> the class of the object that
+     *            {@link CommandCallback#callback()} will return (required)
+     * @param callback the callback to actually executed (required)
+     * @return the result of executing the callback
+     * @since 1.2.5
+     */
+    <T> T executeReadOnly(CommandCallback<T> callback);
+
+    /**
+     * Executes background work within a "transaction", in the same way as a
+     * background poll. Unlike {@link #execute(CommandCallback)}, this does not
+     * block: it returns without executing the callback if the process manager
+     * is not {@link ProcessManagerStatus#AVAILABLE} or a command, read-only or
+     * not, is pending. As the callback may change files, read-only commands
+     * wait for it to finish. It should do a small amount of work, checking
+     * {@link #isCommandPending()} regularly and returning as soon as it
+     * becomes true.
+     * 
+     * @param callback the work to execute (required)
+     * @return true if the callback was executed
+     * @since 1.2.5
+     */
+    boolean executeIfIdle(CommandCallback<?> callback);
+
     long getLastPollDuration();
 
+    /**
+     * Returns how long each phase of the last poll took, namely the scan of
+     * the file system (including the notification of the changes found), the
+     * dispatch of any further changes those notifications caused, and the
+     * flushing of files to disk.
+     * 
+     * @return a non-<code>null</code> map of phase name to milliseconds, in
+     *         the order of the phases (empty if no poll has completed)
+     * @since 1.2.5
+     */
+    Map<String, Long> getLastPollPhaseDurations();
+
     long getMinimumDelayBetweenPoll();
 
+    /**
+     * Returns how long background polling waits after a poll finds a change
+     * before polling again. The poll that finds the first change of a burst
+     * still handles it at once; the rest of the burst is then handled by one
+     * later poll rather than by one poll per tick.
+     * 
+     * @return a number of milliseconds (0 = no waiting beyond the usual tick)
+     * @since 1.2.5
+     */
+    long getPollDebounce();
+
+    /**
+     * Indicates whether the changes each command makes are undone once it
+     * completes. This is not a dry run: the command changes the file system
+     * as usual, and only then are its changes reported and undone. Background
+     * polls and other work are unaffected. Only changes made via the
+     * {@link UndoManager} are undone; other side effects of a command, e.g.
+     * running Maven, installing an add-on or changing OSGi bundles, are not.
+     * 
+     * @return see above (defaults to false)
+     * @since 1.2.5
+     */
+    boolean isAutoUndo();
+
+    /**
+     * Indicates whether a user command is executing or waiting to execute, in
+     * which case any background work should yield to it. Read-only commands
+     * (see {@link #executeReadOnly(CommandCallback)}) are not included.
+     * 
+     * @return see above
+     * @since 1.2.5
+     */
+    boolean isCommandPending();
+
     /**
      * @return true if the system is in development mode, which generally means
      *         more detailed diagnostics are requested from add-ons (defaults to
@@ -85,10 +170,22 @@ public interface ProcessManager extends ProcessManagerStatusProvider {
      */
     boolean isDevelopmentMode();
 
+    /**
+     * @param autoUndo see {@link #isAutoUndo()}
+     * @since 1.2.5
+     */
+    void setAutoUndo(boolean autoUndo);
+
     void setDevelopmentMode(boolean developmentMode);
 
     void setMinimumDelayBetweenPoll(long minimumDelayBetweenPoll);
 
+    /**
+     * @param pollDebounce see {@link #getPollDebounce()}; cannot be negative
+     * @since 1.2.5
+     */
+    void setPollDebounce(long pollDebounce);
+
     /**
      * Allows the process manager to terminate gracefully. In particular this
      * means any background threads it has started are terminated. It is safe to
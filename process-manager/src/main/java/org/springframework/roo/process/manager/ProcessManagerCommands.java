@@ -1,5 +1,8 @@
 package org.springframework.roo.process.manager;
 
+import java.util.Map;
+import java.util.Map.Entry;
+
 import org.apache.felix.scr.annotations.Component;
 import org.apache.felix.scr.annotations.Reference;
 import org.apache.felix.scr.annotations.Service;
@@ -8,6 +11,7 @@ import org.springframework.roo.shell.CliCommand;
 import org.springframework.roo.shell.CliOption;
 import org.springframework.roo.shell.CommandMarker;
 import org.springframework.roo.shell.Shell;
+import org.springframework.roo.startlevel.StartupTimeline;
 
 /**
  * Commands related to file system monitoring and process management.
@@ -21,6 +25,7 @@ public class ProcessManagerCommands implements CommandMarker {
 
     @Reference private ProcessManager processManager;
     @Reference private Shell shell;
+    @Reference private StartupTimeline startupTimeline;
 
     protected void activate(final ComponentContext context) {
         if (!"false".equals(System.getProperty("developmentMode", "false")
@@ -29,6 +34,18 @@ public class ProcessManagerCommands implements CommandMarker {
         }
     }
 
+    @CliCommand(value = "auto undo", help = "Switches auto undo mode on or off; in this mode, each command writes its changes to the project files as usual, reports them and then undoes them. This is not a dry run: the files are changed on disk while the command runs. Only changes to project files are undone, not other side effects such as Maven builds, add-on installs or OSGi changes.")
+    public String autoUndo(
+            @CliOption(key = { "", "enabled" }, mandatory = false, specifiedDefaultValue = "true", unspecifiedDefaultValue = "true", help = "Activates auto undo mode") final boolean enabled) {
+        processManager.setAutoUndo(enabled);
+        if (enabled) {
+            return "Auto undo mode set to true; only changes to project files "
+                    + "will be undone, so avoid commands with other side "
+                    + "effects (e.g. Maven builds, add-on installs, OSGi)";
+        }
+        return "Auto undo mode set to false";
+    }
+
     @CliCommand(value = "development mode", help = "Switches the system into development mode (greater diagnostic information)")
     public String developmentMode(
             @CliOption(key = { "", "enabled" }, mandatory = false, specifiedDefaultValue = "true", unspecifiedDefaultValue = "true", help = "Activates development mode") final boolean enabled) {
@@ -52,7 +69,14 @@ public class ProcessManagerCommands implements CommandMarker {
         return "Manual poll completed";
     }
 
-    @CliCommand(value = "poll status", help = "Display file system polling information")
+    @CliCommand(value = "poll debounce", help = "Changes how long background polling waits after finding a change before polling again")
+    public String pollingDebounce(
+            @CliOption(key = { "", "ms" }, mandatory = true, help = "The number of milliseconds to wait after a poll that found a change (0 to disable)") final long pollDebounce) {
+        processManager.setPollDebounce(pollDebounce);
+        return pollingInfo();
+    }
+
+    @CliCommand(value = "poll status", help = "Display file system polling information", readOnly = true)
     public String pollingInfo() {
         final StringBuilder sb = new StringBuilder("File system polling ");
         final long duration = processManager.getLastPollDuration();
@@ -73,6 +97,21 @@ public class ProcessManagerCommands implements CommandMarker {
             sb.append("polling frequency has a minimum interval of ")
                     .append(minimum).append(" ms");
         }
+        final long debounce = processManager.getPollDebounce();
+        if (debounce > 0) {
+            sb.append("; polling pauses for ").append(debounce)
+                    .append(" ms after a change");
+        }
+        final Map<String, Long> phases = processManager
+                .getLastPollPhaseDurations();
+        if (!phases.isEmpty()) {
+            sb.append("; last poll phases:");
+            for (final Entry<String, Long> phase : phases.entrySet()) {
+                sb.append(" ").append(phase.getKey()).append(" ")
+                        .append(phase.getValue()).append(" ms,");
+            }
+            sb.setLength(sb.length() - 1);
+        }
         return sb.toString();
     }
 
@@ -82,4 +121,9 @@ public class ProcessManagerCommands implements CommandMarker {
         processManager.setMinimumDelayBetweenPoll(minimumDelayBetweenPoll);
         return pollingInfo();
     }
+
+    @CliCommand(value = "startup report", help = "Displays how long each bundle, component and phase took during startup", readOnly = true)
+    public String startupReport() {
+        return startupTimeline.getReport();
+    }
 }
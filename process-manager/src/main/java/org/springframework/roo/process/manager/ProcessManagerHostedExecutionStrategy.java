@@ -10,6 +10,7 @@ import org.apache.felix.scr.annotations.ReferencePolicy;
 import org.apache.felix.scr.annotations.ReferenceStrategy;
 import org.apache.felix.scr.annotations.Service;
 import org.springframework.roo.process.manager.event.ProcessManagerStatus;
+import org.springframework.roo.shell.CliCommand;
 import org.springframework.roo.shell.ExecutionStrategy;
 import org.springframework.roo.shell.ParseResult;
 
@@ -38,22 +39,35 @@ public class ProcessManagerHostedExecutionStrategy implements ExecutionStrategy
     public Object execute(final ParseResult parseResult)
             throws RuntimeException {
         Validate.notNull(parseResult, "Parse result required");
+        final CommandCallback<Object> callback = new CommandCallback<Object>() {
+            public Object callback() {
+                try {
+                    return parseResult.getMethod().invoke(
+                            parseResult.getInstance(),
+                            parseResult.getArguments());
+                }
+                catch (Exception e) {
+                    throw new RuntimeException(ObjectUtils.defaultIfNull(
+                            ExceptionUtils.getRootCause(e), e));
+                }
+            }
+        };
+        final CliCommand command = parseResult.getMethod().getAnnotation(
+                CliCommand.class);
+        if (command != null && command.readOnly()) {
+            final ProcessManager readOnlyProcessManager;
+            synchronized (mutex) {
+                Validate.isTrue(isReadyForCommands(),
+                        "ProcessManagerHostedExecutionStrategy not yet ready for commands");
+                readOnlyProcessManager = processManager;
+            }
+            // Outside the mutex, so as not to wait for other commands
+            return readOnlyProcessManager.executeReadOnly(callback);
+        }
         synchronized (mutex) {
             Validate.isTrue(isReadyForCommands(),
                     "ProcessManagerHostedExecutionStrategy not yet ready for commands");
-            return processManager.execute(new CommandCallback<Object>() {
-                public Object callback() {
-                    try {
-                        return parseResult.getMethod().invoke(
-                                parseResult.getInstance(),
-                                parseResult.getArguments());
-                    }
-                    catch (Exception e) {
-                        throw new RuntimeException(ObjectUtils.defaultIfNull(
-                                ExceptionUtils.getRootCause(e), e));
-                    }
-                }
-            });
+            return processManager.execute(callback);
         }
     }
 
@@ -64,11 +78,13 @@ public class ProcessManagerHostedExecutionStrategy implements ExecutionStrategy
                 // if executing a script
                 // TERMINATED added in case of additional commands following a
                 // quit or exit in a script - ROO-2270
+                // Polling statuses added so that read-only commands can run
+                // during a poll; other commands wait for it in
+                // ProcessManager#execute
                 final ProcessManagerStatus processManagerStatus = processManager
                         .getProcessManagerStatus();
-                return processManagerStatus == ProcessManagerStatus.AVAILABLE
-                        || processManagerStatus == ProcessManagerStatus.BUSY_EXECUTING
-                        || processManagerStatus == ProcessManagerStatus.TERMINATED;
+                return processManagerStatus != ProcessManagerStatus.STARTING
+                        && processManagerStatus != ProcessManagerStatus.COMPLETING_STARTUP;
             }
         }
         return false;
@@ -1,5 +1,12 @@
 package org.springframework.roo.process.manager.internal;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -23,6 +30,7 @@ import org.springframework.roo.process.manager.CommandCallback;
 import org.springframework.roo.process.manager.ProcessManager;
 import org.springframework.roo.process.manager.event.AbstractProcessManagerStatusPublisher;
 import org.springframework.roo.process.manager.event.ProcessManagerStatus;
+import org.springframework.roo.startlevel.StartupTimeline;
 import org.springframework.roo.support.logging.HandlerUtils;
 import org.springframework.roo.support.osgi.OSGiUtils;
 
@@ -37,40 +45,135 @@ import org.springframework.roo.support.osgi.OSGiUtils;
 public class DefaultProcessManager extends
         AbstractProcessManagerStatusPublisher implements ProcessManager {
 
+    private static final String DISPATCH_PHASE = "dispatch";
+    private static final String FLUSH_PHASE = "flush";
     private static final Logger LOGGER = HandlerUtils
             .getLogger(DefaultProcessManager.class);
+    // How many ms the polling thread usually waits between polls
+    private static final long POLL_TICK = 1000;
+    private static final String SCAN_PHASE = "scan";
 
+    private boolean autoUndo = false;
+    // Held exclusively by commands and shared by read-only commands
+    private final ReadWriteLock commandLock = new ReentrantReadWriteLock();
     private boolean developmentMode = false;
-    @Reference private FileMonitorService fileMonitorService;
+    @Reference FileMonitorService fileMonitorService;
+    // When a poll last found a change
+    private volatile long lastChangeTime = 0;
     private long lastPollDuration = 0;
+    private volatile Map<String, Long> lastPollPhaseDurations = Collections
+            .emptyMap();
     private long lastPollTime = 0; // What time the last poll was completed
     private long minimumDelayBetweenPoll = -1; // How many ms must pass at
+    // Commands (other than read-only ones) executing or waiting to execute
+    private final AtomicInteger pendingCommands = new AtomicInteger();
+    // How many ms to wait after a poll that found a change
+    private volatile long pollDebounce = 0;
     @Reference private StartLevel startLevel;
-    @Reference private UndoManager undoManager;
+    @Reference private StartupTimeline startupTimeline;
+    @Reference UndoManager undoManager;
     private String workingDir;
 
     public <T> T execute(final CommandCallback<T> callback) {
         Validate.notNull(callback, "Callback required");
+        // The "auto undo" command itself is never undone
+        final boolean autoUndoCommand = autoUndo;
+        pendingCommands.incrementAndGet();
+        try {
+            synchronized (processManagerStatus) {
+                // For us to acquire this lock means no other thread has hold
+                // of process manager status
+                Validate.isTrue(
+                        getProcessManagerStatus() == ProcessManagerStatus.AVAILABLE
+                                || getProcessManagerStatus() == ProcessManagerStatus.BUSY_EXECUTING,
+                        "Unable to execute as another thread has set status to %s",
+                        getProcessManagerStatus());
+                setProcessManagerStatus(ProcessManagerStatus.BUSY_EXECUTING);
+                final Lock writeLock = commandLock.writeLock();
+                writeLock.lock();
+                try {
+                    return doTransactionally(callback, autoUndoCommand);
+                }
+                catch (final RuntimeException e) {
+                    logException(e);
+                    throw e;
+                }
+                finally {
+                    writeLock.unlock();
+                    setProcessManagerStatus(ProcessManagerStatus.AVAILABLE);
+                }
+            }
+        }
+        finally {
+            pendingCommands.decrementAndGet();
+        }
+    }
+
+    public boolean executeIfIdle(final CommandCallback<?> callback) {
+        Validate.notNull(callback, "Callback required");
+        // Like a background poll, don't wait for another thread
+        if (isCommandPending()
+                || getProcessManagerStatus() != ProcessManagerStatus.AVAILABLE) {
+            return false;
+        }
         synchronized (processManagerStatus) {
-            // For us to acquire this lock means no other thread has hold of
-            // process manager status
-            Validate.isTrue(
-                    getProcessManagerStatus() == ProcessManagerStatus.AVAILABLE
-                            || getProcessManagerStatus() == ProcessManagerStatus.BUSY_EXECUTING,
-                    "Unable to execute as another thread has set status to %s",
-                    getProcessManagerStatus());
-            setProcessManagerStatus(ProcessManagerStatus.BUSY_EXECUTING);
+            // Check again now this thread has the lock, as a command might
+            // have been issued in the meantime
+            if (isCommandPending()
+                    || getProcessManagerStatus() != ProcessManagerStatus.AVAILABLE) {
+                return false;
+            }
+            // Unlike a poll, the callback may change files, so it must not
+            // run alongside a read-only command
+            final Lock writeLock = commandLock.writeLock();
+            if (!writeLock.tryLock()) {
+                return false;
+            }
             try {
-                return doTransactionally(callback);
+                setProcessManagerStatus(ProcessManagerStatus.BUSY_POLLING);
+                doTransactionally(callback, false);
             }
-            catch (final RuntimeException e) {
-                logException(e);
-                throw e;
+            catch (final Throwable t) {
+                // As for a background poll, a failure must not stop the
+                // calling thread
+                logException(t);
             }
             finally {
+                writeLock.unlock();
                 setProcessManagerStatus(ProcessManagerStatus.AVAILABLE);
             }
         }
+        return true;
+    }
+
+    public <T> T executeReadOnly(final CommandCallback<T> callback) {
+        Validate.notNull(callback, "Callback required");
+        // Deliberately not synchronized on the process manager status, which
+        // a background poll holds for its duration. Nor is it counted as a
+        // pending command: a poll doesn't need to yield its scans to it, as it
+        // neither waits for the poll nor completes the scans left by it.
+        final Lock readLock = commandLock.readLock();
+        readLock.lock();
+        // Leave the calling thread as we found it
+        final ProcessManager previous = ActiveProcessManager
+                .getActiveProcessManager();
+        try {
+            ActiveProcessManager.setActiveProcessManager(this);
+            return callback.callback();
+        }
+        catch (final RuntimeException e) {
+            logException(e);
+            throw e;
+        }
+        finally {
+            if (previous == null) {
+                ActiveProcessManager.clearActiveProcessManager();
+            }
+            else {
+                ActiveProcessManager.setActiveProcessManager(previous);
+            }
+            readLock.unlock();
+        }
     }
 
     /**
@@ -81,6 +184,10 @@ public class DefaultProcessManager extends
         return lastPollDuration;
     }
 
+    public Map<String, Long> getLastPollPhaseDurations() {
+        return lastPollPhaseDurations;
+    }
+
     /**
      * @return how many milliseconds must pass between each poll (0 = manual
      *         only; <0 = auto-scaled; >0 = interval)
@@ -89,16 +196,33 @@ public class DefaultProcessManager extends
         return minimumDelayBetweenPoll;
     }
 
+    public long getPollDebounce() {
+        return pollDebounce;
+    }
+
+    public boolean isAutoUndo() {
+        return autoUndo;
+    }
+
+    public boolean isCommandPending() {
+        return pendingCommands.get() > 0;
+    }
+
     public boolean isDevelopmentMode() {
         return developmentMode;
     }
 
+    public void setAutoUndo(final boolean autoUndo) {
+        this.autoUndo = autoUndo;
+        undoManager.setUndoEnabled(autoUndo || !developmentMode);
+    }
+
     public void setDevelopmentMode(final boolean developmentMode) {
         this.developmentMode = developmentMode;
 
         // To assist with debugging, development mode does not undertake undo
-        // operations
-        undoManager.setUndoEnabled(!developmentMode);
+        // operations, unless they're needed for auto undo
+        undoManager.setUndoEnabled(autoUndo || !developmentMode);
     }
 
     /**
@@ -109,6 +233,11 @@ public class DefaultProcessManager extends
         this.minimumDelayBetweenPoll = minimumDelayBetweenPoll;
     }
 
+    public void setPollDebounce(final long pollDebounce) {
+        Validate.isTrue(pollDebounce >= 0, "Debounce period cannot be negative");
+        this.pollDebounce = pollDebounce;
+    }
+
     public void terminate() {
         synchronized (processManagerStatus) {
             // To get this far this thread has a lock on process manager status,
@@ -185,19 +314,21 @@ public class DefaultProcessManager extends
                     }
                 });
 
-        // Now start a thread that will undertake a background poll every second
+        // Now start a thread that will undertake background polls
         final Thread t = new Thread(new Runnable() {
             public void run() {
                 // Unsynchronized lookup of terminated status to avoid anything
                 // blocking the termination of the thread
                 while (getProcessManagerStatus() != ProcessManagerStatus.TERMINATED) {
-                    // We only bother doing a poll if we seem to be available (a
-                    // proper synchronized check happens later)
-                    if (getProcessManagerStatus() == ProcessManagerStatus.AVAILABLE) {
+                    // We only bother doing a poll if we seem to be available
+                    // and no command would have to wait for it (a proper
+                    // synchronized check happens later)
+                    if (getProcessManagerStatus() == ProcessManagerStatus.AVAILABLE
+                            && !isCommandPending()) {
                         timerBasedPoll();
                     }
                     try {
-                        Thread.sleep(1000);
+                        Thread.sleep(getDelayUntilNextPoll());
                     }
                     catch (final InterruptedException ignoreAndContinue) {
                     }
@@ -232,7 +363,7 @@ public class DefaultProcessManager extends
             setProcessManagerStatus(ProcessManagerStatus.BUSY_POLLING);
 
             try {
-                doTransactionally(null);
+                doTransactionally(null, false);
             }
             catch (final Throwable t) {
                 // We don't want a poll failure to cause the background polling
@@ -246,6 +377,27 @@ public class DefaultProcessManager extends
         return true;
     }
 
+    /**
+     * Completes any scans left by a poll that yielded to a command, in a
+     * transaction of their own. The command therefore sees an up-to-date
+     * model, but undoing the command (e.g. for auto undo or a failure) does
+     * not undo the changes that the scans caused.
+     */
+    private void completeDeferredScans() {
+        if (!fileMonitorService.isDirty()) {
+            return;
+        }
+        try {
+            scanUntilClean(null);
+            undoManager.reset();
+        }
+        catch (final RuntimeException e) {
+            // As for a failed poll, undo the changes and carry on
+            undoManager.undo();
+            logException(e);
+        }
+    }
+
     private void completeStartup() {
         synchronized (processManagerStatus) {
             if (getProcessManagerStatus() != ProcessManagerStatus.STARTING) {
@@ -253,58 +405,76 @@ public class DefaultProcessManager extends
                         + getProcessManagerStatus() + " but should be STARTING");
             }
             setProcessManagerStatus(ProcessManagerStatus.COMPLETING_STARTUP);
+            final long started = System.currentTimeMillis();
             try {
                 // Register the initial monitoring request
                 doTransactionally(new MonitoringRequestCommand(
                         fileMonitorService,
                         MonitoringRequest
                                 .getInitialSubTreeMonitoringRequest(workingDir),
-                        true));
+                        true), false);
             }
             catch (final Throwable t) {
                 logException(t);
             }
             finally {
+                startupTimeline.recordPhase("Initial monitoring request scan",
+                        started, System.currentTimeMillis());
                 setProcessManagerStatus(ProcessManagerStatus.AVAILABLE);
             }
         }
+
+        if (!startupTimeline.getDeferredBundles().isEmpty()) {
+            // The shell is now available, so start the deferred add-ons
+            startLevel.setStartLevel(StartupTimeline.DEFERRED_START_LEVEL);
+        }
     }
 
-    private <T> T doTransactionally(final CommandCallback<T> callback) {
+    private <T> T doTransactionally(final CommandCallback<T> callback,
+            final boolean autoUndoCommand) {
         T result = null;
+        // Only polls are timed, and only polls yield to pending commands
+        final Map<String, Long> pollPhases = callback == null ? new LinkedHashMap<String, Long>()
+                : null;
         try {
             ActiveProcessManager.setActiveProcessManager(this);
 
             // Run the requested operation
             if (callback == null) {
-                fileMonitorService.scanAll();
+                pollPhases.put(SCAN_PHASE, 0L);
+                pollPhases.put(DISPATCH_PHASE, 0L);
+                pollPhases.put(FLUSH_PHASE, 0L);
+                final long started = System.currentTimeMillis();
+                if (fileMonitorService.scanAll() > 0) {
+                    lastChangeTime = System.currentTimeMillis();
+                }
+                recordPhase(pollPhases, SCAN_PHASE, started);
             }
             else {
+                completeDeferredScans();
                 result = callback.callback();
             }
 
             // Flush the undo manager so that any changes it has been holding
             // are written to disk and the file monitor service
-            undoManager.flush();
+            flushUndoManager(pollPhases);
 
             // Guarantee scans repeat until there are no more changes detected
-            while (fileMonitorService.isDirty()) {
-                if (fileMonitorService instanceof NotifiableFileMonitorService) {
-                    ((NotifiableFileMonitorService) fileMonitorService)
-                            .scanNotified();
-                }
-                else {
-                    fileMonitorService.scanAll();
-                }
-                // In case something else happened as a result of event
-                // notifications above
-                undoManager.flush();
-            }
+            scanUntilClean(pollPhases);
 
-            // It all seems to have worked, so clear the undo history
-            setProcessManagerStatus(ProcessManagerStatus.RESETTING_UNDOS);
+            if (autoUndoCommand && autoUndo) {
+                // The changes have been written and logged as they were made,
+                // so now restore the files to how they were before the command
+                setProcessManagerStatus(ProcessManagerStatus.UNDOING);
+                undoManager.undo();
+                LOGGER.info("Auto undo: the above changes have been undone");
+            }
+            else {
+                // It all seems to have worked, so clear the undo history
+                setProcessManagerStatus(ProcessManagerStatus.RESETTING_UNDOS);
 
-            undoManager.reset();
+                undoManager.reset();
+            }
 
         }
         catch (final RuntimeException e) {
@@ -318,6 +488,10 @@ public class DefaultProcessManager extends
             }
         }
         finally {
+            if (pollPhases != null) {
+                lastPollPhaseDurations = Collections
+                        .unmodifiableMap(pollPhases);
+            }
             // TODO: Review in consultation with Christian as STS is clearing
             // active process manager itself
             // ActiveProcessManager.clearActiveProcessManager();
@@ -326,6 +500,22 @@ public class DefaultProcessManager extends
         return result;
     }
 
+    private void flushUndoManager(final Map<String, Long> pollPhases) {
+        final long started = System.currentTimeMillis();
+        undoManager.flush();
+        recordPhase(pollPhases, FLUSH_PHASE, started);
+    }
+
+    long getDelayUntilNextPoll() {
+        // Once a poll has found (and handled) a change, hold off the next poll
+        // so that the rest of a burst of changes (e.g. an IDE saving many
+        // files) is picked up by one poll rather than one per tick. As a poll
+        // can't see changes without handling them, the first change of a
+        // burst is not delayed, i.e. this is not a true debounce.
+        return Math.max(POLL_TICK,
+                lastChangeTime + pollDebounce - System.currentTimeMillis());
+    }
+
     private void logException(final Throwable t) {
         final Throwable root = ObjectUtils.defaultIfNull(
                 ExceptionUtils.getRootCause(t), t);
@@ -347,4 +537,43 @@ public class DefaultProcessManager extends
             LOGGER.log(Level.FINE, message);
         }
     }
+
+    private void recordPhase(final Map<String, Long> pollPhases,
+            final String phase, final long started) {
+        if (pollPhases != null) {
+            pollPhases.put(phase, pollPhases.get(phase)
+                    + System.currentTimeMillis() - started);
+        }
+    }
+
+    /**
+     * Scans the files that have been notified as changed, and any files that
+     * change as a result, until there are no more changes. A poll (indicated
+     * by a non-<code>null</code> map of phase durations) stops as soon as a
+     * command is pending; that command's transaction completes the scans
+     * before executing.
+     * 
+     * @param pollPhases the durations of the current poll's phases, or
+     *            <code>null</code> if this is not a poll
+     */
+    private void scanUntilClean(final Map<String, Long> pollPhases) {
+        while (fileMonitorService.isDirty()) {
+            if (pollPhases != null && isCommandPending()) {
+                LOGGER.fine("Poll deferring remaining changes to a command");
+                return;
+            }
+            final long started = System.currentTimeMillis();
+            if (fileMonitorService instanceof NotifiableFileMonitorService) {
+                ((NotifiableFileMonitorService) fileMonitorService)
+                        .scanNotified();
+            }
+            else {
+                fileMonitorService.scanAll();
+            }
+            recordPhase(pollPhases, DISPATCH_PHASE, started);
+            // In case something else happened as a result of event
+            // notifications above
+            flushUndoManager(pollPhases);
+        }
+    }
 }
@@ -0,0 +1,193 @@
+package org.springframework.roo.process.manager.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.springframework.roo.file.monitor.NotifiableFileMonitorService;
+import org.springframework.roo.file.undo.UndoManager;
+import org.springframework.roo.process.manager.CommandCallback;
+import org.springframework.roo.process.manager.event.ProcessManagerStatus;
+
+/**
+ * Unit test of {@link DefaultProcessManager}
+ * 
+ * @since 1.2.5
+ */
+public class DefaultProcessManagerTest {
+
+    private static final long POLL_TICK = 1000;
+
+    // Fixture
+    @Mock private CommandCallback<Void> mockCommand;
+    @Mock private NotifiableFileMonitorService mockFileMonitorService;
+    @Mock private UndoManager mockUndoManager;
+    private DefaultProcessManager processManager;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        processManager = new DefaultProcessManager() {
+            {
+                // As if startup had completed
+                setProcessManagerStatus(ProcessManagerStatus.AVAILABLE);
+            }
+        };
+        processManager.fileMonitorService = mockFileMonitorService;
+        processManager.undoManager = mockUndoManager;
+    }
+
+    @Test
+    public void testAutoUndoUndoesTheCommandButNotTheDeferredScans() {
+        // Set up
+        final boolean[] dirty = { true };
+        when(mockFileMonitorService.isDirty()).thenAnswer(
+                new Answer<Boolean>() {
+                    public Boolean answer(final InvocationOnMock invocation) {
+                        return dirty[0];
+                    }
+                });
+        when(mockFileMonitorService.scanNotified()).thenAnswer(
+                new Answer<Integer>() {
+                    public Integer answer(final InvocationOnMock invocation) {
+                        dirty[0] = false;
+                        return 1;
+                    }
+                });
+        processManager.setAutoUndo(true);
+
+        // Invoke
+        processManager.execute(mockCommand);
+
+        // Check
+        final InOrder inOrder = inOrder(mockFileMonitorService,
+                mockUndoManager, mockCommand);
+        inOrder.verify(mockFileMonitorService).scanNotified();
+        inOrder.verify(mockUndoManager).reset();
+        inOrder.verify(mockCommand).callback();
+        inOrder.verify(mockUndoManager).undo();
+        verify(mockUndoManager, times(1)).reset();
+    }
+
+    @Test
+    public void testCommandChangesAreKeptWithoutAutoUndo() {
+        // Invoke
+        processManager.execute(mockCommand);
+
+        // Check
+        final InOrder inOrder = inOrder(mockUndoManager, mockCommand);
+        inOrder.verify(mockCommand).callback();
+        inOrder.verify(mockUndoManager).flush();
+        inOrder.verify(mockUndoManager).reset();
+        verify(mockUndoManager, never()).undo();
+    }
+
+    @Test
+    public void testPollWithoutChangesDoesNotDelayTheNextPoll() {
+        // Set up
+        processManager.setPollDebounce(5000);
+
+        // Invoke
+        processManager.timerBasedPoll();
+
+        // Check
+        assertEquals(POLL_TICK, processManager.getDelayUntilNextPoll());
+    }
+
+    @Test
+    public void testPollWithChangesDelaysTheNextPoll() {
+        // Set up
+        processManager.setPollDebounce(5000);
+        when(mockFileMonitorService.scanAll()).thenReturn(1);
+
+        // Invoke
+        processManager.timerBasedPoll();
+
+        // Check
+        final long delay = processManager.getDelayUntilNextPoll();
+        assertTrue(String.valueOf(delay), delay > 4000 && delay <= 5000);
+    }
+
+    @Test
+    public void testPollYieldsItsScansToAPendingCommand() throws Exception {
+        // Set up
+        final boolean[] dirty = new boolean[1];
+        final Thread commandThread = new Thread(new Runnable() {
+            public void run() {
+                processManager.execute(mockCommand);
+            }
+        });
+        when(mockFileMonitorService.isDirty()).thenAnswer(
+                new Answer<Boolean>() {
+                    public Boolean answer(final InvocationOnMock invocation) {
+                        return dirty[0];
+                    }
+                });
+        when(mockFileMonitorService.scanAll()).thenAnswer(
+                new Answer<Integer>() {
+                    public Integer answer(final InvocationOnMock invocation)
+                            throws InterruptedException {
+                        // A command is issued while the poll scans
+                        dirty[0] = true;
+                        commandThread.start();
+                        while (!processManager.isCommandPending()) {
+                            Thread.sleep(10);
+                        }
+                        return 1;
+                    }
+                });
+        when(mockFileMonitorService.scanNotified()).thenAnswer(
+                new Answer<Integer>() {
+                    public Integer answer(final InvocationOnMock invocation) {
+                        dirty[0] = false;
+                        return 1;
+                    }
+                });
+
+        // Invoke
+        processManager.timerBasedPoll();
+        commandThread.join(5000);
+
+        // Check
+        final InOrder inOrder = inOrder(mockFileMonitorService,
+                mockUndoManager, mockCommand);
+        inOrder.verify(mockFileMonitorService).scanAll();
+        inOrder.verify(mockUndoManager).reset();
+        inOrder.verify(mockFileMonitorService).scanNotified();
+        inOrder.verify(mockUndoManager).reset();
+        inOrder.verify(mockCommand).callback();
+        inOrder.verify(mockUndoManager).reset();
+        verify(mockFileMonitorService, times(1)).scanNotified();
+    }
+
+    @Test
+    public void testReadOnlyCommandIsNotAPendingCommand() {
+        // Set up
+        final boolean[] pending = new boolean[1];
+        when(mockCommand.callback()).thenAnswer(new Answer<Void>() {
+            public Void answer(final InvocationOnMock invocation) {
+                pending[0] = processManager.isCommandPending();
+                return null;
+            }
+        });
+
+        // Invoke
+        processManager.executeReadOnly(mockCommand);
+
+        // Check
+        assertFalse(pending[0]);
+        verify(mockUndoManager, never()).flush();
+    }
+}
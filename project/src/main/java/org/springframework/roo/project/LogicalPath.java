@@ -3,6 +3,7 @@ package org.springframework.roo.project;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
 import org.springframework.roo.project.maven.Pom;
+import org.springframework.roo.support.util.WeakInterner;
 
 /**
  * A given {@link Path} within the context of a specific project module.
@@ -23,6 +24,19 @@ public class LogicalPath {
      */
     public static final String MODULE_PATH_SEPARATOR = "|";
 
+    // Keyed by name; instances are immutable, so equal ones can be shared
+    private static final WeakInterner<LogicalPath> INSTANCES = new WeakInterner<LogicalPath>() {
+        @Override
+        protected LogicalPath create(final String name) {
+            final int separatorIndex = name.indexOf(MODULE_PATH_SEPARATOR);
+            if (separatorIndex == -1) {
+                return new LogicalPath(null, Path.valueOf(name), name);
+            }
+            return new LogicalPath(name.substring(0, separatorIndex),
+                    Path.valueOf(name.substring(separatorIndex + 1)), name);
+        }
+    };
+
     /**
      * Creates an instance with the given path in the given module
      * 
@@ -31,7 +45,8 @@ public class LogicalPath {
      * @return a non-<code>null</code> instance
      */
     public static LogicalPath getInstance(final Path path, final String module) {
-        return new LogicalPath(module, path);
+        Validate.notNull(path, "Path required");
+        return INSTANCES.get(getName(StringUtils.stripToEmpty(module), path));
     }
 
     /**
@@ -48,15 +63,25 @@ public class LogicalPath {
         final int separatorIndex = modulePlusPath
                 .indexOf(MODULE_PATH_SEPARATOR);
         if (separatorIndex == -1) {
-            return new LogicalPath(null, Path.valueOf(modulePlusPath));
+            return getInstance(Path.valueOf(modulePlusPath), null);
         }
         final Path path = Path.valueOf(modulePlusPath.substring(
                 separatorIndex + 1, modulePlusPath.length()));
         final String module = modulePlusPath.substring(0, separatorIndex);
-        return new LogicalPath(module, path);
+        return getInstance(path, module);
+    }
+
+    private static String getName(final String module, final Path path) {
+        final StringBuilder name = new StringBuilder();
+        if (StringUtils.isNotBlank(module)) {
+            name.append(module).append(MODULE_PATH_SEPARATOR);
+        }
+        name.append(path);
+        return name.toString();
     }
 
     private final String module;
+    private final String name;
     private final Path path;
 
     /**
@@ -64,10 +89,14 @@ public class LogicalPath {
      * 
      * @param module the module containing the given path (can be blank)
      * @param path the path within the module, if any (required)
+     * @param name the display name of this path, as per
+     *            {@link #getName(String, Path)}
      */
-    private LogicalPath(final String module, final Path path) {
+    private LogicalPath(final String module, final Path path,
+            final String name) {
         Validate.notNull(path, "Path required");
         this.module = StringUtils.stripToEmpty(module);
+        this.name = name;
         this.path = path;
     }
 
@@ -75,11 +104,17 @@ public class LogicalPath {
         if (o == null) {
             throw new NullPointerException();
         }
-        return getName().compareTo(o.getName());
+        if (o == this) {
+            return 0;
+        }
+        return name.compareTo(o.name);
     }
 
     @Override
     public boolean equals(final Object obj) {
+        if (obj == this) {
+            return true;
+        }
         return obj instanceof LogicalPath && compareTo((LogicalPath) obj) == 0;
     }
 
@@ -98,12 +133,7 @@ public class LogicalPath {
      * @return a non-blank name
      */
     public String getName() {
-        final StringBuilder name = new StringBuilder();
-        if (StringUtils.isNotBlank(module)) {
-            name.append(module).append(MODULE_PATH_SEPARATOR);
-        }
-        name.append(path);
-        return name.toString();
+        return name;
     }
 
     /**
@@ -127,7 +157,7 @@ public class LogicalPath {
 
     @Override
     public int hashCode() {
-        return getName().hashCode();
+        return name.hashCode();
     }
 
     /**
@@ -2,6 +2,7 @@ package org.springframework.roo.project;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.springframework.roo.project.LogicalPath.MODULE_PATH_SEPARATOR;
 
@@ -119,6 +120,12 @@ public class LogicalPathTest {
         assertGetInstance(null, "", PATH.toString());
     }
 
+    @Test
+    public void testGetInstanceReturnsCanonicalInstance() {
+        assertSame(LogicalPath.getInstance(PATH, MODULE_NAME),
+                LogicalPath.getInstance(MODULE_PLUS_PATH));
+    }
+
     @Test
     public void testModuleRootIsNotProjectRoot() {
         assertFalse(LogicalPath.getInstance(Path.ROOT, "web").isProjectRoot());
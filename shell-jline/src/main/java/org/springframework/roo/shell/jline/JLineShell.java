@@ -32,6 +32,7 @@ import org.apache.commons.lang3.SystemUtils;
 import org.apache.commons.lang3.Validate;
 import org.springframework.roo.shell.AbstractShell;
 import org.springframework.roo.shell.CommandMarker;
+import org.springframework.roo.shell.CommandServer;
 import org.springframework.roo.shell.ExitShellRequest;
 import org.springframework.roo.shell.Shell;
 import org.springframework.roo.shell.event.ShellStatus;
@@ -68,6 +69,7 @@ public abstract class JLineShell extends AbstractShell implements
     private static final boolean APPLE_TERMINAL = Boolean
             .getBoolean("is.apple.terminal");
     private static final String BEL = "\007";
+    private static final String DAEMON_PROPERTY = "roo.daemon";
     private static final char ESCAPE = 27;
 
     private static final boolean JANSI_AVAILABLE = isPresent(
@@ -534,12 +536,29 @@ public abstract class JLineShell extends AbstractShell implements
             }
             setShellStatus(Status.SHUTTING_DOWN);
         }
+        else if (Boolean.getBoolean(DAEMON_PROPERTY)) {
+            // Headless operation, taking commands from local clients
+            serveCommands();
+        }
         else {
             // Normal RPEL processing
             promptLoop();
         }
     }
 
+    private void serveCommands() {
+        setShellStatus(Status.USER_INPUT);
+        try {
+            new CommandServer(this, new File(CommandServer.DESCRIPTOR_FILE))
+                    .serve();
+        }
+        catch (final IOException e) {
+            logger.severe("Unable to accept commands: " + e.getMessage());
+            exitShellRequest = ExitShellRequest.FATAL_EXIT;
+        }
+        setShellStatus(Status.SHUTTING_DOWN);
+    }
+
     public void setDevelopmentMode(final boolean developmentMode) {
         JLineLogHandler.setIncludeThreadName(developmentMode);
         // We want to see duplicate messages during development time (ROO-1873)
@@ -105,7 +105,7 @@ public class SimpleParserComponent extends SimpleParser implements
     }
 
     @Override
-    @CliCommand(value = "help", help = "Shows system help")
+    @CliCommand(value = "help", help = "Shows system help", readOnly = true)
     public void obtainHelp(
             @CliOption(key = { "", "command" }, optionContext = "availableCommands", help = "Command name to provide help for") final String buffer) {
 
@@ -15,6 +15,19 @@ public @interface CliCommand {
      */
     String help() default "";
 
+    /**
+     * Indicates whether this command only reads the state of the project and
+     * the shell. A read-only command is run without the transaction that
+     * otherwise surrounds each command, i.e. without any undo tracking or file
+     * system scan afterwards, and can therefore run while the file system is
+     * being polled. It must not change any files, nor retrieve metadata that
+     * might not have been built yet, as building it can write ITDs.
+     * 
+     * @return <code>false</code> by default
+     * @since 1.2.5
+     */
+    boolean readOnly() default false;
+
     /**
      * @return one or more strings which must serve as the start of a particular
      *         command in order to match this method (these must be unique
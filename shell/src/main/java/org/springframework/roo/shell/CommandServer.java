@@ -0,0 +1,259 @@
+package org.springframework.roo.shell;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigInteger;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Properties;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+import java.util.logging.SimpleFormatter;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.Validate;
+import org.springframework.roo.support.logging.HandlerUtils;
+
+/**
+ * Serves the commands of a {@link Shell} to client processes on the local
+ * machine, so that a shell that has already started (and scanned its project)
+ * can execute commands and scripts on their behalf, e.g. for each step of a
+ * build pipeline.
+ * <p>
+ * The server listens on the loopback interface only, on a port chosen by the
+ * operating system. It records this port in a descriptor file, along with a
+ * random token that clients must present; the file can only be read by the
+ * user running the shell.
+ * <p>
+ * Each client connection sends the token and then a single command line, each
+ * followed by a line feed. The server executes the command and responds with
+ * the messages it logs, one line of text per line of response in the form
+ * <code><i>level</i>&lt;tab&gt;<i>text</i></code>, followed by a final
+ * <code>EXIT&lt;tab&gt;<i>code</i></code> line, where the exit code is 0 if the
+ * command succeeded and 1 if it failed.
+ * 
+ * @since 1.2.5
+ */
+public class CommandServer {
+
+    /**
+     * Collects the messages logged by the thread executing a command and sends
+     * them to the client as they are logged.
+     */
+    private static class ResponseHandler extends Handler {
+
+        private final Writer out;
+        private final Thread thread;
+
+        /**
+         * Constructor
+         * 
+         * @param out the writer of the response to the client
+         * @param thread the thread that executes the command
+         */
+        private ResponseHandler(final Writer out, final Thread thread) {
+            this.out = out;
+            this.thread = thread;
+            setFormatter(new SimpleFormatter());
+        }
+
+        @Override
+        public void close() {
+            // The connection is closed by the server
+        }
+
+        @Override
+        public void flush() {
+            try {
+                out.flush();
+            }
+            catch (final IOException ignored) {
+            }
+        }
+
+        @Override
+        public void publish(final LogRecord record) {
+            if (Thread.currentThread() != thread || !isLoggable(record)) {
+                // Logged by a background thread, not by the command
+                return;
+            }
+            final String message = getFormatter().formatMessage(record);
+            try {
+                for (final String line : String.valueOf(message).split(
+                        "\r?\n")) {
+                    writeLine(out, record.getLevel().getName(), line);
+                }
+                out.flush();
+            }
+            catch (final IOException ignored) {
+                // The client has gone, but the command carries on
+            }
+        }
+    }
+
+    /**
+     * The name of the descriptor file that a server creates in the directory
+     * in which the shell was launched
+     */
+    public static final String DESCRIPTOR_FILE = ".roo-daemon";
+
+    /**
+     * The encoding of requests and responses
+     */
+    public static final String ENCODING = "UTF-8";
+
+    /**
+     * The first field of the last line of each response
+     */
+    public static final String EXIT = "EXIT";
+
+    /**
+     * The key of the port in the descriptor file
+     */
+    public static final String PORT_KEY = "port";
+
+    /**
+     * The key of the token in the descriptor file
+     */
+    public static final String TOKEN_KEY = "token";
+
+    private static final Logger LOGGER = HandlerUtils
+            .getLogger(CommandServer.class);
+
+    /**
+     * How many milliseconds a client may take to send its request, so that a
+     * client that connects but never sends one doesn't block the server
+     */
+    private static final int REQUEST_TIMEOUT = 10000;
+
+    private static void writeLine(final Writer out, final String field,
+            final String text) throws IOException {
+        out.write(field + "\t" + text + "\n");
+    }
+
+    private final File descriptorFile;
+    private final Shell shell;
+
+    /**
+     * Constructor
+     * 
+     * @param shell the shell whose commands to serve (required)
+     * @param descriptorFile the file in which to describe the server to its
+     *            clients (required)
+     */
+    public CommandServer(final Shell shell, final File descriptorFile) {
+        Validate.notNull(shell, "Shell required");
+        Validate.notNull(descriptorFile, "Descriptor file required");
+        this.descriptorFile = descriptorFile;
+        this.shell = shell;
+    }
+
+    /**
+     * Serves commands, one client at a time, until one of them requests the
+     * shell to exit. This method blocks the calling thread, which is the
+     * thread that executes the commands.
+     * 
+     * @throws IOException if the server cannot be started
+     */
+    public void serve() throws IOException {
+        final ServerSocket serverSocket = new ServerSocket(0, 50,
+                InetAddress.getByName(null));
+        try {
+            final String token = writeDescriptor(serverSocket.getLocalPort());
+            LOGGER.info("Accepting commands on port "
+                    + serverSocket.getLocalPort() + " (see "
+                    + descriptorFile.getAbsolutePath() + ")");
+            while (shell.getExitShellRequest() == null) {
+                final Socket socket = serverSocket.accept();
+                try {
+                    handle(socket, token);
+                }
+                catch (final IOException e) {
+                    // Including a request that timed out
+                    LOGGER.fine("Lost client connection: " + e.getMessage());
+                }
+                finally {
+                    IOUtils.closeQuietly(socket);
+                }
+            }
+        }
+        finally {
+            IOUtils.closeQuietly(serverSocket);
+            FileUtils.deleteQuietly(descriptorFile);
+        }
+    }
+
+    private void handle(final Socket socket, final String token)
+            throws IOException {
+        socket.setSoTimeout(REQUEST_TIMEOUT);
+        final BufferedReader in = new BufferedReader(new InputStreamReader(
+                socket.getInputStream(), ENCODING));
+        final Writer out = new OutputStreamWriter(socket.getOutputStream(),
+                ENCODING);
+        final String clientToken = in.readLine();
+        if (clientToken == null
+                || !MessageDigest.isEqual(token.getBytes(ENCODING),
+                        clientToken.getBytes(ENCODING))) {
+            writeLine(out, Level.SEVERE.getName(), "Invalid token");
+            writeLine(out, EXIT, "1");
+            out.flush();
+            return;
+        }
+        final String line = in.readLine();
+        if (line == null) {
+            return;
+        }
+
+        final Logger rootLogger = Logger.getLogger("");
+        final Handler handler = new ResponseHandler(out,
+                Thread.currentThread());
+        rootLogger.addHandler(handler);
+        final boolean success;
+        try {
+            success = shell.executeCommand(line);
+        }
+        finally {
+            rootLogger.removeHandler(handler);
+        }
+        writeLine(out, EXIT, success ? "0" : "1");
+        out.flush();
+    }
+
+    private String writeDescriptor(final int port) throws IOException {
+        final String token = new BigInteger(130, new SecureRandom())
+                .toString(32);
+        final Properties descriptor = new Properties();
+        descriptor.setProperty(PORT_KEY, String.valueOf(port));
+        descriptor.setProperty(TOKEN_KEY, token);
+
+        // Only the owner may read the token
+        FileUtils.deleteQuietly(descriptorFile);
+        descriptorFile.createNewFile();
+        descriptorFile.setReadable(false, false);
+        descriptorFile.setWritable(false, false);
+        descriptorFile.setReadable(true, true);
+        descriptorFile.setWritable(true, true);
+        descriptorFile.deleteOnExit();
+        OutputStream out = null;
+        try {
+            out = new FileOutputStream(descriptorFile);
+            descriptor.store(out, "Spring Roo daemon");
+        }
+        finally {
+            IOUtils.closeQuietly(out);
+        }
+        return token;
+    }
+}
@@ -0,0 +1,159 @@
+package org.springframework.roo.shell;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.logging.Logger;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+/**
+ * Unit test of {@link CommandServer}
+ * 
+ * @since 1.2.5
+ */
+public class CommandServerTest {
+
+    private static final String COMMAND = "hint";
+    private static final String QUIT = "quit";
+
+    @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+    private File descriptorFile;
+    private volatile ExitShellRequest exitShellRequest;
+    private Shell mockShell;
+    private Thread serverThread;
+
+    private List<String> send(final String token, final String command)
+            throws Exception {
+        final Socket socket = new Socket(InetAddress.getByName(null),
+                Integer.parseInt(readDescriptor().getProperty(
+                        CommandServer.PORT_KEY)));
+        try {
+            final Writer out = new OutputStreamWriter(
+                    socket.getOutputStream(), CommandServer.ENCODING);
+            out.write(token + "\n" + command + "\n");
+            out.flush();
+            final List<String> lines = new ArrayList<String>();
+            final BufferedReader in = new BufferedReader(new InputStreamReader(
+                    socket.getInputStream(), CommandServer.ENCODING));
+            String line;
+            while ((line = in.readLine()) != null) {
+                lines.add(line);
+            }
+            return lines;
+        }
+        finally {
+            IOUtils.closeQuietly(socket);
+        }
+    }
+
+    private Properties readDescriptor() throws Exception {
+        final Properties descriptor = new Properties();
+        final InputStream in = new FileInputStream(descriptorFile);
+        try {
+            descriptor.load(in);
+        }
+        finally {
+            IOUtils.closeQuietly(in);
+        }
+        return descriptor;
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        descriptorFile = new File(folder.getRoot(),
+                CommandServer.DESCRIPTOR_FILE);
+        mockShell = mock(Shell.class);
+        when(mockShell.executeCommand(COMMAND)).thenAnswer(
+                new Answer<Boolean>() {
+                    public Boolean answer(final InvocationOnMock invocation) {
+                        Logger.getLogger(getClass().getName()).info(
+                                "First\nSecond");
+                        return true;
+                    }
+                });
+        when(mockShell.executeCommand(QUIT)).thenAnswer(new Answer<Boolean>() {
+            public Boolean answer(final InvocationOnMock invocation) {
+                exitShellRequest = ExitShellRequest.NORMAL_EXIT;
+                return true;
+            }
+        });
+        when(mockShell.getExitShellRequest()).thenAnswer(
+                new Answer<ExitShellRequest>() {
+                    public ExitShellRequest answer(
+                            final InvocationOnMock invocation) {
+                        return exitShellRequest;
+                    }
+                });
+
+        serverThread = new Thread(new Runnable() {
+            public void run() {
+                try {
+                    new CommandServer(mockShell, descriptorFile).serve();
+                }
+                catch (final Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        });
+        serverThread.start();
+        while (!descriptorFile.isFile() || readDescriptor().size() < 2) {
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    public void testExecutesCommandUntilShellExits() throws Exception {
+        // Invoke
+        final String token = readDescriptor().getProperty(
+                CommandServer.TOKEN_KEY);
+        final List<String> response = send(token, COMMAND);
+        send(token, QUIT);
+        serverThread.join(10000);
+
+        // Check
+        assertEquals(Arrays.asList("INFO\tFirst", "INFO\tSecond", "EXIT\t0"),
+                response);
+        assertFalse(serverThread.isAlive());
+        assertFalse(descriptorFile.exists());
+    }
+
+    @Test
+    public void testRejectsInvalidToken() throws Exception {
+        // Invoke
+        final List<String> response = send("wrong", COMMAND);
+
+        // Check
+        assertEquals(Arrays.asList("SEVERE\tInvalid token", "EXIT\t1"),
+                response);
+        verify(mockShell, never()).executeCommand(COMMAND);
+
+        // Tear down
+        send(readDescriptor().getProperty(CommandServer.TOKEN_KEY), QUIT);
+        serverThread.join(10000);
+    }
+}
@@ -3,6 +3,8 @@ package org.springframework.roo.startlevel;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.SortedMap;
 import java.util.SortedSet;
 import java.util.TreeMap;
@@ -17,6 +19,7 @@ import org.osgi.framework.BundleContext;
 import org.osgi.framework.ServiceEvent;
 import org.osgi.framework.ServiceListener;
 import org.osgi.framework.ServiceReference;
+import org.osgi.framework.ServiceRegistration;
 import org.osgi.service.startlevel.StartLevel;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
@@ -38,16 +41,31 @@ import org.w3c.dom.NodeList;
  * Note that this functionality is only provided for services (simple components
  * are insufficient). Services must be defined in the XML file indicated by the
  * "Service-Component" manifest header.
+ * <p>
+ * This activator also records a {@link StartupTimeline}, registered as a
+ * service, and if the "roo.startup.defer" system property is set, defers the
+ * bundles it names (or, if set to "default", some add-ons that most projects
+ * don't use) until the shell has completed startup.
  * 
  * @author Ben Alex
  */
 public class Activator implements BundleActivator {
 
+    private static final Collection<String> DEFAULT_DEFERRED_BUNDLES = Arrays
+            .asList("org.springframework.roo.addon.cloud.foundry",
+                    "org.springframework.roo.addon.gwt",
+                    "org.springframework.roo.addon.jsf");
+    private static final String DEFER_PROPERTY = "roo.startup.defer";
+
     /** key: required class, any one of its services interfaces */
     private final SortedMap<String, String> requiredImplementations = new TreeMap<String, String>();
     private final SortedSet<String> runningImplementations = new TreeSet<String>();
     private StartLevel startLevel;
+    private boolean startLevelReached;
     private ServiceReference startLevelServiceReference;
+    private final StartupTimeline timeline = new StartupTimeline();
+    private ServiceRegistration timelineRegistration;
+    private long timelineStart;
 
     private String getClassName(final ServiceReference sr,
             final BundleContext context) {
@@ -81,8 +99,29 @@ public class Activator implements BundleActivator {
         return obj.getClass().getName();
     }
 
+    private Collection<String> getDeferredBundles() {
+        final String value = System.getProperty(DEFER_PROPERTY);
+        if (value == null || value.trim().length() == 0) {
+            return new TreeSet<String>();
+        }
+        if ("default".equals(value.trim())) {
+            return DEFAULT_DEFERRED_BUNDLES;
+        }
+        final SortedSet<String> symbolicNames = new TreeSet<String>();
+        for (final String symbolicName : value.split(",")) {
+            if (symbolicName.trim().length() > 0) {
+                symbolicNames.add(symbolicName.trim());
+            }
+        }
+        return symbolicNames;
+    }
+
     private void potentiallyChangeStartLevel() {
-        if (requiredImplementations.keySet().equals(runningImplementations)) {
+        // Only ever raise the start level; once startup has completed the
+        // framework may be above 99 (see StartupTimeline#DEFERRED_START_LEVEL)
+        if (!startLevelReached
+                && requiredImplementations.keySet().equals(
+                        runningImplementations)) {
             if (System.getProperty("roo.pause") != null) {
                 System.out
                         .println("roo.pause detected; press any key to proceed");
@@ -92,6 +131,9 @@ public class Activator implements BundleActivator {
                 catch (final IOException ignored) {
                 }
             }
+            startLevelReached = true;
+            timeline.recordPhase("Immediate components activated",
+                    timelineStart, System.currentTimeMillis());
             startLevel.setStartLevel(99);
         }
     }
@@ -168,11 +210,31 @@ public class Activator implements BundleActivator {
     }
 
     public void start(final BundleContext context) throws Exception {
+        timelineStart = System.currentTimeMillis();
+        context.addBundleListener(timeline);
+        context.addServiceListener(timeline);
+        timelineRegistration = context.registerService(
+                StartupTimeline.class.getName(), timeline, null);
+
         startLevelServiceReference = context
                 .getServiceReference(StartLevel.class.getName());
         startLevel = (StartLevel) context
                 .getService(startLevelServiceReference);
+        final Collection<String> deferredBundles = getDeferredBundles();
         for (final Bundle bundle : context.getBundles()) {
+            if (deferredBundles.contains(bundle.getSymbolicName())
+                    && bundle.getState() != Bundle.ACTIVE) {
+                // Its immediate services are not required for startup
+                startLevel.setBundleStartLevel(bundle,
+                        StartupTimeline.DEFERRED_START_LEVEL);
+                timeline.recordDeferredBundle(bundle.getSymbolicName());
+                continue;
+            }
+            if (startLevel.getBundleStartLevel(bundle) == StartupTimeline.DEFERRED_START_LEVEL) {
+                // Deferred by an earlier session (start levels are persistent)
+                startLevel.setBundleStartLevel(bundle,
+                        startLevel.getInitialBundleStartLevel());
+            }
             final Object value = bundle.getHeaders().get("Service-Component");
             if (value != null) {
                 final URL url = bundle.getResource(value.toString());
@@ -234,6 +296,9 @@ public class Activator implements BundleActivator {
     }
 
     public void stop(final BundleContext context) throws Exception {
+        context.removeBundleListener(timeline);
+        context.removeServiceListener(timeline);
+        timelineRegistration.unregister();
         context.ungetService(startLevelServiceReference);
     }
 }
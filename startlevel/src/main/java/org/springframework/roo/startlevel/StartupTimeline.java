@@ -0,0 +1,205 @@
+package org.springframework.roo.startlevel;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import org.apache.commons.io.IOUtils;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleEvent;
+import org.osgi.framework.ServiceEvent;
+import org.osgi.framework.ServiceListener;
+import org.osgi.framework.ServiceReference;
+import org.osgi.framework.SynchronousBundleListener;
+
+/**
+ * Records when each bundle is resolved and started, when each component
+ * registers its service, and how long the named startup phases take, so that
+ * slow startups can be attributed to the bundles and components responsible.
+ * <p>
+ * All times are reported in milliseconds since the JVM was launched. Bundles
+ * that started before the timeline was created are listed without a start
+ * duration.
+ * 
+ * @since 1.2.5
+ */
+public class StartupTimeline implements ServiceListener,
+        SynchronousBundleListener {
+
+    private static class BundleTiming {
+        long resolved = -1;
+        long started = -1;
+        long starting = -1;
+    }
+
+    private static class Timing {
+        final long end;
+        final String name;
+        final long start;
+
+        Timing(final String name, final long start, final long end) {
+            this.name = name;
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    /**
+     * The start level of bundles whose startup is deferred until the shell is
+     * available; one above the level at which the shell completes startup.
+     */
+    public static final int DEFERRED_START_LEVEL = 100;
+
+    private static final String COMPONENT_NAME = "component.name";
+
+    private final Map<String, BundleTiming> bundles = new LinkedHashMap<String, BundleTiming>();
+    private final List<Timing> components = new ArrayList<Timing>();
+    private final SortedSet<String> deferredBundles = new TreeSet<String>();
+    private final long launchTime;
+    private final List<Timing> phases = new ArrayList<Timing>();
+
+    /**
+     * Constructor that measures times from the launch of the JVM
+     */
+    public StartupTimeline() {
+        launchTime = ManagementFactory.getRuntimeMXBean().getStartTime();
+    }
+
+    public synchronized void bundleChanged(final BundleEvent event) {
+        final long now = System.currentTimeMillis();
+        final BundleTiming timing = getBundleTiming(event.getBundle());
+        switch (event.getType()) {
+        case BundleEvent.RESOLVED:
+            timing.resolved = now;
+            break;
+        case BundleEvent.STARTING:
+            timing.starting = now;
+            break;
+        case BundleEvent.STARTED:
+            timing.started = now;
+            break;
+        default:
+            break;
+        }
+    }
+
+    /**
+     * Returns the symbolic names of the bundles whose startup has been
+     * deferred until the shell is available.
+     * 
+     * @return a non-<code>null</code> unmodifiable collection
+     */
+    public synchronized Collection<String> getDeferredBundles() {
+        return Collections.unmodifiableCollection(new ArrayList<String>(
+                deferredBundles));
+    }
+
+    /**
+     * Returns a human-readable report of the recorded timeline.
+     * 
+     * @return a non-blank report
+     */
+    public synchronized String getReport() {
+        final StringBuilder sb = new StringBuilder();
+        sb.append("Startup phases (ms since launch):")
+                .append(IOUtils.LINE_SEPARATOR);
+        for (final Timing phase : phases) {
+            appendLine(sb, phase.end - phase.start, phase.name + " ("
+                    + offset(phase.start) + " - " + offset(phase.end) + ")");
+        }
+
+        sb.append(IOUtils.LINE_SEPARATOR)
+                .append("Bundles (start duration ms, resolved/started ms since launch):")
+                .append(IOUtils.LINE_SEPARATOR);
+        for (final Map.Entry<String, BundleTiming> entry : bundles.entrySet()) {
+            final BundleTiming timing = entry.getValue();
+            final long duration = timing.starting < 0 || timing.started < 0 ? -1
+                    : timing.started - timing.starting;
+            appendLine(sb, duration, entry.getKey() + " ("
+                    + offset(timing.resolved) + "/" + offset(timing.started)
+                    + ")");
+        }
+
+        sb.append(IOUtils.LINE_SEPARATOR)
+                .append("Components (ms from bundle started to service registered):")
+                .append(IOUtils.LINE_SEPARATOR);
+        for (final Timing component : components) {
+            appendLine(sb, component.start < 0 ? -1 : component.end
+                    - component.start, component.name + " ("
+                    + offset(component.end) + ")");
+        }
+
+        if (!deferredBundles.isEmpty()) {
+            sb.append(IOUtils.LINE_SEPARATOR)
+                    .append("Deferred bundles: ").append(deferredBundles);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Records that the given bundle's startup has been deferred.
+     * 
+     * @param symbolicName the bundle's symbolic name
+     */
+    public synchronized void recordDeferredBundle(final String symbolicName) {
+        deferredBundles.add(symbolicName);
+    }
+
+    /**
+     * Records how long a named phase of startup took.
+     * 
+     * @param name the name of the phase
+     * @param start the time the phase started, as per
+     *            {@link System#currentTimeMillis()}
+     * @param end the time the phase ended, as per
+     *            {@link System#currentTimeMillis()}
+     */
+    public synchronized void recordPhase(final String name, final long start,
+            final long end) {
+        phases.add(new Timing(name, start, end));
+    }
+
+    public synchronized void serviceChanged(final ServiceEvent event) {
+        if (event.getType() != ServiceEvent.REGISTERED) {
+            return;
+        }
+        final ServiceReference sr = event.getServiceReference();
+        final Object componentName = sr.getProperty(COMPONENT_NAME);
+        if (componentName == null || sr.getBundle() == null) {
+            return;
+        }
+        final BundleTiming timing = getBundleTiming(sr.getBundle());
+        components.add(new Timing(componentName.toString(), timing.started,
+                System.currentTimeMillis()));
+    }
+
+    private void appendLine(final StringBuilder sb, final long duration,
+            final String text) {
+        final String formatted = duration < 0 ? "-" : String.valueOf(duration);
+        for (int i = formatted.length(); i < 8; i++) {
+            sb.append(' ');
+        }
+        sb.append(formatted).append("  ").append(text)
+                .append(IOUtils.LINE_SEPARATOR);
+    }
+
+    private BundleTiming getBundleTiming(final Bundle bundle) {
+        final String symbolicName = String.valueOf(bundle.getSymbolicName());
+        BundleTiming timing = bundles.get(symbolicName);
+        if (timing == null) {
+            timing = new BundleTiming();
+            bundles.put(symbolicName, timing);
+        }
+        return timing;
+    }
+
+    private String offset(final long time) {
+        return time < 0 ? "-" : String.valueOf(time - launchTime);
+    }
+}
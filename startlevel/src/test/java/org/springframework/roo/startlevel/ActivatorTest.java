@@ -0,0 +1,116 @@
+package org.springframework.roo.startlevel;
+
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.util.Hashtable;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.ServiceEvent;
+import org.osgi.framework.ServiceListener;
+import org.osgi.framework.ServiceReference;
+import org.osgi.service.startlevel.StartLevel;
+
+/**
+ * Unit test of {@link Activator}
+ * 
+ * @since 1.2.5
+ */
+public class ActivatorTest {
+
+    private static final String COMPONENT_XML = "<components xmlns:scr=\"http://www.osgi.org/xmlns/scr/v1.0.0\">"
+            + "<scr:component enabled=\"true\" immediate=\"true\" name=\"com.example.ServiceImpl\">"
+            + "<implementation class=\"com.example.ServiceImpl\"/>"
+            + "<service><provide interface=\"com.example.Service\"/></service>"
+            + "</scr:component></components>";
+    private static final String SERVICE_COMPONENT = "OSGI-INF/serviceComponents.xml";
+
+    // Fixture
+    private Activator activator;
+    @Mock private Bundle mockBundle;
+    @Mock private BundleContext mockContext;
+    @Mock private ServiceReference mockServiceReference;
+    @Mock private StartLevel mockStartLevel;
+    @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private ServiceListener getServiceListener() {
+        final ArgumentCaptor<ServiceListener> listeners = ArgumentCaptor
+                .forClass(ServiceListener.class);
+        verify(mockContext, times(2)).addServiceListener(listeners.capture());
+        final List<ServiceListener> values = listeners.getAllValues();
+        // The first is the startup timeline
+        return values.get(values.size() - 1);
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        final File componentXml = temporaryFolder
+                .newFile("serviceComponents.xml");
+        FileUtils.writeStringToFile(componentXml, COMPONENT_XML);
+        final Hashtable<String, String> headers = new Hashtable<String, String>();
+        headers.put("Service-Component", SERVICE_COMPONENT);
+        when(mockBundle.getHeaders()).thenReturn(headers);
+        when(mockBundle.getResource(SERVICE_COMPONENT)).thenReturn(
+                componentXml.toURI().toURL());
+        when(mockBundle.getSymbolicName()).thenReturn("com.example");
+
+        final ServiceReference startLevelReference = mock(ServiceReference.class);
+        when(mockContext.getServiceReference(StartLevel.class.getName()))
+                .thenReturn(startLevelReference);
+        when(mockContext.getService(startLevelReference)).thenReturn(
+                mockStartLevel);
+        when(mockContext.getBundles()).thenReturn(new Bundle[] { mockBundle });
+        when(mockContext.getServiceReferences("com.example.Service", null))
+                .thenReturn(new ServiceReference[] { mockServiceReference });
+        when(mockServiceReference.getProperty("component.name")).thenReturn(
+                "com.example.ServiceImpl");
+        when(mockServiceReference.getBundle()).thenReturn(mockBundle);
+
+        activator = new Activator();
+    }
+
+    @Test
+    public void testStartLevelIsRaisedOnceTheRequiredServicesAreRunning()
+            throws Exception {
+        // Invoke
+        activator.start(mockContext);
+
+        // Check
+        verify(mockStartLevel).setStartLevel(99);
+    }
+
+    @Test
+    public void testReRegisteredServiceDoesNotLowerTheStartLevel()
+            throws Exception {
+        // Set up
+        activator.start(mockContext);
+        when(mockStartLevel.getStartLevel()).thenReturn(
+                StartupTimeline.DEFERRED_START_LEVEL);
+        final ServiceListener listener = getServiceListener();
+
+        // Invoke
+        listener.serviceChanged(new ServiceEvent(ServiceEvent.UNREGISTERING,
+                mockServiceReference));
+        listener.serviceChanged(new ServiceEvent(ServiceEvent.REGISTERED,
+                mockServiceReference));
+
+        // Check
+        verify(mockStartLevel, times(1)).setStartLevel(anyInt());
+        verify(mockStartLevel, times(1)).setStartLevel(99);
+    }
+}
@@ -35,10 +35,12 @@ public abstract class BundleFindingUtils {
         if (bundles == null) {
             return null;
         }
+        final BundleResourceIndex index = BundleResourceIndex
+                .getInstance(context);
 
         for (final Bundle bundle : bundles) {
             try {
-                final URL url = bundle.getEntry(resourceName);
+                final URL url = index.getEntry(bundle, resourceName);
                 if (url != null) {
                     return bundle.getSymbolicName();
                 }
@@ -72,10 +74,12 @@ public abstract class BundleFindingUtils {
         if (bundles == null) {
             return null;
         }
+        final BundleResourceIndex index = BundleResourceIndex
+                .getInstance(context);
 
         for (final Bundle bundle : bundles) {
             try {
-                final URL url = bundle.getEntry(resourceName);
+                final URL url = index.getEntry(bundle, resourceName);
                 if (url != null) {
                     return bundle.loadClass(typeNameInExternalForm);
                 }
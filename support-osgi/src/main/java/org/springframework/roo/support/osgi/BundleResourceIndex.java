@@ -0,0 +1,332 @@
+package org.springframework.roo.support.osgi;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.Validate;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.BundleEvent;
+import org.osgi.framework.Constants;
+import org.osgi.framework.SynchronousBundleListener;
+import org.springframework.roo.support.ant.AntPathMatcher;
+import org.springframework.roo.support.ant.PathMatcher;
+
+/**
+ * An in-memory index of the entries of each bundle in the OSGi framework,
+ * keyed by path.
+ * <p>
+ * A bundle's entries are enumerated the first time they are looked up, and
+ * discarded whenever the bundle is unresolved, updated or uninstalled, so that
+ * later lookups are answered from memory instead of by asking every bundle to
+ * search its content again. One index is shared by all users of a framework,
+ * as returned by {@link #getInstance(BundleContext)}.
+ * <p>
+ * When the framework stops, the paths of the indexed entries are written to
+ * its storage area, and the next launch reuses those of bundles that have not
+ * been modified since. Their URLs are obtained when they are matched, by
+ * searching the entry's own directory with
+ * {@link Bundle#findEntries(String, String, boolean)}, which unlike
+ * {@link Bundle#getEntry(String)} includes the entries of attached fragments.
+ * 
+ * @since 1.2.5
+ */
+public final class BundleResourceIndex implements SynchronousBundleListener {
+
+    private static final String INDEX_FILE = "roo-resource-index.dat";
+    private static final int INDEX_FILE_VERSION = 1;
+    private static BundleResourceIndex instance;
+    private static final PathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    /**
+     * Returns the index for the framework of the given context. If that
+     * framework's system bundle context cannot be obtained (e.g. in unit
+     * tests), the returned index does not retain any entries between lookups.
+     * 
+     * @param context any bundle context of the framework (required)
+     * @return a non-<code>null</code> index
+     */
+    public static synchronized BundleResourceIndex getInstance(
+            final BundleContext context) {
+        Validate.notNull(context, "Bundle context required");
+        final Bundle systemBundle = context.getBundle(0);
+        final BundleContext systemContext = systemBundle == null ? null
+                : systemBundle.getBundleContext();
+        if (systemContext == null) {
+            return new BundleResourceIndex(null);
+        }
+        if (instance == null || instance.context != systemContext) {
+            instance = new BundleResourceIndex(systemContext);
+            instance.load();
+            systemContext.addBundleListener(instance);
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the literal part of the given Ant-style path up to its first
+     * wildcard, which every matching path must start with.
+     * 
+     * @param antPathExpression the pattern (required)
+     * @return a non-<code>null</code> prefix
+     */
+    static String getLiteralPrefix(final String antPathExpression) {
+        for (int i = 0; i < antPathExpression.length(); i++) {
+            final char c = antPathExpression.charAt(i);
+            if (c == '*' || c == '?' || c == '{') {
+                return antPathExpression.substring(0, i);
+            }
+        }
+        return antPathExpression;
+    }
+
+    private final BundleContext context;
+    private volatile boolean dirty;
+    private final Map<Long, SortedMap<String, URL>> entries = new ConcurrentHashMap<Long, SortedMap<String, URL>>();
+
+    /**
+     * Constructor
+     * 
+     * @param context the system bundle context, or <code>null</code> if
+     *            entries should not be retained
+     */
+    private BundleResourceIndex(final BundleContext context) {
+        this.context = context;
+    }
+
+    public void bundleChanged(final BundleEvent event) {
+        switch (event.getType()) {
+        case BundleEvent.STOPPING:
+            if (event.getBundle().getBundleId() == 0) {
+                // The framework is shutting down
+                store();
+            }
+            break;
+        case BundleEvent.UNRESOLVED:
+        case BundleEvent.UPDATED:
+        case BundleEvent.UNINSTALLED:
+            entries.remove(event.getBundle().getBundleId());
+            dirty = true;
+            break;
+        default:
+            break;
+        }
+    }
+
+    /**
+     * Returns the URLs of the entries of the given bundle whose paths match
+     * the given Ant-style path.
+     * 
+     * @param bundle the bundle to search (required)
+     * @param antPathExpression the pattern for matching paths against
+     *            (required)
+     * @return a non-<code>null</code> collection
+     * @throws IllegalStateException if the bundle has been uninstalled
+     * @see AntPathMatcher#match(String, String)
+     */
+    public Collection<URL> findEntries(final Bundle bundle,
+            final String antPathExpression) {
+        final SortedMap<String, URL> bundleEntries = getEntries(bundle);
+        final String prefix = getLiteralPrefix(antPathExpression);
+        final SortedMap<String, URL> candidates = prefix.length() == 0 ? bundleEntries
+                : bundleEntries.subMap(prefix, prefix + Character.MAX_VALUE);
+        final Collection<URL> urls = new ArrayList<URL>();
+        for (final Map.Entry<String, URL> entry : candidates.entrySet()) {
+            if (PATH_MATCHER.match(antPathExpression, entry.getKey())) {
+                final URL url = getUrl(bundle, entry);
+                if (url != null) {
+                    urls.add(url);
+                }
+            }
+        }
+        return urls;
+    }
+
+    /**
+     * Returns the entry of the given bundle with the given path. Once the
+     * bundle is resolved, this includes the entries of its attached fragments,
+     * as per {@link Bundle#findEntries(String, String, boolean)}. A bundle
+     * that has not been resolved yet is not resolved by this lookup; only its
+     * own entries are searched, as per {@link Bundle#getEntry(String)}.
+     * 
+     * @param bundle the bundle to search (required)
+     * @param path the path of the entry, relative to the root of the bundle
+     * @return <code>null</code> if there is no such entry
+     * @throws IllegalStateException if the bundle has been uninstalled
+     */
+    public URL getEntry(final Bundle bundle, final String path) {
+        final String key = path.startsWith(OSGiUtils.ROOT_PATH) ? path
+                : OSGiUtils.ROOT_PATH + path;
+        if (context == null
+                || bundle.getState() == Bundle.INSTALLED
+                && !entries.containsKey(bundle.getBundleId())) {
+            return bundle.getEntry(key);
+        }
+        final SortedMap<String, URL> bundleEntries = getEntries(bundle);
+        final URL url = bundleEntries.get(key);
+        if (url == null && bundleEntries.containsKey(key)) {
+            // Restored from a previous launch
+            return getRestoredEntry(bundle, key);
+        }
+        return url;
+    }
+
+    @SuppressWarnings("unchecked")
+    private SortedMap<String, URL> getEntries(final Bundle bundle) {
+        final Long bundleId = bundle.getBundleId();
+        SortedMap<String, URL> bundleEntries = entries.get(bundleId);
+        if (bundleEntries == null) {
+            bundleEntries = new TreeMap<String, URL>();
+            final Enumeration<URL> enumeration = bundle.findEntries(
+                    OSGiUtils.ROOT_PATH, "*", true);
+            if (enumeration != null) {
+                while (enumeration.hasMoreElements()) {
+                    final URL url = enumeration.nextElement();
+                    bundleEntries.put(url.getPath(), url);
+                }
+            }
+            bundleEntries = Collections.unmodifiableSortedMap(bundleEntries);
+            // An unresolved bundle's entries exclude those of its fragments
+            if (context != null && bundle.getState() != Bundle.UNINSTALLED
+                    && bundle.getState() != Bundle.INSTALLED) {
+                entries.put(bundleId, bundleEntries);
+                dirty = true;
+            }
+        }
+        return bundleEntries;
+    }
+
+    private File getIndexFile() {
+        final String storage = context.getProperty(Constants.FRAMEWORK_STORAGE);
+        return storage == null ? null : new File(storage, INDEX_FILE);
+    }
+
+    /**
+     * Returns the URL of an entry whose path was restored from a previous
+     * launch, which may belong to one of the bundle's fragments.
+     * 
+     * @param bundle the bundle to search (required)
+     * @param path the absolute path of the entry (required)
+     * @return <code>null</code> if the entry no longer exists
+     */
+    @SuppressWarnings("unchecked")
+    private URL getRestoredEntry(final Bundle bundle, final String path) {
+        if (bundle.getState() == Bundle.INSTALLED) {
+            // No fragments are attached yet; don't resolve it to find out
+            return bundle.getEntry(path);
+        }
+        final int nameIndex = path.lastIndexOf('/') + 1;
+        final Enumeration<URL> urls = bundle.findEntries(
+                path.substring(0, nameIndex), path.substring(nameIndex),
+                false);
+        return urls == null || !urls.hasMoreElements() ? null : urls
+                .nextElement();
+    }
+
+    private URL getUrl(final Bundle bundle, final Map.Entry<String, URL> entry) {
+        if (entry.getValue() == null) {
+            // Restored from a previous launch
+            return getRestoredEntry(bundle, entry.getKey());
+        }
+        return entry.getValue();
+    }
+
+    /**
+     * Restores the entries of the bundles that have not been modified since
+     * they were last stored.
+     */
+    private void load() {
+        final File file = getIndexFile();
+        if (file == null || !file.isFile()) {
+            return;
+        }
+        DataInputStream in = null;
+        try {
+            in = new DataInputStream(new BufferedInputStream(
+                    new FileInputStream(file)));
+            if (in.readInt() != INDEX_FILE_VERSION) {
+                return;
+            }
+            final int bundleCount = in.readInt();
+            for (int i = 0; i < bundleCount; i++) {
+                final long bundleId = in.readLong();
+                final long lastModified = in.readLong();
+                final int pathCount = in.readInt();
+                final SortedMap<String, URL> bundleEntries = new TreeMap<String, URL>();
+                for (int j = 0; j < pathCount; j++) {
+                    bundleEntries.put(in.readUTF(), null);
+                }
+                final Bundle bundle = context.getBundle(bundleId);
+                if (bundle != null && bundle.getLastModified() == lastModified) {
+                    entries.put(bundleId,
+                            Collections.unmodifiableSortedMap(bundleEntries));
+                }
+            }
+        }
+        catch (final IOException e) {
+            // Corrupt or truncated; the entries will be enumerated again
+            entries.clear();
+        }
+        finally {
+            IOUtils.closeQuietly(in);
+        }
+    }
+
+    /**
+     * Writes the paths of the indexed entries to the framework's storage area,
+     * if they have changed since they were loaded.
+     */
+    private void store() {
+        final File file = getIndexFile();
+        if (file == null || !dirty) {
+            return;
+        }
+        DataOutputStream out = null;
+        try {
+            FileUtils.forceMkdir(file.getParentFile());
+            out = new DataOutputStream(new BufferedOutputStream(
+                    new FileOutputStream(file)));
+            out.writeInt(INDEX_FILE_VERSION);
+            final Map<Long, SortedMap<String, URL>> snapshot = new TreeMap<Long, SortedMap<String, URL>>(
+                    entries);
+            out.writeInt(snapshot.size());
+            for (final Map.Entry<Long, SortedMap<String, URL>> bundleEntries : snapshot
+                    .entrySet()) {
+                final Bundle bundle = context.getBundle(bundleEntries.getKey());
+                out.writeLong(bundleEntries.getKey());
+                out.writeLong(bundle == null ? -1 : bundle.getLastModified());
+                out.writeInt(bundleEntries.getValue().size());
+                for (final String path : bundleEntries.getValue().keySet()) {
+                    out.writeUTF(path);
+                }
+            }
+            dirty = false;
+        }
+        catch (final IOException e) {
+            // The index will be rebuilt on the next launch
+            IOUtils.closeQuietly(out);
+            out = null;
+            FileUtils.deleteQuietly(file);
+        }
+        finally {
+            IOUtils.closeQuietly(out);
+        }
+    }
+}
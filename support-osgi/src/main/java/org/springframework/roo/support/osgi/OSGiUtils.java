@@ -5,14 +5,12 @@ import java.net.URISyntaxException;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Enumeration;
 
 import org.apache.commons.lang3.Validate;
 import org.osgi.framework.Bundle;
 import org.osgi.framework.BundleContext;
 import org.osgi.service.component.ComponentContext;
 import org.springframework.roo.support.ant.AntPathMatcher;
-import org.springframework.roo.support.ant.PathMatcher;
 
 /**
  * Utility methods relating to OSGi
@@ -22,8 +20,6 @@ import org.springframework.roo.support.ant.PathMatcher;
  */
 public final class OSGiUtils {
 
-    private static final PathMatcher PATH_MATCHER = new AntPathMatcher();
-
     /**
      * The name of the property that stores the Roo working directory.
      */
@@ -74,10 +70,15 @@ public final class OSGiUtils {
         // We use a collection of URIs to avoid duplication in the collection of
         // URLs; we can't simply use a Set of URLs because URL#equals is broken.
         final Collection<URI> uris = new ArrayList<URI>();
+        if (context == null) {
+            return urls;
+        }
+        final BundleResourceIndex index = BundleResourceIndex
+                .getInstance(context);
         OSGiUtils.execute(new BundleCallback() {
             public void execute(final Bundle bundle) {
                 try {
-                    final URL url = bundle.getEntry(path);
+                    final URL url = index.getEntry(bundle, path);
                     if (url != null) {
                         final URI uri = url.toURI();
                         if (!uris.contains(uri)) {
@@ -110,7 +111,6 @@ public final class OSGiUtils {
      *         non-<code>null</code> Set
      * @see AntPathMatcher#match(String, String)
      */
-    @SuppressWarnings("unchecked")
     public static Collection<URL> findEntriesByPattern(
             final BundleContext context, final String antPathExpression) {
         Validate.notBlank(antPathExpression,
@@ -119,29 +119,26 @@ public final class OSGiUtils {
         // We use a collection of URIs to avoid duplication in the collection of
         // URLs; we can't simply use a Set of URLs because URL#equals is broken.
         final Collection<URI> uris = new ArrayList<URI>();
+        if (context == null) {
+            return urls;
+        }
+        final BundleResourceIndex index = BundleResourceIndex
+                .getInstance(context);
         OSGiUtils.execute(new BundleCallback() {
             public void execute(final Bundle bundle) {
                 try {
-                    final Enumeration<URL> enumeration = bundle.findEntries(
-                            ROOT_PATH, "*", true);
-                    if (enumeration != null) {
-                        while (enumeration.hasMoreElements()) {
-                            final URL url = enumeration.nextElement();
-                            if (PATH_MATCHER.match(antPathExpression,
-                                    url.getPath())) {
-                                try {
-                                    final URI uri = url.toURI();
-                                    if (!uris.contains(uri)) {
-                                        urls.add(url);
-                                        uris.add(uri);
-                                    }
-                                }
-                                catch (final URISyntaxException e) {
-                                    // This URL can't be converted to a URI -
-                                    // ignore it
-                                }
+                    for (final URL url : index.findEntries(bundle,
+                            antPathExpression)) {
+                        try {
+                            final URI uri = url.toURI();
+                            if (!uris.contains(uri)) {
+                                urls.add(url);
+                                uris.add(uri);
                             }
                         }
+                        catch (final URISyntaxException e) {
+                            // This URL can't be converted to a URI - ignore it
+                        }
                     }
                 }
                 catch (final IllegalStateException e) {
@@ -0,0 +1,216 @@
+package org.springframework.roo.support.osgi;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.BundleEvent;
+import org.osgi.framework.Constants;
+
+/**
+ * Unit test of {@link BundleResourceIndex}
+ * 
+ * @since 1.2.5
+ */
+public class BundleResourceIndexTest {
+
+    private static final long BUNDLE_ID = 42;
+    private static final long LAST_MODIFIED = 1234;
+
+    @Rule public TemporaryFolder storage = new TemporaryFolder();
+
+    private URL classUrl;
+    private BundleResourceIndex index;
+    private Bundle mockBundle;
+    private Bundle mockSystemBundle;
+    private URL xmlUrl;
+
+    private BundleContext createSystemContext() {
+        final BundleContext mockSystemContext = mock(BundleContext.class);
+        when(mockSystemContext.getProperty(Constants.FRAMEWORK_STORAGE))
+                .thenReturn(storage.getRoot().getPath());
+        when(mockSystemContext.getBundle(BUNDLE_ID)).thenReturn(mockBundle);
+        mockSystemBundle = mock(Bundle.class);
+        when(mockSystemBundle.getBundleContext()).thenReturn(
+                mockSystemContext);
+        final BundleContext mockContext = mock(BundleContext.class);
+        when(mockContext.getBundle(0)).thenReturn(mockSystemBundle);
+        return mockContext;
+    }
+
+    private Enumeration<URL> getEntries() {
+        return Collections.enumeration(Arrays.asList(classUrl, xmlUrl));
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        classUrl = new URL("file:/com/foo/Bar.class");
+        xmlUrl = new URL("file:/META-INF/spring/context.xml");
+
+        mockBundle = mock(Bundle.class);
+        when(mockBundle.getBundleId()).thenReturn(BUNDLE_ID);
+        when(mockBundle.getLastModified()).thenReturn(LAST_MODIFIED);
+        when(mockBundle.getState()).thenReturn(Bundle.ACTIVE);
+        when(mockBundle.findEntries(OSGiUtils.ROOT_PATH, "*", true))
+                .thenReturn(getEntries(), getEntries());
+
+        index = BundleResourceIndex.getInstance(createSystemContext());
+    }
+
+    @Test
+    public void testEntriesAreRestoredOnNextLaunch() throws Exception {
+        // Set up
+        index.getEntry(mockBundle, "/com/foo/Bar.class");
+        when(mockSystemBundle.getBundleId()).thenReturn(0L);
+        index.bundleChanged(new BundleEvent(BundleEvent.STOPPING,
+                mockSystemBundle));
+        final Bundle mockRestartedBundle = mock(Bundle.class);
+        when(mockRestartedBundle.getBundleId()).thenReturn(BUNDLE_ID);
+        when(mockRestartedBundle.getLastModified()).thenReturn(LAST_MODIFIED);
+        when(mockRestartedBundle.getState()).thenReturn(Bundle.RESOLVED);
+        when(
+                mockRestartedBundle.findEntries("/com/foo/", "Bar.class",
+                        false)).thenReturn(
+                Collections.enumeration(Arrays.asList(classUrl)));
+        mockBundle = mockRestartedBundle;
+
+        // Invoke
+        final BundleResourceIndex restoredIndex = BundleResourceIndex
+                .getInstance(createSystemContext());
+        final Collection<URL> urls = restoredIndex.findEntries(
+                mockRestartedBundle, "/com/**/*.class");
+
+        // Check
+        assertEquals(Arrays.asList(classUrl), urls);
+        verify(mockRestartedBundle, never()).findEntries(OSGiUtils.ROOT_PATH,
+                "*", true);
+    }
+
+    @Test
+    public void testEntriesAreDiscardedWhenBundleIsUpdated() {
+        // Set up
+        index.getEntry(mockBundle, "/com/foo/Bar.class");
+        final BundleEvent event = new BundleEvent(BundleEvent.UPDATED,
+                mockBundle);
+
+        // Invoke
+        index.bundleChanged(event);
+        index.getEntry(mockBundle, "/com/foo/Bar.class");
+
+        // Check
+        verify(mockBundle, times(2)).findEntries(OSGiUtils.ROOT_PATH, "*",
+                true);
+    }
+
+    @Test
+    public void testEntriesAreEnumeratedOnlyOnce() {
+        // Invoke
+        index.getEntry(mockBundle, "/com/foo/Bar.class");
+        index.findEntries(mockBundle, "/META-INF/**/*.xml");
+
+        // Check
+        verify(mockBundle, times(1)).findEntries(OSGiUtils.ROOT_PATH, "*",
+                true);
+    }
+
+    @Test
+    public void testFindEntriesByPattern() {
+        // Invoke
+        final Collection<URL> urls = index.findEntries(mockBundle,
+                "/META-INF/spring/*.xml");
+
+        // Check
+        assertEquals(1, urls.size());
+        assertSame(xmlUrl, urls.iterator().next());
+    }
+
+    @Test
+    public void testGetEntry() {
+        assertSame(classUrl, index.getEntry(mockBundle, "/com/foo/Bar.class"));
+        assertSame(classUrl, index.getEntry(mockBundle, "com/foo/Bar.class"));
+        assertNull(index.getEntry(mockBundle, "/com/foo/Baz.class"));
+    }
+
+    @Test
+    public void testGetEntryDoesNotResolveAnInstalledBundle() {
+        // Set up
+        when(mockBundle.getState()).thenReturn(Bundle.INSTALLED);
+        when(mockBundle.getEntry("/com/foo/Bar.class")).thenReturn(classUrl);
+
+        // Invoke
+        final URL url = index.getEntry(mockBundle, "com/foo/Bar.class");
+
+        // Check
+        assertSame(classUrl, url);
+        verify(mockBundle, never()).findEntries(OSGiUtils.ROOT_PATH, "*", true);
+    }
+
+    @Test
+    public void testGetEntryIncludesFragmentEntries() {
+        // Set up; the host itself has no such entry
+        when(mockBundle.getEntry("/META-INF/spring/context.xml")).thenReturn(
+                null);
+
+        // Invoke
+        final URL url = index.getEntry(mockBundle,
+                "/META-INF/spring/context.xml");
+
+        // Check
+        assertSame(xmlUrl, url);
+    }
+
+    @Test
+    public void testGetLiteralPrefix() {
+        assertEquals("/META-INF/",
+                BundleResourceIndex.getLiteralPrefix("/META-INF/**/*.xml"));
+        assertEquals("/com/foo/Bar.class",
+                BundleResourceIndex.getLiteralPrefix("/com/foo/Bar.class"));
+        assertEquals("", BundleResourceIndex.getLiteralPrefix("**/*.xml"));
+    }
+
+    @Test
+    public void testRestoredFragmentEntryIsFound() throws Exception {
+        // Set up
+        index.getEntry(mockBundle, "/com/foo/Bar.class");
+        when(mockSystemBundle.getBundleId()).thenReturn(0L);
+        index.bundleChanged(new BundleEvent(BundleEvent.STOPPING,
+                mockSystemBundle));
+        final Bundle mockRestartedBundle = mock(Bundle.class);
+        when(mockRestartedBundle.getBundleId()).thenReturn(BUNDLE_ID);
+        when(mockRestartedBundle.getLastModified()).thenReturn(LAST_MODIFIED);
+        when(mockRestartedBundle.getState()).thenReturn(Bundle.RESOLVED);
+        // Only findEntries searches the host's fragments
+        when(
+                mockRestartedBundle.findEntries("/META-INF/spring/",
+                        "context.xml", false)).thenReturn(
+                Collections.enumeration(Arrays.asList(xmlUrl)));
+        mockBundle = mockRestartedBundle;
+
+        // Invoke
+        final URL url = BundleResourceIndex.getInstance(
+                createSystemContext()).getEntry(mockRestartedBundle,
+                "/META-INF/spring/context.xml");
+
+        // Check
+        assertSame(xmlUrl, url);
+        verify(mockRestartedBundle, never()).getEntry(
+                "/META-INF/spring/context.xml");
+    }
+}
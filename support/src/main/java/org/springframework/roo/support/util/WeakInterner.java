@@ -0,0 +1,48 @@
+package org.springframework.roo.support.util;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Canonicalises immutable values that are identified by a {@link String} key,
+ * so that equal values created from the same key share a single instance.
+ * <p>
+ * Instances are only weakly held, so that a canonical value that is no longer
+ * in use anywhere else can still be garbage collected. Subclasses create the
+ * value for a key that has not been seen (or has since been collected); the
+ * value must retain its key, e.g. as the name it was created from, so that
+ * the entry is kept for as long as the value is in use.
+ * 
+ * @since 1.2.5
+ * @param <T> the type of value being interned
+ */
+public abstract class WeakInterner<T> {
+
+    private final Map<String, WeakReference<T>> instances = new WeakHashMap<String, WeakReference<T>>();
+
+    /**
+     * Returns the canonical value for the given key, creating it if necessary
+     *
+     * @param key the key of the value (required)
+     * @return a non-<code>null</code> value
+     */
+    public synchronized T get(final String key) {
+        final WeakReference<T> reference = instances.get(key);
+        T instance = reference == null ? null : reference.get();
+        if (instance == null) {
+            instance = create(key);
+            instances.put(key, new WeakReference<T>(instance));
+        }
+        return instance;
+    }
+
+    /**
+     * Creates the value for the given key; only called when there is no
+     * canonical value for that key in use.
+     *
+     * @param key the key of the value (never <code>null</code>)
+     * @return a non-<code>null</code> value
+     */
+    protected abstract T create(String key);
+}
@@ -0,0 +1,44 @@
+package org.springframework.roo.support.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit test of {@link WeakInterner}
+ * 
+ * @since 1.2.5
+ */
+public class WeakInternerTest {
+
+    private int created;
+    private WeakInterner<StringBuilder> interner;
+
+    @Before
+    public void setUp() {
+        created = 0;
+        interner = new WeakInterner<StringBuilder>() {
+            @Override
+            protected StringBuilder create(final String key) {
+                created++;
+                return new StringBuilder(key);
+            }
+        };
+    }
+
+    @Test
+    public void testDifferentKeysGetDifferentInstances() {
+        assertNotSame(interner.get("a"), interner.get("b"));
+        assertEquals(2, created);
+    }
+
+    @Test
+    public void testSameKeyGetsSameInstance() {
+        final StringBuilder instance = interner.get("a");
+        assertSame(instance, interner.get(new String("a")));
+        assertEquals(1, created);
+    }
+}
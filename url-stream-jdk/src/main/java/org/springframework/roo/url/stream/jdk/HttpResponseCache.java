@@ -0,0 +1,209 @@
+package org.springframework.roo.url.stream.jdk;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.URL;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Properties;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * A simple on-disk cache of HTTP responses, used by
+ * {@link JdkUrlInputStreamService} to avoid downloading unchanged resources
+ * again.
+ * <p>
+ * Each entry consists of the gzip-compressed payload and a properties file
+ * holding the validators (ETag and Last-Modified) needed to revalidate it with
+ * a conditional GET. Both are written to temporary files and renamed into
+ * place, the validators last, so a partially downloaded resource is never
+ * served and never revalidated.
+ * 
+ * @since 1.2.5
+ */
+class HttpResponseCache {
+
+    /**
+     * The validators of a cached response.
+     */
+    static class Entry {
+        private final String eTag;
+        private final String lastModified;
+        private final File payload;
+
+        Entry(final File payload, final String eTag, final String lastModified) {
+            this.payload = payload;
+            this.eTag = eTag;
+            this.lastModified = lastModified;
+        }
+
+        String getETag() {
+            return eTag;
+        }
+
+        String getLastModified() {
+            return lastModified;
+        }
+
+        /**
+         * Opens the decompressed payload of this entry.
+         * 
+         * @return a new stream (never <code>null</code>)
+         * @throws IOException
+         */
+        InputStream open() throws IOException {
+            return new GZIPInputStream(new BufferedInputStream(
+                    new FileInputStream(payload)));
+        }
+    }
+
+    private static final String ETAG = "etag";
+    private static final String LAST_MODIFIED = "last-modified";
+    private static final String SOURCE_URL = "url";
+
+    private final File directory;
+
+    /**
+     * Constructor
+     * 
+     * @param directory the directory in which to keep the cached responses
+     *            (required; created on demand)
+     */
+    HttpResponseCache(final File directory) {
+        Validate.notNull(directory, "Cache directory required");
+        this.directory = directory;
+    }
+
+    /**
+     * Returns the cached response for the given URL.
+     * 
+     * @param url the URL to look up (required)
+     * @return <code>null</code> if there is no complete entry for this URL
+     */
+    Entry get(final URL url) {
+        final String key = getKey(url);
+        final File payload = new File(directory, key + ".gz");
+        final File metadata = new File(directory, key + ".properties");
+        if (!payload.isFile() || !metadata.isFile()) {
+            return null;
+        }
+
+        InputStream in = null;
+        try {
+            in = new FileInputStream(metadata);
+            final Properties properties = new Properties();
+            properties.load(in);
+            if (!url.toExternalForm().equals(
+                    properties.getProperty(SOURCE_URL))) {
+                return null;
+            }
+            return new Entry(payload, properties.getProperty(ETAG),
+                    properties.getProperty(LAST_MODIFIED));
+        }
+        catch (final IOException e) {
+            return null;
+        }
+        finally {
+            IOUtils.closeQuietly(in);
+        }
+    }
+
+    private String getKey(final URL url) {
+        try {
+            final byte[] digest = MessageDigest.getInstance("SHA-1").digest(
+                    url.toExternalForm().getBytes("UTF-8"));
+            final StringBuilder key = new StringBuilder(digest.length * 2);
+            for (final byte b : digest) {
+                key.append(Character.forDigit(b >> 4 & 0xF, 16));
+                key.append(Character.forDigit(b & 0xF, 16));
+            }
+            return key.toString();
+        }
+        catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        catch (final UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Stores the given response body, replacing any existing entry for the
+     * URL. The stream is read to the end but not closed.
+     * 
+     * @param url the URL the response belongs to (required)
+     * @param body the response body (required)
+     * @param eTag the ETag response header (may be blank)
+     * @param lastModified the Last-Modified response header (may be blank)
+     * @return the new entry
+     * @throws IOException if the body could not be read or stored
+     */
+    Entry put(final URL url, final InputStream body, final String eTag,
+            final String lastModified) throws IOException {
+        FileUtils.forceMkdir(directory);
+        final String key = getKey(url);
+        final File payload = new File(directory, key + ".gz");
+        final File metadata = new File(directory, key + ".properties");
+        final File tempPayload = File.createTempFile(key, ".tmp", directory);
+        final File tempMetadata = File.createTempFile(key, ".tmp", directory);
+
+        OutputStream out = null;
+        try {
+            out = new GZIPOutputStream(new BufferedOutputStream(
+                    new FileOutputStream(tempPayload)));
+            IOUtils.copy(body, out);
+            out.close();
+            out = null;
+
+            final Properties properties = new Properties();
+            properties.setProperty(SOURCE_URL, url.toExternalForm());
+            if (StringUtils.isNotBlank(eTag)) {
+                properties.setProperty(ETAG, eTag);
+            }
+            if (StringUtils.isNotBlank(lastModified)) {
+                properties.setProperty(LAST_MODIFIED, lastModified);
+            }
+            out = new FileOutputStream(tempMetadata);
+            properties.store(out, null);
+            out.close();
+            out = null;
+
+            // The old validators must not outlive the payload they describe,
+            // and the new ones must not be seen before their payload is
+            FileUtils.deleteQuietly(metadata);
+            FileUtils.deleteQuietly(payload);
+            rename(tempPayload, payload);
+            rename(tempMetadata, metadata);
+        }
+        catch (final IOException e) {
+            FileUtils.deleteQuietly(metadata);
+            throw e;
+        }
+        finally {
+            IOUtils.closeQuietly(out);
+            FileUtils.deleteQuietly(tempPayload);
+            FileUtils.deleteQuietly(tempMetadata);
+        }
+        return new Entry(payload, eTag, lastModified);
+    }
+
+    private void rename(final File from, final File to) throws IOException {
+        if (!from.renameTo(to)) {
+            throw new IOException("Unable to move '" + from + "' to '" + to
+                    + "'");
+        }
+    }
+}
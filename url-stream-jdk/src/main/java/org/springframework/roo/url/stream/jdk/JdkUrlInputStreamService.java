@@ -1,16 +1,22 @@
 package org.springframework.roo.url.stream.jdk;
 
+import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.util.logging.Level;
+import java.util.logging.Logger;
 
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
 import org.apache.felix.scr.annotations.Component;
 import org.apache.felix.scr.annotations.Reference;
 import org.apache.felix.scr.annotations.Service;
 import org.springframework.roo.shell.osgi.AbstractFlashingObject;
+import org.springframework.roo.support.logging.HandlerUtils;
 import org.springframework.roo.url.stream.UrlInputStreamService;
 import org.springframework.roo.url.stream.UrlInputStreamUtils;
 import org.springframework.uaa.client.ProxyService;
@@ -29,11 +35,12 @@ public class JdkUrlInputStreamService extends AbstractFlashingObject implements
 
     private class ProgressIndicatingInputStream extends InputStream {
         private final InputStream delegate;
+        private boolean finished;
         private long lastNotified;
         private int lastPercentageIndicated = -1;
-        private float readSoFar;
+        private long readSoFar;
         private String text;
-        private final float totalSize;
+        private final long totalSize;
 
         /**
          * Constructor
@@ -60,57 +67,111 @@ public class JdkUrlInputStreamService extends AbstractFlashingObject implements
             }
         }
 
+        @Override
+        public int available() throws IOException {
+            return delegate.available();
+        }
+
         @Override
         public void close() throws IOException {
             flash(Level.FINE, "", MY_SLOT);
             delegate.close();
         }
 
-        @Override
-        public int read() throws IOException {
-            readSoFar++;
+        private void finished() {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            if (totalSize > 0) {
+                flash(Level.FINE, "Downloaded 100% of " + text, MY_SLOT);
+            }
+            else {
+                flash(Level.FINE, "Downloaded " + readSoFar / 1024 + " kB of "
+                        + text, MY_SLOT);
+            }
+            flash(Level.FINE, "", MY_SLOT);
+        }
+
+        /**
+         * Accounts for the given number of bytes having been read, notifying
+         * the user at most once per second.
+         * 
+         * @param count the number of bytes just read
+         */
+        private void progress(final int count) {
+            readSoFar += count;
+            final long now = System.currentTimeMillis();
+            if (now <= lastNotified + 1000) {
+                return;
+            }
             if (totalSize > 0) {
                 // Total size is known
-                final int percentageDownloaded = Math.round(readSoFar
-                        / totalSize * 100);
-                if (System.currentTimeMillis() > lastNotified + 1000) {
-                    if (lastPercentageIndicated != percentageDownloaded) {
-                        flash(Level.FINE, "Downloaded " + percentageDownloaded
-                                + "% of " + text, MY_SLOT);
-                        lastPercentageIndicated = percentageDownloaded;
-                        lastNotified = System.currentTimeMillis();
-                    }
+                final int percentageDownloaded = (int) (readSoFar * 100
+                        / totalSize);
+                if (lastPercentageIndicated != percentageDownloaded) {
+                    flash(Level.FINE, "Downloaded " + percentageDownloaded
+                            + "% of " + text, MY_SLOT);
+                    lastPercentageIndicated = percentageDownloaded;
+                    lastNotified = now;
                 }
             }
             else {
                 // Total size is not known, rely on time-based updates instead
-                if (System.currentTimeMillis() > lastNotified + 1000) {
-                    flash(Level.FINE,
-                            "Downloaded " + Math.round(readSoFar / 1024)
-                                    + " kB of " + text, MY_SLOT);
-                    lastNotified = System.currentTimeMillis();
-                }
+                flash(Level.FINE, "Downloaded " + readSoFar / 1024 + " kB of "
+                        + text, MY_SLOT);
+                lastNotified = now;
             }
+        }
 
+        @Override
+        public int read() throws IOException {
             final int result = delegate.read();
             if (result == -1) {
-                if (totalSize > 0) {
-                    flash(Level.FINE, "Downloaded 100% of " + text, MY_SLOT);
-                }
-                else {
-                    flash(Level.FINE,
-                            "Downloaded " + Math.round(readSoFar / 1024)
-                                    + " kB of " + text, MY_SLOT);
-                }
-                flash(Level.FINE, "", MY_SLOT);
+                finished();
+            }
+            else {
+                progress(1);
             }
-
             return result;
         }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len)
+                throws IOException {
+            final int count = delegate.read(b, off, len);
+            if (count == -1) {
+                finished();
+            }
+            else {
+                progress(count);
+            }
+            return count;
+        }
     }
 
-    @Reference private ProxyService proxyService;
-    @Reference private UaaService uaaService;
+    private static final String CACHE_DIRECTORY = "cache" + File.separator
+            + "http";
+    private static final Logger LOGGER = HandlerUtils
+            .getLogger(JdkUrlInputStreamService.class);
+
+    @Reference ProxyService proxyService;
+    @Reference UaaService uaaService;
+
+    HttpResponseCache responseCache;
+
+    private synchronized HttpResponseCache getResponseCache() {
+        if (responseCache == null) {
+            String rooHome = System.getProperty("roo.home");
+            if (StringUtils.isBlank(rooHome)) {
+                rooHome = System.getProperty("user.home") + File.separator
+                        + ".spring-roo";
+            }
+            responseCache = new HttpResponseCache(new File(rooHome,
+                    CACHE_DIRECTORY));
+        }
+        return responseCache;
+    }
 
     public String getUrlCannotBeOpenedMessage(final URL httpUrl) {
         if (uaaService.isCommunicationRestricted(httpUrl)) {
@@ -123,6 +184,11 @@ public class JdkUrlInputStreamService extends AbstractFlashingObject implements
     }
 
     public InputStream openConnection(final URL httpUrl) throws IOException {
+        return openConnection(httpUrl, false);
+    }
+
+    public InputStream openConnection(final URL httpUrl, final boolean useCache)
+            throws IOException {
         Validate.notNull(httpUrl, "HTTP URL is required");
         Validate.isTrue(httpUrl.getProtocol().equals("http"),
                 "Only HTTP is supported (not %s)", httpUrl);
@@ -132,6 +198,66 @@ public class JdkUrlInputStreamService extends AbstractFlashingObject implements
                 UrlInputStreamUtils.SETUP_UAA_REQUIRED);
         final HttpURLConnection connection = proxyService
                 .prepareHttpUrlConnection(httpUrl);
-        return new ProgressIndicatingInputStream(connection);
+        if (!useCache) {
+            return new ProgressIndicatingInputStream(connection);
+        }
+
+        // Revalidate any cached copy rather than downloading it again
+        final HttpResponseCache cache = getResponseCache();
+        final HttpResponseCache.Entry cached = cache.get(httpUrl);
+        if (cached != null) {
+            if (cached.getETag() != null) {
+                connection.setRequestProperty("If-None-Match",
+                        cached.getETag());
+            }
+            if (cached.getLastModified() != null) {
+                connection.setRequestProperty("If-Modified-Since",
+                        cached.getLastModified());
+            }
+        }
+
+        final int responseCode;
+        try {
+            responseCode = connection.getResponseCode();
+        }
+        catch (final IOException e) {
+            if (cached == null) {
+                throw e;
+            }
+            // The server is unreachable, so the cached copy is the best we have
+            return cached.open();
+        }
+        if (responseCode == HttpURLConnection.HTTP_NOT_MODIFIED
+                && cached != null) {
+            connection.disconnect();
+            return cached.open();
+        }
+
+        final String eTag = connection.getHeaderField("ETag");
+        final String lastModified = connection.getHeaderField("Last-Modified");
+        if (responseCode != HttpURLConnection.HTTP_OK
+                || StringUtils.isBlank(eTag) && StringUtils.isBlank(lastModified)) {
+            // Nothing to revalidate against later, so don't cache it
+            return new ProgressIndicatingInputStream(connection);
+        }
+
+        // Cached responses are small (indexes and keys), so the body is read
+        // into memory first; failing to cache it must not fail the download
+        final byte[] body;
+        final InputStream in = new ProgressIndicatingInputStream(connection);
+        try {
+            body = IOUtils.toByteArray(in);
+        }
+        finally {
+            IOUtils.closeQuietly(in);
+        }
+        try {
+            cache.put(httpUrl, new ByteArrayInputStream(body), eTag,
+                    lastModified);
+        }
+        catch (final IOException e) {
+            LOGGER.fine("Unable to cache " + httpUrl + ": " + e.getMessage());
+        }
+        return new ByteArrayInputStream(body);
     }
 }
\ No newline at end of file
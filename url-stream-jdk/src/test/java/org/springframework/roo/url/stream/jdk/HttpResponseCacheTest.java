@@ -0,0 +1,125 @@
+package org.springframework.roo.url.stream.jdk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit test of {@link HttpResponseCache}
+ * 
+ * @since 1.2.5
+ */
+public class HttpResponseCacheTest {
+
+    private static final String BODY = "<xml>some content</xml>";
+    private static final String ETAG = "\"abc123\"";
+    private static final String LAST_MODIFIED = "Tue, 15 Nov 1994 12:45:26 GMT";
+
+    @Rule public TemporaryFolder storage = new TemporaryFolder();
+
+    // Fixture
+    private HttpResponseCache cache;
+    private File directory;
+    private URL url;
+
+    private HttpResponseCache.Entry put(final URL url, final String body,
+            final String eTag, final String lastModified) throws IOException {
+        return cache.put(url, new ByteArrayInputStream(body.getBytes("UTF-8")),
+                eTag, lastModified);
+    }
+
+    private String read(final HttpResponseCache.Entry entry)
+            throws IOException {
+        final InputStream in = entry.open();
+        try {
+            return IOUtils.toString(in, "UTF-8");
+        }
+        finally {
+            IOUtils.closeQuietly(in);
+        }
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        directory = new File(storage.getRoot(), "http");
+        cache = new HttpResponseCache(directory);
+        url = new URL("http://example.com/roobot.xml");
+    }
+
+    @Test
+    public void testGetAfterPutReturnsPayloadAndValidators() throws Exception {
+        // Set up
+        put(url, BODY, ETAG, LAST_MODIFIED);
+
+        // Invoke
+        final HttpResponseCache.Entry entry = cache.get(url);
+
+        // Check
+        assertEquals(ETAG, entry.getETag());
+        assertEquals(LAST_MODIFIED, entry.getLastModified());
+        assertEquals(BODY, read(entry));
+    }
+
+    @Test
+    public void testGetIgnoresPayloadWithoutValidators() throws Exception {
+        // Set up
+        put(url, BODY, ETAG, null);
+        for (final File file : directory.listFiles()) {
+            if (file.getName().endsWith(".properties")) {
+                file.delete();
+            }
+        }
+
+        // Invoke and check
+        assertNull(cache.get(url));
+    }
+
+    @Test
+    public void testGetOfUncachedUrlReturnsNull() throws Exception {
+        // Set up
+        put(url, BODY, ETAG, null);
+
+        // Invoke and check
+        assertNull(cache.get(new URL("http://example.com/other.xml")));
+    }
+
+    @Test
+    public void testGetWhenNothingCachedReturnsNull() {
+        assertNull(cache.get(url));
+    }
+
+    @Test
+    public void testPutLeavesNoTemporaryFiles() throws Exception {
+        // Invoke
+        put(url, BODY, ETAG, LAST_MODIFIED);
+
+        // Check
+        assertEquals(2, directory.listFiles().length);
+    }
+
+    @Test
+    public void testPutReplacesExistingEntry() throws Exception {
+        // Set up
+        put(url, "old", "\"old\"", LAST_MODIFIED);
+
+        // Invoke
+        put(url, BODY, ETAG, null);
+
+        // Check
+        final HttpResponseCache.Entry entry = cache.get(url);
+        assertEquals(ETAG, entry.getETag());
+        assertNull(entry.getLastModified());
+        assertEquals(BODY, read(entry));
+    }
+}
@@ -0,0 +1,156 @@
+package org.springframework.roo.url.stream.jdk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.uaa.client.ProxyService;
+import org.springframework.uaa.client.UaaService;
+
+/**
+ * Unit test of {@link JdkUrlInputStreamService}
+ * 
+ * @since 1.2.5
+ */
+public class JdkUrlInputStreamServiceTest {
+
+    private static final String BODY = "<xml>some content</xml>";
+    private static final String ETAG = "\"abc123\"";
+
+    @Mock private HttpURLConnection mockConnection;
+    @Mock private ProxyService mockProxyService;
+    @Mock private UaaService mockUaaService;
+    @Rule public TemporaryFolder storage = new TemporaryFolder();
+
+    // Fixture
+    private HttpResponseCache cache;
+    private JdkUrlInputStreamService service;
+    private URL url;
+
+    private String read(final InputStream in) throws IOException {
+        try {
+            return IOUtils.toString(in, "UTF-8");
+        }
+        finally {
+            IOUtils.closeQuietly(in);
+        }
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        url = new URL("http://example.com/roobot.xml");
+        cache = new HttpResponseCache(storage.getRoot());
+        service = new JdkUrlInputStreamService();
+        service.proxyService = mockProxyService;
+        service.responseCache = cache;
+        service.uaaService = mockUaaService;
+        when(mockProxyService.prepareHttpUrlConnection(url)).thenReturn(
+                mockConnection);
+        when(mockConnection.getURL()).thenReturn(url);
+    }
+
+    private void setUpResponse(final int responseCode, final String eTag)
+            throws Exception {
+        when(mockConnection.getResponseCode()).thenReturn(responseCode);
+        when(mockConnection.getHeaderField("ETag")).thenReturn(eTag);
+        when(mockConnection.getContentLength()).thenReturn(BODY.length());
+        when(mockConnection.getInputStream()).thenReturn(
+                new ByteArrayInputStream(BODY.getBytes("UTF-8")));
+    }
+
+    @Test
+    public void testCacheMissDownloadsAndCachesResponse() throws Exception {
+        // Set up
+        setUpResponse(HttpURLConnection.HTTP_OK, ETAG);
+
+        // Invoke
+        final String body = read(service.openConnection(url, true));
+
+        // Check
+        assertEquals(BODY, body);
+        verify(mockConnection, never()).setRequestProperty(
+                eq("If-None-Match"), anyString());
+        final HttpResponseCache.Entry entry = cache.get(url);
+        assertNotNull(entry);
+        assertEquals(ETAG, entry.getETag());
+    }
+
+    @Test
+    public void testCacheMissWithoutValidatorsIsNotCached() throws Exception {
+        // Set up
+        setUpResponse(HttpURLConnection.HTTP_OK, null);
+
+        // Invoke
+        final String body = read(service.openConnection(url, true));
+
+        // Check
+        assertEquals(BODY, body);
+        assertNull(cache.get(url));
+    }
+
+    @Test
+    public void testNotModifiedResponseServesCachedCopy() throws Exception {
+        // Set up
+        cache.put(url, new ByteArrayInputStream("cached".getBytes("UTF-8")),
+                ETAG, null);
+        setUpResponse(HttpURLConnection.HTTP_NOT_MODIFIED, null);
+
+        // Invoke
+        final String body = read(service.openConnection(url, true));
+
+        // Check
+        assertEquals("cached", body);
+        verify(mockConnection).setRequestProperty("If-None-Match", ETAG);
+        verify(mockConnection, never()).getInputStream();
+        verify(mockConnection).disconnect();
+    }
+
+    @Test
+    public void testUnwritableCacheDoesNotFailTheDownload() throws Exception {
+        // Set up; a file in place of the cache directory can't be written to
+        // even by root, unlike a read-only directory
+        service.responseCache = new HttpResponseCache(storage.newFile("http"));
+        setUpResponse(HttpURLConnection.HTTP_OK, ETAG);
+
+        // Invoke
+        final String body = read(service.openConnection(url, true));
+
+        // Check
+        assertEquals(BODY, body);
+        assertNull(service.responseCache.get(url));
+    }
+
+    @Test
+    public void testUnreachableServerServesCachedCopy() throws Exception {
+        // Set up
+        cache.put(url, new ByteArrayInputStream("cached".getBytes("UTF-8")),
+                ETAG, null);
+        when(mockConnection.getResponseCode()).thenThrow(
+                new IOException("Connection refused"));
+
+        // Invoke
+        final String body = read(service.openConnection(url, true));
+
+        // Check
+        assertEquals("cached", body);
+    }
+}
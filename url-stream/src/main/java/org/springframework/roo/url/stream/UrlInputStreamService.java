@@ -43,4 +43,18 @@ public interface UrlInputStreamService {
      * @return the input stream (implementation may not return null)
      */
     InputStream openConnection(URL httpUrl) throws IOException;
+
+    /**
+     * Opens an input stream to the specified connection, optionally serving
+     * the resource from a local cache. A cached resource is revalidated with
+     * the server before it is reused, so callers always see current content;
+     * if the server cannot be reached, the cached copy may be returned as is.
+     * 
+     * @param httpUrl to open (HTTP only, never HTTPS or another protocol)
+     * @param useCache whether the resource may be cached locally
+     * @return the input stream (implementation may not return null)
+     * @since 1.2.5
+     */
+    InputStream openConnection(URL httpUrl, boolean useCache)
+            throws IOException;
 }